@@ -1,6 +1,7 @@
 package com.mongoplus.annotation.collection;
 
 import com.mongoplus.enums.FieldFill;
+import com.mongoplus.enums.LikeStrategy;
 
 import java.lang.annotation.*;
 
@@ -52,4 +53,10 @@ public @interface CollectionField {
      */
     boolean isObjectId() default false;
 
+    /**
+     * like条件的构建策略，默认使用全局配置
+     * @author anwen
+     */
+    LikeStrategy likeStrategy() default LikeStrategy.DEFAULT;
+
 }
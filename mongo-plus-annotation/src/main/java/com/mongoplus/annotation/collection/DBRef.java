@@ -24,5 +24,29 @@ public @interface DBRef {
      * @author anwen
      */
     boolean autoConvertObjectId() default true;
+
+    /**
+     * 引用对象的实际类型，默认为字段类型，字段类型为接口时需要指定
+     * @return {@link Class}
+     * @author anwen
+     */
+    Class<?> targetClass() default Void.class;
+
+    /**
+     * 是否懒加载，字段类型为接口时写入代理对象，第一次调用方法时才查询，同一批结果中的引用一起查询
+     * <p>代理使用JDK动态代理，只支持接口类型的字段；字段类型是具体类时无法创建代理，
+     * 仍然在读取结果时批量查询，并打印一次警告日志</p>
+     * @return {@link boolean}
+     * @author anwen
+     */
+    boolean lazy() default false;
+
+    /**
+     * 最大引用深度，查询结果中的引用深度为1，引用对象中的引用深度为2，以此类推，超过时不再查询，字段为null
+     * <p>避免循环引用无限查询</p>
+     * @return {@link int}
+     * @author anwen
+     */
+    int maxDepth() default 8;
     
 }
@@ -0,0 +1,25 @@
+package com.mongoplus.annotation.collection;
+
+import java.lang.annotation.*;
+
+/**
+ * 查询结果缓存（二级缓存），标注在实体类上开启
+ * <p>以该实体为结果类型的list、one、getById等查询按(数据源, 集合, 租户, 条件, projection, 排序, skip, limit, 结果类型)缓存，
+ * 同一集合经过执行器的新增、修改、删除、批量操作会使缓存失效</p>
+ * <p>事务中的查询不使用缓存</p>
+ *
+ * @author anwen
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface QueryCache {
+
+    /**
+     * 缓存过期时间，单位毫秒
+     * @return {@link long}
+     * @author anwen
+     */
+    long ttl() default 60000;
+
+}
@@ -1,6 +1,7 @@
 package com.mongoplus.enums;
 
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * 执行器方法枚举
@@ -53,6 +54,14 @@ public enum ExecuteMethodEnum {
 
     private final String method;
 
+    private static final Map<String, ExecuteMethodEnum> METHOD_MAP = new HashMap<>();
+
+    static {
+        for (ExecuteMethodEnum executeMethodEnum : values()) {
+            METHOD_MAP.put(executeMethodEnum.getMethod(), executeMethodEnum);
+        }
+    }
+
     ExecuteMethodEnum(String method) {
         this.method = method;
     }
@@ -62,10 +71,7 @@ public enum ExecuteMethodEnum {
     }
 
     public static ExecuteMethodEnum getMethod(String method){
-        return Arrays.stream(ExecuteMethodEnum.values())
-                .filter(executeMethodEnumMethod -> executeMethodEnumMethod.getMethod().equals(method))
-                .findFirst()
-                .orElse(null);
+        return METHOD_MAP.get(method);
     }
 
 }
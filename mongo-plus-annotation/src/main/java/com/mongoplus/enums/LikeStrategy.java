@@ -0,0 +1,39 @@
+package com.mongoplus.enums;
+
+/**
+ * like条件（like、likeLeft、likeRight）的构建策略
+ * <p>不区分大小写的正则和不以^开头的正则无法有效使用索引，会退化为扫描整个索引或集合</p>
+ *
+ * @author anwen
+ */
+public enum LikeStrategy {
+
+    /**
+     * 字段上使用，表示使用全局配置
+     */
+    DEFAULT,
+
+    /**
+     * 不区分大小写的正则，原有的构建方式，无法有效使用索引
+     */
+    CASE_INSENSITIVE,
+
+    /**
+     * 区分大小写的正则，以^开头的前缀匹配可以使用索引
+     */
+    CASE_SENSITIVE,
+
+    /**
+     * 区分大小写，纯前缀匹配改写为范围条件（$gte、$lt），完全匹配改写为$eq，其他同{@link #CASE_SENSITIVE}
+     */
+    RANGE,
+
+    /**
+     * 不区分大小写，纯前缀匹配改写为范围条件，完全匹配改写为$eq，查询时使用配置的排序规则（collation），
+     * 需要存在相同排序规则的索引，未配置排序规则时使用集合默认的排序规则；其他匹配同{@link #CASE_INSENSITIVE}
+     * <p>注意：排序规则作用于整个查询，同一查询中其他字符串的等值、范围、$in等条件以及排序也会变为不区分大小写，
+     * 这类字段第一次出现时会打印警告；需要区分大小写时不要在同一查询中混用，或改用{@link #RANGE}</p>
+     */
+    COLLATION
+
+}
@@ -1,5 +1,8 @@
 package com.mongoplus.enums;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * 条件枚举
  * @author JiaChaoYang
@@ -86,6 +89,17 @@ public enum QueryOperatorEnum {
 
     ;
 
+    /**
+     * 条件和枚举的映射，避免每次遍历所有枚举
+     */
+    private static final Map<String, QueryOperatorEnum> QUERY_OPERATOR_MAP = new HashMap<>();
+
+    static {
+        for (QueryOperatorEnum queryOperatorEnum : values()) {
+            QUERY_OPERATOR_MAP.putIfAbsent(queryOperatorEnum.getValue(), queryOperatorEnum);
+        }
+    }
+
     private final String value;
 
     public String getValue() {
@@ -106,12 +120,7 @@ public enum QueryOperatorEnum {
     }
 
     public static QueryOperatorEnum getQueryOperator(String value){
-        for (QueryOperatorEnum queryOperatorEnum : QueryOperatorEnum.values()) {
-            if (queryOperatorEnum.getValue().equals(value)){
-                return queryOperatorEnum;
-            }
-        }
-        return null;
+        return value == null ? null : QUERY_OPERATOR_MAP.get(value);
     }
 
 }
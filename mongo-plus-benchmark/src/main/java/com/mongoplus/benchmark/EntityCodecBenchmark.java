@@ -0,0 +1,116 @@
+package com.mongoplus.benchmark;
+
+import com.mongodb.MongoClientSettings;
+import com.mongoplus.benchmark.entity.BenchmarkUser;
+import com.mongoplus.bson.EntityDocument;
+import com.mongoplus.cache.codec.EntityCodecCache;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.codecs.EntityCodec;
+import com.mongoplus.mapping.MappingMongoConverter;
+import com.mongoplus.mapping.MongoConverter;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体编解码器对比Document加反射转换的吞吐量
+ * <p>不连接数据库，只测量实体与BSON之间的转换，使用{@code -prof gc}可以同时得到每次操作的分配量</p>
+ * <ul>
+ *     <li>{@link #writeByDocument()} 先反射转换为{@link Document}，再由默认的Document编解码器编码</li>
+ *     <li>{@link #writeByCodec()} 返回{@link EntityDocument}，编码时直接从实体流式写入</li>
+ *     <li>{@link #readByDocument()} 先解码为{@link Document}，再反射转换为实体</li>
+ *     <li>{@link #readByCodec()} {@link EntityCodec}直接从BSON解码为实体</li>
+ * </ul>
+ *
+ * @author anwen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntityCodecBenchmark {
+
+    private static final EncoderContext ENCODER_CONTEXT = EncoderContext.builder()
+            .isEncodingCollectibleDocument(true).build();
+
+    private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+
+    private final MongoConverter mongoConverter = new MappingMongoConverter();
+
+    private final CodecRegistry defaultCodecRegistry = MongoClientSettings.getDefaultCodecRegistry();
+
+    private final CodecRegistry entityCodecRegistry =
+            EntityCodecCache.getCodecRegistry(defaultCodecRegistry, mongoConverter);
+
+    private final Codec<Document> documentCodec = defaultCodecRegistry.get(Document.class);
+
+    private final Codec<Document> entityDocumentCodec = entityCodecRegistry.get(Document.class);
+
+    private final Codec<BenchmarkUser> entityCodec = entityCodecRegistry.get(BenchmarkUser.class);
+
+    private BenchmarkUser user;
+
+    private RawBsonDocument rawBsonDocument;
+
+    @Setup
+    public void setup() {
+        user = new BenchmarkUser();
+        user.setId(new ObjectId().toHexString());
+        user.setUserName("anwen");
+        user.setAge(18);
+        user.setStatus(BenchmarkUser.Status.ENABLE);
+        user.setAddress(new BenchmarkUser.Address("beijing", "100000"));
+        user.setAddressList(Arrays.asList(new BenchmarkUser.Address("shanghai", "300000"),
+                new BenchmarkUser.Address("tianjin", "200000")));
+        user.setTags(Collections.singletonList("admin"));
+        PropertyCache.entityCodec = false;
+        rawBsonDocument = new RawBsonDocument(mongoConverter.writeBySave(user), documentCodec);
+    }
+
+    @Benchmark
+    public int writeByDocument() {
+        PropertyCache.entityCodec = false;
+        return encode(mongoConverter.writeBySave(user), documentCodec);
+    }
+
+    @Benchmark
+    public int writeByCodec() {
+        PropertyCache.entityCodec = true;
+        return encode(mongoConverter.writeBySave(user), entityDocumentCodec);
+    }
+
+    @Benchmark
+    public BenchmarkUser readByDocument() {
+        Document document = documentCodec.decode(new BsonBinaryReader(rawBsonDocument.getByteBuffer().asNIO()),
+                DECODER_CONTEXT);
+        return mongoConverter.read(document, BenchmarkUser.class);
+    }
+
+    @Benchmark
+    public BenchmarkUser readByCodec() {
+        return entityCodec.decode(new BsonBinaryReader(rawBsonDocument.getByteBuffer().asNIO()), DECODER_CONTEXT);
+    }
+
+    private static int encode(Document document, Codec<Document> codec) {
+        BasicOutputBuffer outputBuffer = new BasicOutputBuffer();
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(outputBuffer)) {
+            codec.encode(writer, document, ENCODER_CONTEXT);
+        }
+        return outputBuffer.getPosition();
+    }
+
+}
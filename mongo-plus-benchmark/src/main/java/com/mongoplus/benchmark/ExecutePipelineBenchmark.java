@@ -0,0 +1,95 @@
+package com.mongoplus.benchmark;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.CountOptions;
+import com.mongoplus.execute.Execute;
+import com.mongoplus.execute.ExecutorFactory;
+import com.mongoplus.execute.instance.DefaultExecute;
+import com.mongoplus.interceptor.AdvancedInterceptorChain;
+import com.mongoplus.interceptor.Interceptor;
+import com.mongoplus.interceptor.InterceptorChain;
+import com.mongoplus.model.MutablePair;
+import com.mongoplus.proxy.ExecutorProxy;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 执行器调用开销：缓存的执行器管道直接分发，对比每次调用都创建JDK动态代理并反射调用的旧方式
+ * <p>目标执行器不访问数据库，注册一个修改统计条件的普通拦截器，测量的是获取执行器和分发拦截器的开销</p>
+ * <ul>
+ *     <li>{@link #pipeline()} 当前的{@link ExecutorFactory#getExecute()}，管道构建一次，直接调用</li>
+ *     <li>{@link #proxyPerCall()} 旧的获取方式，每次调用创建{@link DefaultExecute}和两层代理，经过{@link ExecutorProxy}反射调用</li>
+ *     <li>{@link #proxyReused()} 复用旧方式创建的代理，只比较反射分发的开销</li>
+ * </ul>
+ *
+ * @author anwen
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutePipelineBenchmark {
+
+    private final MongoCollection<Document> collection = StubCollection.of("benchmark", "user");
+
+    private final BasicDBObject condition = new BasicDBObject("userName", "anwen");
+
+    private final CountOptions countOptions = new CountOptions();
+
+    private final ExecutorFactory factory = new ExecutorFactory() {
+        @Override
+        public Execute getDefaultExecute() {
+            return new NoopExecute();
+        }
+    };
+
+    private Execute reusedProxy;
+
+    @Setup
+    public void setup() {
+        InterceptorChain.addInterceptor(new Interceptor() {
+            @Override
+            public MutablePair<BasicDBObject, CountOptions> executeCount(BasicDBObject queryBasic,
+                                                                          CountOptions countOptions,
+                                                                          MongoCollection<Document> collection) {
+                return new MutablePair<>(queryBasic, countOptions);
+            }
+        });
+        reusedProxy = ExecutorProxy.wrap(AdvancedInterceptorChain.wrap(factory.getDefaultExecute()));
+    }
+
+    @Benchmark
+    public long pipeline() {
+        return factory.getExecute().executeCount(condition, countOptions, collection);
+    }
+
+    @Benchmark
+    public long proxyPerCall() {
+        Execute execute = ExecutorProxy.wrap(AdvancedInterceptorChain.wrap(factory.getDefaultExecute()));
+        return execute.executeCount(condition, countOptions, collection);
+    }
+
+    @Benchmark
+    public long proxyReused() {
+        return reusedProxy.executeCount(condition, countOptions, collection);
+    }
+
+    /**
+     * 不访问数据库的执行器，直接声明{@link Execute}接口，旧方式按实现类的接口创建代理
+     */
+    public static class NoopExecute extends DefaultExecute implements Execute {
+
+        @Override
+        public long executeCount(BasicDBObject queryBasic, CountOptions countOptions,
+                                 MongoCollection<Document> collection) {
+            return queryBasic.size();
+        }
+
+    }
+
+}
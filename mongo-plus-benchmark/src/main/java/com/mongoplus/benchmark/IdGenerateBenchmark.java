@@ -0,0 +1,83 @@
+package com.mongoplus.benchmark;
+
+import com.mongoplus.incrementer.id.IdWorker;
+import com.mongoplus.incrementer.id.ULID;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * id生成吞吐量，单线程对比64线程
+ * <p>雪花算法每毫秒最多4096个序列号，多线程时吞吐量的上限是每毫秒4096个，超过后等待下一毫秒；
+ * 对比的是CAS分配在竞争下是否还能接近这个上限，批量预留时一次CAS取得同一毫秒内的多个序列号</p>
+ * <ul>
+ *     <li>{@link #snowflake()} {@link IdWorker#getId()}</li>
+ *     <li>{@link #snowflakeBatch()} {@link IdWorker#getIds(int)}，每次{@value #BATCH_SIZE}个</li>
+ *     <li>{@link #ulid()} {@link IdWorker#nextULIDValue()}，同一毫秒内单调递增</li>
+ *     <li>{@link #ulidString()} {@link IdWorker#get26ULID()}，包含转换为字符串的开销</li>
+ * </ul>
+ * <p>方法名以64结尾的使用64个线程</p>
+ *
+ * @author anwen
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGenerateBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Benchmark
+    @Threads(1)
+    public long snowflake() {
+        return IdWorker.getId();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long snowflake64() {
+        return IdWorker.getId();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] snowflakeBatch() {
+        return IdWorker.getIds(BATCH_SIZE);
+    }
+
+    @Benchmark
+    @Threads(64)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] snowflakeBatch64() {
+        return IdWorker.getIds(BATCH_SIZE);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ULID.Value ulid() {
+        return IdWorker.nextULIDValue();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public ULID.Value ulid64() {
+        return IdWorker.nextULIDValue();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String ulidString() {
+        return IdWorker.get26ULID();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public String ulidString64() {
+        return IdWorker.get26ULID();
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.mongoplus.benchmark;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import java.lang.reflect.Proxy;
+
+import static com.mongodb.MongoClientSettings.getDefaultCodecRegistry;
+
+/**
+ * 不连接数据库的集合，只提供命名空间和编解码器，基准测试只测量框架自身的开销
+ *
+ * @author anwen
+ */
+public class StubCollection {
+
+    private StubCollection() {
+    }
+
+    /**
+     * 创建集合
+     * @param database 数据库
+     * @param collectionName 集合名
+     * @return {@link com.mongodb.client.MongoCollection<org.bson.Document>}
+     * @author anwen
+     */
+    @SuppressWarnings("unchecked")
+    public static MongoCollection<Document> of(String database, String collectionName) {
+        MongoNamespace namespace = new MongoNamespace(database, collectionName);
+        CodecRegistry codecRegistry = getDefaultCodecRegistry();
+        return (MongoCollection<Document>) Proxy.newProxyInstance(
+                StubCollection.class.getClassLoader(),
+                new Class<?>[]{MongoCollection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getNamespace":
+                            return namespace;
+                        case "getCodecRegistry":
+                            return codecRegistry;
+                        case "getDocumentClass":
+                            return Document.class;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "StubCollection{" + namespace + "}";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                }
+        );
+    }
+
+}
@@ -0,0 +1,177 @@
+package com.mongoplus.benchmark.entity;
+
+import com.mongoplus.annotation.ID;
+import com.mongoplus.annotation.collection.CollectionField;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 基准测试和编解码测试使用的实体，包含_id、枚举、嵌套实体、嵌套实体集合和重命名的字段
+ *
+ * @author anwen
+ */
+public class BenchmarkUser {
+
+    @ID
+    private String id;
+
+    @CollectionField("user_name")
+    private String userName;
+
+    private Integer age;
+
+    private Status status;
+
+    private Address address;
+
+    @CollectionField("address_list")
+    private List<Address> addressList;
+
+    private List<String> tags;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Address getAddress() {
+        return address;
+    }
+
+    public void setAddress(Address address) {
+        this.address = address;
+    }
+
+    public List<Address> getAddressList() {
+        return addressList;
+    }
+
+    public void setAddressList(List<Address> addressList) {
+        this.addressList = addressList;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BenchmarkUser that = (BenchmarkUser) o;
+        return Objects.equals(id, that.id) && Objects.equals(userName, that.userName)
+                && Objects.equals(age, that.age) && status == that.status
+                && Objects.equals(address, that.address) && Objects.equals(addressList, that.addressList)
+                && Objects.equals(tags, that.tags);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, userName, age, status, address, addressList, tags);
+    }
+
+    @Override
+    public String toString() {
+        return "BenchmarkUser{" +
+                "id='" + id + '\'' +
+                ", userName='" + userName + '\'' +
+                ", age=" + age +
+                ", status=" + status +
+                ", address=" + address +
+                ", addressList=" + addressList +
+                ", tags=" + tags +
+                '}';
+    }
+
+    public enum Status {
+
+        ENABLE,
+
+        DISABLE
+
+    }
+
+    public static class Address {
+
+        private String city;
+
+        @CollectionField("zip_code")
+        private String zipCode;
+
+        public Address() {
+        }
+
+        public Address(String city, String zipCode) {
+            this.city = city;
+            this.zipCode = zipCode;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public void setCity(String city) {
+            this.city = city;
+        }
+
+        public String getZipCode() {
+            return zipCode;
+        }
+
+        public void setZipCode(String zipCode) {
+            this.zipCode = zipCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Address address = (Address) o;
+            return Objects.equals(city, address.city) && Objects.equals(zipCode, address.zipCode);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(city, zipCode);
+        }
+
+        @Override
+        public String toString() {
+            return "Address{city='" + city + "', zipCode='" + zipCode + "'}";
+        }
+
+    }
+
+}
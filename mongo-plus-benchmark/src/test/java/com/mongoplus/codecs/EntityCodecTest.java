@@ -0,0 +1,169 @@
+package com.mongoplus.codecs;
+
+import com.mongodb.MongoClientSettings;
+import com.mongoplus.benchmark.entity.BenchmarkUser;
+import com.mongoplus.bson.EntityDocument;
+import com.mongoplus.cache.codec.EntityCodecCache;
+import com.mongoplus.cache.global.HandlerCache;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.incrementer.id.AbstractIdGenerateHandler;
+import com.mongoplus.mapping.MappingMongoConverter;
+import com.mongoplus.mapping.MongoConverter;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * 实体编解码器与Document加反射转换的结果一致
+ * <p>写入时比较{@link EntityDocument}流式编码和先转换为Document再编码得到的BSON，读取时比较{@link EntityCodec}
+ * 直接解码和先解码为Document再转换得到的实体</p>
+ *
+ * @author anwen
+ */
+public class EntityCodecTest {
+
+    private static final EncoderContext ENCODER_CONTEXT = EncoderContext.builder()
+            .isEncodingCollectibleDocument(true).build();
+
+    private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+
+    private final Boolean entityCodec = PropertyCache.entityCodec;
+
+    private final MongoConverter mongoConverter = new MappingMongoConverter();
+
+    private final CodecRegistry defaultCodecRegistry = MongoClientSettings.getDefaultCodecRegistry();
+
+    private final CodecRegistry entityCodecRegistry =
+            EntityCodecCache.getCodecRegistry(defaultCodecRegistry, mongoConverter);
+
+    @BeforeEach
+    public void setup() {
+        // ObjectId类型的_id不需要访问数据库
+        if (HandlerCache.idGenerateHandler == null) {
+            HandlerCache.idGenerateHandler = new AbstractIdGenerateHandler(null) {
+            };
+        }
+    }
+
+    @AfterEach
+    public void reset() {
+        PropertyCache.entityCodec = entityCodec;
+    }
+
+    @Test
+    public void writeSameBson() {
+        BenchmarkUser user = user(new ObjectId().toHexString());
+        Assertions.assertEquals(writeByDocument(user), writeByCodec(user));
+    }
+
+    @Test
+    public void writeRenamedAndNestedFields() {
+        BenchmarkUser user = user(new ObjectId().toHexString());
+        BsonDocument bsonDocument = writeByCodec(user);
+        Assertions.assertEquals(new ObjectId(user.getId()), bsonDocument.getObjectId("_id").getValue());
+        Assertions.assertEquals("anwen", bsonDocument.getString("user_name").getValue());
+        Assertions.assertFalse(bsonDocument.containsKey("userName"));
+        Assertions.assertEquals("ENABLE", bsonDocument.getString("status").getValue());
+        Assertions.assertEquals("100000", bsonDocument.getDocument("address").getString("zip_code").getValue());
+        Assertions.assertEquals(2, bsonDocument.getArray("address_list").size());
+        Assertions.assertEquals("200000",
+                bsonDocument.getArray("address_list").get(1).asDocument().getString("zip_code").getValue());
+    }
+
+    @Test
+    public void writeGeneratedId() {
+        BenchmarkUser user = user(null);
+        PropertyCache.entityCodec = true;
+        Document document = mongoConverter.writeBySave(user);
+        Assertions.assertTrue(document instanceof EntityDocument);
+        BsonDocument bsonDocument = encode(document, entityCodecRegistry);
+        Assertions.assertTrue(bsonDocument.isObjectId("_id"));
+        // 与保存流程一致，写入成功后回填_id
+        mongoConverter.reSetIdValue(user, document);
+        Assertions.assertEquals(bsonDocument.getObjectId("_id").getValue().toHexString(), user.getId());
+    }
+
+    @Test
+    public void readSameEntity() {
+        BenchmarkUser user = user(new ObjectId().toHexString());
+        BsonDocument bsonDocument = writeByDocument(user);
+        BenchmarkUser byDocument = readByDocument(bsonDocument);
+        BenchmarkUser byCodec = readByCodec(bsonDocument);
+        Assertions.assertEquals(user, byDocument);
+        Assertions.assertEquals(byDocument, byCodec);
+    }
+
+    @Test
+    public void readMissingAndUnknownFields() {
+        BsonDocument bsonDocument = BsonDocument.parse("{_id: {$oid: '" + new ObjectId().toHexString() + "'}, "
+                + "user_name: 'anwen', unknown: {a: [1, 2]}, address: null}");
+        BenchmarkUser byCodec = readByCodec(bsonDocument);
+        Assertions.assertEquals(readByDocument(bsonDocument), byCodec);
+        Assertions.assertEquals("anwen", byCodec.getUserName());
+        Assertions.assertNull(byCodec.getAddress());
+        Assertions.assertNull(byCodec.getStatus());
+    }
+
+    @Test
+    public void roundTrip() {
+        BenchmarkUser user = user(new ObjectId().toHexString());
+        Assertions.assertEquals(user, readByCodec(writeByCodec(user)));
+    }
+
+    private BsonDocument writeByDocument(BenchmarkUser user) {
+        PropertyCache.entityCodec = false;
+        Document document = mongoConverter.writeBySave(user);
+        Assertions.assertFalse(document instanceof EntityDocument);
+        return encode(document, defaultCodecRegistry);
+    }
+
+    private BsonDocument writeByCodec(BenchmarkUser user) {
+        PropertyCache.entityCodec = true;
+        Document document = mongoConverter.writeBySave(user);
+        Assertions.assertTrue(document instanceof EntityDocument);
+        return encode(document, entityCodecRegistry);
+    }
+
+    private BenchmarkUser readByDocument(BsonDocument bsonDocument) {
+        Document document = defaultCodecRegistry.get(Document.class)
+                .decode(new BsonDocumentReader(bsonDocument), DECODER_CONTEXT);
+        return mongoConverter.read(document, BenchmarkUser.class);
+    }
+
+    private BenchmarkUser readByCodec(BsonDocument bsonDocument) {
+        return entityCodecRegistry.get(BenchmarkUser.class)
+                .decode(new BsonDocumentReader(bsonDocument), DECODER_CONTEXT);
+    }
+
+    private static BsonDocument encode(Document document, CodecRegistry codecRegistry) {
+        BsonDocument bsonDocument = new BsonDocument();
+        codecRegistry.get(Document.class).encode(new BsonDocumentWriter(bsonDocument), document, ENCODER_CONTEXT);
+        return bsonDocument;
+    }
+
+    private static BenchmarkUser user(String id) {
+        BenchmarkUser user = new BenchmarkUser();
+        user.setId(id);
+        user.setUserName("anwen");
+        user.setAge(18);
+        user.setStatus(BenchmarkUser.Status.ENABLE);
+        user.setAddress(new BenchmarkUser.Address("beijing", "100000"));
+        user.setAddressList(Arrays.asList(new BenchmarkUser.Address("shanghai", "300000"),
+                new BenchmarkUser.Address("tianjin", "200000")));
+        user.setTags(Collections.singletonList("admin"));
+        return user;
+    }
+
+}
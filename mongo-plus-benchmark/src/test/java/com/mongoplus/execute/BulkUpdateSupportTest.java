@@ -0,0 +1,222 @@
+package com.mongoplus.execute;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.UpdateResult;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.model.MutablePair;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 合并为bulkWrite的更新与逐个updateMany的结果一致
+ * <p>使用内存集合模拟updateMany和bulkWrite，两种方式从相同的数据开始，比较每个条件的matchedCount、modifiedCount、
+ * upsertedId，合并后的{@link UpdateResult}以及最终的数据</p>
+ *
+ * @author anwen
+ */
+public class BulkUpdateSupportTest {
+
+    private final Integer updateBatchSize = PropertyCache.updateBatchSize;
+
+    @AfterEach
+    public void reset() {
+        PropertyCache.updateBatchSize = updateBatchSize;
+    }
+
+    @Test
+    public void sameCountsWithoutUpsert() {
+        assertSameResult(pairs(false), new UpdateOptions());
+    }
+
+    @Test
+    public void lastUpsertedIdIsNullWhenLastPairMatched() {
+        UpdateResult updateResult = assertSameResult(pairs(false), new UpdateOptions().upsert(true));
+        Assertions.assertNull(updateResult.getUpsertedId());
+    }
+
+    @Test
+    public void lastUpsertedIdWhenLastPairUpserted() {
+        UpdateResult updateResult = assertSameResult(pairs(true), new UpdateOptions().upsert(true));
+        Assertions.assertNotNull(updateResult.getUpsertedId());
+    }
+
+    @Test
+    public void sameCountsAcrossBatches() {
+        PropertyCache.updateBatchSize = 2;
+        MemoryCollection bulkCollection = new MemoryCollection();
+        List<MutablePair<Bson, Bson>> bsonPairList = pairs(true);
+        assertSameResult(bsonPairList, new UpdateOptions().upsert(true), bulkCollection);
+        Assertions.assertEquals((bsonPairList.size() + 1) / 2, bulkCollection.bulkWriteCount);
+    }
+
+    @Test
+    public void singlePairUsesUpdateMany() {
+        MemoryCollection bulkCollection = new MemoryCollection();
+        assertSameResult(pairs(false).subList(0, 1), new UpdateOptions(), bulkCollection);
+        Assertions.assertEquals(0, bulkCollection.bulkWriteCount);
+    }
+
+    /**
+     * 依次为：匹配多条、匹配但不修改、不匹配（upsert时插入）、匹配单条，lastUpsert为true时最后追加一个不匹配的条件
+     */
+    private static List<MutablePair<Bson, Bson>> pairs(boolean lastUpsert) {
+        List<MutablePair<Bson, Bson>> bsonPairList = new ArrayList<>();
+        bsonPairList.add(pair("category", "a", "status", 1));
+        bsonPairList.add(pair("category", "b", "status", 0));
+        bsonPairList.add(pair("category", "x", "status", 2));
+        bsonPairList.add(pair("name", "c1", "status", 3));
+        if (lastUpsert) {
+            bsonPairList.add(pair("category", "y", "status", 4));
+        }
+        return bsonPairList;
+    }
+
+    private static MutablePair<Bson, Bson> pair(String key, Object value, String setKey, Object setValue) {
+        return new MutablePair<>(new BasicDBObject(key, new BasicDBObject("$eq", value)),
+                new BasicDBObject("$set", new BasicDBObject(setKey, setValue)));
+    }
+
+    private static UpdateResult assertSameResult(List<MutablePair<Bson, Bson>> bsonPairList, UpdateOptions options) {
+        return assertSameResult(bsonPairList, options, new MemoryCollection());
+    }
+
+    private static UpdateResult assertSameResult(List<MutablePair<Bson, Bson>> bsonPairList, UpdateOptions options,
+                                                 MemoryCollection bulkCollection) {
+        // 合并前的实现：逐个updateMany，累加数量，upsertedId为最后一个条件的
+        MemoryCollection pairCollection = new MemoryCollection();
+        long matchedCount = 0;
+        long modifiedCount = 0;
+        BsonValue upsertedId = null;
+        for (MutablePair<Bson, Bson> bsonPair : bsonPairList) {
+            UpdateResult updateResult = pairCollection.updateMany(bsonPair.getLeft(), bsonPair.getRight(),
+                    options.isUpsert());
+            matchedCount += updateResult.getMatchedCount();
+            modifiedCount += updateResult.getModifiedCount();
+            upsertedId = updateResult.getUpsertedId();
+        }
+        UpdateResult expected = UpdateResult.acknowledged(matchedCount, modifiedCount, upsertedId);
+
+        UpdateResult actual = BulkUpdateSupport.executeUpdate(bsonPairList, options,
+                (filter, update) -> bulkCollection.updateMany(filter, update, options.isUpsert()),
+                bulkCollection::bulkWrite);
+
+        Assertions.assertEquals(expected, actual);
+        Assertions.assertEquals(pairCollection.rowResults, bulkCollection.rowResults);
+        Assertions.assertEquals(pairCollection.documents, bulkCollection.documents);
+        return actual;
+    }
+
+    /**
+     * 只支持$eq条件和$set更新的内存集合
+     */
+    private static final class MemoryCollection {
+
+        private final List<BsonDocument> documents = new ArrayList<>();
+
+        /**
+         * 每个条件的结果
+         */
+        private final List<UpdateResult> rowResults = new ArrayList<>();
+
+        private long nextId = 1;
+
+        private int bulkWriteCount;
+
+        private MemoryCollection() {
+            documents.add(document("a1", "a", 0));
+            documents.add(document("a2", "a", 0));
+            documents.add(document("a3", "a", 1));
+            documents.add(document("b1", "b", 0));
+            documents.add(document("c1", "c", 0));
+        }
+
+        private BsonDocument document(String name, String category, int status) {
+            return BsonDocument.parse("{name: '" + name + "', category: '" + category + "', status: " + status + "}")
+                    .append("_id", new BsonInt64(nextId++));
+        }
+
+        private UpdateResult updateMany(Bson filter, Bson update, boolean upsert) {
+            BsonDocument filterDocument = filter.toBsonDocument();
+            BsonDocument setDocument = update.toBsonDocument().getDocument("$set");
+            long matchedCount = 0;
+            long modifiedCount = 0;
+            for (BsonDocument document : documents) {
+                if (!matches(document, filterDocument)) {
+                    continue;
+                }
+                matchedCount++;
+                boolean modified = false;
+                for (Map.Entry<String, BsonValue> entry : setDocument.entrySet()) {
+                    if (!Objects.equals(document.get(entry.getKey()), entry.getValue())) {
+                        document.put(entry.getKey(), entry.getValue());
+                        modified = true;
+                    }
+                }
+                if (modified) {
+                    modifiedCount++;
+                }
+            }
+            BsonValue upsertedId = null;
+            if (matchedCount == 0 && upsert) {
+                BsonDocument document = new BsonDocument();
+                filterDocument.forEach((key, value) -> document.put(key, value.asDocument().get("$eq")));
+                document.putAll(setDocument);
+                upsertedId = new BsonInt64(nextId++);
+                document.put("_id", upsertedId);
+                documents.add(document);
+            }
+            UpdateResult updateResult = UpdateResult.acknowledged(matchedCount, modifiedCount, upsertedId);
+            rowResults.add(updateResult);
+            return updateResult;
+        }
+
+        private BulkWriteResult bulkWrite(List<WriteModel<Document>> writeModelList,
+                                          BulkWriteOptions bulkWriteOptions) {
+            bulkWriteCount++;
+            int matchedCount = 0;
+            int modifiedCount = 0;
+            List<BulkWriteUpsert> upserts = new ArrayList<>();
+            for (int i = 0; i < writeModelList.size(); i++) {
+                UpdateManyModel<Document> model = (UpdateManyModel<Document>) writeModelList.get(i);
+                UpdateResult updateResult = updateMany(model.getFilter(), model.getUpdate(),
+                        model.getOptions().isUpsert());
+                matchedCount += (int) updateResult.getMatchedCount();
+                modifiedCount += (int) updateResult.getModifiedCount();
+                if (updateResult.getUpsertedId() != null) {
+                    upserts.add(new BulkWriteUpsert(i, updateResult.getUpsertedId()));
+                }
+            }
+            return BulkWriteResult.acknowledged(0, matchedCount, 0, modifiedCount, upserts,
+                    Collections.emptyList());
+        }
+
+        private static boolean matches(BsonDocument document, BsonDocument filterDocument) {
+            for (Map.Entry<String, BsonValue> entry : filterDocument.entrySet()) {
+                if (!Objects.equals(document.get(entry.getKey()), entry.getValue().asDocument().get("$eq"))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,212 @@
+package com.mongoplus.incrementer.id;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * {@link IdWorker}的雪花算法id、批量预留和ULID
+ * <p>多线程时所有线程同时开始，每个线程内的id递增，所有线程的id不重复</p>
+ *
+ * @author anwen
+ */
+public class IdWorkerTest {
+
+    private static final int THREADS = 64;
+
+    private static final int PER_THREAD = 2000;
+
+    @Test
+    public void uniqueIdsUnderConcurrency() throws Exception {
+        List<long[]> results = concurrently(() -> {
+            long[] ids = new long[PER_THREAD];
+            for (int i = 0; i < PER_THREAD; i++) {
+                ids[i] = IdWorker.getId();
+            }
+            return ids;
+        });
+        assertUniqueAndIncreasing(results);
+    }
+
+    @Test
+    public void uniqueBatchIdsUnderConcurrency() throws Exception {
+        List<long[]> results = concurrently(() -> {
+            long[] ids = new long[PER_THREAD];
+            for (int i = 0; i < PER_THREAD; i += 100) {
+                System.arraycopy(IdWorker.getIds(100), 0, ids, i, 100);
+            }
+            return ids;
+        });
+        assertUniqueAndIncreasing(results);
+    }
+
+    @Test
+    public void batchIdsSpanMilliseconds() {
+        // 超过一毫秒内4096个序列号，需要在下一毫秒继续预留
+        long[] ids = IdWorker.getIds(10000);
+        Assertions.assertEquals(10000, ids.length);
+        assertUniqueAndIncreasing(ids);
+        Assertions.assertTrue(Sequence.parseIdTimestamp(ids[ids.length - 1]) > Sequence.parseIdTimestamp(ids[0]));
+    }
+
+    @Test
+    public void reserveServesReservedIds() {
+        List<Long> ids = new ArrayList<>();
+        long[] otherThreadId = new long[1];
+        IdWorker.reserve(5, () -> {
+            ids.add(IdWorker.getId());
+            // 其他线程不使用当前线程预留的id，拿到的id在预留的id之后
+            Thread thread = new Thread(() -> otherThreadId[0] = IdWorker.getId());
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            for (int i = 1; i < 5; i++) {
+                ids.add(IdWorker.getId());
+            }
+            // 预留的id用完后继续生成
+            ids.add(IdWorker.getId());
+        });
+        Assertions.assertEquals(6, new HashSet<>(ids).size());
+        for (int i = 1; i < 5; i++) {
+            Assertions.assertTrue(ids.get(i) > ids.get(i - 1));
+            Assertions.assertTrue(ids.get(i) < otherThreadId[0]);
+        }
+        Assertions.assertTrue(ids.get(5) > otherThreadId[0]);
+    }
+
+    @Test
+    public void nestedReserveKeepsOuterReservation() {
+        List<Long> ids = new ArrayList<>();
+        long[] otherThreadId = new long[1];
+        IdWorker.reserve(4, () -> {
+            ids.add(IdWorker.getId());
+            Thread thread = new Thread(() -> otherThreadId[0] = IdWorker.getId());
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            // 嵌套时不再预留，继续使用外层预留的id，结束后也不清除外层的预留
+            IdWorker.reserve(2, () -> ids.add(IdWorker.getId()));
+            ids.add(IdWorker.getId());
+        });
+        Assertions.assertEquals(3, ids.size());
+        for (long id : ids) {
+            Assertions.assertTrue(id < otherThreadId[0]);
+        }
+    }
+
+    @Test
+    public void reservedIdsAreReleasedAfterTask() throws Exception {
+        Assertions.assertThrows(IllegalStateException.class, () -> IdWorker.reserve(10, () -> {
+            IdWorker.getId();
+            throw new IllegalStateException();
+        }));
+        // 任务异常结束后不再使用剩余的预留id，新id在其他线程之后生成的id之后
+        long[] otherThreadId = new long[1];
+        Thread thread = new Thread(() -> otherThreadId[0] = IdWorker.getId());
+        thread.start();
+        thread.join();
+        Assertions.assertTrue(IdWorker.getId() > otherThreadId[0]);
+    }
+
+    @Test
+    public void ulidMonotonicWithinMillisecond() {
+        ULID.Value previous = IdWorker.nextULIDValue();
+        int sameMillisecond = 0;
+        for (int i = 0; i < 100000; i++) {
+            ULID.Value next = IdWorker.nextULIDValue();
+            Assertions.assertTrue(next.compareTo(previous) > 0, previous + " >= " + next);
+            Assertions.assertTrue(next.toString().compareTo(previous.toString()) > 0);
+            if (next.timestamp() == previous.timestamp()) {
+                sameMillisecond++;
+            }
+            previous = next;
+        }
+        Assertions.assertTrue(sameMillisecond > 0);
+    }
+
+    @Test
+    public void ulidUniqueUnderConcurrency() throws Exception {
+        List<ULID.Value[]> results = concurrently(() -> {
+            ULID.Value[] values = new ULID.Value[PER_THREAD];
+            for (int i = 0; i < PER_THREAD; i++) {
+                values[i] = IdWorker.nextULIDValue();
+            }
+            return values;
+        });
+        Set<ULID.Value> all = new HashSet<>();
+        for (ULID.Value[] values : results) {
+            for (int i = 0; i < values.length; i++) {
+                Assertions.assertTrue(all.add(values[i]), "duplicate ulid " + values[i]);
+                if (i > 0) {
+                    Assertions.assertTrue(values[i].compareTo(values[i - 1]) > 0);
+                }
+            }
+        }
+        Assertions.assertEquals(THREADS * PER_THREAD, all.size());
+    }
+
+    @Test
+    public void ulidString() {
+        String ulid = IdWorker.get26ULID();
+        Assertions.assertEquals(26, ulid.length());
+        Assertions.assertEquals(ulid, ULID.parseULID(ulid).toString());
+    }
+
+    private static <T> List<T> concurrently(Callable<T> task) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executorService.submit(() -> {
+                    ready.countDown();
+                    start.await();
+                    return task.call();
+                }));
+            }
+            ready.await();
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static void assertUniqueAndIncreasing(List<long[]> results) {
+        Set<Long> all = new HashSet<>();
+        for (long[] ids : results) {
+            assertUniqueAndIncreasing(ids);
+            for (long id : ids) {
+                Assertions.assertTrue(all.add(id), "duplicate id " + id);
+            }
+        }
+        Assertions.assertEquals(THREADS * PER_THREAD, all.size());
+    }
+
+    private static void assertUniqueAndIncreasing(long[] ids) {
+        for (int i = 1; i < ids.length; i++) {
+            Assertions.assertTrue(ids[i] > ids[i - 1], ids[i - 1] + " >= " + ids[i]);
+        }
+    }
+
+}
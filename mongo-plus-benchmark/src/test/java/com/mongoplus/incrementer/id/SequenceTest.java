@@ -0,0 +1,103 @@
+package com.mongoplus.incrementer.id;
+
+import com.mongoplus.domain.MongoPlusWriteException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link Sequence}的id组成、序列号用完和时钟回拨，时钟由测试控制
+ *
+ * @author anwen
+ */
+public class SequenceTest {
+
+    private static final long NOW = 1700000000000L;
+
+    @Test
+    public void rejectInvalidWorkerId() {
+        Assertions.assertThrows(MongoPlusWriteException.class, () -> new Sequence(32, 0));
+        Assertions.assertThrows(MongoPlusWriteException.class, () -> new Sequence(0, 32));
+        Assertions.assertThrows(MongoPlusWriteException.class, () -> new Sequence(-1, 0));
+    }
+
+    @Test
+    public void idContainsTimestampAndWorkerId() {
+        ManualSequence sequence = new ManualSequence(7, 21);
+        long id = sequence.nextId();
+        Assertions.assertEquals(NOW, Sequence.parseIdTimestamp(id));
+        Assertions.assertEquals(7, (id >> 12) & 31);
+        Assertions.assertEquals(21, (id >> 17) & 31);
+    }
+
+    @Test
+    public void nextMillisecondWhenSequenceExhausted() {
+        ManualSequence sequence = new ManualSequence(1, 1);
+        long previous = sequence.nextId();
+        for (int i = 0; i < 5000; i++) {
+            long id = sequence.nextId();
+            Assertions.assertTrue(id > previous);
+            previous = id;
+        }
+        Assertions.assertEquals(NOW + 1, Sequence.parseIdTimestamp(previous));
+        Assertions.assertEquals(1, sequence.waits);
+    }
+
+    @Test
+    public void batchNextMillisecondWhenSequenceExhausted() {
+        ManualSequence sequence = new ManualSequence(1, 1);
+        long[] ids = sequence.nextIds(5000);
+        for (int i = 1; i < ids.length; i++) {
+            Assertions.assertTrue(ids[i] > ids[i - 1]);
+        }
+        Assertions.assertEquals(NOW, Sequence.parseIdTimestamp(ids[0]));
+        Assertions.assertEquals(NOW + 1, Sequence.parseIdTimestamp(ids[ids.length - 1]));
+        // 批量预留后单个生成的id接在后面
+        Assertions.assertTrue(sequence.nextId() > ids[ids.length - 1]);
+    }
+
+    @Test
+    public void smallClockBackwardsKeepsIncreasing() {
+        ManualSequence sequence = new ManualSequence(1, 1);
+        long first = sequence.nextId();
+        sequence.now = NOW - 5;
+        long second = sequence.nextId();
+        Assertions.assertTrue(second > first);
+        Assertions.assertEquals(NOW, Sequence.parseIdTimestamp(second));
+    }
+
+    @Test
+    public void largeClockBackwardsRefused() {
+        ManualSequence sequence = new ManualSequence(1, 1);
+        sequence.nextId();
+        sequence.now = NOW - 6;
+        Assertions.assertThrows(RuntimeException.class, sequence::nextId);
+    }
+
+    /**
+     * 时钟只在等待下一毫秒或测试修改时前进
+     */
+    private static final class ManualSequence extends Sequence {
+
+        private volatile long now = NOW;
+
+        private int waits;
+
+        private ManualSequence(long workerId, long datacenterId) {
+            super(workerId, datacenterId);
+        }
+
+        @Override
+        protected long timeGen() {
+            return now;
+        }
+
+        @Override
+        protected long tilNextMillis(long lastTimestamp) {
+            waits++;
+            now = lastTimestamp + 1;
+            return now;
+        }
+
+    }
+
+}
@@ -0,0 +1,250 @@
+package com.mongoplus.incrementer.id;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.mongoplus.domain.MongoPlusException;
+import com.mongoplus.incrementer.DefaultIdentifierGenerator;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link WorkerIdLease}的获取、续约、丢失后重新获取和失效后拒绝生成id
+ * <p>租约集合使用内存实现，按租约的过滤条件和更新管道模拟updateOne和deleteOne，被其他节点持有的标识upsert时抛出重复键异常</p>
+ *
+ * @author anwen
+ */
+public class WorkerIdLeaseTest {
+
+    private static final int SLOT_COUNT = 1024;
+
+    private static final long TTL = 300L;
+
+    private final LeaseCollection leaseCollection = new LeaseCollection();
+
+    @AfterEach
+    public void reset() {
+        WorkerIdLease lease = WorkerIdLease.getCurrent();
+        if (lease != null) {
+            lease.close();
+        }
+        IdWorker.setIdentifierGenerator(DefaultIdentifierGenerator.getInstance());
+    }
+
+    @Test
+    public void acquireFreeSlot() {
+        leaseCollection.holdAllExcept(617);
+        WorkerIdLease lease = WorkerIdLease.acquire(leaseCollection.collection, TTL);
+        Assertions.assertSame(lease, WorkerIdLease.getCurrent());
+        Assertions.assertTrue(lease.isValid());
+        Assertions.assertEquals(617 & 31, lease.getWorkerId());
+        Assertions.assertEquals(617 >> 5, lease.getDatacenterId());
+        Assertions.assertEquals(lease.getWorkerId(), (IdWorker.getId() >> 12) & 31);
+        Assertions.assertEquals(lease.getDatacenterId(), (IdWorker.getId() >> 17) & 31);
+    }
+
+    @Test
+    public void expiredSlotTakenOver() {
+        leaseCollection.holdAllExcept(-1);
+        leaseCollection.slots.put(42, new Lease("other", System.currentTimeMillis() - 1));
+        WorkerIdLease lease = WorkerIdLease.acquire(leaseCollection.collection, TTL);
+        Assertions.assertEquals(42, lease.getDatacenterId() << 5 | lease.getWorkerId());
+        Assertions.assertNotEquals("other", leaseCollection.slots.get(42).owner);
+    }
+
+    @Test
+    public void noFreeSlot() {
+        leaseCollection.holdAllExcept(-1);
+        Assertions.assertThrows(MongoPlusException.class,
+                () -> WorkerIdLease.acquire(leaseCollection.collection, TTL));
+    }
+
+    @Test
+    public void renewKeepsLeaseValid() throws Exception {
+        WorkerIdLease lease = WorkerIdLease.acquire(leaseCollection.collection, TTL);
+        int slot = slotOf(lease);
+        long expireAt = leaseCollection.slots.get(slot).expireAt;
+        Thread.sleep(TTL * 2);
+        Assertions.assertTrue(lease.isValid());
+        Assertions.assertTrue(leaseCollection.slots.get(slot).expireAt > expireAt);
+        IdWorker.getId();
+    }
+
+    @Test
+    public void lostLeaseReacquired() throws Exception {
+        WorkerIdLease lease = WorkerIdLease.acquire(leaseCollection.collection, TTL);
+        int slot = slotOf(lease);
+        // 其他节点在租约过期后获取了同一个标识
+        leaseCollection.slots.put(slot, new Lease("other", System.currentTimeMillis() + 60_000L));
+        long deadline = System.currentTimeMillis() + TTL * 5;
+        while (slotOf(lease) == slot && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertNotEquals(slot, slotOf(lease));
+        Assertions.assertEquals("other", leaseCollection.slots.get(slot).owner);
+        Assertions.assertEquals(lease.getWorkerId(), (IdWorker.getId() >> 12) & 31);
+    }
+
+    @Test
+    public void lapsedLeaseRefusesIds() throws Exception {
+        WorkerIdLease.acquire(leaseCollection.collection, TTL);
+        leaseCollection.failing = true;
+        Thread.sleep(TTL + TTL / 3);
+        Assertions.assertThrows(MongoPlusException.class, IdWorker::getId);
+        Assertions.assertThrows(MongoPlusException.class, () -> IdWorker.getIds(10));
+        // 恢复后下一次续约成功，继续生成id
+        leaseCollection.failing = false;
+        long deadline = System.currentTimeMillis() + TTL * 5;
+        while (!WorkerIdLease.getCurrent().isValid() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        IdWorker.getId();
+    }
+
+    @Test
+    public void closeReleasesSlotAndRefusesIds() {
+        WorkerIdLease lease = WorkerIdLease.acquire(leaseCollection.collection, TTL);
+        int slot = slotOf(lease);
+        lease.close();
+        Assertions.assertFalse(lease.isValid());
+        Assertions.assertFalse(leaseCollection.slots.containsKey(slot));
+        Assertions.assertThrows(MongoPlusException.class, IdWorker::getId);
+    }
+
+    @Test
+    public void acquireReleasesPreviousLease() {
+        WorkerIdLease first = WorkerIdLease.acquire(leaseCollection.collection, TTL);
+        WorkerIdLease second = WorkerIdLease.acquire(leaseCollection.collection, TTL);
+        Assertions.assertFalse(first.isValid());
+        Assertions.assertTrue(second.isValid());
+        Assertions.assertSame(second, WorkerIdLease.getCurrent());
+        Assertions.assertEquals(1, leaseCollection.slots.size());
+        Assertions.assertEquals(second.getWorkerId(), (IdWorker.getId() >> 12) & 31);
+    }
+
+    private static int slotOf(WorkerIdLease lease) {
+        return (int) (lease.getDatacenterId() << 5 | lease.getWorkerId());
+    }
+
+    private static final class Lease {
+
+        private final String owner;
+
+        private final long expireAt;
+
+        private Lease(String owner, long expireAt) {
+            this.owner = owner;
+            this.expireAt = expireAt;
+        }
+
+    }
+
+    /**
+     * 内存中的租约集合，只支持{@link WorkerIdLease}使用的updateOne和deleteOne
+     */
+    private static final class LeaseCollection {
+
+        private final Map<Integer, Lease> slots = new ConcurrentHashMap<>();
+
+        private final MongoNamespace namespace = new MongoNamespace("test", "worker_id_lease");
+
+        private volatile boolean failing;
+
+        @SuppressWarnings("unchecked")
+        private final MongoCollection<Document> collection = (MongoCollection<Document>) Proxy.newProxyInstance(
+                WorkerIdLeaseTest.class.getClassLoader(),
+                new Class<?>[]{MongoCollection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getNamespace":
+                            return namespace;
+                        case "updateOne":
+                            checkFailing();
+                            return updateOne((Bson) args[0], (List<? extends Bson>) args[1],
+                                    args.length > 2 && ((UpdateOptions) args[2]).isUpsert());
+                        case "deleteOne":
+                            checkFailing();
+                            return deleteOne((Bson) args[0]);
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "LeaseCollection{" + namespace + "}";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                }
+        );
+
+        private void holdAllExcept(int freeSlot) {
+            for (int i = 0; i < SLOT_COUNT; i++) {
+                if (i != freeSlot) {
+                    slots.put(i, new Lease("other", System.currentTimeMillis() + 60_000L));
+                }
+            }
+        }
+
+        private void checkFailing() {
+            if (failing) {
+                throw new MongoSocketException("lease collection is unreachable", new ServerAddress());
+            }
+        }
+
+        /**
+         * 获取：{$and: [{_id}, {$or: [{owner}, {$expr: 已过期}]}]}，续约：{$and: [{_id}, {owner}]}
+         */
+        private synchronized UpdateResult updateOne(Bson filter, List<? extends Bson> update, boolean upsert) {
+            BsonArray conditions = filter.toBsonDocument().getArray("$and");
+            int slot = conditions.get(0).asDocument().getInt32("_id").getValue();
+            BsonDocument ownerCondition = conditions.get(1).asDocument();
+            Document set = ((Document) update.get(0)).get("$set", Document.class);
+            String owner = set.getString("owner");
+            long ttl = ((Number) set.get("expireAt", Document.class).getList("$add", Object.class).get(1)).longValue();
+            Lease lease = slots.get(slot);
+            boolean matched = lease != null && lease.owner.equals(owner);
+            if (ownerCondition.containsKey("$or") && lease != null) {
+                matched = matched || lease.expireAt < System.currentTimeMillis();
+            }
+            if (matched || (upsert && lease == null)) {
+                slots.put(slot, new Lease(owner, System.currentTimeMillis() + ttl));
+                return UpdateResult.acknowledged(matched ? 1 : 0, matched ? 1L : 0L, null);
+            }
+            if (upsert) {
+                throw new MongoWriteException(new WriteError(11000, "E11000 duplicate key error", new BsonDocument()),
+                        new ServerAddress());
+            }
+            return UpdateResult.acknowledged(0, 0L, null);
+        }
+
+        private synchronized DeleteResult deleteOne(Bson filter) {
+            BsonArray conditions = filter.toBsonDocument().getArray("$and");
+            int slot = conditions.get(0).asDocument().getInt32("_id").getValue();
+            String owner = conditions.get(1).asDocument().getString("owner").getValue();
+            Lease lease = slots.get(slot);
+            if (lease != null && lease.owner.equals(owner)) {
+                slots.remove(slot);
+                return DeleteResult.acknowledged(1);
+            }
+            return DeleteResult.acknowledged(0);
+        }
+
+    }
+
+}
@@ -4,9 +4,11 @@ import com.mongoplus.annotation.collection.CollectionName;
 import com.mongoplus.annotation.collection.TimeSeries;
 import com.mongoplus.aware.Aware;
 import com.mongoplus.cache.global.ConversionCache;
+import com.mongoplus.cache.global.EntityMetadataCache;
 import com.mongoplus.cache.global.HandlerCache;
 import com.mongoplus.cache.global.ListenerCache;
 import com.mongoplus.cache.global.MappingCache;
+import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.domain.MongoPlusConvertException;
 import com.mongoplus.handlers.CollectionNameHandler;
 import com.mongoplus.handlers.IdGenerateHandler;
@@ -16,6 +18,7 @@ import com.mongoplus.handlers.collection.AnnotationOperate;
 import com.mongoplus.incrementer.IdentifierGenerator;
 import com.mongoplus.incrementer.id.AbstractIdGenerateHandler;
 import com.mongoplus.incrementer.id.IdWorker;
+import com.mongoplus.incrementer.id.WorkerIdLease;
 import com.mongoplus.interceptor.AdvancedInterceptor;
 import com.mongoplus.interceptor.AdvancedInterceptorChain;
 import com.mongoplus.interceptor.Interceptor;
@@ -38,6 +41,7 @@ import com.mongoplus.strategy.conversion.ConversionStrategy;
 import com.mongoplus.strategy.mapping.MappingStrategy;
 import com.mongoplus.toolkit.AutoUtil;
 import com.mongoplus.toolkit.CollUtil;
+import com.mongoplus.toolkit.StringUtils;
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
@@ -101,6 +105,7 @@ public class MongoPlusAutoConfiguration implements InitializingBean {
         collectionNameConvert();
         autoCreateTimeSeries();
         autoCreateIndexes();
+        preloadEntityMetadata();
         setIdGenerateHandler();
         setAdvancedInterceptor();
     }
@@ -268,8 +273,12 @@ public class MongoPlusAutoConfiguration implements InitializingBean {
     private void setIdGenerator() {
         try {
             IdWorker.setIdentifierGenerator(applicationContext.getBean(IdentifierGenerator.class));
+            return;
         } catch (Exception ignored) {
         }
+        if (StringUtils.isNotBlank(PropertyCache.workerIdLeaseCollection)) {
+            WorkerIdLease.acquire(mongoPlusClient.getCollection((String) null, PropertyCache.workerIdLeaseCollection));
+        }
     }
 
     /**
@@ -341,6 +350,18 @@ public class MongoPlusAutoConfiguration implements InitializingBean {
         }
     }
 
+    /**
+     * 扫描实体类并构建映射元数据
+     *
+     * @author anwen
+     */
+    public void preloadEntityMetadata() {
+        if (mongoDBConfigurationProperty.getPreloadEntityMetadata()) {
+            MongoEntityScanner mongoEntityScanner = new MongoEntityScanner(getPackages());
+            EntityMetadataCache.init(mongoEntityScanner.scan(CollectionName.class));
+        }
+    }
+
     public List<String> getPackages() {
         List<String> packages = new LinkedList<>();
         if (CollUtil.isNotEmpty(mongoDBConfigurationProperty.getAutoScanPackages())) {
@@ -0,0 +1,221 @@
+package com.mongoplus.bson;
+
+import org.bson.Document;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static com.mongoplus.constant.SqlOperationConstant._ID;
+
+/**
+ * 延迟映射的实体Document，创建时只写入_id
+ * <p>没有被读取或修改时，由{@link com.mongoplus.codecs.EntityDocumentCodec}直接将实体字段写入BsonWriter，不构建中间的Document</p>
+ * <p>拦截器等任何读取或修改操作都会先将实体完整映射到当前Document，之后与普通Document完全一致</p>
+ *
+ * @author anwen
+ */
+public class EntityDocument extends Document {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 实体
+     */
+    private final transient Object entity;
+
+    /**
+     * 已经写入的_id字段
+     */
+    private final Document idDocument;
+
+    /**
+     * 是否可以直接写入，存在自动填充等需要完整文档的处理时为false
+     */
+    private final boolean streamable;
+
+    /**
+     * 将实体映射到当前Document
+     */
+    private transient Consumer<Document> materializer;
+
+    public EntityDocument(Object entity, Document idDocument, boolean streamable, Consumer<Document> materializer) {
+        this.entity = entity;
+        this.idDocument = idDocument;
+        this.streamable = streamable;
+        this.materializer = materializer;
+    }
+
+    /**
+     * 获取实体
+     * @return {@link java.lang.Object}
+     * @author anwen
+     */
+    public Object getEntity() {
+        return entity;
+    }
+
+    /**
+     * 获取_id字段，映射前才可以修改
+     * @return {@link org.bson.Document}
+     * @author anwen
+     */
+    public Document getIdDocument() {
+        return idDocument;
+    }
+
+    /**
+     * 是否可以直接将实体写入BsonWriter
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public boolean isStreaming() {
+        return streamable && materializer != null;
+    }
+
+    /**
+     * 将实体映射到当前Document
+     * @author anwen
+     */
+    public void materialize() {
+        Consumer<Document> consumer = materializer;
+        if (consumer == null) {
+            return;
+        }
+        materializer = null;
+        super.putAll(idDocument);
+        consumer.accept(this);
+    }
+
+    @Override
+    public Document append(String key, Object value) {
+        materialize();
+        return super.append(key, value);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> clazz) {
+        if (isStreaming() && _ID.equals(key)) {
+            return idDocument.get(key, clazz);
+        }
+        materialize();
+        return super.get(key, clazz);
+    }
+
+    @Override
+    public <T> T get(Object key, T defaultValue) {
+        materialize();
+        return super.get(key, defaultValue);
+    }
+
+    @Override
+    public <T> T getEmbedded(List<?> keys, Class<T> clazz) {
+        materialize();
+        return super.getEmbedded(keys, clazz);
+    }
+
+    @Override
+    public <T> T getEmbedded(List<?> keys, T defaultValue) {
+        materialize();
+        return super.getEmbedded(keys, defaultValue);
+    }
+
+    @Override
+    public int size() {
+        materialize();
+        return super.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        materialize();
+        return super.isEmpty();
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        materialize();
+        return super.containsValue(value);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (isStreaming() && _ID.equals(key)) {
+            return idDocument.containsKey(key);
+        }
+        materialize();
+        return super.containsKey(key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (isStreaming() && _ID.equals(key)) {
+            return idDocument.get(key);
+        }
+        materialize();
+        return super.get(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        materialize();
+        return super.put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        materialize();
+        return super.remove(key);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> map) {
+        materialize();
+        super.putAll(map);
+    }
+
+    @Override
+    public void clear() {
+        materialize();
+        super.clear();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        materialize();
+        return super.keySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        materialize();
+        return super.values();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        materialize();
+        return super.entrySet();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        materialize();
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        materialize();
+        return super.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        materialize();
+        return super.toString();
+    }
+
+}
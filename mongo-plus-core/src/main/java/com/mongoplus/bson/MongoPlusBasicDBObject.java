@@ -1,6 +1,7 @@
 package com.mongoplus.bson;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.client.model.Collation;
 import com.mongoplus.cache.codec.MapCodecCache;
 import com.mongoplus.support.SFunction;
 import org.bson.BsonDocument;
@@ -12,6 +13,29 @@ import org.bson.conversions.Bson;
  **/
 public class MongoPlusBasicDBObject extends BasicDBObject {
 
+    /**
+     * 查询需要使用的排序规则，由条件构建时设置，执行器执行查询和统计时使用
+     */
+    private transient Collation collation;
+
+    public Collation getCollation() {
+        return collation;
+    }
+
+    public void setCollation(Collation collation) {
+        this.collation = collation;
+    }
+
+    /**
+     * 获取条件需要使用的排序规则，不存在返回null
+     * @param bson 条件
+     * @return {@link com.mongodb.client.model.Collation}
+     * @author anwen
+     */
+    public static Collation getCollation(Bson bson) {
+        return bson instanceof MongoPlusBasicDBObject ? ((MongoPlusBasicDBObject) bson).getCollation() : null;
+    }
+
     public <T,R> void put(SFunction<T,R> key,BasicDBObject value){
         put(key.getFieldNameLine(),value);
     }
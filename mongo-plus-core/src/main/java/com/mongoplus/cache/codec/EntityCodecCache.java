@@ -0,0 +1,159 @@
+package com.mongoplus.cache.codec;
+
+import com.mongodb.client.MongoCollection;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.codecs.EntityCodecProvider;
+import com.mongoplus.codecs.EntityDocumentCodec;
+import com.mongoplus.mapping.MongoConverter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.CollectibleCodec;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.bson.codecs.configuration.CodecRegistries.fromCodecs;
+import static org.bson.codecs.configuration.CodecRegistries.fromProviders;
+import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
+
+/**
+ * 实体编解码器缓存，将{@link EntityCodecProvider}追加到集合的编解码器之后
+ * <p>集合原有的编解码器优先，用户通过{@link MongoPlusCodecCache}注册的实体编解码器不会被覆盖</p>
+ * <p>Document的编解码器替换为{@link EntityDocumentCodec}，未被映射的{@link com.mongoplus.bson.EntityDocument}直接写入</p>
+ * <p>编解码器按转换器分别缓存，Mapper获取集合时使用自己的转换器包装，执行器中不会再次包装；
+ * 没有经过Mapper包装的集合使用默认转换器</p>
+ *
+ * @author anwen
+ */
+public class EntityCodecCache {
+
+    private static volatile MongoConverter defaultMongoConverter;
+
+    /**
+     * 转换器和实体编解码器
+     */
+    private static final Map<MongoConverter, EntityCodecProvider> entityCodecProviderCache = new ConcurrentHashMap<>();
+
+    /**
+     * 转换器，集合原有的编解码器和追加了实体编解码器后的编解码器
+     */
+    private static final Map<MongoConverter, Map<CodecRegistry, CodecRegistry>> codecRegistryCache =
+            new ConcurrentHashMap<>();
+
+    /**
+     * 已经追加了实体编解码器的编解码器
+     */
+    private static final Set<CodecRegistry> entityCodecRegistrySet = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 设置默认转换器，没有经过Mapper包装的集合使用
+     * @param mongoConverter 转换器
+     * @author anwen
+     */
+    public static void setMongoConverter(MongoConverter mongoConverter) {
+        EntityCodecCache.defaultMongoConverter = mongoConverter;
+    }
+
+    /**
+     * 未设置默认转换器时设置，多个Mapper使用不同的转换器时默认转换器为第一个
+     * @param mongoConverter 转换器
+     * @author anwen
+     */
+    public static synchronized void setDefaultMongoConverter(MongoConverter mongoConverter) {
+        if (defaultMongoConverter == null) {
+            defaultMongoConverter = mongoConverter;
+        }
+    }
+
+    /**
+     * 是否可以使用实体编解码器直接解码
+     * @param clazz 结果类型
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public static boolean isSupported(Class<?> clazz) {
+        return PropertyCache.entityCodec && EntityCodecProvider.isEntity(clazz);
+    }
+
+    /**
+     * 获取可以解码实体的集合，不支持或已经包装过时返回原集合
+     * @param collection 集合
+     * @param clazz 结果类型
+     * @return {@link com.mongodb.client.MongoCollection<org.bson.Document>}
+     * @author anwen
+     */
+    public static MongoCollection<Document> withEntityCodec(MongoCollection<Document> collection, Class<?> clazz) {
+        if (!isSupported(clazz)) {
+            return collection;
+        }
+        return withEntityCodec(collection, defaultMongoConverter);
+    }
+
+    /**
+     * 获取可以直接写入{@link com.mongoplus.bson.EntityDocument}的集合，未开启或已经包装过时返回原集合
+     * @param collection 集合
+     * @return {@link com.mongodb.client.MongoCollection<org.bson.Document>}
+     * @author anwen
+     */
+    public static MongoCollection<Document> withEntityCodec(MongoCollection<Document> collection) {
+        return withEntityCodec(collection, defaultMongoConverter);
+    }
+
+    /**
+     * 使用指定的转换器包装集合，未开启或已经包装过时返回原集合
+     * @param collection 集合
+     * @param mongoConverter 转换器
+     * @return {@link com.mongodb.client.MongoCollection<org.bson.Document>}
+     * @author anwen
+     */
+    public static MongoCollection<Document> withEntityCodec(MongoCollection<Document> collection,
+                                                            MongoConverter mongoConverter) {
+        if (!PropertyCache.entityCodec || mongoConverter == null
+                || entityCodecRegistrySet.contains(collection.getCodecRegistry())) {
+            return collection;
+        }
+        return collection.withCodecRegistry(getCodecRegistry(collection.getCodecRegistry(), mongoConverter));
+    }
+
+    /**
+     * 获取使用默认转换器追加了实体编解码器的编解码器
+     * @param codecRegistry 原编解码器
+     * @return {@link org.bson.codecs.configuration.CodecRegistry}
+     * @author anwen
+     */
+    public static CodecRegistry getCodecRegistry(CodecRegistry codecRegistry) {
+        return getCodecRegistry(codecRegistry, defaultMongoConverter);
+    }
+
+    /**
+     * 获取追加了实体编解码器的编解码器，已经追加过时返回原编解码器
+     * @param codecRegistry 原编解码器
+     * @param mongoConverter 转换器
+     * @return {@link org.bson.codecs.configuration.CodecRegistry}
+     * @author anwen
+     */
+    @SuppressWarnings("unchecked")
+    public static CodecRegistry getCodecRegistry(CodecRegistry codecRegistry, MongoConverter mongoConverter) {
+        if (mongoConverter == null || entityCodecRegistrySet.contains(codecRegistry)) {
+            return codecRegistry;
+        }
+        EntityCodecProvider provider = entityCodecProviderCache.computeIfAbsent(mongoConverter,
+                EntityCodecProvider::new);
+        return codecRegistryCache.computeIfAbsent(mongoConverter, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(codecRegistry, key -> {
+                    CodecRegistry entityCodecRegistry = fromRegistries(key, fromProviders(provider));
+                    Codec<Document> documentCodec = key.get(Document.class);
+                    CodecRegistry result = !(documentCodec instanceof CollectibleCodec) ? entityCodecRegistry
+                            : fromRegistries(
+                                    fromCodecs(new EntityDocumentCodec((CollectibleCodec<Document>) documentCodec,
+                                            mongoConverter, entityCodecRegistry)),
+                                    entityCodecRegistry
+                            );
+                    entityCodecRegistrySet.add(result);
+                    return result;
+                });
+    }
+
+}
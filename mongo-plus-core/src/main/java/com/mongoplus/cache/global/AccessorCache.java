@@ -0,0 +1,38 @@
+package com.mongoplus.cache.global;
+
+import com.mongoplus.mapping.accessor.AccessorFactory;
+import com.mongoplus.mapping.accessor.FieldAccessor;
+import com.mongoplus.mapping.accessor.InstanceCreator;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 字段访问器和实例创建器缓存，每个字段和类只生成一次
+ *
+ * @author anwen
+ */
+public class AccessorCache {
+
+    private static final Map<Field, FieldAccessor> fieldAccessorCache = new ConcurrentHashMap<>();
+
+    private static final Map<Class<?>, InstanceCreator> instanceCreatorCache = new ConcurrentHashMap<>();
+
+    public static FieldAccessor getFieldAccessor(Field field) {
+        FieldAccessor fieldAccessor = fieldAccessorCache.get(field);
+        if (fieldAccessor == null) {
+            fieldAccessor = fieldAccessorCache.computeIfAbsent(field, AccessorFactory::createFieldAccessor);
+        }
+        return fieldAccessor;
+    }
+
+    public static InstanceCreator getInstanceCreator(Class<?> clazz) {
+        InstanceCreator instanceCreator = instanceCreatorCache.get(clazz);
+        if (instanceCreator == null) {
+            instanceCreator = instanceCreatorCache.computeIfAbsent(clazz, AccessorFactory::createInstanceCreator);
+        }
+        return instanceCreator;
+    }
+
+}
@@ -91,6 +91,7 @@ public class ConversionCache {
             enumConversion = (EnumConversionStrategy<?>) conversionStrategy;
         }
         conversionStrategieMap.put(clazz,conversionStrategy);
+        ReadPlanCache.clear();
     }
 
 }
@@ -1,6 +1,7 @@
 package com.mongoplus.cache.global;
 
 import com.mongoplus.constant.DataSourceConstant;
+import com.mongoplus.context.ContextKey;
 import com.mongoplus.domain.MongoPlusDsException;
 import com.mongoplus.model.BaseProperty;
 import com.mongoplus.toolkit.StringUtils;
@@ -18,8 +19,9 @@ public class DataSourceNameCache {
     /**
      * 只存入当前最新的数据源名称即可
      * 每次进行操作，都会经过{@link com.mongoplus.execute.ExecutorFactory#getExecute()}，通过这里存入的最新数据源名称去获取不同的ClientSession
+     * <p>子线程不再自动继承，跨线程执行请使用{@link com.mongoplus.context.MongoPlusContext#capture()}</p>
     */
-    private static final ThreadLocal<String> dataSource = new InheritableThreadLocal<>();
+    private static final ContextKey<String> dataSource = ContextKey.of("dataSource");
 
     private static final Map<String, BaseProperty> basePropertyMap = new HashMap<>();
 
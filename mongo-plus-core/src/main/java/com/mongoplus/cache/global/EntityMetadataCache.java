@@ -0,0 +1,44 @@
+package com.mongoplus.cache.global;
+
+import com.mongoplus.mapping.EntityMetadata;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 类的映射元数据缓存
+ *
+ * @author anwen
+ */
+public class EntityMetadataCache {
+
+    private static final Map<Class<?>, EntityMetadata> entityMetadataMap = new ConcurrentHashMap<>();
+
+    public static EntityMetadata get(Class<?> clazz, Function<Class<?>, EntityMetadata> builder) {
+        EntityMetadata entityMetadata = entityMetadataMap.get(clazz);
+        if (entityMetadata == null) {
+            entityMetadata = entityMetadataMap.computeIfAbsent(clazz, builder);
+        }
+        return entityMetadata;
+    }
+
+    /**
+     * 预先构建元数据，需要在驼峰转下划线等配置加载之后调用
+     * @param classes 类
+     * @author anwen
+     */
+    public static void init(Collection<Class<?>> classes) {
+        classes.forEach(EntityMetadata::of);
+    }
+
+    /**
+     * 清空元数据，字段名相关配置修改后需要调用
+     * @author anwen
+     */
+    public static void clear() {
+        entityMetadataMap.clear();
+    }
+
+}
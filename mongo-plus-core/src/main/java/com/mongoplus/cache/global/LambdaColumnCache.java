@@ -0,0 +1,45 @@
+package com.mongoplus.cache.global;
+
+import com.mongoplus.support.LambdaColumn;
+import com.mongoplus.support.SFunction;
+
+import java.lang.invoke.SerializedLambda;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * lambda字段缓存，lambda类对应实现类和方法，实现类和方法对应解析后的字段信息
+ * <p>同一个方法引用在不同位置生成的lambda类共享同一个{@link LambdaColumn}</p>
+ * <p>实现类通过lambda类的类加载器加载，并以Class作为key，热部署等重新加载类后不会使用旧类的字段信息</p>
+ *
+ * @author anwen
+ */
+public class LambdaColumnCache {
+
+    private static final Map<Class<?>, LambdaColumn> lambdaClassColumnMap = new ConcurrentHashMap<>();
+
+    private static final Map<Class<?>, Map<String, LambdaColumn>> implMethodColumnMap = new ConcurrentHashMap<>();
+
+    public static LambdaColumn get(SFunction<?, ?> function) {
+        Class<?> lambdaClass = function.getClass();
+        LambdaColumn lambdaColumn = lambdaClassColumnMap.get(lambdaClass);
+        if (lambdaColumn == null) {
+            SerializedLambda serializedLambda = function.getSerializedLambda();
+            Class<?> implClass = loadImplClass(serializedLambda, lambdaClass.getClassLoader());
+            lambdaColumn = implMethodColumnMap
+                    .computeIfAbsent(implClass, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(serializedLambda.getImplMethodName(), key -> LambdaColumn.of(implClass, key));
+            lambdaClassColumnMap.put(lambdaClass, lambdaColumn);
+        }
+        return lambdaColumn;
+    }
+
+    private static Class<?> loadImplClass(SerializedLambda serializedLambda, ClassLoader classLoader) {
+        try {
+            return Class.forName(serializedLambda.getImplClass().replace("/", "."), false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.mongoplus.cache.global;
 
+import com.mongoplus.enums.LikeStrategy;
+
 /**
  * 配置文件缓存
  *
@@ -67,4 +69,82 @@ public class PropertyCache {
      */
     public static Boolean log = false;
 
+    /**
+     * 多个更新条件合并为bulkWrite时，每次bulkWrite的最大条件数量，小于等于0时不拆分
+     */
+    public static Integer updateBatchSize = 1000;
+
+    /**
+     * 多个更新条件合并为bulkWrite时是否有序执行，有序执行时遇到错误会停止后续的更新
+     */
+    public static Boolean updateBatchOrdered = true;
+
+    /**
+     * 分页查询时总数和数据是否并发查询，默认false
+     * <p>总数在异步线程中查询，多租户等拦截器依赖调用方的ThreadLocal时，需要通过{@link com.mongoplus.config.Configuration#asyncExecutor}
+     * 设置能传递这些ThreadLocal的线程池，否则不要开启</p>
+     */
+    public static Boolean pageConcurrentCount = false;
+
+    /**
+     * 查询实体时是否使用实体编解码器直接解码，跳过中间的Document，默认false
+     */
+    public static Boolean entityCodec = false;
+
+    /**
+     * like条件的全局构建策略，默认不区分大小写的正则
+     */
+    public static LikeStrategy likeStrategy = LikeStrategy.CASE_INSENSITIVE;
+
+    /**
+     * {@link LikeStrategy#COLLATION}使用的排序规则语言，如en、zh，为null时使用集合默认的排序规则
+     */
+    public static String likeCollationLocale;
+
+    /**
+     * 查询结果缓存的最大条数，只缓存标注了{@link com.mongoplus.annotation.collection.QueryCache}的实体，默认10000
+     */
+    public static Integer queryCacheMaximumSize = 10000;
+
+    /**
+     * 根据id批量加载的等待时间（毫秒），窗口内的loadById合并为一次查询，默认0不合并
+     * <p>合并后整批查询使用第一个调用者的上下文，开启前见{@link com.mongoplus.execute.batch.IdBatchLoader}</p>
+     */
+    public static Integer idBatchWindow = 0;
+
+    /**
+     * 根据id批量加载的最大批量，达到时不再等待，默认1000
+     */
+    public static Integer idBatchMaximumSize = 1000;
+
+    /**
+     * 保存变更流恢复令牌的集合，与订阅的集合在同一个数据库，默认mongo_plus_resume_token
+     */
+    public static String resumeTokenCollection = "mongo_plus_resume_token";
+
+    /**
+     * 批量新增每个分块的最大条数，小于等于0时不按条数分块，默认1000
+     */
+    public static Integer saveBatchSize = 1000;
+
+    /**
+     * 批量新增每个分块编码后的最大字节数，小于等于0时不按字节数分块，开启后每个文档会额外编码一次，默认0
+     */
+    public static Integer saveBatchMaxBytes = 0;
+
+    /**
+     * 批量新增的并行度，大于1时并行转换实体，无序新增时同时执行多个分块，默认1
+     */
+    public static Integer saveBatchParallelism = 1;
+
+    /**
+     * 自增id每次从数据库预留的号段大小，大于1时在内存中分配并提前异步预留下一段，重启后未用完的id会跳过，默认1
+     */
+    public static Integer autoIdBlockSize = 1;
+
+    /**
+     * 保存雪花算法机器标识租约的集合，设置后启动时自动分配workerId和datacenterId，默认null不分配
+     */
+    public static String workerIdLeaseCollection;
+
 }
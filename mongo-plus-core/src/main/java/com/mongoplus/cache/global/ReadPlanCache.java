@@ -0,0 +1,40 @@
+package com.mongoplus.cache.global;
+
+import com.mongoplus.mapping.MongoConverter;
+import com.mongoplus.mapping.ReadPlan;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 读取计划缓存，区分是否使用_id作为ID字段的字段名
+ * <p>读取处理器或元数据改变后，计划在下次读取时重新编译</p>
+ *
+ * @author anwen
+ */
+public class ReadPlanCache {
+
+    private static final Map<Class<?>, ReadPlan> idReadPlanMap = new ConcurrentHashMap<>();
+
+    private static final Map<Class<?>, ReadPlan> readPlanMap = new ConcurrentHashMap<>();
+
+    public static ReadPlan get(Class<?> clazz, boolean useIdAsFieldName, MongoConverter mongoConverter) {
+        Map<Class<?>, ReadPlan> map = useIdAsFieldName ? idReadPlanMap : readPlanMap;
+        ReadPlan readPlan = map.get(clazz);
+        if (readPlan == null || !readPlan.isValid()) {
+            readPlan = ReadPlan.compile(clazz, useIdAsFieldName, mongoConverter);
+            map.put(clazz, readPlan);
+        }
+        return readPlan;
+    }
+
+    /**
+     * 清空读取计划，替换转换器后需要调用
+     * @author anwen
+     */
+    public static void clear() {
+        idReadPlanMap.clear();
+        readPlanMap.clear();
+    }
+
+}
@@ -0,0 +1,207 @@
+package com.mongoplus.cache.query;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Collation;
+import com.mongoplus.annotation.collection.QueryCache;
+import com.mongoplus.bson.MongoPlusBasicDBObject;
+import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.context.MongoTransactionContext;
+import com.mongoplus.manager.LogicManager;
+import com.mongoplus.manager.TenantManager;
+import com.mongoplus.mapping.TypeReference;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * 查询结果缓存的键，由数据源、集合、租户、逻辑删除开关、规范化后的条件、projection、排序、skip、limit和结果类型组成
+ * <p>条件等使用扩展JSON作为规范形式，键的顺序保持不变</p>
+ * <p>集合、条件、projection和排序在拦截器执行后替换为实际查询使用的值，多租户、逻辑删除等拦截器追加的条件
+ * 和动态集合名切换到的集合都参与比较</p>
+ *
+ * @author anwen
+ */
+public final class QueryCacheKey {
+
+    /**
+     * 查询列表
+     */
+    public static final String LIST = "list";
+
+    /**
+     * 查询单条
+     */
+    public static final String ONE = "one";
+
+    private final String dataSource;
+
+    private final String namespace;
+
+    private final String tenantId;
+
+    private final boolean ignoreLogic;
+
+    private final String operation;
+
+    private final String condition;
+
+    private final String projection;
+
+    private final String sort;
+
+    private final String collation;
+
+    private final int skip;
+
+    private final int limit;
+
+    private final Type type;
+
+    /**
+     * 过期时间，不参与比较
+     */
+    private final long ttl;
+
+    private final int hashCode;
+
+    private QueryCacheKey(String dataSource, String namespace, String tenantId, boolean ignoreLogic,
+                          String operation, String condition, String projection, String sort, String collation,
+                          int skip, int limit, Type type, long ttl) {
+        this.dataSource = dataSource;
+        this.namespace = namespace;
+        this.tenantId = tenantId;
+        this.ignoreLogic = ignoreLogic;
+        this.operation = operation;
+        this.condition = condition;
+        this.projection = projection;
+        this.sort = sort;
+        this.collation = collation;
+        this.skip = skip;
+        this.limit = limit;
+        this.type = type;
+        this.ttl = ttl;
+        this.hashCode = Objects.hash(dataSource, namespace, tenantId, ignoreLogic, operation, condition, projection,
+                sort, collation, skip, limit, type);
+    }
+
+    /**
+     * 创建缓存键，结果类型没有标注{@link QueryCache}或在事务中时返回null
+     * @param operation 操作，如list、one
+     * @param collection 集合
+     * @param condition 条件
+     * @param projection projection
+     * @param sort 排序
+     * @param skip skip
+     * @param limit limit，0为不限制
+     * @param typeReference 结果类型
+     * @return {@link com.mongoplus.cache.query.QueryCacheKey}
+     * @author anwen
+     */
+    public static QueryCacheKey of(String operation, MongoCollection<?> collection, Bson condition, Bson projection,
+                                   Bson sort, int skip, int limit, TypeReference<?> typeReference) {
+        Class<?> clazz = typeReference.getClazz();
+        QueryCache queryCache = clazz != null ? clazz.getAnnotation(QueryCache.class) : null;
+        if (queryCache == null || MongoTransactionContext.getMongoTransactionStatus() != null) {
+            return null;
+        }
+        Collation collationValue = MongoPlusBasicDBObject.getCollation(condition);
+        return new QueryCacheKey(
+                DataSourceNameCache.getDataSource(),
+                collection.getNamespace().getFullName(),
+                getTenantId(),
+                LogicManager.isIgnoreLogic(),
+                operation,
+                toJson(condition, collection),
+                toJson(projection, collection),
+                toJson(sort, collection),
+                collationValue != null ? collationValue.toString() : null,
+                skip,
+                limit,
+                typeReference.getType(),
+                queryCache.ttl()
+        );
+    }
+
+    /**
+     * 替换为拦截器执行后实际查询的集合、条件、projection和排序
+     * @param collection 集合
+     * @param condition 条件
+     * @param projection projection
+     * @param sort 排序
+     * @return {@link com.mongoplus.cache.query.QueryCacheKey}
+     * @author anwen
+     */
+    public QueryCacheKey withQuery(MongoCollection<?> collection, Bson condition, Bson projection, Bson sort) {
+        Collation collationValue = MongoPlusBasicDBObject.getCollation(condition);
+        return new QueryCacheKey(dataSource, collection.getNamespace().getFullName(), tenantId, ignoreLogic,
+                operation, toJson(condition, collection), toJson(projection, collection), toJson(sort, collection),
+                collationValue != null ? collationValue.toString() : null, skip, limit, type, ttl);
+    }
+
+    /**
+     * 当前租户，没有多租户拦截器或忽略租户时为null
+     */
+    private static String getTenantId() {
+        BsonValue tenantId = TenantManager.getCurrentTenantId();
+        return tenantId != null ? tenantId.toString() : null;
+    }
+
+    private static String toJson(Bson bson, MongoCollection<?> collection) {
+        if (bson == null) {
+            return null;
+        }
+        return bson.toBsonDocument(BsonDocument.class, collection.getCodecRegistry()).toJson();
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        QueryCacheKey that = (QueryCacheKey) o;
+        return hashCode == that.hashCode
+                && ignoreLogic == that.ignoreLogic
+                && skip == that.skip
+                && limit == that.limit
+                && Objects.equals(dataSource, that.dataSource)
+                && namespace.equals(that.namespace)
+                && Objects.equals(tenantId, that.tenantId)
+                && operation.equals(that.operation)
+                && Objects.equals(condition, that.condition)
+                && Objects.equals(projection, that.projection)
+                && Objects.equals(sort, that.sort)
+                && Objects.equals(collation, that.collation)
+                && Objects.equals(type, that.type);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCacheKey{" +
+                "dataSource='" + dataSource + '\'' +
+                ", namespace='" + namespace + '\'' +
+                ", tenantId='" + tenantId + '\'' +
+                ", operation='" + operation + '\'' +
+                ", condition=" + condition +
+                ", projection=" + projection +
+                ", sort=" + sort +
+                ", skip=" + skip +
+                ", limit=" + limit +
+                ", type=" + type +
+                '}';
+    }
+}
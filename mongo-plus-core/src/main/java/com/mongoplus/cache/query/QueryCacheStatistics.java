@@ -0,0 +1,84 @@
+package com.mongoplus.cache.query;
+
+/**
+ * 查询结果缓存的统计信息快照
+ *
+ * @author anwen
+ */
+public final class QueryCacheStatistics {
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final long evictionCount;
+
+    private final long invalidationCount;
+
+    private final long size;
+
+    public QueryCacheStatistics(long hitCount, long missCount, long evictionCount, long invalidationCount,
+                                long size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.invalidationCount = invalidationCount;
+        this.size = size;
+    }
+
+    /**
+     * 命中次数
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * 未命中次数，包括过期和已失效的结果
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * 超过最大条数时淘汰或拒绝写入的次数
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * 写操作使集合缓存失效的次数
+     */
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    /**
+     * 当前缓存条数，包括尚未清理的过期结果
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * 命中率，没有请求时为1
+     * @return {@link double}
+     * @author anwen
+     */
+    public double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCacheStatistics{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                ", invalidationCount=" + invalidationCount +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -0,0 +1,357 @@
+package com.mongoplus.cache.query;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.context.MongoTransactionContext;
+import com.mongoplus.context.MongoTransactionStatus;
+import org.bson.conversions.Bson;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 查询结果缓存（二级缓存），缓存标注了{@link com.mongoplus.annotation.collection.QueryCache}的实体的查询结果
+ * <p>每个集合有一个版本号，写操作经过执行器时版本号加一，旧版本的结果不再命中；查询前读取版本号，查询期间发生写操作的结果不会写入缓存</p>
+ * <p>超过{@link PropertyCache#queryCacheMaximumSize}时使用采样淘汰：优先淘汰过期、已失效的结果，否则比较访问频率（TinyLFU），
+ * 新结果的频率不高于采样中频率最低的结果时不写入</p>
+ *
+ * @author anwen
+ */
+public final class QueryResultCache {
+
+    /**
+     * 每次淘汰的采样数量
+     */
+    private static final int SAMPLE_SIZE = 8;
+
+    private static final Map<QueryCacheKey, CacheEntry> cacheMap = new ConcurrentHashMap<>();
+
+    /**
+     * 集合的版本号
+     */
+    private static final Map<String, AtomicLong> generationMap = new ConcurrentHashMap<>();
+
+    private static final FrequencySketch frequencySketch = new FrequencySketch();
+
+    private static final LongAdder hitCount = new LongAdder();
+
+    private static final LongAdder missCount = new LongAdder();
+
+    private static final LongAdder evictionCount = new LongAdder();
+
+    private static final LongAdder invalidationCount = new LongAdder();
+
+    private static final Object evictionLock = new Object();
+
+    /**
+     * 淘汰采样的迭代器，由evictionLock保护
+     */
+    private static Iterator<Map.Entry<QueryCacheKey, CacheEntry>> sampleIterator;
+
+    /**
+     * 当前查询的缓存键，执行器在拦截器执行后替换为实际查询使用的集合和条件
+     */
+    private static final ThreadLocal<QueryCacheKey> queryCacheKey = new ThreadLocal<>();
+
+    private QueryResultCache() {
+    }
+
+    /**
+     * 获取缓存的结果，未命中时执行查询并缓存
+     * @param cacheKey 缓存键
+     * @param loader 查询
+     * @return {@link V}
+     * @author anwen
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> V get(QueryCacheKey cacheKey, Supplier<V> loader) {
+        Integer maximumSize = PropertyCache.queryCacheMaximumSize;
+        if (maximumSize != null && maximumSize > 0) {
+            frequencySketch.ensureCapacity(maximumSize);
+        }
+        frequencySketch.increment(cacheKey.hashCode());
+        AtomicLong generation = getGeneration(cacheKey.getNamespace());
+        long currentGeneration = generation.get();
+        long now = System.nanoTime();
+        CacheEntry cacheEntry = cacheMap.get(cacheKey);
+        if (cacheEntry != null) {
+            if (cacheEntry.isValid(currentGeneration, now)) {
+                hitCount.increment();
+                return (V) cacheEntry.value;
+            }
+            cacheMap.remove(cacheKey, cacheEntry);
+        }
+        missCount.increment();
+        V value = loader.get();
+        if (generation.get() == currentGeneration) {
+            put(cacheKey, new CacheEntry(value, currentGeneration,
+                    now + cacheKey.getTtl() * 1_000_000L));
+        }
+        return value;
+    }
+
+    /**
+     * 开始解析当前查询的缓存键，执行查询前调用
+     * @param cacheKey 使用拦截器执行前的条件创建的缓存键
+     * @author anwen
+     */
+    public static void beginQuery(QueryCacheKey cacheKey) {
+        queryCacheKey.set(cacheKey);
+    }
+
+    /**
+     * 使用拦截器执行后的集合和条件替换当前查询的缓存键，由执行器在拦截器执行后调用，没有正在解析的缓存键时不处理
+     * @param collection 实际查询的集合
+     * @param condition 条件
+     * @param projection projection
+     * @param sort 排序
+     * @author anwen
+     */
+    public static void resolveQuery(MongoCollection<?> collection, Bson condition, Bson projection, Bson sort) {
+        QueryCacheKey cacheKey = queryCacheKey.get();
+        if (cacheKey != null) {
+            queryCacheKey.set(cacheKey.withQuery(collection, condition, projection, sort));
+        }
+    }
+
+    /**
+     * 获取并清除当前查询的缓存键
+     * @return {@link com.mongoplus.cache.query.QueryCacheKey}
+     * @author anwen
+     */
+    public static QueryCacheKey takeQuery() {
+        QueryCacheKey cacheKey = queryCacheKey.get();
+        queryCacheKey.remove();
+        return cacheKey;
+    }
+
+    /**
+     * 使集合的缓存失效，事务中的写操作在提交后会再次失效
+     * @param namespace 集合
+     * @author anwen
+     */
+    public static void invalidate(MongoNamespace namespace) {
+        String fullName = namespace.getFullName();
+        invalidate(fullName);
+        MongoTransactionStatus status = MongoTransactionContext.getMongoTransactionStatus();
+        if (status != null) {
+            status.addWrittenNamespace(fullName);
+        }
+    }
+
+    /**
+     * 使集合的缓存失效
+     * @param namespaces 集合全名
+     * @author anwen
+     */
+    public static void invalidate(Collection<String> namespaces) {
+        namespaces.forEach(QueryResultCache::invalidate);
+    }
+
+    private static void invalidate(String namespace) {
+        // 没有版本号说明集合从未使用缓存
+        AtomicLong generation = generationMap.get(namespace);
+        if (generation != null) {
+            generation.incrementAndGet();
+            invalidationCount.increment();
+        }
+    }
+
+    /**
+     * 清空所有缓存和统计
+     * @author anwen
+     */
+    public static void clear() {
+        cacheMap.clear();
+        generationMap.values().forEach(AtomicLong::incrementAndGet);
+        frequencySketch.clear();
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+        invalidationCount.reset();
+    }
+
+    /**
+     * 获取统计信息
+     * @return {@link com.mongoplus.cache.query.QueryCacheStatistics}
+     * @author anwen
+     */
+    public static QueryCacheStatistics getStatistics() {
+        return new QueryCacheStatistics(hitCount.sum(), missCount.sum(), evictionCount.sum(),
+                invalidationCount.sum(), cacheMap.size());
+    }
+
+    private static AtomicLong getGeneration(String namespace) {
+        AtomicLong generation = generationMap.get(namespace);
+        if (generation == null) {
+            generation = generationMap.computeIfAbsent(namespace, key -> new AtomicLong());
+        }
+        return generation;
+    }
+
+    private static void put(QueryCacheKey cacheKey, CacheEntry cacheEntry) {
+        Integer maximumSize = PropertyCache.queryCacheMaximumSize;
+        if (maximumSize == null || maximumSize <= 0) {
+            return;
+        }
+        if (cacheMap.size() >= maximumSize && !cacheMap.containsKey(cacheKey)) {
+            synchronized (evictionLock) {
+                while (cacheMap.size() >= maximumSize) {
+                    Map.Entry<QueryCacheKey, CacheEntry> victim = sample();
+                    if (victim == null) {
+                        break;
+                    }
+                    if (isStale(victim)) {
+                        cacheMap.remove(victim.getKey(), victim.getValue());
+                        continue;
+                    }
+                    evictionCount.increment();
+                    if (frequencySketch.frequency(cacheKey.hashCode())
+                            <= frequencySketch.frequency(victim.getKey().hashCode())) {
+                        return;
+                    }
+                    cacheMap.remove(victim.getKey(), victim.getValue());
+                }
+            }
+        }
+        cacheMap.put(cacheKey, cacheEntry);
+    }
+
+    /**
+     * 采样淘汰候选，优先返回过期或已失效的结果，否则返回访问频率最低的结果
+     */
+    private static Map.Entry<QueryCacheKey, CacheEntry> sample() {
+        Map.Entry<QueryCacheKey, CacheEntry> victim = null;
+        int victimFrequency = Integer.MAX_VALUE;
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            if (sampleIterator == null || !sampleIterator.hasNext()) {
+                sampleIterator = cacheMap.entrySet().iterator();
+                if (!sampleIterator.hasNext()) {
+                    break;
+                }
+            }
+            Map.Entry<QueryCacheKey, CacheEntry> entry = sampleIterator.next();
+            if (isStale(entry)) {
+                return entry;
+            }
+            int frequency = frequencySketch.frequency(entry.getKey().hashCode());
+            if (frequency < victimFrequency) {
+                victim = entry;
+                victimFrequency = frequency;
+            }
+        }
+        return victim;
+    }
+
+    private static boolean isStale(Map.Entry<QueryCacheKey, CacheEntry> entry) {
+        AtomicLong generation = generationMap.get(entry.getKey().getNamespace());
+        return generation == null || !entry.getValue().isValid(generation.get(), System.nanoTime());
+    }
+
+    /**
+     * 缓存的结果
+     */
+    private static final class CacheEntry {
+
+        private final Object value;
+
+        private final long generation;
+
+        private final long expireAt;
+
+        private CacheEntry(Object value, long generation, long expireAt) {
+            this.value = value;
+            this.generation = generation;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isValid(long currentGeneration, long now) {
+            return generation == currentGeneration && expireAt - now > 0;
+        }
+
+    }
+
+    /**
+     * 访问频率的Count-Min Sketch，宽度为最大条数的8倍，每个计数最大15，总增加次数达到最大条数的10倍时所有计数减半，使频率随时间衰减
+     * <p>并发增加时允许少量计数丢失</p>
+     */
+    private static final class FrequencySketch {
+
+        private static final int[] SEEDS = {0x97cb3127, 0xb7a3c5a9, 0x8c5e1f93, 0xcf5e3b6d};
+
+        private volatile byte[][] table = new byte[SEEDS.length][64];
+
+        private volatile int sampleSize = 640;
+
+        private int maximumSize;
+
+        private int additions;
+
+        private void ensureCapacity(int maximumSize) {
+            if (this.maximumSize >= maximumSize) {
+                return;
+            }
+            synchronized (this) {
+                if (this.maximumSize >= maximumSize) {
+                    return;
+                }
+                int width = Math.max(64, Integer.highestOneBit(maximumSize * 8 - 1) << 1);
+                table = new byte[SEEDS.length][width];
+                sampleSize = maximumSize * 10;
+                additions = 0;
+                this.maximumSize = maximumSize;
+            }
+        }
+
+        private void increment(int hash) {
+            byte[][] counters = table;
+            int mask = counters[0].length - 1;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int index = index(hash, i) & mask;
+                if (counters[i][index] < 15) {
+                    counters[i][index]++;
+                }
+            }
+            if (++additions >= sampleSize) {
+                reset(counters);
+            }
+        }
+
+        private int frequency(int hash) {
+            byte[][] counters = table;
+            int mask = counters[0].length - 1;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < SEEDS.length; i++) {
+                frequency = Math.min(frequency, counters[i][index(hash, i) & mask]);
+            }
+            return frequency;
+        }
+
+        private void reset(byte[][] counters) {
+            additions = 0;
+            for (byte[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = (byte) (row[i] >>> 1);
+                }
+            }
+        }
+
+        private void clear() {
+            table = new byte[SEEDS.length][table[0].length];
+            additions = 0;
+        }
+
+        private static int index(int hash, int i) {
+            int h = hash * SEEDS[i];
+            return h ^ (h >>> 16);
+        }
+
+    }
+
+}
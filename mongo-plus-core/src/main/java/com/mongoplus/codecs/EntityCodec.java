@@ -0,0 +1,121 @@
+package com.mongoplus.codecs;
+
+import com.mongoplus.annotation.collection.CollectionField;
+import com.mongoplus.cache.global.ReadPlanCache;
+import com.mongoplus.handlers.ReadHandler;
+import com.mongoplus.handlers.TypeHandler;
+import com.mongoplus.mapping.MongoConverter;
+import com.mongoplus.mapping.ReadPlan;
+import com.mongoplus.mapping.TypeReference;
+import org.bson.BsonBinarySubType;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.Document;
+import org.bson.codecs.BsonTypeClassMap;
+import org.bson.codecs.BsonTypeCodecMap;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 实体编解码器，直接从{@link BsonReader}读取到实体字段，不再先解码为{@link Document}再映射
+ * <p>字段名、{@link CollectionField}、{@link TypeHandler}、{@link ReadHandler}和嵌套值的转换与
+ * {@link com.mongoplus.mapping.AbstractMongoConverter#readInternal(Document, TypeReference, boolean)}一致，
+ * 实体中不存在的字段直接跳过，不会解码</p>
+ * <p>字段的解码信息来自{@link ReadPlan}，与转换器共享</p>
+ *
+ * @author anwen
+ */
+public class EntityCodec<T> implements Codec<T> {
+
+    private static final BsonTypeClassMap BSON_TYPE_CLASS_MAP = new BsonTypeClassMap();
+
+    private final Class<T> clazz;
+
+    private final MongoConverter mongoConverter;
+
+    private final CodecRegistry codecRegistry;
+
+    private final BsonTypeCodecMap bsonTypeCodecMap;
+
+    public EntityCodec(Class<T> clazz, MongoConverter mongoConverter, CodecRegistry codecRegistry) {
+        this.clazz = clazz;
+        this.mongoConverter = mongoConverter;
+        this.codecRegistry = codecRegistry;
+        this.bsonTypeCodecMap = new BsonTypeCodecMap(BSON_TYPE_CLASS_MAP, codecRegistry);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T decode(BsonReader reader, DecoderContext decoderContext) {
+        ReadPlan readPlan = ReadPlanCache.get(clazz, true, mongoConverter);
+        Map<String, ReadPlan.ReadProperty[]> properties = readPlan.getPropertyMap();
+        T instance = (T) readPlan.newInstance();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            ReadPlan.ReadProperty[] readProperties = properties.get(reader.readName());
+            if (readProperties == null) {
+                reader.skipValue();
+                continue;
+            }
+            Object value = readValue(reader, decoderContext);
+            if (value == null) {
+                continue;
+            }
+            for (ReadPlan.ReadProperty readProperty : readProperties) {
+                readProperty.read(instance, value, mongoConverter);
+            }
+        }
+        reader.readEndDocument();
+        return instance;
+    }
+
+    /**
+     * 读取值，与{@link org.bson.codecs.DocumentCodec}的解码结果一致
+     * @author anwen
+     */
+    private Object readValue(BsonReader reader, DecoderContext decoderContext) {
+        BsonType bsonType = reader.getCurrentBsonType();
+        if (bsonType == BsonType.NULL) {
+            reader.readNull();
+            return null;
+        }
+        if (bsonType == BsonType.ARRAY) {
+            List<Object> list = new ArrayList<>();
+            reader.readStartArray();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                list.add(readValue(reader, decoderContext));
+            }
+            reader.readEndArray();
+            return list;
+        }
+        if (bsonType == BsonType.BINARY && reader.peekBinarySize() == 16) {
+            byte subType = reader.peekBinarySubType();
+            if (subType == BsonBinarySubType.UUID_STANDARD.getValue()
+                    || subType == BsonBinarySubType.UUID_LEGACY.getValue()) {
+                return codecRegistry.get(UUID.class).decode(reader, decoderContext);
+            }
+        }
+        return bsonTypeCodecMap.get(bsonType).decode(reader, decoderContext);
+    }
+
+    @Override
+    public void encode(BsonWriter writer, T value, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        mongoConverter.write(value, writer, encoderContext, codecRegistry);
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<T> getEncoderClass() {
+        return clazz;
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.mongoplus.codecs;
+
+import com.mongoplus.cache.global.SimpleCache;
+import com.mongoplus.mapping.MongoConverter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecProvider;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.conversions.Bson;
+
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+/**
+ * 实体编解码器的CodecProvider，为映射的实体类提供{@link EntityCodec}
+ * <p>简单类型、Map、Iterable、Bson、泛型类、接口和抽象类不处理，交给后续的CodecProvider</p>
+ *
+ * @author anwen
+ */
+public class EntityCodecProvider implements CodecProvider {
+
+    private final MongoConverter mongoConverter;
+
+    public EntityCodecProvider(MongoConverter mongoConverter) {
+        this.mongoConverter = mongoConverter;
+    }
+
+    @Override
+    public <T> Codec<T> get(Class<T> clazz, CodecRegistry registry) {
+        if (!isEntity(clazz)) {
+            return null;
+        }
+        return new EntityCodec<>(clazz, mongoConverter, registry);
+    }
+
+    /**
+     * 是否是可以直接解码的实体类
+     * @param clazz 类
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public static boolean isEntity(Class<?> clazz) {
+        if (clazz == null || clazz.isPrimitive() || clazz.isArray() || clazz.isEnum() || clazz.isInterface()
+                || Modifier.isAbstract(clazz.getModifiers()) || clazz.getTypeParameters().length > 0) {
+            return false;
+        }
+        if (Map.class.isAssignableFrom(clazz) || Iterable.class.isAssignableFrom(clazz)
+                || Bson.class.isAssignableFrom(clazz)) {
+            return false;
+        }
+        String className = clazz.getName();
+        if (className.startsWith("java.") || className.startsWith("javax.") || className.startsWith("org.bson.")
+                || className.startsWith("com.mongodb.")) {
+            return false;
+        }
+        return !SimpleCache.getSimpleTypeHolder().isSimpleType(clazz);
+    }
+
+    @Override
+    public String toString() {
+        return "EntityCodecProvider{}";
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.mongoplus.codecs;
+
+import com.mongoplus.bson.EntityDocument;
+import com.mongoplus.mapping.MongoConverter;
+import com.mongoplus.toolkit.BsonUtil;
+import org.bson.BsonReader;
+import org.bson.BsonValue;
+import org.bson.BsonWriter;
+import org.bson.Document;
+import org.bson.codecs.CollectibleCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+
+/**
+ * Document编解码器，{@link EntityDocument}没有被映射时直接将实体字段写入BsonWriter，其余委托给原编解码器
+ *
+ * @author anwen
+ */
+public class EntityDocumentCodec implements CollectibleCodec<Document> {
+
+    private final CollectibleCodec<Document> documentCodec;
+
+    private final MongoConverter mongoConverter;
+
+    private final CodecRegistry codecRegistry;
+
+    public EntityDocumentCodec(CollectibleCodec<Document> documentCodec, MongoConverter mongoConverter,
+                               CodecRegistry codecRegistry) {
+        this.documentCodec = documentCodec;
+        this.mongoConverter = mongoConverter;
+        this.codecRegistry = codecRegistry;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Document value, EncoderContext encoderContext) {
+        if (!isStreaming(value)) {
+            documentCodec.encode(writer, value, encoderContext);
+            return;
+        }
+        EntityDocument entityDocument = (EntityDocument) value;
+        writer.writeStartDocument();
+        entityDocument.getIdDocument().forEach((key, idValue) -> {
+            writer.writeName(key);
+            BsonUtil.writeValue(writer, idValue, encoderContext, codecRegistry);
+        });
+        mongoConverter.write(entityDocument.getEntity(), writer, encoderContext, codecRegistry);
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Document decode(BsonReader reader, DecoderContext decoderContext) {
+        return documentCodec.decode(reader, decoderContext);
+    }
+
+    @Override
+    public Class<Document> getEncoderClass() {
+        return Document.class;
+    }
+
+    @Override
+    public Document generateIdIfAbsentFromDocument(Document document) {
+        if (isStreaming(document)) {
+            documentCodec.generateIdIfAbsentFromDocument(((EntityDocument) document).getIdDocument());
+            return document;
+        }
+        return documentCodec.generateIdIfAbsentFromDocument(document);
+    }
+
+    @Override
+    public boolean documentHasId(Document document) {
+        if (isStreaming(document)) {
+            return documentCodec.documentHasId(((EntityDocument) document).getIdDocument());
+        }
+        return documentCodec.documentHasId(document);
+    }
+
+    @Override
+    public BsonValue getDocumentId(Document document) {
+        if (isStreaming(document)) {
+            return documentCodec.getDocumentId(((EntityDocument) document).getIdDocument());
+        }
+        return documentCodec.getDocumentId(document);
+    }
+
+    private boolean isStreaming(Document document) {
+        return document instanceof EntityDocument && ((EntityDocument) document).isStreaming();
+    }
+
+}
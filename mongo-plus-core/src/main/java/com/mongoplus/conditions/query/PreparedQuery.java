@@ -0,0 +1,300 @@
+package com.mongoplus.conditions.query;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.client.model.Collation;
+import com.mongoplus.bson.MongoPlusBasicDBObject;
+import com.mongoplus.domain.MongoPlusException;
+import com.mongoplus.handlers.condition.AbstractCondition;
+import com.mongoplus.handlers.condition.BuildCondition;
+import com.mongoplus.handlers.condition.Condition;
+import com.mongoplus.model.BaseConditionResult;
+import com.mongoplus.toolkit.ObjectIdUtil;
+import org.bson.Document;
+
+import java.util.*;
+
+/**
+ * 预编译查询，将{@link QueryChainWrapper}构建一次，编译为不可变的条件模板（条件、projection、排序）
+ * <p>条件中使用{@link #param(String)}声明命名参数，执行时只重建从根到参数的路径，其余不含参数的部分直接复制，
+ * 不再经过条件构建；拦截器会修改绑定后的条件，所以每次绑定得到的都是独立的副本</p>
+ * <p>绑定后的条件仍通过{@link com.mongoplus.execute.Execute}执行，多租户、逻辑删除等拦截器照常生效</p>
+ * <pre>{@code
+ * PreparedQuery<User> query = PreparedQuery.compile(new LambdaQueryChainWrapper<>(User.class)
+ *         .eq(User::getUserName, PreparedQuery.param("name"))
+ *         .in(User::getId, PreparedQuery.listParam("ids")));
+ * List<User> userList = mongoMapper.list(query, parameters);
+ * }</pre>
+ * <p>占位符不支持like等在构建条件时需要解析值的条件</p>
+ *
+ * @author anwen
+ */
+public final class PreparedQuery<T> {
+
+    private final Node condition;
+
+    private final BasicDBObject projection;
+
+    private final BasicDBObject sort;
+
+    private final Set<String> parameterNames;
+
+    private PreparedQuery(Node condition, BasicDBObject projection, BasicDBObject sort, Set<String> parameterNames) {
+        this.condition = condition;
+        this.projection = projection;
+        this.sort = sort;
+        this.parameterNames = Collections.unmodifiableSet(parameterNames);
+    }
+
+    /**
+     * 创建命名参数占位符
+     * @param name 参数名
+     * @return {@link com.mongoplus.conditions.query.QueryParameter}
+     * @author anwen
+     */
+    public static QueryParameter param(String name) {
+        return new QueryParameter(name, false);
+    }
+
+    /**
+     * 创建集合参数占位符，用于in、nin、all等集合条件，绑定的集合会展开到条件中
+     * @param name 参数名
+     * @return {@link java.util.List<java.lang.Object>}
+     * @author anwen
+     */
+    public static List<Object> listParam(String name) {
+        return Collections.singletonList(param(name));
+    }
+
+    /**
+     * 编译条件，条件只构建一次，编译后的模板线程安全
+     * @param queryChainWrapper 条件
+     * @return {@link com.mongoplus.conditions.query.PreparedQuery<T>}
+     * @author anwen
+     */
+    public static <T> PreparedQuery<T> compile(QueryChainWrapper<T, ?> queryChainWrapper) {
+        BaseConditionResult baseConditionResult = queryChainWrapper.buildCondition();
+        Set<String> parameterNames = new LinkedHashSet<>();
+        BasicDBObject basicDBObject = baseConditionResult.getCondition();
+        Node condition = new RootNode(compile(basicDBObject, true, parameterNames),
+                MongoPlusBasicDBObject.getCollation(basicDBObject));
+        return new PreparedQuery<>(condition, baseConditionResult.getProjection(), baseConditionResult.getSort(),
+                parameterNames);
+    }
+
+    /**
+     * 获取所有参数名
+     * @return {@link java.util.Set<java.lang.String>}
+     * @author anwen
+     */
+    public Set<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    /**
+     * 绑定参数，返回本次执行的条件，拦截器可以修改返回的条件而不影响模板
+     * @param parameters 参数名和参数值
+     * @return {@link com.mongoplus.model.BaseConditionResult}
+     * @author anwen
+     */
+    public BaseConditionResult bind(Map<String, ?> parameters) {
+        Map<String, ?> parameterMap = parameters != null ? parameters : Collections.emptyMap();
+        return new BaseConditionResult(
+                condition != null ? (BasicDBObject) condition.bind(parameterMap) : null,
+                projection != null ? new BasicDBObject(projection) : null,
+                sort != null ? new BasicDBObject(sort) : null
+        );
+    }
+
+    private static Node compile(Object value, boolean root, Set<String> parameterNames) {
+        QueryParameter queryParameter = QueryParameter.parse(value);
+        if (queryParameter != null) {
+            parameterNames.add(queryParameter.getName());
+            return new ParameterNode(queryParameter);
+        }
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            String[] keys = new String[map.size()];
+            Node[] nodes = new Node[map.size()];
+            boolean constant = !root;
+            int i = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                keys[i] = String.valueOf(entry.getKey());
+                nodes[i] = compile(entry.getValue(), false, parameterNames);
+                constant &= nodes[i] instanceof ConstantNode;
+                i++;
+            }
+            return constant ? new ConstantNode(value) : new DocumentNode(keys, nodes, root);
+        }
+        if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            Node[] nodes = new Node[list.size()];
+            boolean constant = true;
+            for (int i = 0; i < list.size(); i++) {
+                nodes[i] = compile(list.get(i), false, parameterNames);
+                constant &= nodes[i] instanceof ConstantNode;
+            }
+            return constant ? new ConstantNode(value) : new ArrayNode(nodes);
+        }
+        return new ConstantNode(value);
+    }
+
+    /**
+     * 条件模板节点
+     */
+    private interface Node {
+
+        Object bind(Map<String, ?> parameters);
+
+    }
+
+    /**
+     * 不包含参数的部分，每次绑定返回深拷贝，拦截器修改绑定后的条件时不会改到模板
+     */
+    private static final class ConstantNode implements Node {
+
+        private final Object value;
+
+        private ConstantNode(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object bind(Map<String, ?> parameters) {
+            return copy(value);
+        }
+
+        private static Object copy(Object value) {
+            if (value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                Map<String, Object> document = value instanceof BasicDBObject ? new BasicDBObject(map.size())
+                        : new Document(new LinkedHashMap<>(map.size()));
+                map.forEach((key, child) -> document.put(String.valueOf(key), copy(child)));
+                return document;
+            }
+            if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                List<Object> copyList = new ArrayList<>(list.size());
+                for (Object child : list) {
+                    copyList.add(copy(child));
+                }
+                return copyList;
+            }
+            if (value instanceof Date) {
+                return new Date(((Date) value).getTime());
+            }
+            return value;
+        }
+
+    }
+
+    private static final class ParameterNode implements Node {
+
+        private final QueryParameter queryParameter;
+
+        private ParameterNode(QueryParameter queryParameter) {
+            this.queryParameter = queryParameter;
+        }
+
+        @Override
+        public Object bind(Map<String, ?> parameters) {
+            String name = queryParameter.getName();
+            Object value = parameters.get(name);
+            if (value == null && !parameters.containsKey(name)) {
+                throw new MongoPlusException("Missing query parameter: " + name);
+            }
+            if (value == null) {
+                return null;
+            }
+            Condition condition = BuildCondition.condition();
+            if (condition instanceof AbstractCondition) {
+                value = ((AbstractCondition) condition).convertValue(value);
+            }
+            return queryParameter.isObjectId() ? ObjectIdUtil.getObjectIdValue(value) : value;
+        }
+
+    }
+
+    private static final class DocumentNode implements Node {
+
+        private final String[] keys;
+
+        private final Node[] nodes;
+
+        private final boolean root;
+
+        private DocumentNode(String[] keys, Node[] nodes, boolean root) {
+            this.keys = keys;
+            this.nodes = nodes;
+            this.root = root;
+        }
+
+        @Override
+        public Object bind(Map<String, ?> parameters) {
+            Map<String, Object> document = root ? new MongoPlusBasicDBObject() : new Document();
+            for (int i = 0; i < keys.length; i++) {
+                document.put(keys[i], nodes[i].bind(parameters));
+            }
+            return document;
+        }
+
+    }
+
+    /**
+     * 根节点，每次绑定都返回新的条件，并带上条件构建时的排序规则
+     */
+    private static final class RootNode implements Node {
+
+        private final Node node;
+
+        private final Collation collation;
+
+        private RootNode(Node node, Collation collation) {
+            this.node = node;
+            this.collation = collation;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object bind(Map<String, ?> parameters) {
+            Object value = node.bind(parameters);
+            MongoPlusBasicDBObject basicDBObject;
+            if (value instanceof MongoPlusBasicDBObject) {
+                basicDBObject = (MongoPlusBasicDBObject) value;
+            } else {
+                basicDBObject = new MongoPlusBasicDBObject();
+                basicDBObject.putAll((Map<String, ?>) value);
+            }
+            basicDBObject.setCollation(collation);
+            return basicDBObject;
+        }
+
+    }
+
+    /**
+     * 数组节点，数组中的参数绑定集合时展开
+     */
+    private static final class ArrayNode implements Node {
+
+        private final Node[] nodes;
+
+        private ArrayNode(Node[] nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public Object bind(Map<String, ?> parameters) {
+            List<Object> list = new ArrayList<>(nodes.length);
+            for (Node node : nodes) {
+                Object value = node.bind(parameters);
+                if (node instanceof ParameterNode && value instanceof Collection) {
+                    list.addAll((Collection<?>) value);
+                } else {
+                    list.add(value);
+                }
+            }
+            return list;
+        }
+
+    }
+
+}
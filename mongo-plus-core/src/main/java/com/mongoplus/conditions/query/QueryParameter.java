@@ -0,0 +1,114 @@
+package com.mongoplus.conditions.query;
+
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.conversions.Bson;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 预编译查询的命名参数占位符，通过{@link PreparedQuery#param(String)}创建
+ * <p>占位符在条件中编码为{@code {"$mongoPlusParam": name}}，由{@link PreparedQuery}编译时识别并在执行时替换为参数值</p>
+ *
+ * @author anwen
+ */
+public final class QueryParameter implements Bson {
+
+    /**
+     * 参数名的键
+     */
+    public static final String PARAMETER_KEY = "$mongoPlusParam";
+
+    /**
+     * 是否需要转换为ObjectId的键
+     */
+    public static final String OBJECT_ID_KEY = "$mongoPlusObjectId";
+
+    private final String name;
+
+    private final boolean objectId;
+
+    QueryParameter(String name, boolean objectId) {
+        this.name = Objects.requireNonNull(name, "parameter name must not be null");
+        this.objectId = objectId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isObjectId() {
+        return objectId;
+    }
+
+    /**
+     * 获取绑定值时需要转换为ObjectId的占位符，_id字段的条件使用
+     * @return {@link com.mongoplus.conditions.query.QueryParameter}
+     * @author anwen
+     */
+    public QueryParameter toObjectId() {
+        return objectId ? this : new QueryParameter(name, true);
+    }
+
+    @Override
+    public <TDocument> BsonDocument toBsonDocument(Class<TDocument> documentClass, CodecRegistry codecRegistry) {
+        BsonDocument bsonDocument = new BsonDocument(PARAMETER_KEY, new BsonString(name));
+        if (objectId) {
+            bsonDocument.append(OBJECT_ID_KEY, BsonBoolean.TRUE);
+        }
+        return bsonDocument;
+    }
+
+    /**
+     * 从编码后的条件中解析占位符，不是占位符返回null
+     * @param value 条件值
+     * @return {@link com.mongoplus.conditions.query.QueryParameter}
+     * @author anwen
+     */
+    static QueryParameter parse(Object value) {
+        if (value instanceof QueryParameter) {
+            return (QueryParameter) value;
+        }
+        if (!(value instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> map = (Map<?, ?>) value;
+        Object name = map.get(PARAMETER_KEY);
+        if (name == null) {
+            return null;
+        }
+        if (name instanceof BsonValue) {
+            name = ((BsonValue) name).asString().getValue();
+        }
+        Object objectId = map.get(OBJECT_ID_KEY);
+        if (objectId instanceof BsonValue) {
+            objectId = ((BsonValue) objectId).asBoolean().getValue();
+        }
+        return new QueryParameter(String.valueOf(name), Boolean.TRUE.equals(objectId));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        QueryParameter that = (QueryParameter) o;
+        return objectId == that.objectId && name.equals(that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, objectId);
+    }
+
+    @Override
+    public String toString() {
+        return "QueryParameter{" +
+                "name='" + name + '\'' +
+                ", objectId=" + objectId +
+                '}';
+    }
+}
@@ -11,7 +11,9 @@ import com.mongoplus.constant.DataSourceConstant;
 import com.mongoplus.domain.InitMongoLogicException;
 import com.mongoplus.domain.InitMongoPlusException;
 import com.mongoplus.enums.CollectionNameConvertEnum;
+import com.mongoplus.enums.LikeStrategy;
 import com.mongoplus.enums.LogicDataType;
+import com.mongoplus.execute.AsyncExecute;
 import com.mongoplus.execute.ExecutorFactory;
 import com.mongoplus.factory.MongoClientFactory;
 import com.mongoplus.handlers.IdGenerateHandler;
@@ -19,6 +21,7 @@ import com.mongoplus.handlers.MetaObjectHandler;
 import com.mongoplus.handlers.TenantHandler;
 import com.mongoplus.handlers.collection.AnnotationOperate;
 import com.mongoplus.incrementer.id.AbstractIdGenerateHandler;
+import com.mongoplus.incrementer.id.WorkerIdLease;
 import com.mongoplus.interceptor.AdvancedInterceptor;
 import com.mongoplus.interceptor.AdvancedInterceptorChain;
 import com.mongoplus.interceptor.Interceptor;
@@ -31,10 +34,10 @@ import com.mongoplus.manager.LogicManager;
 import com.mongoplus.manager.MongoPlusClient;
 import com.mongoplus.mapper.BaseMapper;
 import com.mongoplus.mapper.DefaultBaseMapperImpl;
+import com.mongoplus.mapping.EntityMetadata;
 import com.mongoplus.mapping.FieldInformation;
 import com.mongoplus.mapping.MappingMongoConverter;
 import com.mongoplus.mapping.MongoConverter;
-import com.mongoplus.mapping.TypeInformation;
 import com.mongoplus.model.BaseProperty;
 import com.mongoplus.model.LogicDeleteResult;
 import com.mongoplus.model.LogicProperty;
@@ -48,6 +51,8 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -274,6 +279,9 @@ public class Configuration {
         }
         MongoPlusClient mongoPlusClient = initMongoPlusClient();
         idGenerateHandler(new AbstractIdGenerateHandler(mongoPlusClient) {});
+        if (StringUtils.isNotBlank(PropertyCache.workerIdLeaseCollection)) {
+            WorkerIdLease.acquire(mongoPlusClient.getCollection((String) null, PropertyCache.workerIdLeaseCollection));
+        }
         return mongoPlusClient;
     }
 
@@ -357,6 +365,162 @@ public class Configuration {
         return this;
     }
 
+    /**
+     * 设置异步方法使用的线程池，异步方法在线程池中调用同步驱动，每个执行中的调用占用一个线程，线程数决定同时执行的异步调用数
+     * @param executor 线程池
+     * @return {@link com.mongoplus.config.Configuration}
+     * @author anwen
+     */
+    public Configuration asyncExecutor(Executor executor){
+        AsyncExecute.setExecutor(executor);
+        return this;
+    }
+
+    /**
+     * 设置多个更新条件合并为bulkWrite时的批量大小和是否有序执行
+     * @param batchSize 每次bulkWrite的最大条件数量，小于等于0时不拆分
+     * @param ordered 是否有序执行
+     * @return {@link com.mongoplus.config.Configuration}
+     * @author anwen
+     */
+    public Configuration updateBatch(int batchSize, boolean ordered){
+        PropertyCache.updateBatchSize = batchSize;
+        PropertyCache.updateBatchOrdered = ordered;
+        return this;
+    }
+
+    /**
+     * 开启分页查询时总数和数据并发查询，总数查询使用{@link #asyncExecutor(Executor)}设置的线程池
+     * <p>异步线程只会恢复MongoPlus上下文，租户处理器等读取的调用方ThreadLocal不会传递；
+     * 线程池的execute在调用方线程执行，可以在其中捕获并传递这些ThreadLocal，否则不要开启</p>
+     * @return {@link com.mongoplus.config.Configuration}
+     * @author anwen
+     */
+    public Configuration pageConcurrentCount(){
+        PropertyCache.pageConcurrentCount = true;
+        return this;
+    }
+
+    /**
+     * 开启实体编解码器，查询实体时直接从BSON解码为实体，不再先解码为Document
+     * <p>开启后查询执行器返回的是实体类型的FindIterable，拦截器中如有依赖Document结果的逻辑需要注意</p>
+     * @return {@link com.mongoplus.config.Configuration}
+     * @author anwen
+     */
+    public Configuration entityCodec(){
+        PropertyCache.entityCodec = true;
+        return this;
+    }
+
+    /**
+     * 设置like条件的全局构建策略，字段可以通过{@link com.mongoplus.annotation.collection.CollectionField#likeStrategy()}单独设置
+     * @param likeStrategy 构建策略
+     * @return {@link com.mongoplus.config.Configuration}
+     * @author anwen
+     */
+    public Configuration likeStrategy(LikeStrategy likeStrategy){
+        PropertyCache.likeStrategy = likeStrategy;
+        return this;
+    }
+
+    /**
+     * 设置{@link LikeStrategy#COLLATION}使用的排序规则语言，强度为2（不区分大小写），需要创建相同排序规则的索引
+     * @param locale 排序规则语言，如en、zh
+     * @return {@link com.mongoplus.config.Configuration}
+     * @author anwen
+     */
+    public Configuration likeCollationLocale(String locale){
+        PropertyCache.likeCollationLocale = locale;
+        return this;
+    }
+
+    /**
+     * 设置查询结果缓存的最大条数，超过时淘汰访问频率低的结果
+     * @param maximumSize 最大条数
+     * @return {@link com.mongoplus.config.Configuration}
+     * @author anwen
+     */
+    public Configuration queryCacheMaximumSize(int maximumSize){
+        PropertyCache.queryCacheMaximumSize = maximumSize;
+        return this;
+    }
+
+    /**
+     * 设置根据id批量加载的等待时间和最大批量，等待时间大于0时开启合并
+     * <p>合并后整批查询使用第一个调用者的上下文，读取调用者ThreadLocal的自定义拦截器需要通过
+     * {@link com.mongoplus.execute.batch.IdBatchLoader#addContextKey}声明</p>
+     * @param window 等待时间（毫秒）
+     * @param maximumSize 最大批量
+     * @return {@link com.mongoplus.config.Configuration}
+     * @author anwen
+     */
+    public Configuration idBatch(int window, int maximumSize){
+        PropertyCache.idBatchWindow = window;
+        PropertyCache.idBatchMaximumSize = maximumSize;
+        return this;
+    }
+
+    /**
+     * 设置保存变更流恢复令牌的集合
+     * @param collectionName 集合名
+     * @return {@link com.mongoplus.config.Configuration}
+     * @author anwen
+     */
+    public Configuration resumeTokenCollection(String collectionName){
+        PropertyCache.resumeTokenCollection = collectionName;
+        return this;
+    }
+
+    /**
+     * 设置批量新增的分块和并行度
+     * @param batchSize 每个分块的最大条数
+     * @param maxBytes 每个分块编码后的最大字节数，小于等于0时不限制
+     * @param parallelism 并行度
+     * @return {@link com.mongoplus.config.Configuration}
+     * @author anwen
+     */
+    public Configuration saveBatch(int batchSize, int maxBytes, int parallelism){
+        PropertyCache.saveBatchSize = batchSize;
+        PropertyCache.saveBatchMaxBytes = maxBytes;
+        PropertyCache.saveBatchParallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * 设置自增id的号段大小，每次从数据库预留blockSize个id
+     * @param blockSize 号段大小，1为每次生成都访问数据库
+     * @return {@link com.mongoplus.config.Configuration}
+     * @author anwen
+     */
+    public Configuration autoIdBlockSize(int blockSize){
+        PropertyCache.autoIdBlockSize = blockSize;
+        return this;
+    }
+
+    /**
+     * 设置保存雪花算法机器标识租约的集合，{@link #getMongoPlusClient()}时通过租约自动分配workerId和datacenterId
+     * @param collectionName 集合名
+     * @return {@link com.mongoplus.config.Configuration}
+     * @author anwen
+     */
+    public Configuration workerIdLease(String collectionName){
+        PropertyCache.workerIdLeaseCollection = collectionName;
+        return this;
+    }
+
+    /**
+     * 开启总数缓存
+     * @param ttl 过期时间
+     * @param timeUnit 时间单位
+     * @param maxSize 最大缓存数量
+     * @return {@link com.mongoplus.config.Configuration}
+     * @author anwen
+     */
+    public Configuration countCache(long ttl, TimeUnit timeUnit, int maxSize){
+        AdvancedInterceptorChain.addInterceptor(new CountCacheInterceptor(ttl, timeUnit, maxSize));
+        return this;
+    }
+
     /**
      * 配置逻辑删除
      *
@@ -412,13 +576,13 @@ public class Configuration {
             if (logicDeleteResultHashMap.containsKey(clazz)) {
                 continue;
             }
-            TypeInformation typeInformation = TypeInformation.of(clazz);
-            FieldInformation ignoreLogicAnnotation = typeInformation.getAnnotationField(IgnoreLogic.class);
+            EntityMetadata entityMetadata = EntityMetadata.of(clazz);
+            FieldInformation ignoreLogicAnnotation = entityMetadata.getAnnotationField(IgnoreLogic.class);
             // 如果存在忽略逻辑删除注解
             if (Objects.nonNull(ignoreLogicAnnotation)) {
                 continue;
             }
-            FieldInformation annotationField = typeInformation.getAnnotationField(CollectionLogic.class);
+            FieldInformation annotationField = entityMetadata.getLogicDeleteField();
             // 优先使用每个对象自定义规则
             if (Objects.nonNull(annotationField)) {
                 CollectionLogic annotation = annotationField.getAnnotation(CollectionLogic.class);
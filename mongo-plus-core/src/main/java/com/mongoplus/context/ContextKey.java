@@ -0,0 +1,157 @@
+package com.mongoplus.context;
+
+import java.util.function.Supplier;
+
+/**
+ * 上下文键，替代各处独立的ThreadLocal，所有键的值保存在同一个上下文帧中
+ * <p>可传递的键会被{@link MongoPlusContext#capture()}捕获，在其他线程中恢复；不可传递的键(如事务)只在当前执行单元有效</p>
+ *
+ * @author anwen
+ */
+@SuppressWarnings("unchecked")
+public final class ContextKey<T> {
+
+    /**
+     * 键名称
+     */
+    private final String name;
+
+    /**
+     * 在上下文帧中的下标
+     */
+    private final int index;
+
+    /**
+     * 是否可以跨线程传递
+     */
+    private final boolean propagate;
+
+    ContextKey(String name, int index, boolean propagate) {
+        this.name = name;
+        this.index = index;
+        this.propagate = propagate;
+    }
+
+    /**
+     * 创建一个可跨线程传递的键
+     * @param name 键名称
+     * @return {@link ContextKey}
+     * @author anwen
+     */
+    public static <T> ContextKey<T> of(String name) {
+        return MongoPlusContext.register(name, true);
+    }
+
+    /**
+     * 创建一个只在当前执行单元有效的键
+     * @param name 键名称
+     * @return {@link ContextKey}
+     * @author anwen
+     */
+    public static <T> ContextKey<T> local(String name) {
+        return MongoPlusContext.register(name, false);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    public boolean isPropagate() {
+        return propagate;
+    }
+
+    /**
+     * 获取当前值
+     * @return {@link T}
+     * @author anwen
+     */
+    public T get() {
+        Object[] frame = MongoPlusContext.getStorage().get();
+        if (frame == null || index >= frame.length) {
+            return null;
+        }
+        return (T) frame[index];
+    }
+
+    /**
+     * 设置当前值，值为null等同于{@link #remove()}
+     * @param value 值
+     * @author anwen
+     */
+    public void set(T value) {
+        if (value == null) {
+            remove();
+            return;
+        }
+        ContextStorage storage = MongoPlusContext.getStorage();
+        Object[] frame = storage.get();
+        if (frame == null || index >= frame.length) {
+            Object[] newFrame = new Object[MongoPlusContext.size()];
+            if (frame != null) {
+                System.arraycopy(frame, 0, newFrame, 0, frame.length);
+            }
+            frame = newFrame;
+            storage.set(frame);
+        }
+        frame[index] = value;
+    }
+
+    /**
+     * 移除当前值，上下文帧全部为空时移除整个帧，避免线程池线程残留
+     * @author anwen
+     */
+    public void remove() {
+        ContextStorage storage = MongoPlusContext.getStorage();
+        Object[] frame = storage.get();
+        if (frame == null || index >= frame.length) {
+            return;
+        }
+        frame[index] = null;
+        for (Object value : frame) {
+            if (value != null) {
+                return;
+            }
+        }
+        storage.remove();
+    }
+
+    /**
+     * 在指定值的作用域内执行，执行结束后恢复之前的值
+     * @param value 值
+     * @param supplier 执行方法
+     * @return {@link R}
+     * @author anwen
+     */
+    public <R> R callWith(T value, Supplier<R> supplier) {
+        T previous = get();
+        set(value);
+        try {
+            return supplier.get();
+        } finally {
+            set(previous);
+        }
+    }
+
+    /**
+     * 在指定值的作用域内执行，执行结束后恢复之前的值
+     * @param value 值
+     * @param runnable 执行方法
+     * @author anwen
+     */
+    public void runWith(T value, Runnable runnable) {
+        callWith(value, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "ContextKey{" + name + "}";
+    }
+
+}
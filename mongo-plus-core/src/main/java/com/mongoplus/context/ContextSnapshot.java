@@ -0,0 +1,119 @@
+package com.mongoplus.context;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * 捕获的上下文快照，在其他线程中执行时恢复，执行结束后还原目标线程原有的上下文
+ *
+ * @author anwen
+ */
+public final class ContextSnapshot {
+
+    /**
+     * 空快照，执行时清空目标线程的上下文
+     */
+    static final ContextSnapshot EMPTY = new ContextSnapshot(null);
+
+    private final Object[] frame;
+
+    ContextSnapshot(Object[] frame) {
+        this.frame = frame;
+    }
+
+    /**
+     * 在快照的上下文中执行
+     * @param supplier 执行方法
+     * @return {@link T}
+     * @author anwen
+     */
+    public <T> T call(Supplier<T> supplier) {
+        Object[] previous = apply();
+        try {
+            return supplier.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * 在快照的上下文中执行
+     * @param runnable 执行方法
+     * @author anwen
+     */
+    public void run(Runnable runnable) {
+        call(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * 包装任务，执行时恢复快照
+     * @param runnable 任务
+     * @return {@link Runnable}
+     * @author anwen
+     */
+    public Runnable wrap(Runnable runnable) {
+        return () -> run(runnable);
+    }
+
+    /**
+     * 包装任务，执行时恢复快照
+     * @param supplier 任务
+     * @return {@link Supplier}
+     * @author anwen
+     */
+    public <T> Supplier<T> wrap(Supplier<T> supplier) {
+        return () -> call(supplier);
+    }
+
+    /**
+     * 包装任务，执行时恢复快照
+     * @param callable 任务
+     * @return {@link Callable}
+     * @author anwen
+     */
+    public <T> Callable<T> wrap(Callable<T> callable) {
+        return () -> {
+            Object[] previous = apply();
+            try {
+                return callable.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * 恢复快照，返回目标线程原有的上下文帧
+     * @return {@link Object[]}
+     * @author anwen
+     */
+    private Object[] apply() {
+        ContextStorage storage = MongoPlusContext.getStorage();
+        Object[] previous = storage.get();
+        if (frame == null) {
+            storage.remove();
+        } else {
+            // 快照可能同时在多个线程恢复，每次恢复使用独立的副本
+            storage.set(frame.clone());
+        }
+        return previous;
+    }
+
+    /**
+     * 还原目标线程原有的上下文帧
+     * @param previous 原有的上下文帧
+     * @author anwen
+     */
+    private void restore(Object[] previous) {
+        ContextStorage storage = MongoPlusContext.getStorage();
+        if (previous == null) {
+            storage.remove();
+        } else {
+            storage.set(previous);
+        }
+    }
+
+}
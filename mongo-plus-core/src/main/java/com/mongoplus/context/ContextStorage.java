@@ -0,0 +1,32 @@
+package com.mongoplus.context;
+
+/**
+ * 上下文存储，保存当前执行单元(线程、虚拟线程或作用域)持有的上下文帧
+ * <p>默认实现为{@link ThreadLocalContextStorage}，可以通过{@link MongoPlusContext#setStorage(ContextStorage)}替换，
+ * 如使用ScopedValue或TransmittableThreadLocal实现</p>
+ *
+ * @author anwen
+ */
+public interface ContextStorage {
+
+    /**
+     * 获取当前上下文帧
+     * @return {@link Object[]} 没有上下文时返回null
+     * @author anwen
+     */
+    Object[] get();
+
+    /**
+     * 设置当前上下文帧
+     * @param frame 上下文帧
+     * @author anwen
+     */
+    void set(Object[] frame);
+
+    /**
+     * 移除当前上下文帧
+     * @author anwen
+     */
+    void remove();
+
+}
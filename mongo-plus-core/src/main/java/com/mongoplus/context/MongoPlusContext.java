@@ -0,0 +1,133 @@
+package com.mongoplus.context;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * MongoPlus上下文，统一管理数据源、事务、忽略租户、忽略逻辑删除等执行状态
+ * <p>所有{@link ContextKey}的值保存在一个上下文帧中，每个执行单元只占用一个存储槽，不会像InheritableThreadLocal一样复制到每个子线程</p>
+ * <p>跨线程执行时通过{@link #capture()}捕获当前上下文，在目标线程中通过{@link ContextSnapshot}恢复</p>
+ *
+ * @author anwen
+ */
+public final class MongoPlusContext {
+
+    /**
+     * 已注册的键
+     */
+    private static final List<ContextKey<?>> keys = new CopyOnWriteArrayList<>();
+
+    /**
+     * 上下文存储
+     */
+    private static volatile ContextStorage storage = new ThreadLocalContextStorage();
+
+    private MongoPlusContext() {
+    }
+
+    /**
+     * 注册键
+     * @param name 键名称
+     * @param propagate 是否可以跨线程传递
+     * @return {@link ContextKey}
+     * @author anwen
+     */
+    static synchronized <T> ContextKey<T> register(String name, boolean propagate) {
+        ContextKey<T> key = new ContextKey<>(name, keys.size(), propagate);
+        keys.add(key);
+        return key;
+    }
+
+    /**
+     * 已注册键的数量
+     * @return {@link int}
+     * @author anwen
+     */
+    static int size() {
+        return keys.size();
+    }
+
+    /**
+     * 获取上下文存储
+     * @return {@link ContextStorage}
+     * @author anwen
+     */
+    public static ContextStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * 替换上下文存储，需要在执行任何操作之前设置，已存在的上下文不会迁移
+     * @param contextStorage 上下文存储
+     * @author anwen
+     */
+    public static void setStorage(ContextStorage contextStorage) {
+        storage = contextStorage;
+    }
+
+    /**
+     * 捕获当前可传递的上下文
+     * @return {@link ContextSnapshot}
+     * @author anwen
+     */
+    public static ContextSnapshot capture() {
+        Object[] frame = storage.get();
+        if (frame == null) {
+            return ContextSnapshot.EMPTY;
+        }
+        Object[] captured = new Object[frame.length];
+        boolean empty = true;
+        for (ContextKey<?> key : keys) {
+            int index = key.getIndex();
+            if (key.isPropagate() && index < frame.length && frame[index] != null) {
+                captured[index] = frame[index];
+                empty = false;
+            }
+        }
+        return empty ? ContextSnapshot.EMPTY : new ContextSnapshot(captured);
+    }
+
+    /**
+     * 包装任务，在执行时恢复当前上下文
+     * @param runnable 任务
+     * @return {@link Runnable}
+     * @author anwen
+     */
+    public static Runnable wrap(Runnable runnable) {
+        return capture().wrap(runnable);
+    }
+
+    /**
+     * 包装任务，在执行时恢复当前上下文
+     * @param supplier 任务
+     * @return {@link Supplier}
+     * @author anwen
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> supplier) {
+        return capture().wrap(supplier);
+    }
+
+    /**
+     * 包装任务，在执行时恢复当前上下文
+     * @param callable 任务
+     * @return {@link Callable}
+     * @author anwen
+     */
+    public static <T> Callable<T> wrap(Callable<T> callable) {
+        return capture().wrap(callable);
+    }
+
+    /**
+     * 包装线程池，提交的任务会携带提交时的上下文
+     * @param executor 线程池
+     * @return {@link Executor}
+     * @author anwen
+     */
+    public static Executor wrap(Executor executor) {
+        return command -> executor.execute(wrap(command));
+    }
+
+}
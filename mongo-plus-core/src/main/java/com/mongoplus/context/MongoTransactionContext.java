@@ -8,7 +8,10 @@ import com.mongodb.client.ClientSession;
  * * @date 2023/09/17 17:42
  */
 public class MongoTransactionContext {
-    private static final ThreadLocal<MongoTransactionStatus> threadLocalHeaderMap = new ThreadLocal<>();
+    /**
+     * 事务状态，ClientSession不是线程安全的，不会跨线程传递
+     */
+    private static final ContextKey<MongoTransactionStatus> threadLocalHeaderMap = ContextKey.local("mongoTransactionStatus");
 
     public MongoTransactionContext() {
     }
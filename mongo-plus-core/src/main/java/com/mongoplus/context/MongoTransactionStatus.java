@@ -2,11 +2,15 @@ package com.mongoplus.context;
 
 import com.mongodb.client.ClientSession;
 import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.execute.ExecutePipeline;
 import com.mongoplus.logging.Log;
 import com.mongoplus.logging.LogFactory;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class MongoTransactionStatus {
 
@@ -22,6 +26,26 @@ public class MongoTransactionStatus {
      */
     private long referenceCount;
 
+    /**
+     * 当前事务已构建的执行器管道
+     */
+    private volatile ExecutePipeline executePipeline;
+
+    /**
+     * 事务中写过的集合，提交后使查询结果缓存失效
+     */
+    private final Set<String> writtenNamespaceSet = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 提交后执行的回调，回滚时丢弃
+     */
+    private final List<Runnable> afterCommitList = new CopyOnWriteArrayList<>();
+
+    /**
+     * 已添加的提交后回调的key
+     */
+    private final Set<String> afterCommitKeySet = ConcurrentHashMap.newKeySet();
+
     public MongoTransactionStatus(ClientSession clientSession) {
         this.clientSessionMap.put(DataSourceNameCache.getDataSource(),clientSession);
         this.referenceCount = 0;
@@ -31,6 +55,56 @@ public class MongoTransactionStatus {
         return this.clientSessionMap.get(DataSourceNameCache.getDataSource());
     }
 
+    public ExecutePipeline getExecutePipeline() {
+        return executePipeline;
+    }
+
+    public void setExecutePipeline(ExecutePipeline executePipeline) {
+        this.executePipeline = executePipeline;
+    }
+
+    public void addWrittenNamespace(String namespace) {
+        writtenNamespaceSet.add(namespace);
+    }
+
+    public Set<String> getWrittenNamespaces() {
+        return writtenNamespaceSet;
+    }
+
+    /**
+     * 添加提交后执行的回调，如事务中的写操作在提交后才能复制到其他数据源
+     * @param callback 回调
+     * @author anwen
+     */
+    public void afterCommit(Runnable callback) {
+        afterCommitList.add(callback);
+    }
+
+    /**
+     * 添加提交后执行的回调，同一个key只添加一次，如事务中多次写入同一集合时只需要在提交后失效一次缓存
+     * @param key 回调的key
+     * @param callback 回调
+     * @author anwen
+     */
+    public void afterCommit(String key, Runnable callback) {
+        if (afterCommitKeySet.add(key)) {
+            afterCommitList.add(callback);
+        }
+    }
+
+    public List<Runnable> getAfterCommitList() {
+        return afterCommitList;
+    }
+
+    /**
+     * 清空提交后的回调，提交执行完或回滚时调用
+     * @author anwen
+     */
+    public void clearAfterCommit() {
+        afterCommitList.clear();
+        afterCommitKeySet.clear();
+    }
+
     public void incrementReference() {
         log.debug("Reference increment");
         this.referenceCount++;
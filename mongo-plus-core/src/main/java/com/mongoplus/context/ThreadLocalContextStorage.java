@@ -0,0 +1,28 @@
+package com.mongoplus.context;
+
+/**
+ * 基于ThreadLocal的上下文存储，每个线程只持有一个上下文帧
+ * <p>不使用InheritableThreadLocal，子线程不会复制上下文，跨线程传递请使用{@link MongoPlusContext#capture()}</p>
+ *
+ * @author anwen
+ */
+public class ThreadLocalContextStorage implements ContextStorage {
+
+    private final ThreadLocal<Object[]> frameThreadLocal = new ThreadLocal<>();
+
+    @Override
+    public Object[] get() {
+        return frameThreadLocal.get();
+    }
+
+    @Override
+    public void set(Object[] frame) {
+        frameThreadLocal.set(frame);
+    }
+
+    @Override
+    public void remove() {
+        frameThreadLocal.remove();
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.mongoplus.execute;
+
+import com.mongoplus.context.ContextSnapshot;
+import com.mongoplus.context.MongoPlusContext;
+import com.mongoplus.context.MongoTransactionContext;
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 异步执行器，mapper的异步方法通过此类提交到线程池执行
+ * <p>执行时通过{@link MongoPlusContext#capture()}携带调用线程的数据源、忽略租户、忽略逻辑删除状态，保证拦截器链、多租户、逻辑删除和结果映射与同步方法一致</p>
+ * <p>异步方法仍然调用同步驱动，只是把阻塞的调用转移到线程池中，并不是非阻塞的：每个执行中的调用占用一个线程直到数据库返回，
+ * 同时发起大量调用时超过线程数的部分在队列中等待</p>
+ * <p>默认使用虚拟线程(Java21+)，阻塞时不占用平台线程；低版本使用固定线程数（CPU核数的2倍，至少8个）的守护线程池，
+ * 可以通过{@link #setExecutor(Executor)}替换</p>
+ * <p>线程池中的任务再次发起异步调用时直接在当前线程执行，不会占用线程等待排在自己后面的任务，避免线程全部等待时死锁</p>
+ *
+ * @author anwen
+ */
+public class AsyncExecute {
+
+    private static final Log log = LogFactory.getLog(AsyncExecute.class);
+
+    /**
+     * 异步执行的线程池
+     */
+    private static volatile Executor executor;
+
+    /**
+     * 当前线程是否正在执行异步任务
+     */
+    private static final ThreadLocal<Boolean> asyncThread = new ThreadLocal<>();
+
+    /**
+     * 提交到线程池的任务执行时标记当前线程
+     */
+    private static final Executor markedExecutor = command -> getRawExecutor().execute(() -> {
+        Boolean previous = asyncThread.get();
+        asyncThread.set(Boolean.TRUE);
+        try {
+            command.run();
+        } finally {
+            if (previous == null) {
+                asyncThread.remove();
+            } else {
+                asyncThread.set(previous);
+            }
+        }
+    });
+
+    private AsyncExecute() {
+    }
+
+    /**
+     * 获取异步执行的线程池，提交的任务执行时{@link #isAsyncThread()}返回true
+     * @return {@link java.util.concurrent.Executor}
+     * @author anwen
+     */
+    public static Executor getExecutor() {
+        return markedExecutor;
+    }
+
+    /**
+     * 当前线程是否正在执行{@link #getExecutor()}中的任务，此时不要再提交任务并等待结果
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public static boolean isAsyncThread() {
+        return Boolean.TRUE.equals(asyncThread.get());
+    }
+
+    private static Executor getRawExecutor() {
+        Executor currentExecutor = executor;
+        if (currentExecutor == null) {
+            synchronized (AsyncExecute.class) {
+                if (executor == null) {
+                    executor = defaultExecutor();
+                }
+                currentExecutor = executor;
+            }
+        }
+        return currentExecutor;
+    }
+
+    /**
+     * 设置异步执行的线程池
+     * @param executor 线程池
+     * @author anwen
+     */
+    public static void setExecutor(Executor executor) {
+        AsyncExecute.executor = executor;
+    }
+
+    /**
+     * 异步执行
+     * <p>事务中的ClientSession不是线程安全的，存在事务时直接在当前线程执行，返回已完成的Future；
+     * 已经在异步线程中时同样直接执行，调用方等待结果时不会与排队的任务互相等待</p>
+     * @param supplier 执行方法
+     * @return {@link java.util.concurrent.CompletableFuture}
+     * @author anwen
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        if (MongoTransactionContext.getClientSessionContext() != null || isAsyncThread()) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+        ContextSnapshot snapshot = MongoPlusContext.capture();
+        return CompletableFuture.supplyAsync(snapshot.wrap(supplier), getExecutor());
+    }
+
+    /**
+     * 默认线程池，优先使用虚拟线程，否则使用固定线程数的线程池
+     * @return {@link java.util.concurrent.Executor}
+     * @author anwen
+     */
+    static Executor defaultExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (Exception e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Virtual threads are not available, use cached thread pool for async execute");
+            }
+        }
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        int poolSize = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "mongo-plus-async-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.mongoplus.execute;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.UpdateResult;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.model.MutablePair;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * 多个更新条件合并为bulkWrite执行，N个条件只需要 N / {@link PropertyCache#updateBatchSize} 次往返
+ * <p>只有一个条件时直接使用updateMany，不会产生额外的开销</p>
+ * <p>合并后的结果与逐个updateMany相同：matchedCount、modifiedCount为所有条件之和，upsertedId为最后一个条件的upsertedId</p>
+ *
+ * @author anwen
+ */
+public class BulkUpdateSupport {
+
+    private BulkUpdateSupport() {
+    }
+
+    /**
+     * 执行更新
+     * @param bsonPairList 更新条件和更新内容
+     * @param options 更新选项
+     * @param updateMany 单个条件的更新方法
+     * @param bulkWrite 批量写入方法
+     * @return {@link com.mongodb.client.result.UpdateResult}
+     * @author anwen
+     */
+    public static UpdateResult executeUpdate(List<MutablePair<Bson, Bson>> bsonPairList, UpdateOptions options,
+                                             BiFunction<Bson, Bson, UpdateResult> updateMany,
+                                             BiFunction<List<WriteModel<Document>>, BulkWriteOptions,
+                                                     BulkWriteResult> bulkWrite) {
+        if (bsonPairList.isEmpty()) {
+            return UpdateResult.acknowledged(0, 0L, null);
+        }
+        if (bsonPairList.size() == 1) {
+            MutablePair<Bson, Bson> bsonPair = bsonPairList.get(0);
+            return updateMany.apply(bsonPair.getLeft(), bsonPair.getRight());
+        }
+        UpdateOptions updateOptions = options != null ? options : new UpdateOptions();
+        BulkWriteOptions bulkWriteOptions = toBulkWriteOptions(updateOptions);
+        int batchSize = PropertyCache.updateBatchSize != null && PropertyCache.updateBatchSize > 0
+                ? PropertyCache.updateBatchSize : bsonPairList.size();
+        long matchedCount = 0;
+        long modifiedCount = 0;
+        BsonValue upsertedId = null;
+        for (int from = 0; from < bsonPairList.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, bsonPairList.size());
+            List<WriteModel<Document>> writeModelList = new ArrayList<>(to - from);
+            for (MutablePair<Bson, Bson> bsonPair : bsonPairList.subList(from, to)) {
+                writeModelList.add(new UpdateManyModel<>(bsonPair.getLeft(), bsonPair.getRight(),
+                        CollationSupport.apply(bsonPair.getLeft(), updateOptions)));
+            }
+            BulkWriteResult bulkWriteResult = bulkWrite.apply(writeModelList, bulkWriteOptions);
+            if (!bulkWriteResult.wasAcknowledged()) {
+                return UpdateResult.unacknowledged();
+            }
+            matchedCount += bulkWriteResult.getMatchedCount();
+            modifiedCount += bulkWriteResult.getModifiedCount();
+            // 与逐个updateMany一致，结果中的upsertedId为最后一个条件的upsertedId
+            upsertedId = null;
+            for (BulkWriteUpsert upsert : bulkWriteResult.getUpserts()) {
+                if (upsert.getIndex() == writeModelList.size() - 1) {
+                    upsertedId = upsert.getId();
+                }
+            }
+        }
+        return UpdateResult.acknowledged(matchedCount, modifiedCount, upsertedId);
+    }
+
+    /**
+     * 将更新选项中作用于整个请求的部分转换为批量写入选项，其余部分由每个{@link UpdateManyModel}携带
+     * @param options 更新选项
+     * @return {@link com.mongodb.client.model.BulkWriteOptions}
+     * @author anwen
+     */
+    public static BulkWriteOptions toBulkWriteOptions(UpdateOptions options) {
+        return new BulkWriteOptions()
+                .ordered(PropertyCache.updateBatchOrdered == null || PropertyCache.updateBatchOrdered)
+                .bypassDocumentValidation(options.getBypassDocumentValidation())
+                .comment(options.getComment())
+                .let(options.getLet());
+    }
+
+}
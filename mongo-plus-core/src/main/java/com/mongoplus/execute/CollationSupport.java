@@ -0,0 +1,154 @@
+package com.mongoplus.execute;
+
+import com.mongodb.client.model.*;
+import com.mongoplus.bson.MongoPlusBasicDBObject;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 写操作使用条件上的排序规则
+ * <p>{@link com.mongoplus.enums.LikeStrategy#COLLATION}改写的like条件只有在相同排序规则下才与查询匹配同样的文档，
+ * 更新、删除和批量写入使用同一个条件时也需要携带该排序规则，否则会按区分大小写匹配</p>
+ * <p>不修改调用方传入的选项，需要时复制一份再设置排序规则；选项中已经指定了排序规则时不覆盖</p>
+ *
+ * @author anwen
+ */
+public class CollationSupport {
+
+    private CollationSupport() {
+    }
+
+    /**
+     * 删除选项携带条件的排序规则
+     * @param filter 条件
+     * @param options 删除选项，可为null
+     * @return {@link com.mongodb.client.model.DeleteOptions} 条件没有排序规则时返回原选项
+     * @author anwen
+     */
+    public static DeleteOptions apply(Bson filter, DeleteOptions options) {
+        Collation collation = MongoPlusBasicDBObject.getCollation(filter);
+        if (collation == null || (options != null && options.getCollation() != null)) {
+            return options;
+        }
+        DeleteOptions deleteOptions = new DeleteOptions();
+        if (options != null) {
+            deleteOptions.hint(options.getHint())
+                    .hintString(options.getHintString())
+                    .comment(options.getComment())
+                    .let(options.getLet());
+        }
+        return deleteOptions.collation(collation);
+    }
+
+    /**
+     * 更新选项携带条件的排序规则
+     * @param filter 条件
+     * @param options 更新选项，可为null
+     * @return {@link com.mongodb.client.model.UpdateOptions} 条件没有排序规则时返回原选项
+     * @author anwen
+     */
+    public static UpdateOptions apply(Bson filter, UpdateOptions options) {
+        Collation collation = MongoPlusBasicDBObject.getCollation(filter);
+        if (collation == null || (options != null && options.getCollation() != null)) {
+            return options;
+        }
+        UpdateOptions updateOptions = new UpdateOptions();
+        if (options != null) {
+            updateOptions.upsert(options.isUpsert())
+                    .bypassDocumentValidation(options.getBypassDocumentValidation())
+                    .arrayFilters(options.getArrayFilters())
+                    .hint(options.getHint())
+                    .hintString(options.getHintString())
+                    .comment(options.getComment())
+                    .let(options.getLet());
+        }
+        return updateOptions.collation(collation);
+    }
+
+    /**
+     * 替换选项携带条件的排序规则
+     * @param filter 条件
+     * @param options 替换选项，可为null
+     * @return {@link com.mongodb.client.model.ReplaceOptions} 条件没有排序规则时返回原选项
+     * @author anwen
+     */
+    public static ReplaceOptions apply(Bson filter, ReplaceOptions options) {
+        Collation collation = MongoPlusBasicDBObject.getCollation(filter);
+        if (collation == null || (options != null && options.getCollation() != null)) {
+            return options;
+        }
+        ReplaceOptions replaceOptions = new ReplaceOptions();
+        if (options != null) {
+            replaceOptions.upsert(options.isUpsert())
+                    .bypassDocumentValidation(options.getBypassDocumentValidation())
+                    .hint(options.getHint())
+                    .hintString(options.getHintString())
+                    .comment(options.getComment())
+                    .let(options.getLet());
+        }
+        return replaceOptions.collation(collation);
+    }
+
+    /**
+     * 批量写入的每个写入模型携带各自条件的排序规则，没有需要修改的模型时返回原集合
+     * @param writeModelList 写入模型
+     * @return {@link java.util.List<com.mongodb.client.model.WriteModel<org.bson.Document>>}
+     * @author anwen
+     */
+    public static List<WriteModel<Document>> apply(List<WriteModel<Document>> writeModelList) {
+        List<WriteModel<Document>> result = null;
+        for (int i = 0; i < writeModelList.size(); i++) {
+            WriteModel<Document> writeModel = writeModelList.get(i);
+            WriteModel<Document> applied = apply(writeModel);
+            if (applied != writeModel && result == null) {
+                result = new ArrayList<>(writeModelList.subList(0, i));
+            }
+            if (result != null) {
+                result.add(applied);
+            }
+        }
+        return result != null ? result : writeModelList;
+    }
+
+    private static WriteModel<Document> apply(WriteModel<Document> writeModel) {
+        if (writeModel instanceof UpdateManyModel) {
+            UpdateManyModel<Document> model = (UpdateManyModel<Document>) writeModel;
+            UpdateOptions options = apply(model.getFilter(), model.getOptions());
+            if (options == model.getOptions()) {
+                return writeModel;
+            }
+            return model.getUpdate() != null ? new UpdateManyModel<>(model.getFilter(), model.getUpdate(), options)
+                    : new UpdateManyModel<>(model.getFilter(), model.getUpdatePipeline(), options);
+        }
+        if (writeModel instanceof UpdateOneModel) {
+            UpdateOneModel<Document> model = (UpdateOneModel<Document>) writeModel;
+            UpdateOptions options = apply(model.getFilter(), model.getOptions());
+            if (options == model.getOptions()) {
+                return writeModel;
+            }
+            return model.getUpdate() != null ? new UpdateOneModel<>(model.getFilter(), model.getUpdate(), options)
+                    : new UpdateOneModel<>(model.getFilter(), model.getUpdatePipeline(), options);
+        }
+        if (writeModel instanceof ReplaceOneModel) {
+            ReplaceOneModel<Document> model = (ReplaceOneModel<Document>) writeModel;
+            ReplaceOptions options = apply(model.getFilter(), model.getReplaceOptions());
+            return options == model.getReplaceOptions() ? writeModel
+                    : new ReplaceOneModel<>(model.getFilter(), model.getReplacement(), options);
+        }
+        if (writeModel instanceof DeleteManyModel) {
+            DeleteManyModel<Document> model = (DeleteManyModel<Document>) writeModel;
+            DeleteOptions options = apply(model.getFilter(), model.getOptions());
+            return options == model.getOptions() ? writeModel : new DeleteManyModel<>(model.getFilter(), options);
+        }
+        if (writeModel instanceof DeleteOneModel) {
+            DeleteOneModel<Document> model = (DeleteOneModel<Document>) writeModel;
+            DeleteOptions options = apply(model.getFilter(), model.getOptions());
+            return options == model.getOptions() ? writeModel : new DeleteOneModel<>(model.getFilter(), options);
+        }
+        return writeModel;
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.mongoplus.execute;
+
+import com.mongodb.client.ClientSession;
+import com.mongoplus.execute.instance.InterceptorExecute;
+import com.mongoplus.interceptor.AdvancedInterceptorChain;
+import com.mongoplus.interceptor.InterceptorChain;
+import com.mongoplus.interceptor.InterceptorDispatcher;
+
+/**
+ * 已构建的执行器管道，包含原始执行器经过高级拦截器和普通拦截器包装后的执行器
+ * <p>管道不可变，拦截器链版本变化或事务session变化时由{@link ExecutorFactory}重新构建</p>
+ *
+ * @author anwen
+ */
+public final class ExecutePipeline {
+
+    /**
+     * 构建时的普通拦截器链版本
+     */
+    private final long interceptorVersion;
+
+    /**
+     * 构建时的高级拦截器链版本
+     */
+    private final long advancedInterceptorVersion;
+
+    /**
+     * 事务session，非事务执行器为null
+     */
+    private final ClientSession clientSession;
+
+    /**
+     * 包装后的执行器
+     */
+    private final Execute execute;
+
+    private ExecutePipeline(long interceptorVersion, long advancedInterceptorVersion,
+                            ClientSession clientSession, Execute execute) {
+        this.interceptorVersion = interceptorVersion;
+        this.advancedInterceptorVersion = advancedInterceptorVersion;
+        this.clientSession = clientSession;
+        this.execute = execute;
+    }
+
+    /**
+     * 构建执行器管道
+     * <p>先读取版本再包装，构建期间拦截器链发生变化时，下一次获取会发现版本过期并重新构建</p>
+     * @param origin 原始执行器
+     * @param clientSession 事务session，可为null
+     * @return {@link ExecutePipeline}
+     * @author anwen
+     */
+    public static ExecutePipeline build(Execute origin, ClientSession clientSession) {
+        InterceptorDispatcher dispatcher = InterceptorChain.getDispatcher();
+        long advancedInterceptorVersion = AdvancedInterceptorChain.getVersion();
+        // 包装一层高级代理对象，高级拦截器替代替换器，和普通拦截器形成拦截器责任链
+        // 保证高级拦截器在普通拦截器之后执行，可以将普通拦截器认为成一种过滤器
+        Execute execute = AdvancedInterceptorChain.wrap(origin);
+        // 普通拦截器直接调用，不再经过动态代理
+        execute = new InterceptorExecute(execute, dispatcher);
+        return new ExecutePipeline(dispatcher.getVersion(), advancedInterceptorVersion, clientSession, execute);
+    }
+
+    /**
+     * 管道是否可用于当前拦截器链和session
+     * @param clientSession 当前事务session，可为null
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public boolean isCurrent(ClientSession clientSession) {
+        return this.clientSession == clientSession
+                && interceptorVersion == InterceptorChain.getVersion()
+                && advancedInterceptorVersion == AdvancedInterceptorChain.getVersion();
+    }
+
+    /**
+     * 获取包装后的执行器
+     * @return {@link Execute}
+     * @author anwen
+     */
+    public Execute getExecute() {
+        return execute;
+    }
+
+}
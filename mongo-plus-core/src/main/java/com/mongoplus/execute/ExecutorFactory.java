@@ -2,10 +2,9 @@ package com.mongoplus.execute;
 
 import com.mongodb.client.ClientSession;
 import com.mongoplus.context.MongoTransactionContext;
+import com.mongoplus.context.MongoTransactionStatus;
 import com.mongoplus.execute.instance.DefaultExecute;
 import com.mongoplus.execute.instance.SessionExecute;
-import com.mongoplus.interceptor.AdvancedInterceptorChain;
-import com.mongoplus.proxy.ExecutorProxy;
 
 import java.util.Optional;
 
@@ -15,22 +14,37 @@ import java.util.Optional;
  **/
 public class ExecutorFactory {
 
+    /**
+     * 非事务执行器管道，默认执行器无状态，可以在拦截器链不变时复用
+     */
+    private volatile ExecutePipeline defaultPipeline;
+
     public ExecutorFactory() {
     }
 
     /**
      * 获取被代理后的执行器
+     * <p>执行器管道只会在拦截器链变更或事务session变化时重新构建</p>
      * @return {@link Execute}
      * @author anwen
      */
     public Execute getExecute(){
-        Execute execute = getOriginalExecute();
-        Class<? extends Execute> clazz = execute.getClass();
-        // 包装一层高级代理对象，高级拦截器替代替换器，和普通拦截器形成拦截器责任链
-        // 保证高级拦截器在普通拦截器之后执行，可以将普通拦截器认为成一种过滤器
-        execute = AdvancedInterceptorChain.wrap(execute);
-        // 普通代理类
-        return ExecutorProxy.wrap(execute);
+        MongoTransactionStatus status = MongoTransactionContext.getMongoTransactionStatus();
+        ClientSession clientSession = status != null ? status.getClientSession() : null;
+        if (clientSession != null) {
+            ExecutePipeline pipeline = status.getExecutePipeline();
+            if (pipeline == null || !pipeline.isCurrent(clientSession)) {
+                pipeline = ExecutePipeline.build(getSessionExecute(clientSession), clientSession);
+                status.setExecutePipeline(pipeline);
+            }
+            return pipeline.getExecute();
+        }
+        ExecutePipeline pipeline = defaultPipeline;
+        if (pipeline == null || !pipeline.isCurrent(null)) {
+            pipeline = ExecutePipeline.build(getDefaultExecute(), null);
+            defaultPipeline = pipeline;
+        }
+        return pipeline.getExecute();
     }
 
     /**
@@ -0,0 +1,347 @@
+package com.mongoplus.execute.batch;
+
+import com.mongodb.client.MongoCollection;
+import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.constant.SqlOperationConstant;
+import com.mongoplus.context.MongoTransactionContext;
+import com.mongoplus.execute.ExecutorFactory;
+import com.mongoplus.manager.LogicManager;
+import com.mongoplus.manager.TenantManager;
+import com.mongoplus.toolkit.Filters;
+import com.mongoplus.toolkit.ObjectIdUtil;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 根据id批量加载，开启{@link PropertyCache#idBatchWindow}后短时间内对同一集合的加载合并为一次$in查询
+ * <p>每批的第一个调用者负责等待{@link PropertyCache#idBatchWindow}或达到{@link PropertyCache#idBatchMaximumSize}后，
+ * 在自己的线程中执行查询，所以整批查询使用的是第一个调用者的上下文（拦截器链、多租户、逻辑删除）；
+ * 数据源、租户、忽略租户、忽略逻辑删除不同的调用者不会合并到同一批</p>
+ * <p>自定义拦截器如果根据调用者的ThreadLocal修改查询（如数据权限），需要通过{@link #addContextKey}声明，
+ * 声明的值不同的调用者不会合并，否则其他调用者会得到第一个调用者条件下的结果</p>
+ * <p>同一批或正在查询中的相同id只查询一次，共享同一个结果</p>
+ * <p>未开启或在事务中时不合并，直接查询</p>
+ *
+ * @author anwen
+ */
+public final class IdBatchLoader {
+
+    private static final Map<List<Object>, Group> groupMap = new ConcurrentHashMap<>();
+
+    private static final List<Supplier<?>> contextKeyList = new CopyOnWriteArrayList<>();
+
+    private static final LongAdder loadCount = new LongAdder();
+
+    private static final LongAdder coalescedCount = new LongAdder();
+
+    private static final LongAdder batchCount = new LongAdder();
+
+    private static final LongAdder batchIdCount = new LongAdder();
+
+    private static final AtomicLong maxBatchSize = new AtomicLong();
+
+    private static final LongAdder waitNanos = new LongAdder();
+
+    private IdBatchLoader() {
+    }
+
+    /**
+     * 根据id加载文档，不存在时返回null
+     * @param collection 集合
+     * @param id id
+     * @return {@link org.bson.Document}
+     * @author anwen
+     */
+    public static Document load(MongoCollection<Document> collection, Object id) {
+        return join(loadAsync(collection, Collections.singletonList(id)).get(0));
+    }
+
+    /**
+     * 根据多个id加载文档，按id的顺序返回，不存在的id被忽略
+     * @param collection 集合
+     * @param ids id集合
+     * @return {@link java.util.List<org.bson.Document>}
+     * @author anwen
+     */
+    public static List<Document> loadAll(MongoCollection<Document> collection, Collection<?> ids) {
+        List<CompletableFuture<Document>> futureList = loadAsync(collection, ids);
+        List<Document> documentList = new ArrayList<>(futureList.size());
+        for (CompletableFuture<Document> future : futureList) {
+            Document document = join(future);
+            if (document != null) {
+                documentList.add(document);
+            }
+        }
+        return documentList;
+    }
+
+    /**
+     * 声明影响查询条件的调用者上下文，值不同（equals）的调用者不会合并到同一批
+     * @param contextKey 在调用者线程中获取上下文，如数据权限拦截器读取的ThreadLocal
+     * @author anwen
+     */
+    public static void addContextKey(Supplier<?> contextKey) {
+        contextKeyList.add(contextKey);
+    }
+
+    /**
+     * 获取统计信息
+     * @return {@link com.mongoplus.execute.batch.IdBatchStatistics}
+     * @author anwen
+     */
+    public static IdBatchStatistics getStatistics() {
+        return new IdBatchStatistics(loadCount.sum(), coalescedCount.sum(), batchCount.sum(), batchIdCount.sum(),
+                maxBatchSize.get(), waitNanos.sum());
+    }
+
+    /**
+     * 清空统计
+     * @author anwen
+     */
+    public static void resetStatistics() {
+        loadCount.reset();
+        coalescedCount.reset();
+        batchCount.reset();
+        batchIdCount.reset();
+        maxBatchSize.set(0);
+        waitNanos.reset();
+    }
+
+    /**
+     * 登记加载，创建批次的调用者等待后执行整批查询，其他调用者返回等待中的结果
+     */
+    private static List<CompletableFuture<Document>> loadAsync(MongoCollection<Document> collection,
+                                                               Collection<?> ids) {
+        loadCount.add(ids.size());
+        List<CompletableFuture<Document>> futureList = new ArrayList<>(ids.size());
+        Integer window = PropertyCache.idBatchWindow;
+        if (window == null || window <= 0 || MongoTransactionContext.getClientSessionContext() != null) {
+            Batch batch = new Batch();
+            for (Object id : ids) {
+                futureList.add(batch.add(ObjectIdUtil.getObjectIdValue(id)));
+            }
+            fetch(collection, batch);
+            return futureList;
+        }
+        List<Object> groupKey = groupKey(collection);
+        List<Batch> leadBatchList = new ArrayList<>(1);
+        Group group;
+        while (true) {
+            group = groupMap.computeIfAbsent(groupKey, key -> new Group());
+            synchronized (group) {
+                // 已经从groupMap移除的组不再登记，重新获取
+                if (group.removed) {
+                    continue;
+                }
+                for (Object id : ids) {
+                    futureList.add(group.register(ObjectIdUtil.getObjectIdValue(id), leadBatchList));
+                }
+                break;
+            }
+        }
+        for (Batch batch : leadBatchList) {
+            await(group, batch);
+            try {
+                fetch(collection, batch);
+            } finally {
+                synchronized (group) {
+                    group.inFlightMap.keySet().removeAll(batch.futureMap.keySet());
+                    if (group.batch == null && group.inFlightMap.isEmpty()) {
+                        group.removed = true;
+                        groupMap.remove(groupKey, group);
+                    }
+                }
+            }
+        }
+        return futureList;
+    }
+
+    /**
+     * 等待批次达到最大数量或等待时间结束
+     */
+    private static void await(Group group, Batch batch) {
+        Integer window = PropertyCache.idBatchWindow;
+        long deadline = batch.createdAt + TimeUnit.MILLISECONDS.toNanos(window != null ? Math.max(window, 0) : 0);
+        synchronized (group) {
+            long remaining;
+            while (!batch.closed && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(group, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (!batch.closed) {
+                group.close(batch);
+            }
+        }
+        waitNanos.add(System.nanoTime() - batch.createdAt);
+    }
+
+    /**
+     * 执行查询并分发结果，查询失败时所有等待的调用者都收到异常
+     */
+    private static void fetch(MongoCollection<Document> collection, Batch batch) {
+        Map<Object, CompletableFuture<Document>> futureMap = batch.futureMap;
+        int size = futureMap.size();
+        batchCount.increment();
+        batchIdCount.add(size);
+        maxBatchSize.accumulateAndGet(size, Math::max);
+        try {
+            List<Object> ids = new ArrayList<>(batch.idMap.values());
+            Map<Object, Document> documentMap = new HashMap<>(size * 2);
+            new ExecutorFactory().getExecute().executeQuery(
+                    size == 1 ? Filters.eq(ids.get(0)) : Filters.in(SqlOperationConstant._ID, ids),
+                    null,
+                    null,
+                    Document.class,
+                    collection
+            ).forEach(document -> documentMap.put(idKey(document.get(SqlOperationConstant._ID)), document));
+            futureMap.forEach((idKey, future) -> future.complete(documentMap.get(idKey)));
+        } catch (Throwable e) {
+            futureMap.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private static Document join(CompletableFuture<Document> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 影响查询条件的上下文相同的调用者才能合并
+     */
+    private static List<Object> groupKey(MongoCollection<Document> collection) {
+        List<Object> groupKey = new ArrayList<>(5 + contextKeyList.size());
+        groupKey.add(DataSourceNameCache.getDataSource());
+        groupKey.add(collection.getNamespace().getFullName());
+        groupKey.add(TenantManager.getIgnoreTenant());
+        groupKey.add(TenantManager.getCurrentTenantId());
+        groupKey.add(LogicManager.isIgnoreLogic());
+        for (Supplier<?> contextKey : contextKeyList) {
+            groupKey.add(contextKey.get());
+        }
+        return groupKey;
+    }
+
+    /**
+     * 整数类型的id统一为Long，查询结果中的_id类型可能与传入的不同
+     */
+    private static Object idKey(Object id) {
+        if (id instanceof Integer || id instanceof Long || id instanceof Short || id instanceof Byte) {
+            return ((Number) id).longValue();
+        }
+        return id;
+    }
+
+    /**
+     * 同一组上下文的批次，所有状态由组的监视器保护
+     */
+    private static final class Group {
+
+        /**
+         * 正在收集的批次
+         */
+        private Batch batch;
+
+        /**
+         * 已经开始查询的id
+         */
+        private final Map<Object, CompletableFuture<Document>> inFlightMap = new HashMap<>();
+
+        /**
+         * 没有等待中的批次后从groupMap移除
+         */
+        private boolean removed;
+
+        /**
+         * 登记id，正在查询或已在当前批次中的id共享结果，创建的批次加入leadBatchList
+         */
+        private CompletableFuture<Document> register(Object id, List<Batch> leadBatchList) {
+            Object idKey = idKey(id);
+            CompletableFuture<Document> future = inFlightMap.get(idKey);
+            if (future == null && batch != null) {
+                future = batch.futureMap.get(idKey);
+            }
+            if (future != null) {
+                coalescedCount.increment();
+                return future;
+            }
+            if (batch == null) {
+                batch = new Batch();
+                leadBatchList.add(batch);
+            }
+            Batch current = batch;
+            future = current.add(id);
+            Integer maximumSize = PropertyCache.idBatchMaximumSize;
+            if (maximumSize != null && current.futureMap.size() >= maximumSize) {
+                close(current);
+                notifyAll();
+            }
+            return future;
+        }
+
+        private void close(Batch batch) {
+            batch.closed = true;
+            if (this.batch == batch) {
+                this.batch = null;
+            }
+            inFlightMap.putAll(batch.futureMap);
+        }
+
+    }
+
+    /**
+     * 一批等待查询的id
+     */
+    private static final class Batch {
+
+        private final long createdAt = System.nanoTime();
+
+        private final Map<Object, CompletableFuture<Document>> futureMap = new LinkedHashMap<>();
+
+        private final Map<Object, Object> idMap = new LinkedHashMap<>();
+
+        private boolean closed;
+
+        private CompletableFuture<Document> add(Object id) {
+            Object idKey = idKey(id);
+            CompletableFuture<Document> future = futureMap.get(idKey);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                futureMap.put(idKey, future);
+                idMap.put(idKey, id);
+            }
+            return future;
+        }
+
+    }
+
+}
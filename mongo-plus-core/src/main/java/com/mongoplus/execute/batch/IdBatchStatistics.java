@@ -0,0 +1,89 @@
+package com.mongoplus.execute.batch;
+
+/**
+ * 根据id批量加载的统计信息快照
+ *
+ * @author anwen
+ */
+public final class IdBatchStatistics {
+
+    private final long loadCount;
+
+    private final long coalescedCount;
+
+    private final long batchCount;
+
+    private final long batchIdCount;
+
+    private final long maxBatchSize;
+
+    private final long waitNanos;
+
+    public IdBatchStatistics(long loadCount, long coalescedCount, long batchCount, long batchIdCount,
+                             long maxBatchSize, long waitNanos) {
+        this.loadCount = loadCount;
+        this.coalescedCount = coalescedCount;
+        this.batchCount = batchCount;
+        this.batchIdCount = batchIdCount;
+        this.maxBatchSize = maxBatchSize;
+        this.waitNanos = waitNanos;
+    }
+
+    /**
+     * 加载的id数量
+     */
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * 与同一批或正在查询中的相同id合并的次数
+     */
+    public long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * 执行的查询次数
+     */
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * 最大批量
+     */
+    public long getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * 平均批量，没有查询时为0
+     * @return {@link double}
+     * @author anwen
+     */
+    public double getAverageBatchSize() {
+        return batchCount == 0 ? 0 : (double) batchIdCount / batchCount;
+    }
+
+    /**
+     * 批次的平均等待时间（毫秒），没有查询时为0
+     * @return {@link double}
+     * @author anwen
+     */
+    public double getAverageWaitMillis() {
+        return batchCount == 0 ? 0 : waitNanos / 1_000_000.0 / batchCount;
+    }
+
+    @Override
+    public String toString() {
+        return "IdBatchStatistics{" +
+                "loadCount=" + loadCount +
+                ", coalescedCount=" + coalescedCount +
+                ", batchCount=" + batchCount +
+                ", averageBatchSize=" + getAverageBatchSize() +
+                ", maxBatchSize=" + maxBatchSize +
+                ", averageWaitMillis=" + getAverageWaitMillis() +
+                '}';
+    }
+}
@@ -0,0 +1,287 @@
+package com.mongoplus.execute.batch;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongoplus.annotation.ID;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.context.ContextSnapshot;
+import com.mongoplus.context.MongoPlusContext;
+import com.mongoplus.context.MongoTransactionContext;
+import com.mongoplus.execute.AsyncExecute;
+import com.mongoplus.execute.ExecutorFactory;
+import com.mongoplus.enums.IdTypeEnum;
+import com.mongoplus.incrementer.id.IdWorker;
+import com.mongoplus.mapping.FieldInformation;
+import com.mongoplus.mapping.MongoConverter;
+import com.mongoplus.mapping.TypeInformation;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * 批量新增管道，按{@link PropertyCache#saveBatchSize}条数和{@link PropertyCache#saveBatchMaxBytes}字节数分块新增
+ * <p>同一时间只保存正在转换和正在新增的分块的文档，不会一次性转换整个集合</p>
+ * <p>{@link PropertyCache#saveBatchParallelism}大于1时，实体转换拆分到ForkJoin线程池，无序新增
+ * （{@link InsertManyOptions#ordered(boolean)}为false）的多个分块同时执行，超过并发数时转换等待，避免文档堆积。
+ * 此时自动填充和拦截器在其他线程执行，只能获取到mongo-plus的上下文，依赖自定义ThreadLocal的处理器应保持默认值1</p>
+ * <p>有序新增的分块依次执行，某个分块失败后不再执行之后的分块，与一次insertMany的语义一致；事务中始终在当前线程依次执行</p>
+ * <p>每个分块成功新增的实体都会回写_id；实体使用{@link IdTypeEnum#ASSIGN_ID}时，每段转换前通过{@link IdWorker#reserve(int, Runnable)}一次预留整段id</p>
+ *
+ * @author anwen
+ */
+public final class SaveBatchPipeline<T> {
+
+    /**
+     * 每个转换任务的最少实体数量，数量太少时拆分的开销大于收益
+     */
+    private static final int MIN_CONVERT_SLICE = 64;
+
+    private final List<T> entityList;
+
+    private final MongoConverter mongoConverter;
+
+    private final ExecutorFactory factory;
+
+    private final MongoCollection<Document> collection;
+
+    private final InsertManyOptions options;
+
+    private final int chunkSize;
+
+    private final int maxBytes;
+
+    private final int parallelism;
+
+    private final boolean ordered;
+
+    private final ContextSnapshot snapshot;
+
+    private final boolean assignId;
+
+    @SuppressWarnings("unchecked")
+    private SaveBatchPipeline(Collection<T> entityList, MongoConverter mongoConverter, ExecutorFactory factory,
+                              MongoCollection<Document> collection, InsertManyOptions options) {
+        this.entityList = entityList instanceof List ? (List<T>) entityList : new ArrayList<>(entityList);
+        this.mongoConverter = mongoConverter;
+        this.factory = factory;
+        this.collection = collection;
+        this.options = options;
+        Integer saveBatchSize = PropertyCache.saveBatchSize;
+        this.chunkSize = saveBatchSize != null && saveBatchSize > 0 ? saveBatchSize : this.entityList.size();
+        Integer saveBatchMaxBytes = PropertyCache.saveBatchMaxBytes;
+        this.maxBytes = saveBatchMaxBytes != null ? saveBatchMaxBytes : 0;
+        Integer saveBatchParallelism = PropertyCache.saveBatchParallelism;
+        this.parallelism = MongoTransactionContext.getClientSessionContext() != null || saveBatchParallelism == null
+                ? 1 : Math.max(saveBatchParallelism, 1);
+        this.ordered = options == null || options.isOrdered();
+        this.snapshot = parallelism > 1 ? MongoPlusContext.capture() : null;
+        this.assignId = !this.entityList.isEmpty() && isAssignId(this.entityList.get(0));
+    }
+
+    /**
+     * 执行批量新增
+     * @param entityList 实体集合
+     * @param mongoConverter 转换器
+     * @param factory 执行器工厂
+     * @param collection 集合
+     * @param options 新增参数，可为null
+     * @return {@link com.mongoplus.execute.batch.SaveBatchResult}
+     * @author anwen
+     */
+    public static <T> SaveBatchResult execute(Collection<T> entityList, MongoConverter mongoConverter,
+                                              ExecutorFactory factory, MongoCollection<Document> collection,
+                                              InsertManyOptions options) {
+        return new SaveBatchPipeline<>(entityList, mongoConverter, factory, collection, options).execute();
+    }
+
+    private SaveBatchResult execute() {
+        int size = entityList.size();
+        List<SaveBatchResult.ChunkResult> chunkResults = new ArrayList<>();
+        // 已经在异步线程中时不再提交到同一线程池并等待，避免线程全部等待排队的分块时死锁
+        boolean concurrent = parallelism > 1 && !ordered && !AsyncExecute.isAsyncThread();
+        Semaphore permits = concurrent ? new Semaphore(parallelism) : null;
+        List<CompletableFuture<SaveBatchResult.ChunkResult>> futureList = new ArrayList<>();
+        for (int offset = 0; offset < size; offset += chunkSize) {
+            int end = Math.min(offset + chunkSize, size);
+            List<Document> documentList = convert(offset, end);
+            int[] sizes = maxBytes > 0 ? measure(documentList) : null;
+            int start = 0;
+            while (start < documentList.size()) {
+                int stop = split(sizes, start, documentList.size());
+                Chunk chunk = new Chunk(chunkResults.size() + futureList.size(), offset + start,
+                        documentList.subList(start, stop));
+                start = stop;
+                if (!concurrent) {
+                    SaveBatchResult.ChunkResult chunkResult = insert(chunk);
+                    chunkResults.add(chunkResult);
+                    if (chunkResult.getFailure() != null && ordered) {
+                        return new SaveBatchResult(size, chunkResults);
+                    }
+                    continue;
+                }
+                permits.acquireUninterruptibly();
+                Supplier<SaveBatchResult.ChunkResult> task = () -> {
+                    try {
+                        return insert(chunk);
+                    } finally {
+                        permits.release();
+                    }
+                };
+                futureList.add(CompletableFuture.supplyAsync(snapshot.wrap(task), AsyncExecute.getExecutor()));
+            }
+        }
+        futureList.forEach(future -> chunkResults.add(future.join()));
+        return new SaveBatchResult(size, chunkResults);
+    }
+
+    /**
+     * 转换[start, end)的实体，并行时拆分为多个ForkJoin任务，当前线程转换第一段
+     */
+    private List<Document> convert(int start, int end) {
+        int count = end - start;
+        Document[] documents = new Document[count];
+        int slices = parallelism > 1 ? Math.min(parallelism, count / MIN_CONVERT_SLICE) : 1;
+        if (slices <= 1) {
+            convert(documents, start, 0, count);
+        } else {
+            int sliceSize = (count + slices - 1) / slices;
+            List<ForkJoinTask<?>> taskList = new ArrayList<>(slices - 1);
+            for (int from = sliceSize; from < count; from += sliceSize) {
+                int sliceFrom = from;
+                int sliceTo = Math.min(from + sliceSize, count);
+                taskList.add(ForkJoinPool.commonPool().submit(
+                        snapshot.wrap(() -> convert(documents, start, sliceFrom, sliceTo))
+                ));
+            }
+            convert(documents, start, 0, Math.min(sliceSize, count));
+            taskList.forEach(ForkJoinTask::join);
+        }
+        List<Document> documentList = new ArrayList<>(count);
+        for (Document document : documents) {
+            documentList.add(document);
+        }
+        return documentList;
+    }
+
+    private void convert(Document[] documents, int offset, int from, int to) {
+        Runnable task = () -> {
+            for (int i = from; i < to; i++) {
+                documents[i] = mongoConverter.writeBySave(entityList.get(offset + i));
+            }
+        };
+        if (assignId) {
+            IdWorker.reserve(to - from, task);
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * 实体使用{@link IdTypeEnum#ASSIGN_ID}时，转换前一次预留整段id
+     */
+    private static boolean isAssignId(Object entity) {
+        if (entity == null || entity instanceof Map) {
+            return false;
+        }
+        FieldInformation idFieldInformation = TypeInformation.of(entity).getAnnotationField(ID.class);
+        return idFieldInformation != null && idFieldInformation.getId().type() == IdTypeEnum.ASSIGN_ID;
+    }
+
+    /**
+     * 计算文档编码后的字节数
+     */
+    private int[] measure(List<Document> documentList) {
+        Codec<Document> codec = collection.getCodecRegistry().get(Document.class);
+        int[] sizes = new int[documentList.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = new RawBsonDocument(documentList.get(i), codec).getByteBuffer().remaining();
+        }
+        return sizes;
+    }
+
+    /**
+     * 按字节数确定分块的结束位置，每个分块至少一条
+     */
+    private int split(int[] sizes, int start, int end) {
+        if (sizes == null) {
+            return end;
+        }
+        long bytes = sizes[start];
+        int stop = start + 1;
+        while (stop < end && bytes + sizes[stop] <= maxBytes) {
+            bytes += sizes[stop];
+            stop++;
+        }
+        return stop;
+    }
+
+    /**
+     * 新增分块，成功新增的实体回写_id
+     */
+    private SaveBatchResult.ChunkResult insert(Chunk chunk) {
+        List<Document> documentList = chunk.documentList;
+        try {
+            int insertedCount = factory.getExecute().executeSave(documentList, options, collection)
+                    .getInsertedIds().size();
+            for (int i = 0; i < documentList.size(); i++) {
+                mongoConverter.reSetIdValue(entityList.get(chunk.offset + i), documentList.get(i));
+            }
+            return new SaveBatchResult.ChunkResult(chunk.index, chunk.offset, documentList.size(), insertedCount,
+                    null, null);
+        } catch (MongoBulkWriteException e) {
+            List<BulkWriteError> writeErrors = e.getWriteErrors();
+            BitSet failed = new BitSet(documentList.size());
+            int firstError = documentList.size();
+            for (BulkWriteError writeError : writeErrors) {
+                failed.set(writeError.getIndex());
+                firstError = Math.min(firstError, writeError.getIndex());
+            }
+            // 有序新增在第一个错误处停止
+            int limit = ordered ? firstError : documentList.size();
+            int insertedCount = 0;
+            for (int i = 0; i < limit; i++) {
+                if (!failed.get(i)) {
+                    mongoConverter.reSetIdValue(entityList.get(chunk.offset + i), documentList.get(i));
+                    insertedCount++;
+                }
+            }
+            return new SaveBatchResult.ChunkResult(chunk.index, chunk.offset, documentList.size(), insertedCount,
+                    writeErrors, e);
+        } catch (RuntimeException e) {
+            return new SaveBatchResult.ChunkResult(chunk.index, chunk.offset, documentList.size(), 0, null, e);
+        }
+    }
+
+    /**
+     * 等待新增的分块
+     */
+    private static final class Chunk {
+
+        private final int index;
+
+        private final int offset;
+
+        private final List<Document> documentList;
+
+        private Chunk(int index, int offset, List<Document> documentList) {
+            this.index = index;
+            this.offset = offset;
+            this.documentList = documentList;
+        }
+
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.mongoplus.execute.batch;
+
+import com.mongodb.bulk.BulkWriteError;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批量新增的结果，每个分块一个{@link ChunkResult}
+ *
+ * @author anwen
+ */
+public class SaveBatchResult {
+
+    private final int totalCount;
+
+    private final List<ChunkResult> chunkResults;
+
+    public SaveBatchResult(int totalCount, List<ChunkResult> chunkResults) {
+        this.totalCount = totalCount;
+        this.chunkResults = Collections.unmodifiableList(chunkResults);
+    }
+
+    /**
+     * 需要新增的数量
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * 已经执行的分块结果，按分块顺序；有序新增失败后，之后的分块不会执行
+     */
+    public List<ChunkResult> getChunkResults() {
+        return chunkResults;
+    }
+
+    /**
+     * 成功新增的数量
+     * @return {@link int}
+     * @author anwen
+     */
+    public int getInsertedCount() {
+        int insertedCount = 0;
+        for (ChunkResult chunkResult : chunkResults) {
+            insertedCount += chunkResult.getInsertedCount();
+        }
+        return insertedCount;
+    }
+
+    /**
+     * 是否全部新增成功
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public boolean isSuccess() {
+        return getInsertedCount() == totalCount;
+    }
+
+    /**
+     * 失败分块的异常，按分块顺序
+     * @return {@link java.util.List<java.lang.Throwable>}
+     * @author anwen
+     */
+    public List<Throwable> getFailures() {
+        List<Throwable> failures = new ArrayList<>();
+        for (ChunkResult chunkResult : chunkResults) {
+            if (chunkResult.getFailure() != null) {
+                failures.add(chunkResult.getFailure());
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        return "SaveBatchResult{" +
+                "totalCount=" + totalCount +
+                ", insertedCount=" + getInsertedCount() +
+                ", chunkCount=" + chunkResults.size() +
+                '}';
+    }
+
+    /**
+     * 分块的结果
+     */
+    public static class ChunkResult {
+
+        private final int index;
+
+        private final int offset;
+
+        private final int size;
+
+        private final int insertedCount;
+
+        private final List<BulkWriteError> writeErrors;
+
+        private final Throwable failure;
+
+        public ChunkResult(int index, int offset, int size, int insertedCount, List<BulkWriteError> writeErrors,
+                           Throwable failure) {
+            this.index = index;
+            this.offset = offset;
+            this.size = size;
+            this.insertedCount = insertedCount;
+            this.writeErrors = writeErrors != null ? writeErrors : Collections.emptyList();
+            this.failure = failure;
+        }
+
+        /**
+         * 分块序号
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * 分块第一条数据在新增集合中的位置
+         */
+        public int getOffset() {
+            return offset;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getInsertedCount() {
+            return insertedCount;
+        }
+
+        /**
+         * 写入错误，{@link BulkWriteError#getIndex()}是在分块中的位置，加上{@link #getOffset()}为在新增集合中的位置
+         */
+        public List<BulkWriteError> getWriteErrors() {
+            return writeErrors;
+        }
+
+        /**
+         * 分块失败的异常，成功时为null
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        @Override
+        public String toString() {
+            return "ChunkResult{" +
+                    "index=" + index +
+                    ", offset=" + offset +
+                    ", size=" + size +
+                    ", insertedCount=" + insertedCount +
+                    ", writeErrors=" + writeErrors.size() +
+                    ", failure=" + failure +
+                    '}';
+        }
+    }
+
+}
@@ -0,0 +1,250 @@
+package com.mongoplus.execute.instance;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.*;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.InsertManyResult;
+import com.mongodb.client.result.UpdateResult;
+import com.mongoplus.cache.query.QueryResultCache;
+import com.mongoplus.enums.ExecuteMethodEnum;
+import com.mongoplus.execute.Execute;
+import com.mongoplus.interceptor.InterceptorDispatcher;
+import com.mongoplus.model.MutablePair;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.List;
+
+/**
+ * 普通拦截器执行器，直接调用目标执行器的方法，替代{@link com.mongoplus.proxy.ExecutorProxy}的JDK动态代理和反射调用
+ * <p>拦截器分发表在构建时固定，拦截器链变更后由{@link com.mongoplus.execute.ExecutorFactory}重新构建</p>
+ *
+ * @author anwen
+ */
+@SuppressWarnings("unchecked")
+public class InterceptorExecute implements Execute {
+
+    private final Execute target;
+
+    private final InterceptorDispatcher dispatcher;
+
+    public InterceptorExecute(Execute target, InterceptorDispatcher dispatcher) {
+        this.target = target;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * 获取被包装的执行器
+     * @return {@link com.mongoplus.execute.Execute}
+     * @author anwen
+     */
+    public Execute getTarget() {
+        return target;
+    }
+
+    /**
+     * 执行前置处理和参数替换拦截器，拦截器可以替换最后一个参数切换集合或数据源，之后应使用参数中的集合
+     * @param executeMethodEnum 执行方法
+     * @param args 参数
+     * @param collection 集合
+     * @author anwen
+     */
+    private void before(ExecuteMethodEnum executeMethodEnum, Object[] args, MongoCollection<Document> collection) {
+        dispatcher.forCollection(collection).before(executeMethodEnum, args, collection);
+    }
+
+    /**
+     * 执行后置处理
+     * @param executeMethodEnum 执行方法
+     * @param args 参数
+     * @param result 返回值
+     * @param collection 集合
+     * @return {@link R}
+     * @author anwen
+     */
+    private <R> R after(ExecuteMethodEnum executeMethodEnum, Object[] args, R result,
+                        MongoCollection<Document> collection) {
+        return dispatcher.forCollection(collection).after(executeMethodEnum, args, result, collection);
+    }
+
+    @Override
+    public InsertManyResult executeSave(List<Document> documentList, MongoCollection<Document> collection) {
+        return executeSave(documentList, null, collection);
+    }
+
+    @Override
+    public InsertManyResult executeSave(List<Document> documentList, InsertManyOptions options,
+                                        MongoCollection<Document> collection) {
+        Object[] args = new Object[]{documentList, options, collection};
+        before(ExecuteMethodEnum.SAVE, args, collection);
+        MongoCollection<Document> targetCollection = (MongoCollection<Document>) args[args.length - 1];
+        InsertManyResult result = target.executeSave((List<Document>) args[0], (InsertManyOptions) args[1],
+                targetCollection);
+        QueryResultCache.invalidate(targetCollection.getNamespace());
+        return after(ExecuteMethodEnum.SAVE, args, result, targetCollection);
+    }
+
+    @Override
+    public DeleteResult executeRemove(Bson filter, MongoCollection<Document> collection) {
+        return executeRemove(filter, null, collection);
+    }
+
+    @Override
+    public DeleteResult executeRemove(Bson filter, DeleteOptions options, MongoCollection<Document> collection) {
+        Object[] args = new Object[]{filter, options, collection};
+        before(ExecuteMethodEnum.REMOVE, args, collection);
+        MongoCollection<Document> targetCollection = (MongoCollection<Document>) args[args.length - 1];
+        DeleteResult result = target.executeRemove((Bson) args[0], (DeleteOptions) args[1], targetCollection);
+        QueryResultCache.invalidate(targetCollection.getNamespace());
+        return after(ExecuteMethodEnum.REMOVE, args, result, targetCollection);
+    }
+
+    @Override
+    public UpdateResult executeUpdate(List<MutablePair<Bson, Bson>> bsonPairList,
+                                      MongoCollection<Document> collection) {
+        return executeUpdate(bsonPairList, null, collection);
+    }
+
+    @Override
+    public UpdateResult executeUpdate(List<MutablePair<Bson, Bson>> bsonPairList, UpdateOptions options,
+                                      MongoCollection<Document> collection) {
+        Object[] args = new Object[]{bsonPairList, options, collection};
+        before(ExecuteMethodEnum.UPDATE, args, collection);
+        MongoCollection<Document> targetCollection = (MongoCollection<Document>) args[args.length - 1];
+        UpdateResult result = target.executeUpdate((List<MutablePair<Bson, Bson>>) args[0],
+                (UpdateOptions) args[1], targetCollection);
+        QueryResultCache.invalidate(targetCollection.getNamespace());
+        return after(ExecuteMethodEnum.UPDATE, args, result, targetCollection);
+    }
+
+    @Override
+    public <T> FindIterable<T> executeQuery(Bson queryBasic, BasicDBObject projectionList, BasicDBObject sortCond,
+                                            Class<T> clazz, MongoCollection<Document> collection) {
+        Object[] args = new Object[]{queryBasic, projectionList, sortCond, clazz, collection};
+        before(ExecuteMethodEnum.QUERY, args, collection);
+        MongoCollection<Document> targetCollection = (MongoCollection<Document>) args[args.length - 1];
+        QueryResultCache.resolveQuery(targetCollection, (Bson) args[0], (Bson) args[1], (Bson) args[2]);
+        FindIterable<T> result = target.executeQuery((Bson) args[0], (BasicDBObject) args[1],
+                (BasicDBObject) args[2], (Class<T>) args[3], targetCollection);
+        return after(ExecuteMethodEnum.QUERY, args, result, targetCollection);
+    }
+
+    @Override
+    public <T> AggregateIterable<T> executeAggregate(List<? extends Bson> aggregateConditionList, Class<T> clazz,
+                                                     MongoCollection<Document> collection) {
+        Object[] args = new Object[]{aggregateConditionList, clazz, collection};
+        before(ExecuteMethodEnum.AGGREGATE, args, collection);
+        MongoCollection<Document> targetCollection = (MongoCollection<Document>) args[args.length - 1];
+        AggregateIterable<T> result = target.executeAggregate((List<? extends Bson>) args[0], (Class<T>) args[1],
+                targetCollection);
+        return after(ExecuteMethodEnum.AGGREGATE, args, result, targetCollection);
+    }
+
+    @Override
+    public long executeCount(BasicDBObject queryBasic, CountOptions countOptions,
+                             MongoCollection<Document> collection) {
+        Object[] args = new Object[]{queryBasic, countOptions, collection};
+        before(ExecuteMethodEnum.COUNT, args, collection);
+        MongoCollection<Document> targetCollection = (MongoCollection<Document>) args[args.length - 1];
+        long result = target.executeCount((BasicDBObject) args[0], (CountOptions) args[1], targetCollection);
+        return after(ExecuteMethodEnum.COUNT, args, result, targetCollection);
+    }
+
+    @Override
+    public long estimatedDocumentCount(MongoCollection<Document> collection) {
+        Object[] args = new Object[]{collection};
+        before(ExecuteMethodEnum.ESTIMATED_DOCUMENT_COUNT, args, collection);
+        MongoCollection<Document> targetCollection = (MongoCollection<Document>) args[args.length - 1];
+        long result = target.estimatedDocumentCount(targetCollection);
+        return after(ExecuteMethodEnum.ESTIMATED_DOCUMENT_COUNT, args, result, targetCollection);
+    }
+
+    @Override
+    public BulkWriteResult executeBulkWrite(List<WriteModel<Document>> writeModelList,
+                                            MongoCollection<Document> collection) {
+        return executeBulkWrite(writeModelList, null, collection);
+    }
+
+    @Override
+    public BulkWriteResult executeBulkWrite(List<WriteModel<Document>> writeModelList, BulkWriteOptions options,
+                                            MongoCollection<Document> collection) {
+        Object[] args = new Object[]{writeModelList, options, collection};
+        before(ExecuteMethodEnum.BULK_WRITE, args, collection);
+        MongoCollection<Document> targetCollection = (MongoCollection<Document>) args[args.length - 1];
+        BulkWriteResult result = target.executeBulkWrite((List<WriteModel<Document>>) args[0],
+                (BulkWriteOptions) args[1], targetCollection);
+        QueryResultCache.invalidate(targetCollection.getNamespace());
+        return after(ExecuteMethodEnum.BULK_WRITE, args, result, targetCollection);
+    }
+
+    @Override
+    public String doCreateIndex(Bson bson, MongoCollection<Document> collection) {
+        return after(null, new Object[]{bson, collection}, target.doCreateIndex(bson, collection), collection);
+    }
+
+    @Override
+    public String doCreateIndex(Bson bson, IndexOptions indexOptions, MongoCollection<Document> collection) {
+        return after(null, new Object[]{bson, indexOptions, collection},
+                target.doCreateIndex(bson, indexOptions, collection), collection);
+    }
+
+    @Override
+    public List<String> doCreateIndexes(List<IndexModel> indexes, MongoCollection<Document> collection) {
+        return after(null, new Object[]{indexes, collection}, target.doCreateIndexes(indexes, collection),
+                collection);
+    }
+
+    @Override
+    public List<String> doCreateIndexes(List<IndexModel> indexes, CreateIndexOptions createIndexOptions,
+                                        MongoCollection<Document> collection) {
+        return after(null, new Object[]{indexes, createIndexOptions, collection},
+                target.doCreateIndexes(indexes, createIndexOptions, collection), collection);
+    }
+
+    @Override
+    public List<Document> doListIndexes(MongoCollection<Document> collection) {
+        return after(null, new Object[]{collection}, target.doListIndexes(collection), collection);
+    }
+
+    @Override
+    public void doDropIndex(String indexName, MongoCollection<Document> collection) {
+        target.doDropIndex(indexName, collection);
+        after(null, new Object[]{indexName, collection}, null, collection);
+    }
+
+    @Override
+    public void doDropIndex(String indexName, DropIndexOptions dropIndexOptions,
+                            MongoCollection<Document> collection) {
+        target.doDropIndex(indexName, dropIndexOptions, collection);
+        after(null, new Object[]{indexName, dropIndexOptions, collection}, null, collection);
+    }
+
+    @Override
+    public void doDropIndex(Bson keys, MongoCollection<Document> collection) {
+        target.doDropIndex(keys, collection);
+        after(null, new Object[]{keys, collection}, null, collection);
+    }
+
+    @Override
+    public void doDropIndex(Bson keys, DropIndexOptions dropIndexOptions, MongoCollection<Document> collection) {
+        target.doDropIndex(keys, dropIndexOptions, collection);
+        after(null, new Object[]{keys, dropIndexOptions, collection}, null, collection);
+    }
+
+    @Override
+    public void doDropIndexes(MongoCollection<Document> collection) {
+        target.doDropIndexes(collection);
+        after(null, new Object[]{collection}, null, collection);
+    }
+
+    @Override
+    public void doDropIndexes(DropIndexOptions dropIndexOptions, MongoCollection<Document> collection) {
+        target.doDropIndexes(dropIndexOptions, collection);
+        after(null, new Object[]{dropIndexOptions, collection}, null, collection);
+    }
+
+}
@@ -10,16 +10,18 @@ import com.mongodb.client.model.*;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.InsertManyResult;
 import com.mongodb.client.result.UpdateResult;
+import com.mongoplus.bson.MongoPlusBasicDBObject;
+import com.mongoplus.cache.codec.EntityCodecCache;
 import com.mongoplus.convert.DocumentMapperConvert;
+import com.mongoplus.execute.BulkUpdateSupport;
+import com.mongoplus.execute.CollationSupport;
 import com.mongoplus.execute.Execute;
 import com.mongoplus.model.MutablePair;
-import org.bson.BsonValue;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * session实例
@@ -37,24 +39,27 @@ public class SessionExecute implements Execute {
     @Override
     public InsertManyResult executeSave(List<Document> documentList, InsertManyOptions options,
                                         MongoCollection<Document> collection) {
+        MongoCollection<Document> saveCollection = EntityCodecCache.withEntityCodec(collection);
         return Optional.ofNullable(options)
-                .map(o -> collection.insertMany(clientSession,documentList,o))
-                .orElseGet(() -> collection.insertMany(clientSession,documentList));
+                .map(o -> saveCollection.insertMany(clientSession,documentList,o))
+                .orElseGet(() -> saveCollection.insertMany(clientSession,documentList));
     }
 
     @Override
     public BulkWriteResult executeBulkWrite(List<WriteModel<Document>> writeModelList,
                                             BulkWriteOptions options,
                                             MongoCollection<Document> collection) {
+        MongoCollection<Document> writeCollection = EntityCodecCache.withEntityCodec(collection);
+        List<WriteModel<Document>> writeModels = CollationSupport.apply(writeModelList);
         return Optional.ofNullable(options)
-                .map(o -> collection.bulkWrite(clientSession,writeModelList,o))
-                .orElseGet(() -> collection.bulkWrite(clientSession,writeModelList));
+                .map(o -> writeCollection.bulkWrite(clientSession,writeModels,o))
+                .orElseGet(() -> writeCollection.bulkWrite(clientSession,writeModels));
     }
 
     @Override
     public DeleteResult executeRemove(Bson filter, DeleteOptions options,
                                       MongoCollection<Document> collection) {
-        return Optional.ofNullable(options)
+        return Optional.ofNullable(CollationSupport.apply(filter, options))
                 .map(o -> collection.deleteMany(clientSession,filter,o))
                 .orElseGet(() -> collection.deleteMany(clientSession,filter));
     }
@@ -64,11 +69,14 @@ public class SessionExecute implements Execute {
                                             BasicDBObject sortCond,
                                             Class<T> clazz,
                                             MongoCollection<Document> collection) {
-        return Optional.ofNullable(queryBasic)
-                .map(qb -> collection.find(clientSession,qb,clazz))
-                .orElseGet(() -> collection.find(clientSession,clazz))
+        MongoCollection<Document> findCollection = EntityCodecCache.withEntityCodec(collection, clazz);
+        FindIterable<T> findIterable = Optional.ofNullable(queryBasic)
+                .map(qb -> findCollection.find(clientSession,qb,clazz))
+                .orElseGet(() -> findCollection.find(clientSession,clazz))
                 .projection(projectionList)
                 .sort(sortCond);
+        Collation collation = MongoPlusBasicDBObject.getCollation(queryBasic);
+        return collation != null ? findIterable.collation(collation) : findIterable;
     }
 
     @Override
@@ -81,6 +89,10 @@ public class SessionExecute implements Execute {
     @Override
     public long executeCount(BasicDBObject queryBasic, CountOptions countOptions,
                              MongoCollection<Document> collection) {
+        Collation collation = MongoPlusBasicDBObject.getCollation(queryBasic);
+        if (collation != null) {
+            countOptions = (countOptions != null ? countOptions : new CountOptions()).collation(collation);
+        }
         return Optional.ofNullable(countOptions)
                 .map(co -> collection.countDocuments(clientSession, queryBasic,co))
                 .orElseGet(() -> collection.countDocuments(clientSession, queryBasic));
@@ -95,18 +107,12 @@ public class SessionExecute implements Execute {
     public UpdateResult executeUpdate(List<MutablePair<Bson, Bson>> bsonPairList,
                                       UpdateOptions options,
                                       MongoCollection<Document> collection) {
-        AtomicReference<Long> matchedCount = new AtomicReference<>(0L);
-        AtomicReference<Long> modifiedCount = new AtomicReference<>(0L);
-        AtomicReference<BsonValue> upstartedId = new AtomicReference<>();
-        bsonPairList.forEach(bsonPair -> {
-            UpdateResult updateResult = Optional.ofNullable(options)
-                    .map(o -> collection.updateMany(clientSession,bsonPair.getLeft(), bsonPair.getRight(), o))
-                    .orElseGet(() -> collection.updateMany(clientSession,bsonPair.getLeft(), bsonPair.getRight()));
-            matchedCount.updateAndGet(v -> v + updateResult.getMatchedCount());
-            modifiedCount.updateAndGet(v -> v + updateResult.getModifiedCount());
-            upstartedId.set(updateResult.getUpsertedId());
-        });
-        return UpdateResult.acknowledged(matchedCount.get(), modifiedCount.get(), upstartedId.get());
+        return BulkUpdateSupport.executeUpdate(bsonPairList, options,
+                (filter, update) -> Optional.ofNullable(CollationSupport.apply(filter, options))
+                        .map(o -> collection.updateMany(clientSession,filter, update, o))
+                        .orElseGet(() -> collection.updateMany(clientSession,filter, update)),
+                (writeModelList, bulkWriteOptions) ->
+                        collection.bulkWrite(clientSession,writeModelList, bulkWriteOptions));
     }
 
     @Override
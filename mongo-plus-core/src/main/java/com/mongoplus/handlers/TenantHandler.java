@@ -2,7 +2,9 @@ package com.mongoplus.handlers;
 
 import org.bson.BsonValue;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 多租户处理器
@@ -38,6 +40,16 @@ public interface TenantHandler {
         return false;
     }
 
+    /**
+     * 固定忽略租户的集合名称，会在拦截器注册时确定，这些集合不会再经过多租户拦截器
+     * <p>需要动态判断的集合请使用{@link #ignoreCollection(String)}</p>
+     * @return {@link Set<String>}
+     * @author anwen
+     */
+    default Set<String> ignoreCollections(){
+        return Collections.emptySet();
+    }
+
     /**
      * 根据数据库判断是否忽略租户
      * @param database 数据库
@@ -6,6 +6,7 @@ import com.mongoplus.bson.MongoPlusDocument;
 import com.mongoplus.cache.global.HandlerCache;
 import com.mongoplus.enums.FieldFill;
 import com.mongoplus.handlers.MetaObjectHandler;
+import com.mongoplus.mapping.EntityMetadata;
 import com.mongoplus.mapping.FieldInformation;
 import com.mongoplus.mapping.TypeInformation;
 import com.mongoplus.model.AutoFillMetaObject;
@@ -37,7 +38,7 @@ public abstract class AbstractAutoFillHandler implements AutoFillHandler {
      * @author anwen
      */
     protected void initAutoFill(TypeInformation typeInformation) {
-        autoFillFields.putIfAbsent(typeInformation.getClazz(), typeInformation.getFields()
+        autoFillFields.computeIfAbsent(typeInformation.getClazz(), clazz -> EntityMetadata.of(clazz).getFields()
                 .stream()
                 .filter(this::isValidField)
                 .collect(Collectors.groupingBy(this::getFieldFill)));
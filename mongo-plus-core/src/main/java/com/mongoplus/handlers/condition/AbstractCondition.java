@@ -1,6 +1,7 @@
 package com.mongoplus.handlers.condition;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.client.model.Collation;
 import com.mongoplus.annotation.comm.EnumValue;
 import com.mongoplus.bson.MongoPlusBasicDBObject;
 import com.mongoplus.cache.codec.MapCodecCache;
@@ -42,6 +43,11 @@ public abstract class AbstractCondition implements Condition, UpdateCondition {
                 checkCompareCondition(compareCondition);
                 queryCondition(compareCondition, mongoPlusBasicDBObject);
             });
+            Collation collation = LikeConditionRewriter.getCollation();
+            if (collation != null && LikeConditionRewriter.requiresCollation(compareConditionList)) {
+                mongoPlusBasicDBObject.setCollation(collation);
+                LikeConditionRewriter.warnCollationScope(compareConditionList);
+            }
         }
         return mongoPlusBasicDBObject;
     }
@@ -127,14 +133,24 @@ public abstract class AbstractCondition implements Condition, UpdateCondition {
     protected void checkCompareCondition(CompareCondition compareCondition) {
         Object value = compareCondition.getValue();
         if (value == null) return;
-        Object targetValue = value;
+        compareCondition.setValue(convertValue(value));
+    }
+
+    /**
+     * 转换条件值，枚举和枚举集合转换为存储的值
+     * @param value 条件值
+     * @return {@link java.lang.Object}
+     * @author anwen
+     */
+    public Object convertValue(Object value) {
+        if (value == null) return null;
         Class<?> clazz = value.getClass();
         if (ClassTypeUtil.isTargetClass(Collection.class, clazz)) {
-            targetValue = handleCollectionValue((Collection<?>) value);
+            return handleCollectionValue((Collection<?>) value);
         } else if (clazz.isEnum()) {
-            targetValue = handleValue(clazz, value);
+            return handleValue(clazz, value);
         }
-        compareCondition.setValue(targetValue);
+        return value;
     }
 
     protected Object handleCollectionValue(Collection<?> collection) {
@@ -96,8 +96,10 @@ public class BuildCondition extends AbstractCondition {
             case LTE:
                 mongoPlusBasicDBObject.put(Filters.lte(compareCondition.getColumn(), compareCondition.getValue()));
                 break;
-            case REGEX:
             case LIKE:
+                mongoPlusBasicDBObject.put(LikeConditionRewriter.rewrite(compareCondition));
+                break;
+            case REGEX:
                 Document likeDocument = new Document(compareCondition.getColumn(),
                         new Document(REGEX.getOperatorValue(), compareCondition.getValue().toString())
                                 .append(CommonOperators.OPTIONS.getOperator(), "i")
@@ -0,0 +1,323 @@
+package com.mongoplus.handlers.condition;
+
+import com.mongodb.client.model.Collation;
+import com.mongodb.client.model.CollationStrength;
+import com.mongoplus.annotation.collection.CollectionField;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.conditions.AbstractChainWrapper;
+import com.mongoplus.conditions.interfaces.condition.CompareCondition;
+import com.mongoplus.enums.CommonOperators;
+import com.mongoplus.enums.LikeStrategy;
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+import com.mongoplus.mapping.EntityMetadata;
+import com.mongoplus.mapping.FieldInformation;
+import com.mongoplus.toolkit.CollUtil;
+import org.bson.Document;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.mongoplus.enums.QueryOperatorEnum.*;
+
+/**
+ * like条件改写，根据字段或全局的{@link LikeStrategy}将like条件构建为可以使用索引的条件
+ * <p>以^开头的纯前缀匹配可以改写为范围条件，完全匹配可以改写为$eq，配合排序规则（collation）索引实现不区分大小写的匹配</p>
+ * <p>无法使用索引的条件会记录次数，并且每个字段只打印一次警告</p>
+ * <p>排序规则作用于整个查询，同一查询中其他字符串条件也会变为不区分大小写，见{@link LikeStrategy#COLLATION}</p>
+ *
+ * @author anwen
+ */
+public class LikeConditionRewriter {
+
+    private static final Log log = LogFactory.getLog(LikeConditionRewriter.class);
+
+    private static final String REGEX_META = ".^$*+?()[]{}|\\";
+
+    private static final String QUANTIFIER = "*+?{";
+
+    private static final String COLLATION_SCOPE = "collation:";
+
+    /**
+     * 已经打印过警告的字段
+     */
+    private static final Set<String> warnedColumnSet = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 无法使用索引的like条件次数
+     */
+    private static final LongAdder unindexedCount = new LongAdder();
+
+    private static final Map<String, Collation> collationCache = new ConcurrentHashMap<>();
+
+    /**
+     * 构建like条件
+     * @param compareCondition 条件
+     * @return {@link org.bson.Document}
+     * @author anwen
+     */
+    public static Document rewrite(CompareCondition compareCondition) {
+        String column = compareCondition.getColumn();
+        String pattern = compareCondition.getValue().toString();
+        LikeStrategy likeStrategy = getLikeStrategy(compareCondition);
+        LikePattern likePattern = LikePattern.parse(pattern);
+        switch (likeStrategy) {
+            case RANGE:
+            case COLLATION:
+                if (likePattern.exact) {
+                    return new Document(column, new Document(EQ.getOperatorValue(), likePattern.prefix));
+                }
+                if (likePattern.prefixOnly) {
+                    return likeStrategy == LikeStrategy.COLLATION ? collationRange(column, likePattern.prefix)
+                            : range(column, likePattern.prefix);
+                }
+                if (likeStrategy == LikeStrategy.COLLATION) {
+                    unindexed(column, pattern, "collation does not apply to regex");
+                    return regex(column, pattern, true);
+                }
+                // 其他正则按区分大小写构建
+            case CASE_SENSITIVE:
+                if (!likePattern.isIndexable()) {
+                    unindexed(column, pattern, "regex is not anchored to a literal prefix");
+                }
+                return regex(column, pattern, false);
+            default:
+                unindexed(column, pattern, "case-insensitive regex");
+                return regex(column, pattern, true);
+        }
+    }
+
+    /**
+     * 条件中是否存在需要使用排序规则的like条件，包括嵌套的条件
+     * @param compareConditionList 条件集合
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public static boolean requiresCollation(List<CompareCondition> compareConditionList) {
+        if (CollUtil.isEmpty(compareConditionList)) {
+            return false;
+        }
+        for (CompareCondition compareCondition : compareConditionList) {
+            Object value = compareCondition.getValue();
+            if (value instanceof AbstractChainWrapper) {
+                if (requiresCollation(((AbstractChainWrapper<?, ?>) value).getCompareList())) {
+                    return true;
+                }
+            } else if (value != null && Objects.equals(compareCondition.getCondition(), LIKE.getValue())
+                    && getLikeStrategy(compareCondition) == LikeStrategy.COLLATION) {
+                LikePattern likePattern = LikePattern.parse(value.toString());
+                if (likePattern.exact || likePattern.prefixOnly) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 查询使用了排序规则时，检查其他字符串比较条件，这些条件也会变为不区分大小写，每个字段只打印一次警告
+     * <p>正则不受排序规则影响，只检查值为字符串或字符串集合的非like条件</p>
+     * @param compareConditionList 条件集合
+     * @author anwen
+     */
+    public static void warnCollationScope(List<CompareCondition> compareConditionList) {
+        if (CollUtil.isEmpty(compareConditionList)) {
+            return;
+        }
+        for (CompareCondition compareCondition : compareConditionList) {
+            Object value = compareCondition.getValue();
+            if (value instanceof AbstractChainWrapper) {
+                warnCollationScope(((AbstractChainWrapper<?, ?>) value).getCompareList());
+            } else if (!Objects.equals(compareCondition.getCondition(), LIKE.getValue()) && isString(value)
+                    && warnedColumnSet.add(COLLATION_SCOPE + compareCondition.getColumn())) {
+                log.warn("Condition on '" + compareCondition.getColumn() + "' is compared case-insensitively "
+                        + "because the query uses the collation of LikeStrategy.COLLATION, see LikeStrategy");
+            }
+        }
+    }
+
+    /**
+     * 获取配置的排序规则，强度为2（不区分大小写），未配置时返回null
+     * @return {@link com.mongodb.client.model.Collation}
+     * @author anwen
+     */
+    public static Collation getCollation() {
+        String locale = PropertyCache.likeCollationLocale;
+        if (locale == null || locale.isEmpty()) {
+            return null;
+        }
+        return collationCache.computeIfAbsent(locale, key -> Collation.builder()
+                .locale(key)
+                .collationStrength(CollationStrength.SECONDARY)
+                .build());
+    }
+
+    /**
+     * 获取无法使用索引的like条件次数
+     * @return {@link long}
+     * @author anwen
+     */
+    public static long getUnindexedCount() {
+        return unindexedCount.sum();
+    }
+
+    private static LikeStrategy getLikeStrategy(CompareCondition compareCondition) {
+        Field field = compareCondition.getOriginalField();
+        Class<?> originalClass = compareCondition.getOriginalClass();
+        if (field == null && originalClass != null && originalClass != Object.class) {
+            EntityMetadata entityMetadata = EntityMetadata.of(originalClass);
+            int index = entityMetadata.getFieldIndex(compareCondition.getColumn());
+            if (index >= 0) {
+                FieldInformation fieldInformation = entityMetadata.getFields().get(index);
+                field = fieldInformation.getField();
+            }
+        }
+        if (field != null) {
+            CollectionField collectionField = field.getAnnotation(CollectionField.class);
+            if (collectionField != null && collectionField.likeStrategy() != LikeStrategy.DEFAULT) {
+                return collectionField.likeStrategy();
+            }
+        }
+        LikeStrategy likeStrategy = PropertyCache.likeStrategy;
+        return likeStrategy == null || likeStrategy == LikeStrategy.DEFAULT ? LikeStrategy.CASE_INSENSITIVE
+                : likeStrategy;
+    }
+
+    private static boolean isString(Object value) {
+        if (value instanceof CharSequence) {
+            return true;
+        }
+        if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                if (element instanceof CharSequence) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Document regex(String column, String pattern, boolean caseInsensitive) {
+        Document regexDocument = new Document(REGEX.getOperatorValue(), pattern);
+        if (caseInsensitive) {
+            regexDocument.append(CommonOperators.OPTIONS.getOperator(), "i");
+        }
+        return new Document(column, regexDocument);
+    }
+
+    /**
+     * 前缀匹配改写为[prefix, 前缀的后继)的范围
+     */
+    private static Document range(String column, String prefix) {
+        Document rangeDocument = new Document(GTE.getOperatorValue(), prefix);
+        StringBuilder upper = new StringBuilder(prefix);
+        while (upper.length() > 0 && upper.charAt(upper.length() - 1) == Character.MAX_VALUE) {
+            upper.setLength(upper.length() - 1);
+        }
+        if (upper.length() > 0) {
+            int last = upper.length() - 1;
+            upper.setCharAt(last, (char) (upper.charAt(last) + 1));
+            rangeDocument.append(LT.getOperatorValue(), upper.toString());
+        }
+        return new Document(column, rangeDocument);
+    }
+
+    /**
+     * 排序规则下前缀的后继不能通过加一计算，ICU中U+FFFF的权重最大，使用[prefix, prefix + U+FFFF)的范围
+     */
+    private static Document collationRange(String column, String prefix) {
+        return new Document(column, new Document(GTE.getOperatorValue(), prefix)
+                .append(LT.getOperatorValue(), prefix + Character.MAX_VALUE));
+    }
+
+    private static void unindexed(String column, String pattern, String reason) {
+        unindexedCount.increment();
+        if (warnedColumnSet.add(column)) {
+            log.warn("like condition on '" + column + "' cannot use an index efficiently (" + reason + "), pattern: "
+                    + pattern + ", see LikeStrategy");
+        }
+    }
+
+    /**
+     * 解析后的like正则
+     */
+    private static final class LikePattern {
+
+        /**
+         * ^之后的字面量前缀
+         */
+        private final String prefix;
+
+        private final boolean anchored;
+
+        /**
+         * 是否只匹配前缀，即^prefix或^prefix.*
+         */
+        private final boolean prefixOnly;
+
+        /**
+         * 是否完全匹配，即^prefix$
+         */
+        private final boolean exact;
+
+        private LikePattern(String prefix, boolean anchored, boolean prefixOnly, boolean exact) {
+            this.prefix = prefix;
+            this.anchored = anchored;
+            this.prefixOnly = prefixOnly;
+            this.exact = exact;
+        }
+
+        private static LikePattern parse(String pattern) {
+            if (!pattern.startsWith("^")) {
+                return new LikePattern("", false, false, false);
+            }
+            StringBuilder prefix = new StringBuilder();
+            int i = 1;
+            while (i < pattern.length()) {
+                char c = pattern.charAt(i);
+                if (c == '\\') {
+                    // 转义的非字母数字字符是字面量，\d、\w等是字符类
+                    if (i + 1 < pattern.length() && !Character.isLetterOrDigit(pattern.charAt(i + 1))) {
+                        prefix.append(pattern.charAt(i + 1));
+                        i += 2;
+                        continue;
+                    }
+                    break;
+                }
+                if (REGEX_META.indexOf(c) >= 0) {
+                    break;
+                }
+                prefix.append(c);
+                i++;
+            }
+            String rest = pattern.substring(i);
+            if (rest.indexOf('|') >= 0) {
+                // 存在分支时前缀不一定生效
+                return new LikePattern("", false, false, false);
+            }
+            if (!rest.isEmpty() && QUANTIFIER.indexOf(rest.charAt(0)) >= 0) {
+                // 量词作用于前缀的最后一个字符
+                if (prefix.length() > 0) {
+                    prefix.setLength(prefix.length() - 1);
+                }
+                return new LikePattern(prefix.toString(), true, false, false);
+            }
+            boolean nonEmpty = prefix.length() > 0;
+            return new LikePattern(prefix.toString(), true,
+                    nonEmpty && (rest.isEmpty() || rest.equals(".*")),
+                    nonEmpty && rest.equals("$"));
+        }
+
+        private boolean isIndexable() {
+            return anchored && !prefix.isEmpty();
+        }
+
+    }
+
+}
@@ -1,29 +1,21 @@
 package com.mongoplus.handlers.field;
 
 import com.mongodb.BasicDBObject;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoIterable;
 import com.mongoplus.annotation.ID;
 import com.mongoplus.annotation.collection.CollectionName;
 import com.mongoplus.annotation.collection.DBRef;
-import com.mongoplus.cache.global.MongoPlusClientCache;
 import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.conditions.interfaces.condition.CompareCondition;
 import com.mongoplus.domain.MongoPlusFieldException;
-import com.mongoplus.execute.Execute;
-import com.mongoplus.execute.ExecutorFactory;
 import com.mongoplus.handlers.FieldHandler;
 import com.mongoplus.handlers.ReadHandler;
 import com.mongoplus.handlers.collection.AnnotationOperate;
 import com.mongoplus.handlers.condition.ConditionHandler;
-import com.mongoplus.manager.MongoPlusClient;
 import com.mongoplus.mapping.FieldInformation;
 import com.mongoplus.mapping.MongoConverter;
 import com.mongoplus.mapping.SimpleFieldInformation;
 import com.mongoplus.mapping.TypeInformation;
-import com.mongoplus.toolkit.Filters;
 import com.mongoplus.toolkit.StringUtils;
-import org.bson.Document;
 import org.bson.types.ObjectId;
 
 import java.lang.reflect.Field;
@@ -62,8 +54,8 @@ public class DBRefHandler implements FieldHandler, ReadHandler, ConditionHandler
         if (fieldValue == null) {
             return null;
         }
-        Class<?> typeClass = fieldInformation.getTypeClass();
         DBRef dbRefAnnotation = fieldInformation.getAnnotation(DBRef.class);
+        Class<?> typeClass = getTargetClass(fieldInformation.getTypeClass(), dbRefAnnotation);
         TypeInformation typeInformation = TypeInformation.of(typeClass);
         FieldInformation annotationField = typeInformation.getAnnotationField(ID.class);
         if (annotationField == null) {
@@ -73,24 +65,15 @@ public class DBRefHandler implements FieldHandler, ReadHandler, ConditionHandler
         return getDBRef(typeClass,dbRefAnnotation,value);
     }
 
+    /**
+     * 引用登记到{@link DBRefResolver}，返回占位对象，批量查询后由占位对象写入字段
+     */
     @Override
     public Object read(FieldInformation fieldInformation, Object source, MongoConverter mongoConverter) {
-        MongoPlusClient mongoPlusClient = MongoPlusClientCache.mongoPlusClient;
-        com.mongodb.DBRef dbRef = (com.mongodb.DBRef) source;
-        MongoCollection<Document> collection = mongoPlusClient.getCollection(
-                dbRef.getDatabaseName(),
-                dbRef.getCollectionName()
-        );
-        Class<?> typeClass = fieldInformation.getTypeClass();
-        Execute execute = new ExecutorFactory().getExecute();
-        MongoIterable<Document> iterable = execute.executeQuery(
-                Filters.eq(dbRef.getId()),
-                null,
-                null,
-                Document.class,
-                collection
-        );
-        return mongoConverter.readDocument(iterable, typeClass);
+        if (!(source instanceof com.mongodb.DBRef)) {
+            return source;
+        }
+        return DBRefResolver.register(fieldInformation, (com.mongodb.DBRef) source, mongoConverter);
     }
 
     @Override
@@ -103,9 +86,10 @@ public class DBRefHandler implements FieldHandler, ReadHandler, ConditionHandler
             if (!existDBRef){
                 return;
             }
+            DBRef dbRefAnnotation = fieldInformation.getAnnotation(DBRef.class);
             com.mongodb.DBRef dbRef = getDBRef(
-                    originalField.getType(),
-                    fieldInformation.getAnnotation(DBRef.class),
+                    getTargetClass(originalField.getType(), dbRefAnnotation),
+                    dbRefAnnotation,
                     compareCondition.getValue()
             );
             basicDBObject.put(compareCondition.getColumn(),dbRef);
@@ -133,4 +117,18 @@ public class DBRefHandler implements FieldHandler, ReadHandler, ConditionHandler
         return new com.mongodb.DBRef(database, collectionName, value);
     }
 
+    /**
+     * 获取引用对象的实际类型
+     * @param typeClass 字段类型
+     * @param dbRefAnnotation 注解
+     * @return {@link java.lang.Class}
+     * @author anwen
+     */
+    public static Class<?> getTargetClass(Class<?> typeClass, DBRef dbRefAnnotation) {
+        if (dbRefAnnotation != null && dbRefAnnotation.targetClass() != Void.class) {
+            return dbRefAnnotation.targetClass();
+        }
+        return typeClass;
+    }
+
 }
@@ -0,0 +1,80 @@
+package com.mongoplus.handlers.field;
+
+import com.mongoplus.mapping.FieldInformation;
+
+/**
+ * DBRef字段的占位对象，{@link DBRefHandler}登记引用后返回，读取链中后续的处理器仍然会执行
+ * <p>引用由{@link DBRefResolver}批量解析后写入字段；占位对象到达读取链末尾时不写入字段，
+ * 后续处理器返回了其他值时调用{@link #discard()}，写入处理器返回的值，解析结果不再写入字段</p>
+ *
+ * @author anwen
+ */
+public final class DBRefPlaceholder {
+
+    /**
+     * 绑定实例的字段信息
+     */
+    private final FieldInformation fieldInformation;
+
+    private final com.mongodb.DBRef dbRef;
+
+    private boolean discarded;
+
+    private boolean resolved;
+
+    private Object value;
+
+    DBRefPlaceholder(FieldInformation fieldInformation, com.mongodb.DBRef dbRef) {
+        this.fieldInformation = fieldInformation;
+        this.dbRef = dbRef;
+    }
+
+    public com.mongodb.DBRef getDBRef() {
+        return dbRef;
+    }
+
+    /**
+     * 是否已经解析，懒加载时为代理对象
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public boolean isResolved() {
+        return resolved;
+    }
+
+    /**
+     * 解析后的值，未解析或引用的文档不存在时为null
+     * @return {@link java.lang.Object}
+     * @author anwen
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * 放弃占位，解析结果不再写入字段
+     * @author anwen
+     */
+    public void discard() {
+        discarded = true;
+    }
+
+    /**
+     * 写入解析结果
+     * @param value 引用对象或懒加载代理
+     * @author anwen
+     */
+    void fill(Object value) {
+        this.value = value;
+        this.resolved = true;
+        if (!discarded) {
+            fieldInformation.setValue(value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DBRefPlaceholder{" + dbRef + "}";
+    }
+
+}
@@ -0,0 +1,355 @@
+package com.mongoplus.handlers.field;
+
+import com.mongodb.client.MongoCollection;
+import com.mongoplus.annotation.collection.DBRef;
+import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.cache.global.MongoPlusClientCache;
+import com.mongoplus.constant.SqlOperationConstant;
+import com.mongoplus.context.ContextKey;
+import com.mongoplus.domain.MongoPlusException;
+import com.mongoplus.execute.Execute;
+import com.mongoplus.execute.ExecutorFactory;
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+import com.mongoplus.mapping.FieldInformation;
+import com.mongoplus.mapping.MongoConverter;
+import com.mongoplus.toolkit.Filters;
+import org.bson.Document;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * DBRef批量解析，读取一批结果时先收集所有引用，结束后按(数据源, 数据库, 集合)分组，每组使用一次$in查询
+ * <p>引用对象中的引用作为下一层继续批量解析，深度超过{@link DBRef#maxDepth()}时不再查询</p>
+ * <p>{@link DBRef#lazy()}并且字段类型为接口时写入代理对象，第一次调用方法时同一批的引用一起查询；
+ * 代理使用JDK动态代理，字段类型不是接口时仍然批量立即查询</p>
+ * <p>引用的文档不存在时字段保持为null，并打印警告日志</p>
+ *
+ * @author anwen
+ */
+public final class DBRefResolver {
+
+    private static final Log log = LogFactory.getLog(DBRefResolver.class);
+
+    /**
+     * 每次$in查询的最大id数量
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final ContextKey<Batch> batchContext = ContextKey.local("dbRefBatch");
+
+    /**
+     * 已经打印过无法懒加载警告的字段
+     */
+    private static final Set<Field> warnedFieldSet = ConcurrentHashMap.newKeySet();
+
+    private DBRefResolver() {
+    }
+
+    /**
+     * 在批量解析的作用域内执行，作用域内读取的DBRef在执行结束后一起查询，已经在作用域内时直接执行
+     * @param supplier 读取结果
+     * @return {@link T}
+     * @author anwen
+     */
+    public static <T> T batch(Supplier<T> supplier) {
+        if (batchContext.get() != null) {
+            return supplier.get();
+        }
+        return batch(1, supplier);
+    }
+
+    private static <T> T batch(int depth, Supplier<T> supplier) {
+        Batch batch = new Batch(depth);
+        return batchContext.callWith(batch, () -> {
+            T result = supplier.get();
+            batch.resolve();
+            return result;
+        });
+    }
+
+    /**
+     * 登记字段的引用，解析后由占位对象写入字段，不在批量作用域内时立即解析
+     * @param fieldInformation 绑定实例的字段信息
+     * @param dbRef 引用
+     * @param mongoConverter 转换器
+     * @return {@link com.mongoplus.handlers.field.DBRefPlaceholder}
+     * @author anwen
+     */
+    static DBRefPlaceholder register(FieldInformation fieldInformation, com.mongodb.DBRef dbRef,
+                                     MongoConverter mongoConverter) {
+        DBRefPlaceholder placeholder = new DBRefPlaceholder(fieldInformation, dbRef);
+        batch(() -> {
+            batchContext.get().register(placeholder, fieldInformation, mongoConverter);
+            return null;
+        });
+        return placeholder;
+    }
+
+    private static <T> T withDataSource(String dataSource, Supplier<T> supplier) {
+        String current = DataSourceNameCache.getDataSource();
+        if (Objects.equals(current, dataSource)) {
+            return supplier.get();
+        }
+        DataSourceNameCache.setDataSource(dataSource);
+        try {
+            return supplier.get();
+        } finally {
+            DataSourceNameCache.setDataSource(current);
+        }
+    }
+
+    /**
+     * 查询引用的文档，id分块使用$in查询
+     * @return {@link java.util.Map<java.lang.Object,org.bson.Document>} id和文档
+     */
+    private static Map<Object, Document> fetch(String dataSource, String database, String collectionName,
+                                               Set<Object> ids) {
+        return withDataSource(dataSource, () -> {
+            MongoCollection<Document> collection = MongoPlusClientCache.mongoPlusClient.getCollection(
+                    database,
+                    collectionName
+            );
+            Execute execute = new ExecutorFactory().getExecute();
+            Map<Object, Document> documentMap = new HashMap<>(ids.size() * 2);
+            List<Object> idList = new ArrayList<>(ids);
+            for (int i = 0; i < idList.size(); i += CHUNK_SIZE) {
+                List<Object> chunk = idList.subList(i, Math.min(i + CHUNK_SIZE, idList.size()));
+                execute.executeQuery(
+                        chunk.size() == 1 ? Filters.eq(chunk.get(0)) : Filters.in(SqlOperationConstant._ID, chunk),
+                        null,
+                        null,
+                        Document.class,
+                        collection
+                ).forEach(document -> documentMap.put(document.get(SqlOperationConstant._ID), document));
+            }
+            return documentMap;
+        });
+    }
+
+    /**
+     * 一次读取的批量解析状态
+     */
+    private static final class Batch {
+
+        /**
+         * 当前登记的引用的深度
+         */
+        private int depth;
+
+        private List<Reference> references = new ArrayList<>();
+
+        /**
+         * 当前深度的懒加载分组
+         */
+        private Map<List<String>, LazyGroup> lazyGroupMap = new HashMap<>();
+
+        private Batch(int depth) {
+            this.depth = depth;
+        }
+
+        private void register(DBRefPlaceholder placeholder, FieldInformation fieldInformation,
+                              MongoConverter mongoConverter) {
+            com.mongodb.DBRef dbRef = placeholder.getDBRef();
+            DBRef dbRefAnnotation = fieldInformation.getAnnotation(DBRef.class);
+            if (dbRefAnnotation != null && depth > dbRefAnnotation.maxDepth()) {
+                if (log.isDebugEnabled()) {
+                    log.debug("DBRef depth exceeds maxDepth, not resolved: " + dbRef);
+                }
+                return;
+            }
+            Class<?> fieldType = fieldInformation.getTypeClass();
+            Class<?> typeClass = DBRefHandler.getTargetClass(fieldType, dbRefAnnotation);
+            String dataSource = DataSourceNameCache.getDataSource();
+            if (dbRefAnnotation != null && dbRefAnnotation.lazy()) {
+                if (fieldType.isInterface()) {
+                    LazyGroup lazyGroup = lazyGroupMap.computeIfAbsent(
+                            Arrays.asList(dataSource, dbRef.getDatabaseName(), dbRef.getCollectionName()),
+                            key -> new LazyGroup(dataSource, dbRef.getDatabaseName(), dbRef.getCollectionName(), depth)
+                    );
+                    lazyGroup.ids.add(dbRef.getId());
+                    placeholder.fill(Proxy.newProxyInstance(
+                            fieldType.getClassLoader(),
+                            new Class<?>[]{fieldType},
+                            new LazyTarget(lazyGroup, dbRef, typeClass, mongoConverter)
+                    ));
+                    return;
+                }
+                if (warnedFieldSet.add(fieldInformation.getField())) {
+                    log.warn("@DBRef(lazy = true) on '" + fieldInformation.getField() + "' requires an interface type, "
+                            + "the reference is loaded eagerly");
+                }
+            }
+            references.add(new Reference(placeholder, typeClass, mongoConverter, dataSource));
+        }
+
+        /**
+         * 逐层解析，解析引用对象时登记的引用属于下一层
+         */
+        private void resolve() {
+            while (!references.isEmpty()) {
+                List<Reference> current = references;
+                references = new ArrayList<>();
+                lazyGroupMap = new HashMap<>();
+                depth++;
+                Map<List<String>, List<Reference>> referenceGroupMap = new LinkedHashMap<>();
+                for (Reference reference : current) {
+                    referenceGroupMap.computeIfAbsent(Arrays.asList(reference.dataSource,
+                            reference.dbRef.getDatabaseName(), reference.dbRef.getCollectionName()),
+                            key -> new ArrayList<>()).add(reference);
+                }
+                referenceGroupMap.forEach((key, referenceList) -> {
+                    Set<Object> ids = new LinkedHashSet<>();
+                    referenceList.forEach(reference -> ids.add(reference.dbRef.getId()));
+                    Map<Object, Document> documentMap = fetch(key.get(0), key.get(1), key.get(2), ids);
+                    for (Reference reference : referenceList) {
+                        Document document = documentMap.get(reference.dbRef.getId());
+                        if (document == null) {
+                            log.warn("DBRef target does not exist, the field is left null: " + reference.dbRef);
+                            reference.placeholder.fill(null);
+                            continue;
+                        }
+                        reference.placeholder.fill(
+                                reference.mongoConverter.convertDocument(document, reference.typeClass)
+                        );
+                    }
+                });
+            }
+        }
+
+    }
+
+    /**
+     * 等待解析的引用
+     */
+    private static final class Reference {
+
+        private final DBRefPlaceholder placeholder;
+
+        private final com.mongodb.DBRef dbRef;
+
+        private final Class<?> typeClass;
+
+        private final MongoConverter mongoConverter;
+
+        private final String dataSource;
+
+        private Reference(DBRefPlaceholder placeholder, Class<?> typeClass, MongoConverter mongoConverter,
+                          String dataSource) {
+            this.placeholder = placeholder;
+            this.dbRef = placeholder.getDBRef();
+            this.typeClass = typeClass;
+            this.mongoConverter = mongoConverter;
+            this.dataSource = dataSource;
+        }
+
+    }
+
+    /**
+     * 同一批结果中同一集合的懒加载引用，任意一个代理第一次调用时一起查询
+     */
+    private static final class LazyGroup {
+
+        private final String dataSource;
+
+        private final String database;
+
+        private final String collectionName;
+
+        private final int depth;
+
+        private final Set<Object> ids = new LinkedHashSet<>();
+
+        private final Map<Object, Document> documentMap = new HashMap<>();
+
+        private final Set<Object> fetchedIds = new LinkedHashSet<>();
+
+        private LazyGroup(String dataSource, String database, String collectionName, int depth) {
+            this.dataSource = dataSource;
+            this.database = database;
+            this.collectionName = collectionName;
+            this.depth = depth;
+        }
+
+        private synchronized Document get(Object id) {
+            if (!fetchedIds.contains(id)) {
+                Set<Object> unfetchedIds = new LinkedHashSet<>(ids);
+                unfetchedIds.removeAll(fetchedIds);
+                unfetchedIds.add(id);
+                documentMap.putAll(fetch(dataSource, database, collectionName, unfetchedIds));
+                fetchedIds.addAll(unfetchedIds);
+            }
+            return documentMap.get(id);
+        }
+
+    }
+
+    /**
+     * 懒加载代理，第一次调用方法时查询并转换
+     */
+    private static final class LazyTarget implements InvocationHandler {
+
+        private final LazyGroup lazyGroup;
+
+        private final com.mongodb.DBRef dbRef;
+
+        private final Class<?> typeClass;
+
+        private final MongoConverter mongoConverter;
+
+        private volatile Object target;
+
+        private LazyTarget(LazyGroup lazyGroup, com.mongodb.DBRef dbRef, Class<?> typeClass,
+                           MongoConverter mongoConverter) {
+            this.lazyGroup = lazyGroup;
+            this.dbRef = dbRef;
+            this.typeClass = typeClass;
+            this.mongoConverter = mongoConverter;
+        }
+
+        private Object getTarget() {
+            Object result = target;
+            if (result == null) {
+                synchronized (this) {
+                    result = target;
+                    if (result == null) {
+                        Document document = lazyGroup.get(dbRef.getId());
+                        if (document == null) {
+                            throw new MongoPlusException("DBRef target does not exist: " + dbRef);
+                        }
+                        result = batch(lazyGroup.depth + 1,
+                                () -> mongoConverter.convertDocument(document, typeClass));
+                        target = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(getTarget(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+    }
+
+}
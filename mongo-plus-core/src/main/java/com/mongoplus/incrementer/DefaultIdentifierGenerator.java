@@ -54,6 +54,16 @@ public class DefaultIdentifierGenerator implements IdentifierGenerator {
         return sequence.nextId();
     }
 
+    /**
+     * 一次预留多个id
+     * @param count 数量
+     * @return {@link long[]}
+     * @author anwen
+     */
+    public long[] nextIds(int count) {
+        return sequence.nextIds(count);
+    }
+
     public static DefaultIdentifierGenerator getInstance() {
         return DefaultInstance.INSTANCE;
     }
@@ -3,6 +3,7 @@ package com.mongoplus.incrementer.id;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.client.model.ReturnDocument;
+import com.mongoplus.cache.global.DataSourceNameCache;
 import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.constant.SqlOperationConstant;
 import com.mongoplus.context.MongoTransactionContext;
@@ -15,9 +16,12 @@ import org.bson.Document;
 import org.bson.types.ObjectId;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 抽象的id生成处理器
@@ -28,6 +32,11 @@ public abstract class AbstractIdGenerateHandler implements IdGenerateHandler {
 
     protected final MongoPlusClient mongoPlusClient;
 
+    /**
+     * 自增id号段分配器，{@link PropertyCache#autoIdBlockSize}大于1时使用
+     */
+    private final Map<List<String>, AutoIdSegment> autoIdSegmentMap = new ConcurrentHashMap<>();
+
     public MongoPlusClient getMongoPlusClient() {
         return mongoPlusClient;
     }
@@ -57,13 +66,17 @@ public abstract class AbstractIdGenerateHandler implements IdGenerateHandler {
     }
 
     /**
-     * 生成自增id
+     * 生成自增id，{@link PropertyCache#autoIdBlockSize}大于1时从内存中的号段分配，否则每次都访问数据库
      * @param typeInformation 类信息
      * @return {@link java.lang.Integer}
      * @author anwen
      */
     public Integer generateAutoId(TypeInformation typeInformation) {
         String collectionName = AnnotationOperate.getCollectionName(typeInformation.getClazz());
+        Integer blockSize = PropertyCache.autoIdBlockSize;
+        if (blockSize != null && blockSize > 1) {
+            return (int) getAutoIdSegment(typeInformation, collectionName, blockSize).nextId();
+        }
         // 每个Collection单独加锁
         synchronized (collectionName.intern()) {
             MongoCollection<Document> collection = mongoPlusClient.getCollection(typeInformation.getClazz(), PropertyCache.autoIdCollectionName);
@@ -85,4 +98,24 @@ public abstract class AbstractIdGenerateHandler implements IdGenerateHandler {
         }
     }
 
+    /**
+     * 获取集合的号段分配器，数据源、计数集合或号段大小不同时使用不同的分配器
+     */
+    private AutoIdSegment getAutoIdSegment(TypeInformation typeInformation, String collectionName, int blockSize) {
+        MongoCollection<Document> collection = mongoPlusClient.getCollection(typeInformation.getClazz(),
+                PropertyCache.autoIdCollectionName);
+        List<String> key = Arrays.asList(
+                DataSourceNameCache.getDataSource(),
+                collection.getNamespace().getFullName(),
+                collectionName
+        );
+        AutoIdSegment autoIdSegment = autoIdSegmentMap.computeIfAbsent(key, k ->
+                new AutoIdSegment(collection, collectionName, blockSize));
+        if (autoIdSegment.getBlockSize() != blockSize) {
+            autoIdSegment = new AutoIdSegment(collection, collectionName, blockSize);
+            autoIdSegmentMap.put(key, autoIdSegment);
+        }
+        return autoIdSegment;
+    }
+
 }
@@ -0,0 +1,138 @@
+package com.mongoplus.incrementer.id;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongoplus.constant.SqlOperationConstant;
+import com.mongoplus.execute.AsyncExecute;
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+import org.bson.Document;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 一个集合的自增id号段分配器
+ * <p>每次通过$inc从计数集合中原子地预留blockSize个id，多个应用节点预留到的号段不会重叠；
+ * 号段内的id通过CAS在内存中分配，不需要加锁，只有切换号段时才会同步</p>
+ * <p>当前号段用掉80%时，由恰好分配到该位置的线程提前异步预留下一段，切换时通常不需要等待数据库</p>
+ * <p>号段不在事务中预留，事务回滚不会归还id，未用完的号段在重启后跳过，所以id唯一递增但不连续</p>
+ *
+ * @author anwen
+ */
+final class AutoIdSegment {
+
+    private static final Log log = LogFactory.getLog(AutoIdSegment.class);
+
+    private final MongoCollection<Document> collection;
+
+    private final String collectionName;
+
+    private final int blockSize;
+
+    private volatile Segment current;
+
+    /**
+     * 预留中的下一段，由监视器保护
+     */
+    private CompletableFuture<Segment> next;
+
+    AutoIdSegment(MongoCollection<Document> collection, String collectionName, int blockSize) {
+        this.collection = collection;
+        this.collectionName = collectionName;
+        this.blockSize = blockSize;
+    }
+
+    int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * 分配下一个id
+     * @return {@link long}
+     * @author anwen
+     */
+    long nextId() {
+        while (true) {
+            Segment segment = current;
+            if (segment != null) {
+                long id = segment.cursor.getAndIncrement();
+                if (id <= segment.max) {
+                    if (id == segment.prefetchAt) {
+                        prefetch();
+                    }
+                    return id;
+                }
+            }
+            switchSegment(segment);
+        }
+    }
+
+    /**
+     * 当前号段用完后切换到预留好的下一段，没有预留或预留失败时同步预留
+     */
+    private synchronized void switchSegment(Segment exhausted) {
+        if (current != exhausted) {
+            return;
+        }
+        CompletableFuture<Segment> future = next;
+        next = null;
+        Segment segment = null;
+        // 在异步线程中时，预留任务可能排在当前线程之后，取消后同步预留；已经在执行的预留作废，只会让id不连续
+        if (future != null && AsyncExecute.isAsyncThread() && future.cancel(false)) {
+            future = null;
+        }
+        if (future != null) {
+            try {
+                segment = future.join();
+            } catch (RuntimeException e) {
+                log.warn("Prefetch auto id segment of " + collectionName + " failed, retry synchronously: "
+                        + e.getMessage());
+            }
+        }
+        current = segment != null ? segment : allocate();
+    }
+
+    private synchronized void prefetch() {
+        if (next == null) {
+            next = CompletableFuture.supplyAsync(this::allocate, AsyncExecute.getExecutor());
+        }
+    }
+
+    /**
+     * 从数据库预留一个号段，计数文档不存在时由upsert创建
+     */
+    private Segment allocate() {
+        Document document = collection.findOneAndUpdate(
+                new Document(SqlOperationConstant._ID, collectionName),
+                new Document("$inc", new Document(SqlOperationConstant.AUTO_NUM, blockSize)),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER)
+        );
+        long max = ((Number) document.get(SqlOperationConstant.AUTO_NUM)).longValue();
+        return new Segment(max - blockSize + 1, max, max - blockSize / 5);
+    }
+
+    /**
+     * 已预留的[min, max]号段
+     */
+    private static final class Segment {
+
+        private final AtomicLong cursor;
+
+        private final long max;
+
+        /**
+         * 分配到该id时预留下一段
+         */
+        private final long prefetchAt;
+
+        private Segment(long min, long max, long prefetchAt) {
+            this.cursor = new AtomicLong(min);
+            this.max = max;
+            this.prefetchAt = prefetchAt;
+        }
+
+    }
+
+}
@@ -23,6 +23,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * id 获取器
@@ -34,7 +35,26 @@ public class IdWorker {
     /**
      * 主机和进程的机器码
      */
-    private static IdentifierGenerator IDENTIFIER_GENERATOR = entity -> DefaultIdentifierGenerator.getInstance().nextId(entity);
+    private static final IdentifierGenerator DEFAULT_IDENTIFIER_GENERATOR = entity -> DefaultIdentifierGenerator.getInstance().nextId(entity);
+
+    private static IdentifierGenerator IDENTIFIER_GENERATOR = DEFAULT_IDENTIFIER_GENERATOR;
+
+    /**
+     * 当前线程通过{@link #reserve(int, Runnable)}预留的id
+     */
+    private static final ThreadLocal<ReservedIds> RESERVED_IDS = new ThreadLocal<>();
+
+    /**
+     * 当前生成器的机器标识来自租约时不为null，租约失效后不能再生成id
+     */
+    private static volatile WorkerIdLease LEASE;
+
+    private static final ULID ULID_GENERATOR = new ULID();
+
+    /**
+     * 上一个生成的ULID，同一毫秒内在它的基础上递增
+     */
+    private static final AtomicReference<ULID.Value> LAST_ULID = new AtomicReference<>();
 
     /**
      * 毫秒格式化时间
@@ -56,9 +76,64 @@ public class IdWorker {
      * @return id
      */
     public static long getId(Object entity) {
+        ReservedIds reservedIds = RESERVED_IDS.get();
+        if (reservedIds != null && reservedIds.index < reservedIds.ids.length) {
+            return reservedIds.ids[reservedIds.index++];
+        }
+        checkLease();
         return IDENTIFIER_GENERATOR.nextId(entity).longValue();
     }
 
+    /**
+     * 一次获取多个唯一ID，默认生成器通过一次CAS预留同一毫秒内的多个序列号
+     *
+     * @param count 数量
+     * @return id
+     */
+    public static long[] getIds(int count) {
+        checkLease();
+        DefaultIdentifierGenerator defaultIdentifierGenerator = getDefaultIdentifierGenerator();
+        if (defaultIdentifierGenerator != null) {
+            return defaultIdentifierGenerator.nextIds(count);
+        }
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = IDENTIFIER_GENERATOR.nextId(null).longValue();
+        }
+        return ids;
+    }
+
+    /**
+     * 预留count个id后执行任务，任务中当前线程的{@link #getId()}优先使用预留的id，用于批量新增
+     * <p>使用自定义的{@link IdentifierGenerator}时不预留，直接执行任务</p>
+     *
+     * @param count 预留数量
+     * @param task 任务
+     */
+    public static void reserve(int count, Runnable task) {
+        if (count <= 1 || RESERVED_IDS.get() != null || getDefaultIdentifierGenerator() == null) {
+            task.run();
+            return;
+        }
+        RESERVED_IDS.set(new ReservedIds(getIds(count)));
+        try {
+            task.run();
+        } finally {
+            RESERVED_IDS.remove();
+        }
+    }
+
+    private static DefaultIdentifierGenerator getDefaultIdentifierGenerator() {
+        IdentifierGenerator identifierGenerator = IDENTIFIER_GENERATOR;
+        if (identifierGenerator == DEFAULT_IDENTIFIER_GENERATOR) {
+            return DefaultIdentifierGenerator.getInstance();
+        }
+        if (identifierGenerator instanceof DefaultIdentifierGenerator) {
+            return (DefaultIdentifierGenerator) identifierGenerator;
+        }
+        return null;
+    }
+
     /**
      * 获取唯一ID
      *
@@ -74,6 +149,7 @@ public class IdWorker {
      * @return id
      */
     public static String getIdStr(Object entity) {
+        checkLease();
         return IDENTIFIER_GENERATOR.nextId(entity).toString();
     }
 
@@ -100,7 +176,22 @@ public class IdWorker {
      * @see #setIdentifierGenerator(IdentifierGenerator)
      */
     public static void initSequence(long workerId, long dataCenterId) {
+        initSequence(workerId, dataCenterId, null);
+    }
+
+    /**
+     * 使用租约分配的机器标识，租约失效期间生成id会等待续约，仍然失效时抛出异常
+     */
+    static void initSequence(long workerId, long dataCenterId, WorkerIdLease lease) {
         IDENTIFIER_GENERATOR = new DefaultIdentifierGenerator(workerId, dataCenterId);
+        LEASE = lease;
+    }
+
+    private static void checkLease() {
+        WorkerIdLease lease = LEASE;
+        if (lease != null) {
+            lease.awaitValid();
+        }
     }
 
     /**
@@ -111,6 +202,7 @@ public class IdWorker {
      */
     public static void setIdentifierGenerator(IdentifierGenerator identifierGenerator) {
         IDENTIFIER_GENERATOR = identifierGenerator;
+        LEASE = null;
     }
 
     /**
@@ -122,11 +214,44 @@ public class IdWorker {
     }
 
     /**
-     * 生成一个ULID
+     * 生成一个ULID，同一毫秒内单调递增
      * @author JiaChaoYang
     */
     public static String get26ULID(){
-        return new ULID().nextULID();
+        return nextULIDValue().toString();
+    }
+
+    /**
+     * 生成一个单调递增的ULID，新的毫秒使用随机数，同一毫秒或时钟回拨时在上一个ULID的基础上加一
+     * @return {@link com.mongoplus.incrementer.id.ULID.Value}
+     * @author anwen
+     */
+    public static ULID.Value nextULIDValue() {
+        while (true) {
+            ULID.Value previous = LAST_ULID.get();
+            long timestamp = System.currentTimeMillis();
+            ULID.Value next = previous != null && previous.timestamp() >= timestamp
+                    ? previous.increment()
+                    : ULID_GENERATOR.nextValue(timestamp);
+            if (LAST_ULID.compareAndSet(previous, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * 线程预留的id
+     */
+    private static final class ReservedIds {
+
+        private final long[] ids;
+
+        private int index;
+
+        private ReservedIds(long[] ids) {
+            this.ids = ids;
+        }
+
     }
 
 }
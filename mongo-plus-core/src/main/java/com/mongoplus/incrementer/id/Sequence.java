@@ -25,6 +25,7 @@ import java.lang.management.ManagementFactory;
 import java.net.InetAddress;
 import java.net.NetworkInterface;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 分布式高效有序 ID 生产黑科技(sequence)
@@ -57,13 +58,14 @@ public class Sequence {
      */
     private final long datacenterId;
     /**
-     * 并发控制
+     * 毫秒内自增位
      */
-    private long sequence = 0L;
+    private static final long sequenceBits = 12L;
+    private static final long sequenceMask = ~(-1L << sequenceBits);
     /**
-     * 上次生产 ID 时间戳
+     * 上次生产 ID 的时间戳（相对twepoch）和序列号，高位为时间戳，低sequenceBits位为序列号，通过CAS更新
      */
-    private long lastTimestamp = -1L;
+    private final AtomicLong state = new AtomicLong();
     /**
      * IP 地址
      */
@@ -82,10 +84,10 @@ public class Sequence {
      * @param datacenterId 序列号
      */
     public Sequence(long workerId, long datacenterId) {
-        if (!(workerId > maxWorkerId || workerId < 0)){
+        if (workerId > maxWorkerId || workerId < 0){
             throw new MongoPlusWriteException(String.format("worker Id can't be greater than %d or less than 0", maxWorkerId));
         }
-        if (!(datacenterId > maxDatacenterId || datacenterId < 0)) {
+        if (datacenterId > maxDatacenterId || datacenterId < 0) {
             throw new MongoPlusWriteException(String.format("datacenter Id can't be greater than %d or less than 0", maxDatacenterId));
         }
         this.workerId = workerId;
@@ -138,58 +140,79 @@ public class Sequence {
 
     /**
      * 获取下一个 ID
+     * <p>时间戳和序列号保存在同一个AtomicLong中，通过CAS分配，不需要加锁</p>
      *
      * @return 下一个 ID
      */
-    public synchronized long nextId() {
-        long timestamp = timeGen();
-        //闰秒
-        if (timestamp < lastTimestamp) {
-            long offset = lastTimestamp - timestamp;
-            if (offset <= 5) {
-                try {
-                    wait(offset << 1);
-                    timestamp = timeGen();
-                    if (timestamp < lastTimestamp) {
-                        throw new RuntimeException(String.format("Clock moved backwards.  Refusing to generate id for %d milliseconds", offset));
-                    }
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
-            } else {
-                throw new RuntimeException(String.format("Clock moved backwards.  Refusing to generate id for %d milliseconds", offset));
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long next = nextState(current);
+            if (next != -1 && state.compareAndSet(current, next)) {
+                return toId(next);
             }
         }
+    }
 
-        /**
-         * 毫秒内自增位
-         */
-        long sequenceBits = 12L;
-        if (lastTimestamp == timestamp) {
-            // 相同毫秒内，序列号自增
-            long sequenceMask = ~(-1L << sequenceBits);
-            sequence = (sequence + 1) & sequenceMask;
-            if (sequence == 0) {
-                // 同一毫秒的序列数已经达到最大
-                timestamp = tilNextMillis(lastTimestamp);
+    /**
+     * 一次预留多个 ID，同一毫秒内剩余的序列号通过一次CAS全部预留，用完后进入下一毫秒
+     *
+     * @param count 数量
+     * @return 按生成顺序排列的 ID
+     */
+    public long[] nextIds(int count) {
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            long current = state.get();
+            long first = nextState(current);
+            if (first == -1) {
+                continue;
+            }
+            int take = (int) Math.min(sequenceMask - (first & sequenceMask) + 1, count - filled);
+            if (state.compareAndSet(current, first + take - 1)) {
+                for (int i = 0; i < take; i++) {
+                    ids[filled++] = toId(first + i);
+                }
             }
-        } else {
-            // 不同毫秒内，序列号置为 1 - 2 随机数
-            sequence = ThreadLocalRandom.current().nextLong(1, 3);
         }
+        return ids;
+    }
 
-        lastTimestamp = timestamp;
+    /**
+     * 计算下一个状态，当前毫秒的序列号用完时等待下一毫秒并返回-1
+     */
+    private long nextState(long current) {
+        long lastTimestamp = current >>> sequenceBits;
+        long timestamp = timeGen() - twepoch;
+        if (timestamp > lastTimestamp) {
+            // 不同毫秒内，序列号置为 1 - 2 随机数
+            return (timestamp << sequenceBits) | ThreadLocalRandom.current().nextLong(1, 3);
+        }
+        //闰秒，5毫秒以内继续使用上次的时间戳，仍然唯一且递增
+        long offset = lastTimestamp - timestamp;
+        if (offset > 5) {
+            throw new RuntimeException(String.format("Clock moved backwards.  Refusing to generate id for %d milliseconds", offset));
+        }
+        if ((current & sequenceMask) == sequenceMask) {
+            // 同一毫秒的序列数已经达到最大
+            tilNextMillis(lastTimestamp + twepoch);
+            return -1;
+        }
+        // 相同毫秒内，序列号自增
+        return current + 1;
+    }
 
-        // 时间戳部分 | 数据中心部分 | 机器标识部分 | 序列号部分
+    /**
+     * 时间戳部分 | 数据中心部分 | 机器标识部分 | 序列号部分
+     */
+    private long toId(long state) {
         long datacenterIdShift = sequenceBits + workerIdBits;
-        /**
-         * 时间戳左移动位
-         */
         long timestampLeftShift = sequenceBits + workerIdBits + datacenterIdBits;
-        return ((timestamp - twepoch) << timestampLeftShift)
+        return ((state >>> sequenceBits) << timestampLeftShift)
             | (datacenterId << datacenterIdShift)
             | (workerId << sequenceBits)
-            | sequence;
+            | (state & sequenceMask);
     }
 
     protected long tilNextMillis(long lastTimestamp) {
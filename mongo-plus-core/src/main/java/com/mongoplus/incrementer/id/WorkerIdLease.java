@@ -0,0 +1,256 @@
+package com.mongoplus.incrementer.id;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.result.UpdateResult;
+import com.mongoplus.constant.SqlOperationConstant;
+import com.mongoplus.domain.MongoPlusException;
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过MongoDB中的租约文档自动分配雪花算法的workerId和datacenterId
+ * <p>集合中每个文档对应一个机器标识（0 ~ 1023），_id为标识，owner为持有者，expireAt为过期时间；
+ * 过期时间使用数据库的$$NOW计算，不受各节点时钟偏差影响</p>
+ * <p>获取时从随机位置开始尝试，只能获取过期或不存在的标识，同一标识只会被一个节点持有；
+ * 持有期间每过租期的1/3续约一次，续约失败说明标识可能已被其他节点获取，此时重新获取并切换{@link IdWorker}的生成器</p>
+ * <p>本地只在最后一次成功续约（从发出请求时算起）后的3/4租期内认为租约有效；续约因网络等原因失败超过这个时间后，
+ * {@link IdWorker}生成id时最多等待一个续约周期，仍未续约成功时抛出异常，不会在租约可能已被其他节点获取后继续使用原标识</p>
+ *
+ * @author anwen
+ */
+public final class WorkerIdLease implements AutoCloseable {
+
+    private static final Log log = LogFactory.getLog(WorkerIdLease.class);
+
+    /**
+     * 默认租期（毫秒）
+     */
+    public static final long DEFAULT_TTL = 60_000L;
+
+    private static final int MAX_WORKER_ID = 31;
+
+    private static final int MAX_DATACENTER_ID = 31;
+
+    private static final int SLOT_COUNT = (MAX_WORKER_ID + 1) * (MAX_DATACENTER_ID + 1);
+
+    private static final String OWNER = "owner";
+
+    private static final String EXPIRE_AT = "expireAt";
+
+    private static volatile WorkerIdLease current;
+
+    private final MongoCollection<Document> collection;
+
+    private final long ttl;
+
+    private final String owner = UUID.randomUUID().toString();
+
+    private final ScheduledExecutorService scheduler;
+
+    private volatile int slot = -1;
+
+    /**
+     * 本地认为租约有效的截止时间（{@link System#nanoTime()}）
+     */
+    private volatile long validUntil;
+
+    private volatile boolean closed;
+
+    private WorkerIdLease(MongoCollection<Document> collection, long ttl) {
+        this.collection = collection;
+        this.ttl = ttl;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mongo-plus-worker-id-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 使用默认租期获取机器标识，并设置为{@link IdWorker}的生成器
+     * @param collection 保存租约的集合
+     * @return {@link com.mongoplus.incrementer.id.WorkerIdLease}
+     * @author anwen
+     */
+    public static WorkerIdLease acquire(MongoCollection<Document> collection) {
+        return acquire(collection, DEFAULT_TTL);
+    }
+
+    /**
+     * 获取机器标识，并设置为{@link IdWorker}的生成器，之前获取的租约会被释放
+     * @param collection 保存租约的集合
+     * @param ttl 租期（毫秒）
+     * @return {@link com.mongoplus.incrementer.id.WorkerIdLease}
+     * @author anwen
+     */
+    public static synchronized WorkerIdLease acquire(MongoCollection<Document> collection, long ttl) {
+        WorkerIdLease lease = new WorkerIdLease(collection, ttl);
+        lease.acquireSlot();
+        long period = Math.max(ttl / 3, 1);
+        lease.scheduler.scheduleWithFixedDelay(lease::renew, period, period, TimeUnit.MILLISECONDS);
+        if (current != null) {
+            current.close();
+        }
+        current = lease;
+        return lease;
+    }
+
+    /**
+     * 当前持有的租约，没有时为null
+     * @return {@link com.mongoplus.incrementer.id.WorkerIdLease}
+     * @author anwen
+     */
+    public static WorkerIdLease getCurrent() {
+        return current;
+    }
+
+    public long getWorkerId() {
+        return slot & MAX_WORKER_ID;
+    }
+
+    public long getDatacenterId() {
+        return slot >> 5;
+    }
+
+    /**
+     * 租约是否在本地认为的有效期内
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public boolean isValid() {
+        return !closed && validUntil - System.nanoTime() > 0;
+    }
+
+    /**
+     * 生成id前调用，租约失效时最多等待一个续约周期
+     */
+    void awaitValid() {
+        if (isValid()) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(ttl / 3, 1));
+        synchronized (this) {
+            long remaining;
+            while (!closed && !isValid() && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        if (!isValid()) {
+            throw new MongoPlusException("Worker id lease " + slot + " in " + collection.getNamespace()
+                    + (closed ? " has been released" : " has expired and could not be renewed")
+                    + ", refusing to generate ids with it");
+        }
+    }
+
+    /**
+     * 停止续约并释放机器标识
+     * @author anwen
+     */
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdownNow();
+        int heldSlot = slot;
+        if (heldSlot < 0) {
+            return;
+        }
+        try {
+            collection.deleteOne(Filters.and(Filters.eq(SqlOperationConstant._ID, heldSlot),
+                    Filters.eq(OWNER, owner)));
+        } catch (Exception e) {
+            log.warn("Release worker id lease " + heldSlot + " failed: " + e.getMessage());
+        }
+    }
+
+    private void acquireSlot() {
+        int start = ThreadLocalRandom.current().nextInt(SLOT_COUNT);
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            int candidate = (start + i) % SLOT_COUNT;
+            long requestedAt = System.nanoTime();
+            if (tryAcquire(candidate)) {
+                slot = candidate;
+                extend(requestedAt);
+                IdWorker.initSequence(getWorkerId(), getDatacenterId(), this);
+                log.info("Acquired worker id lease " + candidate + " (workerId=" + getWorkerId()
+                        + ", datacenterId=" + getDatacenterId() + ") from " + collection.getNamespace());
+                return;
+            }
+        }
+        throw new MongoPlusException("No free worker id lease in " + collection.getNamespace());
+    }
+
+    /**
+     * 标识不存在、已过期或由自己持有时获取成功，由其他节点持有时upsert违反唯一索引
+     */
+    private boolean tryAcquire(int candidate) {
+        Bson filter = Filters.and(
+                Filters.eq(SqlOperationConstant._ID, candidate),
+                Filters.or(
+                        Filters.eq(OWNER, owner),
+                        Filters.expr(new Document("$lt", Arrays.asList("$" + EXPIRE_AT, "$$NOW")))
+                )
+        );
+        try {
+            collection.updateOne(filter, leaseUpdate(), new UpdateOptions().upsert(true));
+            return true;
+        } catch (MongoWriteException e) {
+            if (ErrorCategory.fromErrorCode(e.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private void renew() {
+        try {
+            long requestedAt = System.nanoTime();
+            UpdateResult updateResult = collection.updateOne(
+                    Filters.and(Filters.eq(SqlOperationConstant._ID, slot), Filters.eq(OWNER, owner)),
+                    leaseUpdate()
+            );
+            if (updateResult.getMatchedCount() == 0) {
+                log.warn("Worker id lease " + slot + " was lost, acquiring a new one");
+                validUntil = System.nanoTime();
+                acquireSlot();
+            } else {
+                extend(requestedAt);
+            }
+        } catch (Exception e) {
+            log.error("Renew worker id lease " + slot + " failed" + (isValid() ? "" : ", id generation is blocked"), e);
+        }
+    }
+
+    /**
+     * 服务端的过期时间从收到请求时算起，本地从发出请求时算起并留出1/4租期的余量
+     */
+    private synchronized void extend(long requestedAt) {
+        validUntil = requestedAt + TimeUnit.MILLISECONDS.toNanos(ttl - ttl / 4);
+        notifyAll();
+    }
+
+    private List<Document> leaseUpdate() {
+        return Collections.singletonList(new Document("$set", new Document(OWNER, owner)
+                .append(EXPIRE_AT, new Document("$add", Arrays.asList("$$NOW", ttl)))));
+    }
+
+}
@@ -7,6 +7,7 @@ import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 
 /**
@@ -20,6 +21,11 @@ public class AdvancedInterceptorChain {
      */
     static final List<AdvancedInterceptor> interceptors = new ArrayList<>();
 
+    /**
+     * 拦截器链版本，拦截器链每次变更都会递增，用于判断已构建的执行器是否过期
+     */
+    private static final AtomicLong version = new AtomicLong();
+
     /**
      * 包装拦截器
      * @param target 执行器实例
@@ -76,12 +82,22 @@ public class AdvancedInterceptorChain {
         return interceptors.stream().filter(predicate).findFirst().orElse(null);
     }
 
+    /**
+     * 获取拦截器链版本
+     * @return {@link long}
+     * @author anwen
+     */
+    public static long getVersion(){
+        return version.get();
+    }
+
     /**
      * 重新排序
      * @author anwen
      */
     public static void sorted() {
         interceptors.sort(Comparator.comparingInt(AdvancedInterceptor::order).reversed());
+        version.incrementAndGet();
     }
 
 }
@@ -12,7 +12,9 @@ import com.mongoplus.model.QueryParam;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 拦截器，代理{@link com.mongoplus.execute.Execute}接口，增删改查会经过
@@ -30,6 +32,16 @@ public interface Interceptor {
         return Integer.MAX_VALUE;
     }
 
+    /**
+     * 此拦截器忽略的集合名称，在拦截器注册时确定，执行这些集合时不会经过此拦截器
+     * <p>适用于固定不变的集合，如多租户忽略的集合，动态判断仍需要在拦截方法中处理</p>
+     * @return {@link Set<String>}
+     * @author anwen
+     */
+    default Set<String> ignoreCollections() {
+        return Collections.emptySet();
+    }
+
     /**
      * 前置处理
      *
@@ -3,6 +3,7 @@ package com.mongoplus.interceptor;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -13,6 +14,16 @@ public class InterceptorChain {
      */
     static List<Interceptor> interceptors = new ArrayList<>();
 
+    /**
+     * 拦截器链版本，拦截器链每次变更都会递增，用于判断已构建的执行器是否过期
+     */
+    private static final AtomicLong version = new AtomicLong();
+
+    /**
+     * 当前版本的拦截器分发表
+     */
+    private static volatile InterceptorDispatcher dispatcher;
+
     /**
      * 添加一个拦截器到拦截器链
      * @author anwen
@@ -29,6 +40,7 @@ public class InterceptorChain {
      */
     public static void addInterceptors(List<Interceptor> interceptorList){
         interceptors.addAll(interceptorList);
+        version.incrementAndGet();
     }
 
     /**
@@ -50,12 +62,37 @@ public class InterceptorChain {
         return interceptors.stream().filter(predicate).findFirst().orElse(null);
     }
 
+    /**
+     * 获取拦截器链版本
+     * @return {@link long}
+     * @author anwen
+     */
+    public static long getVersion(){
+        return version.get();
+    }
+
+    /**
+     * 获取当前拦截器链的分发表，拦截器链变更后重新构建
+     * @return {@link com.mongoplus.interceptor.InterceptorDispatcher}
+     * @author anwen
+     */
+    public static InterceptorDispatcher getDispatcher(){
+        long currentVersion = version.get();
+        InterceptorDispatcher currentDispatcher = dispatcher;
+        if (currentDispatcher == null || currentDispatcher.getVersion() != currentVersion) {
+            currentDispatcher = new InterceptorDispatcher(interceptors, currentVersion);
+            dispatcher = currentDispatcher;
+        }
+        return currentDispatcher;
+    }
+
     /**
      * 重新排序
      * @author anwen
      */
     public static void sorted() {
         interceptors = interceptors.stream().sorted(Comparator.comparing(Interceptor::order)).collect(Collectors.toList());
+        version.incrementAndGet();
     }
 
 }
@@ -0,0 +1,193 @@
+package com.mongoplus.interceptor;
+
+import com.mongodb.client.MongoCollection;
+import com.mongoplus.cache.global.ExecutorProxyCache;
+import com.mongoplus.enums.ExecuteMethodEnum;
+import com.mongoplus.strategy.executor.MethodExecutorStrategy;
+import org.bson.Document;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 拦截器分发表
+ * <p>在拦截器注册时计算每个执行方法真正需要经过的拦截器，只有重写了对应方法的拦截器才会被调用</p>
+ * <p>通过{@link Interceptor#ignoreCollections()}声明忽略的集合，会在首次访问该集合时计算一次，不会在每次执行时判断</p>
+ *
+ * @author anwen
+ */
+public final class InterceptorDispatcher {
+
+    private static final ExecuteMethodEnum[] METHODS = ExecuteMethodEnum.values();
+
+    /**
+     * 执行方法对应的拦截器方法名
+     */
+    private static final Map<ExecuteMethodEnum, String> HOOK_METHOD_MAP = new EnumMap<>(ExecuteMethodEnum.class);
+
+    static {
+        HOOK_METHOD_MAP.put(ExecuteMethodEnum.SAVE, "executeSave");
+        HOOK_METHOD_MAP.put(ExecuteMethodEnum.REMOVE, "executeRemove");
+        HOOK_METHOD_MAP.put(ExecuteMethodEnum.UPDATE, "executeUpdate");
+        HOOK_METHOD_MAP.put(ExecuteMethodEnum.QUERY, "executeQuery");
+        HOOK_METHOD_MAP.put(ExecuteMethodEnum.AGGREGATE, "executeAggregates");
+        HOOK_METHOD_MAP.put(ExecuteMethodEnum.COUNT, "executeCount");
+        HOOK_METHOD_MAP.put(ExecuteMethodEnum.ESTIMATED_DOCUMENT_COUNT, "executeEstimatedDocumentCount");
+        HOOK_METHOD_MAP.put(ExecuteMethodEnum.BULK_WRITE, "executeBulkWrite");
+    }
+
+    private static final Interceptor[] EMPTY = new Interceptor[0];
+
+    /**
+     * 构建时的拦截器链版本
+     */
+    private final long version;
+
+    /**
+     * 全部拦截器，用于按集合重新计算
+     */
+    private final List<Interceptor> interceptors;
+
+    /**
+     * 前置拦截器，下标为{@link ExecuteMethodEnum#ordinal()}
+     */
+    private final Interceptor[][] beforeInterceptors;
+
+    /**
+     * 后置拦截器
+     */
+    private final Interceptor[] afterInterceptors;
+
+    /**
+     * 是否存在声明了忽略集合的拦截器
+     */
+    private final boolean collectionScoped;
+
+    /**
+     * 按集合名称计算后的分发表
+     */
+    private final Map<String, InterceptorDispatcher> collectionDispatcherMap;
+
+    public InterceptorDispatcher(List<Interceptor> interceptors, long version) {
+        this.version = version;
+        this.interceptors = new ArrayList<>(interceptors);
+        this.beforeInterceptors = new Interceptor[METHODS.length][];
+        for (ExecuteMethodEnum executeMethodEnum : METHODS) {
+            beforeInterceptors[executeMethodEnum.ordinal()] = this.interceptors.stream()
+                    .filter(interceptor -> isOverride(interceptor, "beforeExecute")
+                            || isOverride(interceptor, HOOK_METHOD_MAP.get(executeMethodEnum)))
+                    .toArray(Interceptor[]::new);
+        }
+        this.afterInterceptors = this.interceptors.stream()
+                .filter(interceptor -> isOverride(interceptor, "afterExecute"))
+                .toArray(Interceptor[]::new);
+        this.collectionScoped = this.interceptors.stream()
+                .anyMatch(interceptor -> !interceptor.ignoreCollections().isEmpty());
+        this.collectionDispatcherMap = collectionScoped ? new ConcurrentHashMap<>() : Collections.emptyMap();
+    }
+
+    /**
+     * 获取适用于集合的分发表
+     * @param collection 集合
+     * @return {@link InterceptorDispatcher}
+     * @author anwen
+     */
+    public InterceptorDispatcher forCollection(MongoCollection<Document> collection) {
+        if (!collectionScoped || collection == null) {
+            return this;
+        }
+        return collectionDispatcherMap.computeIfAbsent(collection.getNamespace().getCollectionName(),
+                collectionName -> new InterceptorDispatcher(interceptors.stream()
+                        .filter(interceptor -> !interceptor.ignoreCollections().contains(collectionName))
+                        .collect(Collectors.toList()), version));
+    }
+
+    /**
+     * 执行前置处理和参数替换拦截器
+     * @param executeMethodEnum 执行方法
+     * @param args 参数
+     * @param collection 集合
+     * @author anwen
+     */
+    public void before(ExecuteMethodEnum executeMethodEnum, Object[] args, MongoCollection<Document> collection) {
+        if (executeMethodEnum == null) {
+            return;
+        }
+        Interceptor[] interceptors = beforeInterceptors[executeMethodEnum.ordinal()];
+        if (interceptors.length == 0) {
+            return;
+        }
+        MethodExecutorStrategy executor = ExecutorProxyCache.EXECUTOR_MAP.get(executeMethodEnum);
+        if (executor == null) {
+            return;
+        }
+        for (Interceptor interceptor : interceptors) {
+            interceptor.beforeExecute(executeMethodEnum, args, collection);
+            executor.invoke(interceptor, args);
+        }
+    }
+
+    /**
+     * 执行后置处理
+     * @param executeMethodEnum 执行方法
+     * @param args 参数
+     * @param result 返回值
+     * @param collection 集合
+     * @return {@link R}
+     * @author anwen
+     */
+    public <R> R after(ExecuteMethodEnum executeMethodEnum, Object[] args, R result,
+                       MongoCollection<Document> collection) {
+        for (Interceptor interceptor : afterInterceptors) {
+            interceptor.afterExecute(executeMethodEnum, args, result, collection);
+        }
+        return result;
+    }
+
+    /**
+     * 获取构建时的拦截器链版本
+     * @return {@link long}
+     * @author anwen
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 获取执行方法的前置拦截器
+     * @param executeMethodEnum 执行方法
+     * @return {@link Interceptor[]}
+     * @author anwen
+     */
+    public Interceptor[] getBeforeInterceptors(ExecuteMethodEnum executeMethodEnum) {
+        return executeMethodEnum == null ? EMPTY : beforeInterceptors[executeMethodEnum.ordinal()].clone();
+    }
+
+    /**
+     * 获取后置拦截器
+     * @return {@link Interceptor[]}
+     * @author anwen
+     */
+    public Interceptor[] getAfterInterceptors() {
+        return afterInterceptors.clone();
+    }
+
+    /**
+     * 拦截器是否重写了指定方法
+     * @param interceptor 拦截器
+     * @param methodName 方法名
+     * @return {@link boolean}
+     * @author anwen
+     */
+    private static boolean isOverride(Interceptor interceptor, String methodName) {
+        for (Method method : interceptor.getClass().getMethods()) {
+            if (method.getName().equals(methodName) && method.getDeclaringClass() != Interceptor.class) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -4,7 +4,10 @@ import com.mongodb.MongoNamespace;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.model.*;
+import com.mongoplus.cache.codec.EntityCodecCache;
 import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.context.MongoTransactionContext;
+import com.mongoplus.context.MongoTransactionStatus;
 import com.mongoplus.domain.MongoPlusDsException;
 import com.mongoplus.enums.ExecuteMethodEnum;
 import com.mongoplus.enums.MultipleWrite;
@@ -17,36 +20,45 @@ import com.mongoplus.logging.LogFactory;
 import com.mongoplus.logic.LogicRemove;
 import com.mongoplus.manager.MongoPlusClient;
 import com.mongoplus.model.MutablePair;
+import com.mongoplus.replication.ReplicationMetrics;
+import com.mongoplus.replication.ReplicationOptions;
+import com.mongoplus.replication.ReplicationPipeline;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Optional;
 import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
 
 import static com.mongoplus.enums.MultipleWrite.*;
 
 /**
  * 异步多写，并不能保证事务，通常用于数据备份
+ * <p>源数据源写入成功后，写入模型在当前线程编码并放入每个目标数据源的复制队列，由{@link ReplicationPipeline}合并为bulkWrite写入，
+ * 失败时按{@link ReplicationOptions}重试，可以启用溢出日志在目标不可用时暂存</p>
+ * <p>事务中的写操作在提交后才放入复制队列，回滚时不会复制</p>
  * @author anwen
  */
 @SuppressWarnings("unchecked")
-public class AsyncMultipleWriteInterceptor implements AdvancedInterceptor {
+public class AsyncMultipleWriteInterceptor implements AdvancedInterceptor, AutoCloseable {
 
     private final Log log = LogFactory.getLog(AsyncMultipleWriteInterceptor.class);
 
-    private final ThreadPoolExecutor executor;
-
     protected MultipleWriteHandler multipleWriteHandler;
 
     private final MongoPlusClient mongoPlusClient;
 
-    private DefaultExecute execute = new DefaultExecute();
+    private final ReplicationPipeline replicationPipeline;
 
+    /**
+     * 复制不再通过{@link DefaultExecute}执行，设置后不生效
+     */
+    @Deprecated
     public void setExecute(DefaultExecute execute) {
-        this.execute = execute;
     }
 
     public void setMultipleWriteHandler(MultipleWriteHandler multipleWriteHandler) {
@@ -54,118 +66,136 @@ public class AsyncMultipleWriteInterceptor implements AdvancedInterceptor {
     }
 
     public AsyncMultipleWriteInterceptor(MongoPlusClient mongoPlusClient) {
-        this.executor = defaultExecutor();
-        this.mongoPlusClient = mongoPlusClient;
-        this.multipleWriteHandler = new MultipleWriteHandler(mongoPlusClient) {};
+        this(mongoPlusClient, new ReplicationOptions());
     }
 
     public AsyncMultipleWriteInterceptor(MongoPlusClient mongoPlusClient,MultipleWriteHandler multipleWriteHandler) {
-        this.executor = defaultExecutor();
+        this(mongoPlusClient, new ReplicationOptions(), multipleWriteHandler);
+    }
+
+    public AsyncMultipleWriteInterceptor(MongoPlusClient mongoPlusClient, ReplicationOptions replicationOptions) {
+        this(mongoPlusClient, replicationOptions, new MultipleWriteHandler(mongoPlusClient) {});
+    }
+
+    public AsyncMultipleWriteInterceptor(MongoPlusClient mongoPlusClient, ReplicationOptions replicationOptions,
+                                         MultipleWriteHandler multipleWriteHandler) {
         this.mongoPlusClient = mongoPlusClient;
         this.multipleWriteHandler = multipleWriteHandler;
+        this.replicationPipeline = new ReplicationPipeline(replicationOptions, this::getMongoCollection);
     }
 
+    /**
+     * 复制由每个目标数据源的复制线程执行，不再使用线程池，请使用{@link #AsyncMultipleWriteInterceptor(MongoPlusClient, ReplicationOptions)}
+     */
+    @Deprecated
     public AsyncMultipleWriteInterceptor(MongoPlusClient mongoPlusClient, ThreadPoolExecutor executor) {
-        this.mongoPlusClient = mongoPlusClient;
-        this.executor = executor;
-        this.multipleWriteHandler = new MultipleWriteHandler(mongoPlusClient) {};
+        this(mongoPlusClient);
     }
 
+    /**
+     * 复制由每个目标数据源的复制线程执行，不再使用线程池，请使用{@link #AsyncMultipleWriteInterceptor(MongoPlusClient, ReplicationOptions, MultipleWriteHandler)}
+     */
+    @Deprecated
     public AsyncMultipleWriteInterceptor(MongoPlusClient mongoPlusClient, ThreadPoolExecutor executor,
                                          MultipleWriteHandler multipleWriteHandler) {
-        this.mongoPlusClient = mongoPlusClient;
-        this.executor = executor;
-        this.multipleWriteHandler = multipleWriteHandler;
+        this(mongoPlusClient, multipleWriteHandler);
     }
 
-    final ThreadPoolExecutor defaultExecutor(){
-        return new ThreadPoolExecutor(
-                5, // 核心线程数
-                20, // 最大线程数
-                60L, // 空闲线程存活时间
-                TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(100),
-                new ThreadPoolExecutor.CallerRunsPolicy()
-        );
+    public ReplicationPipeline getReplicationPipeline() {
+        return replicationPipeline;
+    }
+
+    /**
+     * 每个目标数据源的复制指标
+     * @return {@link java.util.List<com.mongoplus.replication.ReplicationMetrics>}
+     * @author anwen
+     */
+    public List<ReplicationMetrics> getReplicationMetrics() {
+        return replicationPipeline.getMetrics();
     }
 
     @Override
     public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
         ExecuteMethodEnum executeMethod = invocation.getExecuteMethod();
         Object[] source = invocation.getArgs();
         MongoCollection<Document> collection = invocation.getCollection();
         if (executeMethod == ExecuteMethodEnum.SAVE) {
-            executeSave((List<Document>) source[0], (InsertManyOptions) source[1], collection);
+            executeSave((List<Document>) source[0], collection);
         }
         if (executeMethod == ExecuteMethodEnum.REMOVE) {
-            executeRemove((Bson) source[0], (DeleteOptions) source[1],invocation, collection);
+            executeRemove((Bson) source[0], collection);
         }
         if (executeMethod == ExecuteMethodEnum.UPDATE) {
             executeUpdate((List<MutablePair<Bson, Bson>>) source[0], (UpdateOptions) source[1], collection);
         }
         if (executeMethod == ExecuteMethodEnum.BULK_WRITE) {
-            executeBulkWrite((List<WriteModel<Document>>) source[0],(BulkWriteOptions) source[1], collection);
+            executeMultipleWrite(BULK_WRITE, collection, (List<WriteModel<Document>>) source[0]);
         }
-        return invocation.proceed();
+        return result;
     }
 
-    void executeSave(List<Document> documentList, InsertManyOptions options, MongoCollection<Document> collection) {
-        executeMultipleWrite(
-                SAVE,
-                collection,
-                mongoCollection -> execute.executeSave(documentList,options, mongoCollection)
-        );
+    /**
+     * 停止复制，写出队列中剩余的操作
+     * @author anwen
+     */
+    @Override
+    public void close() {
+        replicationPipeline.close();
     }
 
-    void executeRemove(Bson filter, DeleteOptions options,Invocation invocation,
-                              MongoCollection<Document> collection) {
+    void executeSave(List<Document> documentList, MongoCollection<Document> collection) {
         executeMultipleWrite(
-                REMOVE,
+                SAVE,
                 collection,
-                mongoCollection -> {
-                    try {
-                        LogicRemove.logic(invocation,mongoCollection);
-                    } catch (Throwable e) {
-                        throw new RuntimeException(e);
-                    }
-                }
+                documentList.stream().map(InsertOneModel::new).collect(Collectors.toList())
         );
     }
 
-    void executeUpdate(List<MutablePair<Bson, Bson>> updatePairList,
-                                                       UpdateOptions options,
-                                                       MongoCollection<Document> collection) {
+    void executeRemove(Bson filter, MongoCollection<Document> collection) {
         executeMultipleWrite(
-                UPDATE,
+                REMOVE,
                 collection,
-                mongoCollection -> execute.executeUpdate(updatePairList,options, mongoCollection)
+                Collections.singletonList(LogicRemove.toWriteModel(filter, collection))
         );
     }
 
-    void executeBulkWrite(List<WriteModel<Document>> writeModelList,
-                                                       BulkWriteOptions options,
-                                                       MongoCollection<Document> collection) {
-        executeMultipleWrite(
-                BULK_WRITE,
-                collection,
-                mongoCollection -> execute.executeBulkWrite(writeModelList,options, mongoCollection)
-        );
+    void executeUpdate(List<MutablePair<Bson, Bson>> updatePairList, UpdateOptions options,
+                       MongoCollection<Document> collection) {
+        UpdateOptions updateOptions = Optional.ofNullable(options).orElseGet(UpdateOptions::new);
+        List<WriteModel<Document>> writeModelList = new ArrayList<>(updatePairList.size());
+        updatePairList.forEach(pair -> writeModelList.add(
+                new UpdateManyModel<>(pair.getLeft(), pair.getRight(), updateOptions)
+        ));
+        executeMultipleWrite(UPDATE, collection, writeModelList);
     }
 
-    void executeMultipleWrite(MultipleWrite multipleWrite,MongoCollection<Document> collection,
-                                      Consumer<MongoCollection<Document>> action) {
+    /**
+     * 在当前线程确定目标数据源并编码写入模型，排除当前数据源，有事务时在提交后放入复制队列
+     */
+    void executeMultipleWrite(MultipleWrite multipleWrite, MongoCollection<Document> collection,
+                              List<? extends WriteModel<Document>> writeModelList) {
         MongoNamespace namespace = collection.getNamespace();
-        List<String> multipleWriteTargets = multipleWriteHandler.getMultipleWrite(multipleWrite, namespace);
-        multipleWriteTargets.forEach(dsName -> executor.submit(() -> {
-            if (!dsName.equals(DataSourceNameCache.getDataSource())) {
-                MongoCollection<Document> mongoCollection = getMongoCollection(namespace, dsName);
-                log.info("Executing multiple write operation on data source: " + dsName);
-                action.accept(mongoCollection);
+        String currentDataSource = DataSourceNameCache.getDataSource();
+        List<String> multipleWriteTargets = multipleWriteHandler.getMultipleWrite(multipleWrite, namespace)
+                .stream()
+                .filter(dsName -> !dsName.equals(currentDataSource))
+                .collect(Collectors.toList());
+        try {
+            BooleanSupplier submit = replicationPipeline.prepare(multipleWriteTargets, namespace, writeModelList,
+                    EntityCodecCache.withEntityCodec(collection).getCodecRegistry());
+            MongoTransactionStatus status = MongoTransactionContext.getMongoTransactionStatus();
+            if (status != null) {
+                status.afterCommit(submit::getAsBoolean);
+            } else {
+                submit.getAsBoolean();
             }
-        }));
+        } catch (RuntimeException e) {
+            log.error("Submit multiple write operation of " + namespace + " failed", e);
+        }
     }
 
-    MongoCollection<Document> getMongoCollection(MongoNamespace namespace, String dsName) {
+    MongoCollection<Document> getMongoCollection(String dsName, MongoNamespace namespace) {
         MongoClient mongoClient = mongoPlusClient.getMongoClient(dsName);
         if (mongoClient == null) {
             throw new MongoPlusDsException("Non-existent data source: " + dsName);
@@ -173,4 +203,3 @@ public class AsyncMultipleWriteInterceptor implements AdvancedInterceptor {
         return mongoPlusClient.getCollection(dsName,namespace.getDatabaseName(),namespace.getCollectionName());
     }
 }
-
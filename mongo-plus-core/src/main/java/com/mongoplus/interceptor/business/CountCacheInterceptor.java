@@ -0,0 +1,241 @@
+package com.mongoplus.interceptor.business;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Collation;
+import com.mongodb.client.model.CountOptions;
+import com.mongoplus.bson.MongoPlusBasicDBObject;
+import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.context.MongoTransactionContext;
+import com.mongoplus.context.MongoTransactionStatus;
+import com.mongoplus.enums.ExecuteMethodEnum;
+import com.mongoplus.interceptor.AdvancedInterceptor;
+import com.mongoplus.interceptor.Invocation;
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+import com.mongoplus.support.AdvancedFunction;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 总数缓存，缓存countDocuments的结果，key为(数据源, 命名空间, 条件, 条件的排序规则, CountOptions)
+ * <p>作为高级拦截器执行，此时多租户、逻辑删除、动态数据源等普通拦截器的before已经修改了条件和集合，
+ * key使用修改后的条件和集合，不同租户、逻辑删除开关的总数不会混用</p>
+ * <p>经过执行器的新增、删除、修改、批量写入会使同一集合的缓存失效，不经过执行器的写入由过期时间兜底；事务中不使用缓存，
+ * 事务中的写入在提交后会再次失效，事务期间其他线程可能缓存了提交前的总数</p>
+ *
+ * @author anwen
+ */
+public class CountCacheInterceptor implements AdvancedInterceptor {
+
+    private final Log log = LogFactory.getLog(CountCacheInterceptor.class);
+
+    private static final Set<ExecuteMethodEnum> WRITE_METHODS = EnumSet.of(
+            ExecuteMethodEnum.SAVE,
+            ExecuteMethodEnum.REMOVE,
+            ExecuteMethodEnum.UPDATE,
+            ExecuteMethodEnum.BULK_WRITE
+    );
+
+    /**
+     * 缓存过期时间，毫秒
+     */
+    private final long ttlMillis;
+
+    /**
+     * 缓存最大数量，超出时淘汰最久未使用的
+     */
+    private final int maxSize;
+
+    /**
+     * 缓存，访问顺序的LinkedHashMap实现LRU淘汰
+     */
+    private final Map<CountKey, CountValue> cache;
+
+    /**
+     * 命名空间的版本，每次写入递增，计数期间发生写入时不缓存计数结果
+     */
+    private final Map<String, AtomicLong> namespaceVersionMap = new ConcurrentHashMap<>();
+
+    public CountCacheInterceptor() {
+        this(30, TimeUnit.SECONDS, 1024);
+    }
+
+    public CountCacheInterceptor(long ttl, TimeUnit timeUnit, int maxSize) {
+        this.ttlMillis = timeUnit.toMillis(ttl);
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<CountKey, CountValue>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CountKey, CountValue> eldest) {
+                return size() > CountCacheInterceptor.this.maxSize;
+            }
+        };
+    }
+
+    @Override
+    public AdvancedFunction activate() {
+        return invocation -> invocation.getExecuteMethod() == ExecuteMethodEnum.COUNT
+                || WRITE_METHODS.contains(invocation.getExecuteMethod());
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        String namespace = getNamespace(invocation.getCollection());
+        if (WRITE_METHODS.contains(invocation.getExecuteMethod())) {
+            try {
+                return invocation.proceed();
+            } finally {
+                invalidate(namespace);
+                MongoTransactionStatus status = MongoTransactionContext.getMongoTransactionStatus();
+                if (status != null) {
+                    status.afterCommit("count:" + System.identityHashCode(this) + ":" + namespace,
+                            () -> invalidate(namespace));
+                }
+            }
+        }
+        if (MongoTransactionContext.getClientSessionContext() != null) {
+            return invocation.proceed();
+        }
+        Object[] args = invocation.getArgs();
+        CountKey countKey = buildKey(namespace, (Bson) args[0], (CountOptions) args[1]);
+        if (countKey == null) {
+            return invocation.proceed();
+        }
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            CountValue countValue = cache.get(countKey);
+            if (countValue != null && countValue.expireTime > now) {
+                return countValue.count;
+            }
+        }
+        AtomicLong version = getVersion(namespace);
+        long versionBefore = version.get();
+        Object result = invocation.proceed();
+        synchronized (cache) {
+            // 计数期间发生了写入，结果可能已经过期
+            if (version.get() == versionBefore) {
+                cache.put(countKey, new CountValue((Long) result, System.currentTimeMillis() + ttlMillis));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 使集合的缓存失效
+     * @param namespace 数据源和集合的命名空间
+     * @author anwen
+     */
+    public void invalidate(String namespace) {
+        getVersion(namespace).incrementAndGet();
+        synchronized (cache) {
+            cache.keySet().removeIf(countKey -> countKey.namespace.equals(namespace));
+        }
+    }
+
+    /**
+     * 使集合的缓存失效
+     * @param collection 集合
+     * @author anwen
+     */
+    public void invalidate(MongoCollection<Document> collection) {
+        invalidate(getNamespace(collection));
+    }
+
+    /**
+     * 清空缓存
+     * @author anwen
+     */
+    public void clear() {
+        namespaceVersionMap.values().forEach(AtomicLong::incrementAndGet);
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private AtomicLong getVersion(String namespace) {
+        return namespaceVersionMap.computeIfAbsent(namespace, key -> new AtomicLong());
+    }
+
+    private String getNamespace(MongoCollection<Document> collection) {
+        return DataSourceNameCache.getDataSource() + ":" + collection.getNamespace().getFullName();
+    }
+
+    /**
+     * 构建缓存key，条件无法序列化时返回null，不使用缓存
+     * @author anwen
+     */
+    private CountKey buildKey(String namespace, Bson filter, CountOptions countOptions) {
+        try {
+            String filterJson = filter == null ? "" : filter.toBsonDocument().toJson();
+            Collation collation = MongoPlusBasicDBObject.getCollation(filter);
+            if (collation != null) {
+                filterJson += collation.toString();
+            }
+            return new CountKey(namespace, filterJson, countOptions == null ? "" : countOptions.toString());
+        } catch (Exception e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Count filter cannot be serialized, skip count cache: " + e.getMessage());
+            }
+            return null;
+        }
+    }
+
+    private static final class CountKey {
+
+        private final String namespace;
+
+        private final String filter;
+
+        private final String options;
+
+        private final int hashCode;
+
+        private CountKey(String namespace, String filter, String options) {
+            this.namespace = namespace;
+            this.filter = filter;
+            this.options = options;
+            this.hashCode = Objects.hash(namespace, filter, options);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CountKey)) {
+                return false;
+            }
+            CountKey countKey = (CountKey) o;
+            return namespace.equals(countKey.namespace) && filter.equals(countKey.filter)
+                    && options.equals(countKey.options);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+    }
+
+    private static final class CountValue {
+
+        private final Long count;
+
+        private final long expireTime;
+
+        private CountValue(Long count, long expireTime) {
+            this.count = count;
+            this.expireTime = expireTime;
+        }
+
+    }
+
+}
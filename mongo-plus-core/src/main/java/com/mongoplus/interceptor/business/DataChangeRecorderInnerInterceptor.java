@@ -8,6 +8,7 @@ import com.mongodb.client.model.WriteModel;
 import com.mongoplus.cache.codec.MapCodecCache;
 import com.mongoplus.cache.global.DataSourceNameCache;
 import com.mongoplus.constant.DataSourceConstant;
+import com.mongoplus.context.ContextKey;
 import com.mongoplus.domain.MongoPlusException;
 import com.mongoplus.enums.ExecuteMethodEnum;
 import com.mongoplus.enums.SpecialConditionEnum;
@@ -96,7 +97,7 @@ public class DataChangeRecorderInnerInterceptor implements Interceptor {
      */
     private String collectionName = "DATA_CHANGE_RECORD";
 
-    private static final ThreadLocal<OperationResult> operationResultThreadLocal = ThreadLocal.withInitial(() -> null);
+    private static final ContextKey<OperationResult> operationResultThreadLocal = ContextKey.local("operationResult");
 
     @Override
     public void beforeExecute(ExecuteMethodEnum executeMethodEnum, Object[] source,
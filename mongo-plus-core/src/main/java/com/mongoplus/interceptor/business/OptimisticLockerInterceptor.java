@@ -6,7 +6,6 @@ import com.mongodb.client.model.InsertOneModel;
 import com.mongodb.client.model.UpdateManyModel;
 import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.UpdateResult;
-import com.mongoplus.annotation.collection.Version;
 import com.mongoplus.domain.MongoPlusException;
 import com.mongoplus.domain.OptimisticLockerException;
 import com.mongoplus.enums.ExecuteMethodEnum;
@@ -15,8 +14,8 @@ import com.mongoplus.interceptor.AdvancedInterceptor;
 import com.mongoplus.interceptor.Invocation;
 import com.mongoplus.logging.Log;
 import com.mongoplus.logging.LogFactory;
+import com.mongoplus.mapping.EntityMetadata;
 import com.mongoplus.mapping.FieldInformation;
-import com.mongoplus.mapping.TypeInformation;
 import com.mongoplus.model.MutablePair;
 import com.mongoplus.model.Retry;
 import com.mongoplus.model.UpdateRetryResult;
@@ -26,9 +25,7 @@ import org.bson.Document;
 import org.bson.conversions.Bson;
 
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -43,8 +40,6 @@ public class OptimisticLockerInterceptor implements AdvancedInterceptor {
 
     private final Log log = LogFactory.getLog(OptimisticLockerInterceptor.class);
 
-    private final Map<Class<?>,FieldInformation> optimisticLockerExistMap = new ConcurrentHashMap<>();
-
     /**
      * 字段值为空时需要抛出的异常
      */
@@ -396,10 +391,7 @@ public class OptimisticLockerInterceptor implements AdvancedInterceptor {
                 .getMappingResource(fullName))){
             return null;
         }
-        return optimisticLockerExistMap.computeIfAbsent(clazz, k -> {
-            TypeInformation typeInformation = TypeInformation.of(clazz);
-            return typeInformation.getAnnotationField(Version.class);
-        });
+        return EntityMetadata.of(clazz).getVersionField();
     }
 
 }
@@ -22,6 +22,7 @@ import org.bson.conversions.Bson;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static com.mongoplus.enums.QueryOperatorEnum.EQ;
@@ -40,11 +41,20 @@ public class TenantInterceptor implements Interceptor {
         this.tenantHandler = tenantHandler;
     }
 
+    public TenantHandler getTenantHandler() {
+        return tenantHandler;
+    }
+
     @Override
     public int order() {
         return 0;
     }
 
+    @Override
+    public Set<String> ignoreCollections() {
+        return tenantHandler.ignoreCollections();
+    }
+
     @Override
     public List<Document> executeSave(List<Document> documentList, MongoCollection<Document> collection) {
         if (isTenantIgnored(collection, tenantHandler) || tenantHandler.ignoreInsert(new ArrayList<>(documentList.get(0).keySet()),
@@ -2,7 +2,10 @@ package com.mongoplus.logic;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.DeleteManyModel;
+import com.mongodb.client.model.UpdateManyModel;
 import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 import com.mongoplus.enums.SpecialConditionEnum;
@@ -63,4 +66,24 @@ public class LogicRemove {
         };
     }
 
+    /**
+     * 删除对应的写入模型，需要逻辑删除时为更新逻辑删除字段，否则为物理删除
+     * @param filter 删除条件
+     * @param collection 集合
+     * @return {@link com.mongodb.client.model.WriteModel}
+     * @author anwen
+     */
+    public static WriteModel<Document> toWriteModel(Bson filter, MongoCollection<Document> collection) {
+        if (!LogicManager.isIgnoreLogic()) {
+            Class<?> clazz = LogicDeleteHandler.getBeanClass(collection);
+            LogicDeleteResult result = Objects.isNull(clazz) ? null : LogicDeleteHandler.mapper().get(clazz);
+            if (Objects.nonNull(result)) {
+                Document updateBasic = new Document(result.getColumn(), result.getLogicDeleteValue());
+                return new UpdateManyModel<>(filter,
+                        new BasicDBObject(SpecialConditionEnum.SET.getCondition(), updateBasic));
+            }
+        }
+        return new DeleteManyModel<>(filter);
+    }
+
 }
@@ -1,5 +1,6 @@
 package com.mongoplus.manager;
 
+import com.mongoplus.context.ContextKey;
 import com.mongoplus.model.LogicDeleteResult;
 import com.mongoplus.model.LogicProperty;
 
@@ -10,7 +11,7 @@ import java.util.function.Supplier;
 
 public class LogicManager {
 
-    private static final ThreadLocal<Boolean> logicIgnore = new InheritableThreadLocal<>();
+    private static final ContextKey<Boolean> logicIgnore = ContextKey.of("logicIgnore");
 
     /**
      * 是否开启逻辑删除功能
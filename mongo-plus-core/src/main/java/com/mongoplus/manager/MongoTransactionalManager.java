@@ -5,6 +5,7 @@ import com.mongodb.client.ClientSession;
 import com.mongodb.client.MongoClient;
 import com.mongoplus.annotation.transactional.MongoReadPreference;
 import com.mongoplus.annotation.transactional.MongoTransactional;
+import com.mongoplus.cache.query.QueryResultCache;
 import com.mongoplus.context.MongoTransactionContext;
 import com.mongoplus.context.MongoTransactionStatus;
 import com.mongoplus.domain.InitMongoPlusException;
@@ -306,6 +307,9 @@ public class MongoTransactionalManager {
             if (clientSession.hasActiveTransaction()) {
                 clientSession.commitTransaction();
             }
+            // 事务期间其他线程可能缓存了提交前的结果
+            QueryResultCache.invalidate(status.getWrittenNamespaces());
+            runAfterCommit(status);
         }
         if (log.isDebugEnabled()) {
             log.debug("Mongo transaction committed, Thread:{}, session hashcode:{}",
@@ -314,6 +318,20 @@ public class MongoTransactionalManager {
         }
     }
 
+    /**
+     * 执行提交后的回调，回调失败不影响已经提交的事务
+     */
+    private static void runAfterCommit(MongoTransactionStatus status) {
+        for (Runnable callback : status.getAfterCommitList()) {
+            try {
+                callback.run();
+            } catch (Exception e) {
+                log.error("After commit callback failed", e);
+            }
+        }
+        status.clearAfterCommit();
+    }
+
     /**
      * 事务回滚
      *
@@ -336,6 +354,7 @@ public class MongoTransactionalManager {
         }
         // 清空计数器
         status.clearReference();
+        status.clearAfterCommit();
         ClientSession clientSession = status.getClientSession();
         if (clientSession.hasActiveTransaction()) {
             clientSession.abortTransaction();
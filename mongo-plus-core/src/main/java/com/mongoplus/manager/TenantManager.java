@@ -3,7 +3,11 @@ package com.mongoplus.manager;
 import com.mongodb.MongoNamespace;
 import com.mongodb.client.MongoCollection;
 import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.context.ContextKey;
 import com.mongoplus.handlers.TenantHandler;
+import com.mongoplus.interceptor.InterceptorChain;
+import com.mongoplus.interceptor.business.TenantInterceptor;
+import org.bson.BsonValue;
 import org.bson.Document;
 
 import java.util.function.Supplier;
@@ -18,7 +22,7 @@ public class TenantManager {
     private TenantManager() {
     }
 
-    private static final ThreadLocal<Boolean> ignoreTenant = new ThreadLocal<>();
+    private static final ContextKey<Boolean> ignoreTenant = ContextKey.of("ignoreTenant");
 
     public static Boolean getIgnoreTenant() {
         return ignoreTenant.get();
@@ -97,4 +101,19 @@ public class TenantManager {
                         tenantHandler.ignoreDataSource(dataSource);
     }
 
+    /**
+     * 获取当前租户id，没有多租户拦截器或忽略租户时返回null
+     * @return {@link org.bson.BsonValue}
+     * @author anwen
+     */
+    public static BsonValue getCurrentTenantId() {
+        if (getIgnoreTenant() != null) {
+            return null;
+        }
+        TenantInterceptor tenantInterceptor = (TenantInterceptor) InterceptorChain.getInterceptor(
+                interceptor -> interceptor instanceof TenantInterceptor
+        );
+        return tenantInterceptor != null ? tenantInterceptor.getTenantHandler().getTenantId() : null;
+    }
+
 }
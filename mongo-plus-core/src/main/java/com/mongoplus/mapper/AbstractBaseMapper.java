@@ -9,13 +9,23 @@ import com.mongodb.client.MongoIterable;
 import com.mongodb.client.model.*;
 import com.mongodb.client.result.InsertManyResult;
 import com.mongoplus.aggregate.Aggregate;
+import com.mongoplus.cache.codec.EntityCodecCache;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.cache.query.QueryCacheKey;
+import com.mongoplus.cache.query.QueryResultCache;
 import com.mongoplus.conditions.interfaces.condition.CompareCondition;
+import com.mongoplus.conditions.query.PreparedQuery;
 import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.query.QueryWrapper;
 import com.mongoplus.conditions.update.UpdateChainWrapper;
+import com.mongoplus.domain.MongoPlusException;
 import com.mongoplus.enums.CommandOperate;
+import com.mongoplus.execute.AsyncExecute;
 import com.mongoplus.execute.Execute;
 import com.mongoplus.execute.ExecutorFactory;
+import com.mongoplus.execute.batch.SaveBatchPipeline;
+import com.mongoplus.execute.batch.SaveBatchResult;
+import com.mongoplus.handlers.field.DBRefResolver;
 import com.mongoplus.index.impl.DefaultBaseIndexImpl;
 import com.mongoplus.interceptor.InterceptorChain;
 import com.mongoplus.interceptor.business.TenantInterceptor;
@@ -24,9 +34,12 @@ import com.mongoplus.logging.LogFactory;
 import com.mongoplus.logic.LogicDeleteHandler;
 import com.mongoplus.manager.MongoPlusClient;
 import com.mongoplus.manager.TenantManager;
+import com.mongoplus.mapping.MappingCursor;
 import com.mongoplus.mapping.MongoConverter;
 import com.mongoplus.mapping.TypeReference;
 import com.mongoplus.model.BaseConditionResult;
+import com.mongoplus.model.CursorPageParam;
+import com.mongoplus.model.CursorPageResult;
 import com.mongoplus.model.MutablePair;
 import com.mongoplus.model.PageParam;
 import com.mongoplus.model.PageResult;
@@ -34,12 +47,23 @@ import com.mongoplus.model.command.ParseCommand;
 import com.mongoplus.parser.CommandParse;
 import com.mongoplus.toolkit.*;
 import com.mongoplus.toolkit.Filters;
+import com.mongoplus.watch.ChangeEvent;
+import com.mongoplus.watch.ChangeStreamSubscription;
+import com.mongoplus.watch.WatchOptions;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
 import java.io.Serializable;
+import java.lang.reflect.Type;
 import java.util.*;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.mongoplus.cache.query.QueryCacheKey.LIST;
+import static com.mongoplus.cache.query.QueryCacheKey.ONE;
 import static com.mongoplus.constant.SqlOperationConstant._ID;
 import static com.mongoplus.enums.SpecialConditionEnum.EQ;
 import static com.mongoplus.handlers.condition.BuildCondition.condition;
@@ -64,6 +88,7 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
         this.mongoPlusClient = mongoPlusClient;
         this.mongoConverter = mongoConverter;
         this.factory = factory;
+        EntityCodecCache.setDefaultMongoConverter(mongoConverter);
     }
 
     @Override
@@ -83,24 +108,30 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
 
     @Override
     public <T> boolean save(String database, String collectionName, T entity,InsertManyOptions options) {
-        Document document = new Document();
-        mongoConverter.writeBySave(entity, document);
+        Document document = mongoConverter.writeBySave(entity);
         InsertManyResult insertManyResult = factory.getExecute().executeSave(Collections.singletonList(document),
                 options,
-                mongoPlusClient.getCollection(database, collectionName));
+                getCollection(database, collectionName));
         mongoConverter.reSetIdValue(entity, document);
         return insertManyResult.wasAcknowledged();
     }
 
     @Override
     public <T> Boolean saveBatch(String database, String collectionName, Collection<T> entityList,InsertManyOptions options) {
+        SaveBatchResult saveBatchResult = saveBatchWithResult(database, collectionName, entityList, options);
+        List<Throwable> failures = saveBatchResult.getFailures();
+        if (!failures.isEmpty()) {
+            throw (RuntimeException) failures.get(0);
+        }
+        return saveBatchResult.isSuccess();
+    }
+
+    @Override
+    public <T> SaveBatchResult saveBatchWithResult(String database, String collectionName, Collection<T> entityList,
+                                                   InsertManyOptions options) {
         Assert.notEmpty(entityList, "entityList can not be empty");
-        List<Document> documentList = new ArrayList<>(entityList.size());
-        mongoConverter.writeBySaveBatch(entityList, documentList);
-        MongoCollection<Document> collection = mongoPlusClient.getCollection(database, collectionName);
-        InsertManyResult insertManyResult = factory.getExecute().executeSave(documentList,options, collection);
-        mongoConverter.batchReSetIdValue(entityList, documentList);
-        return insertManyResult.getInsertedIds().size() == entityList.size();
+        MongoCollection<Document> collection = getCollection(database, collectionName);
+        return SaveBatchPipeline.execute(entityList, mongoConverter, factory, collection, options);
     }
 
     @Override
@@ -109,7 +140,7 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
         return factory.getExecute().executeUpdate(
                 Collections.singletonList(new MutablePair<>(queryBasic, updateBasic)),
                 options,
-                mongoPlusClient.getCollection(database, collectionName)
+                getCollection(database, collectionName)
         ).getModifiedCount();
     }
 
@@ -117,7 +148,7 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     public Integer bulkWrite(String database, String collectionName, List<WriteModel<Document>> writeModelList,BulkWriteOptions options) {
         Assert.notEmpty(writeModelList, "writeModelList can not be empty");
         BulkWriteResult bulkWriteResult = factory.getExecute().executeBulkWrite(writeModelList, options,
-                mongoPlusClient.getCollection(database, collectionName));
+                getCollection(database, collectionName));
         return bulkWriteResult.getModifiedCount() + bulkWriteResult.getInsertedCount();
     }
 
@@ -140,7 +171,7 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
         return factory.getExecute().executeCount(
                 condition().queryCondition(queryChainWrapper).getCondition(),
                 null,
-                mongoPlusClient.getCollection(database, collectionName)) >= 1;
+                getCollection(database, collectionName)) >= 1;
     }
 
     @Override
@@ -158,14 +189,14 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
 
     @Override
     public Long remove(String database, String collectionName, Bson filter,DeleteOptions options) {
-        return factory.getExecute().executeRemove(filter,options, mongoPlusClient.getCollection(database, collectionName))
+        return factory.getExecute().executeRemove(filter,options, getCollection(database, collectionName))
                 .getDeletedCount();
     }
 
     @Override
     public long count(String database, String collectionName, QueryChainWrapper<?, ?> queryChainWrapper) {
         Execute execute = factory.getExecute();
-        MongoCollection<Document> collection = mongoPlusClient.getCollection(database, collectionName);
+        MongoCollection<Document> collection = getCollection(database, collectionName);
         long line;
         if (canEstimatedDocumentCount(collection, queryChainWrapper)) {
             line = execute.estimatedDocumentCount(collection);
@@ -179,6 +210,16 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
         return line;
     }
 
+    @Override
+    public long count(String database, String collectionName, PreparedQuery<?> preparedQuery,
+                      Map<String, ?> parameters) {
+        return factory.getExecute().executeCount(
+                preparedQuery.bind(parameters).getCondition(),
+                null,
+                getCollection(database, collectionName)
+        );
+    }
+
     /**
      * 判断是否可以使用 mongo  快速估计文档数量
      */
@@ -207,7 +248,7 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
                 (pageNum + (recentPageNum / 2 + recentPageNum % 2 - 1))) * pageSize;
         CountOptions countOptions = new CountOptions();
         countOptions.skip(limitParam).limit(1);
-        MongoCollection<Document> collection = mongoPlusClient.getCollection(database, collectionName);
+        MongoCollection<Document> collection = getCollection(database, collectionName);
         long isExists = factory.getExecute().executeCount(
                 condition().queryCondition(compareConditionList),
                 countOptions,
@@ -233,14 +274,14 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
 
     @Override
     public <R> List<R> list(String database, String collectionName, TypeReference<R> typeReference) {
-        FindIterable<Document> findIterable = factory.getExecute().executeQuery(
+        MongoCollection<Document> collection = getCollection(database, collectionName);
+        return readList(clazz -> factory.getExecute().executeQuery(
                 null,
                 null,
                 null,
-                Document.class,
-                mongoPlusClient.getCollection(database, collectionName)
-        );
-        return mongoConverter.read(findIterable, typeReference);
+                clazz,
+                collection
+        ), typeReference);
     }
 
     @Override
@@ -253,14 +294,109 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     public <T, R> List<R> list(String database, String collectionName, QueryChainWrapper<T, ?> queryChainWrapper,
                                TypeReference<R> typeReference) {
         BaseConditionResult baseConditionResult = queryChainWrapper.buildCondition();
-        FindIterable<Document> documentFindIterable = factory.getExecute().executeQuery(
+        MongoCollection<Document> collection = getCollection(database, collectionName);
+        return readList(cacheKey(LIST, collection, baseConditionResult, 0, 0, typeReference),
+                clazz -> factory.getExecute().executeQuery(
+                baseConditionResult.getCondition(),
+                baseConditionResult.getProjection(),
+                baseConditionResult.getSort(),
+                clazz,
+                collection
+        ), typeReference);
+    }
+
+    @Override
+    public <T, R> List<R> list(String database, String collectionName, PreparedQuery<T> preparedQuery,
+                               Map<String, ?> parameters, TypeReference<R> typeReference) {
+        BaseConditionResult baseConditionResult = preparedQuery.bind(parameters);
+        MongoCollection<Document> collection = getCollection(database, collectionName);
+        return readList(cacheKey(LIST, collection, baseConditionResult, 0, 0, typeReference),
+                clazz -> factory.getExecute().executeQuery(
                 baseConditionResult.getCondition(),
                 baseConditionResult.getProjection(),
                 baseConditionResult.getSort(),
+                clazz,
+                collection
+        ), typeReference);
+    }
+
+    @Override
+    public <T, R> CursorPageResult<R> cursorPage(String database, String collectionName,
+                                                 QueryChainWrapper<T, ?> queryChainWrapper,
+                                                 CursorPageParam cursorPageParam, TypeReference<R> typeReference) {
+        BaseConditionResult baseConditionResult = queryChainWrapper != null ? queryChainWrapper.buildCondition()
+                : new BaseConditionResult();
+        BasicDBObject sort = CursorPageUtil.buildSort(baseConditionResult.getSort());
+        int pageSize = cursorPageParam.getPageSize() != null ? cursorPageParam.getPageSize() : 10;
+        if (pageSize <= 0) {
+            throw new MongoPlusException("Cursor page size must be greater than 0: " + pageSize);
+        }
+        FindIterable<Document> iterable = factory.getExecute().executeQuery(
+                CursorPageUtil.buildCondition(baseConditionResult.getCondition(), sort, cursorPageParam.getAfter()),
+                CursorPageUtil.buildProjection(baseConditionResult.getProjection(), sort),
+                sort,
                 Document.class,
-                mongoPlusClient.getCollection(database, collectionName)
+                getCollection(database, collectionName)
+        );
+        // 多查询一条用于判断是否有下一页，不需要count
+        List<Document> documentList = iterable.limit(pageSize + 1).into(new ArrayList<>(pageSize + 1));
+        String nextCursor = null;
+        if (documentList.size() > pageSize) {
+            documentList = documentList.subList(0, pageSize);
+            nextCursor = CursorPageUtil.encode(sort, documentList.get(pageSize - 1));
+        }
+        List<R> contentData = new ArrayList<>(documentList.size());
+        List<Document> pageDocumentList = documentList;
+        DBRefResolver.batch(() -> {
+            pageDocumentList.forEach(document -> contentData.add(mongoConverter.read(document, typeReference)));
+            return contentData;
+        });
+        return new CursorPageResult<>(pageSize, contentData, nextCursor);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T, R> MappingCursor<R> iterator(String database, String collectionName,
+                                            QueryChainWrapper<T, ?> queryChainWrapper, Integer batchSize,
+                                            TypeReference<R> typeReference) {
+        BaseConditionResult baseConditionResult = queryChainWrapper != null ? queryChainWrapper.buildCondition() : null;
+        Class<R> entityClass = getEntityClass(typeReference);
+        Class<?> resultClass = entityClass != null ? entityClass : Document.class;
+        FindIterable<?> findIterable = factory.getExecute().executeQuery(
+                baseConditionResult != null ? baseConditionResult.getCondition() : null,
+                baseConditionResult != null ? baseConditionResult.getProjection() : null,
+                baseConditionResult != null ? baseConditionResult.getSort() : null,
+                resultClass,
+                getCollection(database, collectionName)
+        );
+        if (batchSize != null && batchSize > 0) {
+            findIterable.batchSize(batchSize);
+        }
+        if (entityClass != null) {
+            return MappingCursor.of(((FindIterable<R>) findIterable).cursor());
+        }
+        return mongoConverter.iterator((FindIterable<Document>) findIterable, typeReference);
+    }
+
+    @Override
+    public <T, R> ChangeStreamSubscription watch(String database, String collectionName,
+                                                QueryChainWrapper<T, ?> queryChainWrapper, WatchOptions watchOptions,
+                                                TypeReference<R> typeReference,
+                                                Consumer<List<ChangeEvent<R>>> consumer) {
+        MongoCollection<Document> collection = getCollection(database, collectionName);
+        String resumeTokenCollection = PropertyCache.resumeTokenCollection;
+        MongoCollection<Document> tokenCollection = watchOptions != null && watchOptions.getSubscriptionId() != null
+                && StringUtils.isNotBlank(resumeTokenCollection)
+                ? mongoPlusClient.getCollection(database, resumeTokenCollection) : null;
+        return ChangeStreamSubscription.start(
+                collection,
+                tokenCollection,
+                queryChainWrapper != null ? queryChainWrapper.buildCondition().getCondition() : null,
+                watchOptions,
+                mongoConverter,
+                typeReference,
+                consumer
         );
-        return mongoConverter.read(documentFindIterable, typeReference);
     }
 
     @Override
@@ -282,7 +418,7 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
         AggregateIterable<Document> aggregateIterable = factory.getExecute().executeAggregate(
                 aggregateConditionList,
                 Document.class,
-                mongoPlusClient.getCollection(database, collectionName)
+                getCollection(database, collectionName)
         );
         AggregateUtil.aggregateOptions(aggregateIterable, aggregate.getAggregateOptions());
         if (aggregate.isSkip()) {
@@ -299,7 +435,7 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
         AggregateIterable<Document> aggregateIterable = factory.getExecute().executeAggregate(
                 aggregateConditionList,
                 Document.class,
-                mongoPlusClient.getCollection(database, collectionName)
+                getCollection(database, collectionName)
         );
         AggregateUtil.aggregateOptions(aggregateIterable, aggregate.getAggregateOptions());
         if (aggregate.isSkip()) {
@@ -320,14 +456,30 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     public <T, R> R one(String database, String collectionName, QueryChainWrapper<T, ?> queryChainWrapper,
                         TypeReference<R> typeReference) {
         BaseConditionResult baseConditionResult = queryChainWrapper.buildCondition();
-        return mongoConverter.readDocument(factory.getExecute().executeQuery(
-                        baseConditionResult.getCondition(),
-                        baseConditionResult.getProjection(),
-                        baseConditionResult.getSort(),
-                        Document.class,
-                        mongoPlusClient.getCollection(database, collectionName)).limit(1),
-                typeReference
-        );
+        MongoCollection<Document> collection = getCollection(database, collectionName);
+        return readOne(cacheKey(ONE, collection, baseConditionResult, 0, 1, typeReference),
+                clazz -> factory.getExecute().executeQuery(
+                baseConditionResult.getCondition(),
+                baseConditionResult.getProjection(),
+                baseConditionResult.getSort(),
+                clazz,
+                collection
+        ).limit(1), typeReference);
+    }
+
+    @Override
+    public <T, R> R one(String database, String collectionName, PreparedQuery<T> preparedQuery,
+                        Map<String, ?> parameters, TypeReference<R> typeReference) {
+        BaseConditionResult baseConditionResult = preparedQuery.bind(parameters);
+        MongoCollection<Document> collection = getCollection(database, collectionName);
+        return readOne(cacheKey(ONE, collection, baseConditionResult, 0, 1, typeReference),
+                clazz -> factory.getExecute().executeQuery(
+                baseConditionResult.getCondition(),
+                baseConditionResult.getProjection(),
+                baseConditionResult.getSort(),
+                clazz,
+                collection
+        ).limit(1), typeReference);
     }
 
     @Override
@@ -341,27 +493,20 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     public <T, R> PageResult<R> page(String database, String collectionName, QueryChainWrapper<T, ?> queryChainWrapper,
                                      Integer pageNum, Integer pageSize, TypeReference<R> typeReference) {
         BaseConditionResult baseConditionResult = queryChainWrapper.buildCondition();
-        MongoCollection<Document> collection = mongoPlusClient.getCollection(database, collectionName);
-        long count;
+        MongoCollection<Document> collection = getCollection(database, collectionName);
+        CompletableFuture<Long> count;
         if (canEstimatedDocumentCount(collection, queryChainWrapper)) {
-            count = factory.getExecute().estimatedDocumentCount(collection);
+            count = pageCount(() -> factory.getExecute().estimatedDocumentCount(collection));
         } else {
-            count = count(database, collectionName, queryChainWrapper);
+            count = pageCount(() -> count(database, collectionName, queryChainWrapper));
         }
-        FindIterable<Document> iterable = factory.getExecute().executeQuery(
+        return readPageResult(clazz -> factory.getExecute().executeQuery(
                 baseConditionResult.getCondition(),
                 baseConditionResult.getProjection(),
                 baseConditionResult.getSort(),
-                Document.class,
+                clazz,
                 collection
-        );
-        return getPageResult(
-                iterable,
-                count,
-                new PageParam(pageNum, pageSize),
-                typeReference,
-                mongoConverter
-        );
+        ), count, new PageParam(pageNum, pageSize), typeReference);
     }
 
     @Override
@@ -375,14 +520,15 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     public <T, R> List<R> pageList(String database, String collectionName, QueryChainWrapper<T, ?> queryChainWrapper,
                                    Integer pageNum, Integer pageSize, TypeReference<R> typeReference) {
         BaseConditionResult baseConditionResult = queryChainWrapper.buildCondition();
-        FindIterable<Document> iterable = factory.getExecute().executeQuery(
+        MongoCollection<Document> collection = getCollection(database, collectionName);
+        return readList(cacheKey(LIST, collection, baseConditionResult, (pageNum - 1) * pageSize, pageSize,
+                typeReference), clazz -> factory.getExecute().executeQuery(
                 baseConditionResult.getCondition(),
                 baseConditionResult.getProjection(),
                 baseConditionResult.getSort(),
-                Document.class,
-                mongoPlusClient.getCollection(database, collectionName)
-        );
-        return mongoConverter.read(iterable.skip((pageNum - 1) * pageSize).limit(pageSize), typeReference);
+                clazz,
+                collection
+        ).skip((pageNum - 1) * pageSize).limit(pageSize), typeReference);
     }
 
     @Override
@@ -398,26 +544,21 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     public <T, R> PageResult<R> page(String database, String collectionName, QueryChainWrapper<T, ?> queryChainWrapper,
                                      Integer pageNum, Integer pageSize, Integer recentPageNum, TypeReference<R> typeReference) {
         BaseConditionResult baseConditionResult = queryChainWrapper.buildCondition();
-        MongoCollection<Document> collection = mongoPlusClient.getCollection(database, collectionName);
-        long count;
+        MongoCollection<Document> collection = getCollection(database, collectionName);
+        CompletableFuture<Long> count;
         if (canEstimatedDocumentCount(collection, queryChainWrapper)) {
-            count = factory.getExecute().estimatedDocumentCount(collection);
+            count = pageCount(() -> factory.getExecute().estimatedDocumentCount(collection));
         } else {
-            count = recentPageCount(database, collectionName, queryChainWrapper.getCompareList(), pageNum, pageSize, recentPageNum);
+            count = pageCount(() -> recentPageCount(database, collectionName, queryChainWrapper.getCompareList(),
+                    pageNum, pageSize, recentPageNum));
         }
-        FindIterable<Document> iterable = factory.getExecute().executeQuery(
+        return readPageResult(clazz -> factory.getExecute().executeQuery(
                 baseConditionResult.getCondition(),
                 baseConditionResult.getProjection(),
                 baseConditionResult.getSort(),
-                Document.class, collection
-        );
-        return getPageResult(
-                iterable,
-                count,
-                new PageParam(pageNum, pageSize),
-                typeReference,
-                mongoConverter
-        );
+                clazz,
+                collection
+        ), count, new PageParam(pageNum, pageSize), typeReference);
     }
 
     @Override
@@ -430,14 +571,16 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     @Override
     public <R> List<R> getByIds(String database, String collectionName, Collection<? extends Serializable> ids,
                                 TypeReference<R> typeReference) {
-        FindIterable<Document> iterable = factory.getExecute().executeQuery(
-                BsonUtil.getIdsCondition(ids),
+        MongoCollection<Document> collection = getCollection(database, collectionName);
+        Bson filter = BsonUtil.getIdsCondition(ids);
+        return readList(QueryCacheKey.of(LIST, collection, filter, null, null, 0, 0, typeReference),
+                clazz -> factory.getExecute().executeQuery(
+                filter,
                 null,
                 null,
-                Document.class,
-                mongoPlusClient.getCollection(database, collectionName)
-        );
-        return mongoConverter.read(iterable, typeReference);
+                clazz,
+                collection
+        ), typeReference);
     }
 
     @Override
@@ -450,12 +593,15 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     public <R> R getById(String database, String collectionName, Serializable id, TypeReference<R> typeReference) {
         BasicDBObject queryBasic = new BasicDBObject(_ID,
                 new BasicDBObject(EQ.getCondition(), ObjectIdUtil.getObjectIdValue(id)));
-        return mongoConverter.read(factory.getExecute().executeQuery(
+        MongoCollection<Document> collection = getCollection(database, collectionName);
+        return readOne(QueryCacheKey.of(ONE, collection, queryBasic, null, null, 0, 0, typeReference),
+                clazz -> factory.getExecute().executeQuery(
                 queryBasic,
                 null,
                 null,
-                Document.class,
-                mongoPlusClient.getCollection(database, collectionName)).first(), typeReference);
+                clazz,
+                collection
+        ), typeReference);
     }
 
 
@@ -473,7 +619,7 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
                 null,
                 null,
                 Document.class,
-                mongoPlusClient.getCollection(database, collectionName)
+                getCollection(database, collectionName)
         );
         return mongoConverter.read(iterable, typeReference);
     }
@@ -489,19 +635,20 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
     public <R> List<R> getByColumn(String database, String collectionName, String column, Object value,
                                    TypeReference<R> typeReference) {
         Bson filter = Filters.eq(column, ObjectIdUtil.getObjectIdValue(value));
-        return mongoConverter.read(factory.getExecute().executeQuery(
-                        filter,
-                        null,
-                        null,
-                        Document.class,
-                        mongoPlusClient.getCollection(database, collectionName)),
-                typeReference
-        );
+        MongoCollection<Document> collection = getCollection(database, collectionName);
+        return readList(QueryCacheKey.of(LIST, collection, filter, null, null, 0, 0, typeReference),
+                clazz -> factory.getExecute().executeQuery(
+                filter,
+                null,
+                null,
+                clazz,
+                collection
+        ), typeReference);
     }
 
     @Override
     public long count(String database, String collectionName) {
-        MongoCollection<Document> collection = mongoPlusClient.getCollection(database, collectionName);
+        MongoCollection<Document> collection = getCollection(database, collectionName);
         Execute execute = factory.getExecute();
         long line;
         if (canEstimatedDocumentCount(collection, null)) {
@@ -517,7 +664,7 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
         Execute execute = factory.getExecute();
         ParseCommand parseCommand = CommandParse.parserInstance.parse(command);
         CommandOperate commandOperate = CommandOperate.getCommandOperate(parseCommand.getOperate());
-        MongoCollection<Document> collection = mongoPlusClient.getCollection(database,parseCommand.getCollection());
+        MongoCollection<Document> collection = getCollection(database,parseCommand.getCollection());
         MongoIterable<Document> iterable;
         if (commandOperate == CommandOperate.FIND){
             iterable = execute.executeQuery(
@@ -533,15 +680,192 @@ public abstract class AbstractBaseMapper extends DefaultBaseIndexImpl implements
         return mongoConverter.read(iterable,typeReference);
     }
 
+    /**
+     * 分页总数，开启{@link PropertyCache#pageConcurrentCount}时与数据查询并发执行
+     * <p>并发执行时总数在{@link AsyncExecute}的线程中查询，只传递MongoPlus上下文（数据源、忽略租户等），
+     * 调用方自己的ThreadLocal（如租户处理器读取的当前用户）不会传递</p>
+     * @param countSupplier 查询总数
+     * @return {@link java.util.concurrent.CompletableFuture<java.lang.Long>}
+     * @author anwen
+     */
+    protected CompletableFuture<Long> pageCount(Supplier<Long> countSupplier) {
+        if (Boolean.TRUE.equals(PropertyCache.pageConcurrentCount)) {
+            return AsyncExecute.supplyAsync(countSupplier);
+        }
+        return CompletableFuture.completedFuture(countSupplier.get());
+    }
+
+    public <T> PageResult<T> getPageResult(FindIterable<Document> documentFindIterable,
+                                           CompletableFuture<Long> totalSize, PageParam pageParams,
+                                           TypeReference<T> typeReference, MongoConverter mongoConverter) {
+        List<T> pageContentData = readPage(documentFindIterable, pageParams, typeReference, mongoConverter);
+        return buildPageResult(pageContentData, joinCount(totalSize), pageParams);
+    }
+
     public <T> PageResult<T> getPageResult(FindIterable<Document> documentFindIterable, long totalSize,
                                            PageParam pageParams, TypeReference<T> typeReference,
                                            MongoConverter mongoConverter) {
-        List<T> pageContentData = mongoConverter.read(
+        return buildPageResult(
+                readPage(documentFindIterable, pageParams, typeReference, mongoConverter),
+                totalSize,
+                pageParams
+        );
+    }
+
+    /**
+     * 创建查询结果缓存键，结果类型没有开启缓存时返回null
+     * @author anwen
+     */
+    private QueryCacheKey cacheKey(String operation, MongoCollection<Document> collection,
+                                   BaseConditionResult baseConditionResult, int skip, int limit,
+                                   TypeReference<?> typeReference) {
+        return QueryCacheKey.of(operation, collection, baseConditionResult.getCondition(),
+                baseConditionResult.getProjection(), baseConditionResult.getSort(), skip, limit, typeReference);
+    }
+
+    /**
+     * 执行拦截器得到查询，还没有访问数据库
+     */
+    private FindIterable<?> resolveQuery(QueryCacheKey cacheKey, Function<Class<?>, FindIterable<?>> query) {
+        QueryResultCache.beginQuery(cacheKey);
+        try {
+            return query.apply(Document.class);
+        } catch (RuntimeException e) {
+            QueryResultCache.takeQuery();
+            throw e;
+        }
+    }
+
+    /**
+     * 使用拦截器执行后实际查询的集合和条件作为缓存键，执行器没有经过拦截器时使用原缓存键
+     */
+    private QueryCacheKey resolveCacheKey(QueryCacheKey cacheKey) {
+        QueryCacheKey resolvedCacheKey = QueryResultCache.takeQuery();
+        return resolvedCacheKey != null ? resolvedCacheKey : cacheKey;
+    }
+
+    /**
+     * 获取集合，开启实体编解码器时使用当前Mapper的转换器包装
+     * @author anwen
+     */
+    private MongoCollection<Document> getCollection(String database, String collectionName) {
+        return EntityCodecCache.withEntityCodec(mongoPlusClient.getCollection(database, collectionName), mongoConverter);
+    }
+
+    /**
+     * 获取可以使用实体编解码器直接解码的实体类型，不支持时返回null
+     * @author anwen
+     */
+    @SuppressWarnings("unchecked")
+    private <R> Class<R> getEntityClass(TypeReference<R> typeReference) {
+        Type type = typeReference.getType();
+        if (type instanceof Class && EntityCodecCache.isSupported((Class<?>) type)) {
+            return (Class<R>) type;
+        }
+        return null;
+    }
+
+    /**
+     * 查询列表，结果类型支持实体编解码器时由驱动直接解码为实体，否则先解码为Document再转换
+     * @param query 根据结果类型执行查询
+     * @param typeReference 结果类型
+     * @return {@link java.util.List<R>}
+     * @author anwen
+     */
+    private <R> List<R> readList(Function<Class<?>, FindIterable<?>> query, TypeReference<R> typeReference) {
+        return readList(null, query, typeReference);
+    }
+
+    /**
+     * 查询列表，缓存键不为null时使用查询结果缓存，缓存的是文档，每次命中重新转换，调用方修改结果不会影响缓存
+     * @param cacheKey 缓存键，可为null
+     * @param query 根据结果类型执行查询
+     * @param typeReference 结果类型
+     * @return {@link java.util.List<R>}
+     * @author anwen
+     */
+    @SuppressWarnings("unchecked")
+    private <R> List<R> readList(QueryCacheKey cacheKey, Function<Class<?>, FindIterable<?>> query,
+                                 TypeReference<R> typeReference) {
+        if (cacheKey != null) {
+            FindIterable<Document> findIterable = (FindIterable<Document>) resolveQuery(cacheKey, query);
+            List<Document> documentList = QueryResultCache.get(resolveCacheKey(cacheKey), () ->
+                    Collections.unmodifiableList(findIterable.into(new ArrayList<>())));
+            return DBRefResolver.batch(() -> {
+                List<R> resultList = new ArrayList<>(documentList.size());
+                documentList.forEach(document -> resultList.add(mongoConverter.read(document, typeReference)));
+                return resultList;
+            });
+        }
+        Class<R> entityClass = getEntityClass(typeReference);
+        if (entityClass != null) {
+            return DBRefResolver.batch(() -> ((FindIterable<R>) query.apply(entityClass)).into(new ArrayList<>()));
+        }
+        return mongoConverter.read((FindIterable<Document>) query.apply(Document.class), typeReference);
+    }
+
+    /**
+     * 查询单条，结果类型支持实体编解码器时由驱动直接解码为实体
+     * @param query 根据结果类型执行查询
+     * @param typeReference 结果类型
+     * @return {@link R}
+     * @author anwen
+     */
+    private <R> R readOne(Function<Class<?>, FindIterable<?>> query, TypeReference<R> typeReference) {
+        return readOne(null, query, typeReference);
+    }
+
+    /**
+     * 查询单条，缓存键不为null时使用查询结果缓存
+     * @param cacheKey 缓存键，可为null
+     * @param query 根据结果类型执行查询
+     * @param typeReference 结果类型
+     * @return {@link R}
+     * @author anwen
+     */
+    @SuppressWarnings("unchecked")
+    private <R> R readOne(QueryCacheKey cacheKey, Function<Class<?>, FindIterable<?>> query,
+                          TypeReference<R> typeReference) {
+        if (cacheKey != null) {
+            FindIterable<Document> findIterable = (FindIterable<Document>) resolveQuery(cacheKey, query);
+            Document document = QueryResultCache.get(resolveCacheKey(cacheKey), findIterable::first);
+            return document != null ? mongoConverter.read(document, typeReference) : null;
+        }
+        Class<R> entityClass = getEntityClass(typeReference);
+        if (entityClass != null) {
+            return ((FindIterable<R>) query.apply(entityClass)).first();
+        }
+        return mongoConverter.readDocument((FindIterable<Document>) query.apply(Document.class), typeReference);
+    }
+
+    private <R> PageResult<R> readPageResult(Function<Class<?>, FindIterable<?>> query,
+                                             CompletableFuture<Long> totalSize, PageParam pageParams,
+                                             TypeReference<R> typeReference) {
+        List<R> pageContentData = readList(clazz -> query.apply(clazz)
+                .skip((pageParams.getPageNum() - 1) * pageParams.getPageSize())
+                .limit(pageParams.getPageSize()), typeReference);
+        return buildPageResult(pageContentData, joinCount(totalSize), pageParams);
+    }
+
+    private long joinCount(CompletableFuture<Long> totalSize) {
+        try {
+            return totalSize.join();
+        } catch (CompletionException e) {
+            throw ExceptionUtil.<RuntimeException>rethrow(ExceptionUtil.unwrapThrowable(e.getCause()));
+        }
+    }
+
+    private <T> List<T> readPage(FindIterable<Document> documentFindIterable, PageParam pageParams,
+                                 TypeReference<T> typeReference, MongoConverter mongoConverter) {
+        return mongoConverter.read(
                 documentFindIterable
                         .skip((pageParams.getPageNum() - 1) * pageParams.getPageSize())
                         .limit(pageParams.getPageSize()),
                 typeReference
         );
+    }
+
+    private <T> PageResult<T> buildPageResult(List<T> pageContentData, long totalSize, PageParam pageParams) {
         // 不查询总条数，总条数=当前页的总数
         if (totalSize == -1) {
             totalSize = pageContentData.size();
@@ -3,17 +3,30 @@ package com.mongoplus.mapper;
 import com.mongodb.client.model.*;
 import com.mongoplus.aggregate.Aggregate;
 import com.mongoplus.conditions.interfaces.condition.CompareCondition;
+import com.mongoplus.conditions.query.PreparedQuery;
 import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.query.QueryWrapper;
 import com.mongoplus.conditions.update.UpdateChainWrapper;
+import com.mongoplus.execute.AsyncExecute;
+import com.mongoplus.execute.batch.SaveBatchResult;
+import com.mongoplus.mapping.MappingCursor;
 import com.mongoplus.mapping.TypeReference;
+import com.mongoplus.model.CursorPageParam;
+import com.mongoplus.model.CursorPageResult;
 import com.mongoplus.model.PageResult;
+import com.mongoplus.watch.ChangeEvent;
+import com.mongoplus.watch.ChangeStreamSubscription;
+import com.mongoplus.watch.WatchOptions;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 
 /**
@@ -51,6 +64,15 @@ public interface BaseMapper extends Mapper {
      */
     <T> Boolean saveBatch(Collection<T> entityList,InsertManyOptions options);
 
+    /**
+     * 添加多个，按分块新增，返回每个分块的结果，部分失败时不抛出异常
+     * @param entityList 对象集合
+     * @param options 新增参数，为null时有序新增
+     * @return {@link SaveBatchResult}
+     * @author anwen
+     */
+    <T> SaveBatchResult saveBatchWithResult(Collection<T> entityList,InsertManyOptions options);
+
     /**
      * 批量操作
      * @param writeModelList writeModelList
@@ -167,6 +189,16 @@ public interface BaseMapper extends Mapper {
      */
     long count(QueryChainWrapper<?, ?> queryChainWrapper,Class<?> clazz);
 
+    /**
+     * 根据预编译查询查询总数
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @param clazz class
+     * @return {@link long}
+     * @author anwen
+     */
+    long count(PreparedQuery<?> preparedQuery,Map<String,?> parameters,Class<?> clazz);
+
     /**
      * 返回第N页
      * @author anwen
@@ -232,6 +264,179 @@ public interface BaseMapper extends Mapper {
      */
     <T,R> List<R> list(QueryChainWrapper<T,?> queryChainWrapper, Class<T> clazz, TypeReference<R> typeReference);
 
+    /**
+     * 根据预编译查询查询，条件模板只构建一次，执行时绑定参数
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @param clazz class
+     * @param typeReference 返回的类型
+     * @return {@link List<R>}
+     * @author anwen
+     */
+    <T,R> List<R> list(PreparedQuery<T> preparedQuery, Map<String,?> parameters, Class<T> clazz,
+                       TypeReference<R> typeReference);
+
+    /**
+     * 根据预编译查询查询，条件模板只构建一次，执行时绑定参数
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @param clazz class
+     * @param rClazz 返回的class
+     * @return {@link List<R>}
+     * @author anwen
+     */
+    default <T,R> List<R> list(PreparedQuery<T> preparedQuery, Map<String,?> parameters, Class<T> clazz,
+                               Class<R> rClazz){
+        return list(preparedQuery, parameters, clazz, new TypeReference<R>(rClazz){});
+    }
+
+    /**
+     * 根据预编译查询查询，条件模板只构建一次，执行时绑定参数
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @param clazz class
+     * @return {@link List<T>}
+     * @author anwen
+     */
+    default <T> List<T> list(PreparedQuery<T> preparedQuery, Map<String,?> parameters, Class<T> clazz){
+        return list(preparedQuery, parameters, clazz, clazz);
+    }
+
+    /**
+     * 游标(keyset)分页查询，使用排序字段和_id构建范围条件代替skip，任意页的开销与第一页相同
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param cursorPageParam 分页参数
+     * @param clazz class
+     * @param typeReference 返回的class
+     * @return {@link CursorPageResult<R>}
+     * @author anwen
+     */
+    <T,R> CursorPageResult<R> cursorPage(QueryChainWrapper<T,?> queryChainWrapper, CursorPageParam cursorPageParam,
+                                         Class<T> clazz, TypeReference<R> typeReference);
+
+    /**
+     * 游标(keyset)分页查询，使用排序字段和_id构建范围条件代替skip，任意页的开销与第一页相同
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param cursorPageParam 分页参数
+     * @param clazz class
+     * @param rClazz 返回的class
+     * @return {@link CursorPageResult<R>}
+     * @author anwen
+     */
+    default <T,R> CursorPageResult<R> cursorPage(QueryChainWrapper<T,?> queryChainWrapper,
+                                                 CursorPageParam cursorPageParam, Class<T> clazz, Class<R> rClazz){
+        return cursorPage(queryChainWrapper, cursorPageParam, clazz, new TypeReference<R>(rClazz){});
+    }
+
+    /**
+     * 游标(keyset)分页查询，使用排序字段和_id构建范围条件代替skip，任意页的开销与第一页相同
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param cursorPageParam 分页参数
+     * @param clazz class
+     * @return {@link CursorPageResult<T>}
+     * @author anwen
+     */
+    default <T> CursorPageResult<T> cursorPage(QueryChainWrapper<T,?> queryChainWrapper,
+                                               CursorPageParam cursorPageParam, Class<T> clazz){
+        return cursorPage(queryChainWrapper, cursorPageParam, clazz, clazz);
+    }
+
+    /**
+     * 根据条件查询，返回游标，游标前进时才将文档转换为实体，使用完毕后必须关闭
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param batchSize 每批从服务端拉取的文档数量，为null时使用驱动默认值
+     * @param clazz class
+     * @param typeReference 返回的class
+     * @return {@link MappingCursor<R>}
+     * @author anwen
+     */
+    <T,R> MappingCursor<R> iterator(QueryChainWrapper<T,?> queryChainWrapper, Integer batchSize, Class<T> clazz,
+                                    TypeReference<R> typeReference);
+
+    /**
+     * 根据条件查询，返回游标，游标前进时才将文档转换为实体，使用完毕后必须关闭
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param batchSize 每批从服务端拉取的文档数量，为null时使用驱动默认值
+     * @param clazz class
+     * @param rClazz 返回的class
+     * @return {@link MappingCursor<R>}
+     * @author anwen
+     */
+    default <T,R> MappingCursor<R> iterator(QueryChainWrapper<T,?> queryChainWrapper, Integer batchSize, Class<T> clazz,
+                                            Class<R> rClazz){
+        return iterator(queryChainWrapper, batchSize, clazz, new TypeReference<R>(rClazz){});
+    }
+
+    /**
+     * 根据条件查询，返回流，关闭流时关闭游标，推荐使用try-with-resources
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param batchSize 每批从服务端拉取的文档数量，为null时使用驱动默认值
+     * @param clazz class
+     * @param rClazz 返回的class
+     * @return {@link Stream<R>}
+     * @author anwen
+     */
+    default <T,R> Stream<R> stream(QueryChainWrapper<T,?> queryChainWrapper, Integer batchSize, Class<T> clazz,
+                                   Class<R> rClazz){
+        return iterator(queryChainWrapper, batchSize, clazz, rClazz).stream();
+    }
+
+    /**
+     * 根据条件查询，返回流，关闭流时关闭游标，推荐使用try-with-resources
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param clazz class
+     * @return {@link Stream<T>}
+     * @author anwen
+     */
+    default <T> Stream<T> stream(QueryChainWrapper<T,?> queryChainWrapper, Class<T> clazz){
+        return stream(queryChainWrapper, null, clazz, clazz);
+    }
+
+    /**
+     * 根据条件查询，逐条处理，处理完成后关闭游标
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param batchSize 每批从服务端拉取的文档数量，为null时使用驱动默认值
+     * @param clazz class
+     * @param rClazz 返回的class
+     * @param consumer 处理方法
+     * @author anwen
+     */
+    default <T,R> void forEach(QueryChainWrapper<T,?> queryChainWrapper, Integer batchSize, Class<T> clazz,
+                               Class<R> rClazz, Consumer<? super R> consumer){
+        try (MappingCursor<R> cursor = iterator(queryChainWrapper, batchSize, clazz, rClazz)) {
+            cursor.forEachRemaining(consumer);
+        }
+    }
+
+    /**
+     * 根据条件查询，逐条处理，处理完成后关闭游标
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param clazz class
+     * @param consumer 处理方法
+     * @author anwen
+     */
+    default <T> void forEach(QueryChainWrapper<T,?> queryChainWrapper, Class<T> clazz, Consumer<? super T> consumer){
+        forEach(queryChainWrapper, null, clazz, clazz, consumer);
+    }
+
+    <T,R> ChangeStreamSubscription watch(QueryChainWrapper<T,?> queryChainWrapper, WatchOptions watchOptions,
+                                         Class<T> clazz, TypeReference<R> typeReference,
+                                         Consumer<List<ChangeEvent<R>>> consumer);
+
+    /**
+     * 订阅集合的变更流，在独立线程中按批将事件交给消费者，使用完毕后必须关闭订阅
+     * @param queryChainWrapper 条件，作用于完整文档，为null时不过滤
+     * @param watchOptions 订阅参数，为null时使用默认参数
+     * @param clazz class
+     * @param consumer 消费者
+     * @return {@link ChangeStreamSubscription}
+     * @author anwen
+     */
+    default <T> ChangeStreamSubscription watch(QueryChainWrapper<T,?> queryChainWrapper, WatchOptions watchOptions,
+                                               Class<T> clazz, Consumer<List<ChangeEvent<T>>> consumer){
+        return watch(queryChainWrapper, watchOptions, clazz, new TypeReference<T>(clazz){}, consumer);
+    }
+
     /**
      * 管道查询
      * @param aggregate 管道构建
@@ -322,6 +527,42 @@ public interface BaseMapper extends Mapper {
      */
     <T,R> R one(QueryChainWrapper<T,?> queryChainWrapper,Class<T> clazz,TypeReference<R> typeReference);
 
+    /**
+     * 根据预编译查询查询单个
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @param clazz class
+     * @param typeReference 返回的类型
+     * @return {@link R}
+     * @author anwen
+     */
+    <T,R> R one(PreparedQuery<T> preparedQuery,Map<String,?> parameters,Class<T> clazz,TypeReference<R> typeReference);
+
+    /**
+     * 根据预编译查询查询单个
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @param clazz class
+     * @param rClazz 返回的class
+     * @return {@link R}
+     * @author anwen
+     */
+    default <T,R> R one(PreparedQuery<T> preparedQuery,Map<String,?> parameters,Class<T> clazz,Class<R> rClazz){
+        return one(preparedQuery, parameters, clazz, new TypeReference<R>(rClazz){});
+    }
+
+    /**
+     * 根据预编译查询查询单个
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @param clazz class
+     * @return {@link T}
+     * @author anwen
+     */
+    default <T> T one(PreparedQuery<T> preparedQuery,Map<String,?> parameters,Class<T> clazz){
+        return one(preparedQuery, parameters, clazz, clazz);
+    }
+
     /**
      * 分页查询
      * @param pageNum 当前页
@@ -566,4 +807,107 @@ public interface BaseMapper extends Mapper {
      */
     long count(Class<?> clazz);
 
+    /**
+     * 异步添加单个
+     * @author anwen
+     */
+    default <T> CompletableFuture<Boolean> saveAsync(T entity){
+        return AsyncExecute.supplyAsync(() -> save(entity));
+    }
+
+    /**
+     * 异步添加多个
+     * @author anwen
+     */
+    default <T> CompletableFuture<Boolean> saveBatchAsync(Collection<T> entityList){
+        return AsyncExecute.supplyAsync(() -> saveBatch(entityList));
+    }
+
+    /**
+     * 异步修改，直接根据UpdateWrapper
+     * @author anwen
+     */
+    default CompletableFuture<Boolean> updateAsync(UpdateChainWrapper<?, ?> updateChainWrapper, Class<?> clazz){
+        return AsyncExecute.supplyAsync(() -> update(updateChainWrapper, clazz));
+    }
+
+    /**
+     * 异步删除，直接根据UpdateWrapper
+     * @author anwen
+     */
+    default CompletableFuture<Boolean> removeAsync(UpdateChainWrapper<?, ?> updateChainWrapper, Class<?> clazz){
+        return AsyncExecute.supplyAsync(() -> remove(updateChainWrapper, clazz));
+    }
+
+    /**
+     * 异步根据条件查询
+     * @param queryChainWrapper 条件
+     * @param clazz 操作的class
+     * @param rClazz 返回的class
+     * @author anwen
+     */
+    default <T,R> CompletableFuture<List<R>> listAsync(QueryChainWrapper<T,?> queryChainWrapper, Class<T> clazz,
+                                                      Class<R> rClazz){
+        return AsyncExecute.supplyAsync(() -> list(queryChainWrapper, clazz, rClazz));
+    }
+
+    /**
+     * 异步管道查询
+     * @param aggregate 管道条件
+     * @param clazz 操作的class
+     * @param rClazz 返回的class
+     * @author anwen
+     */
+    default <T,R> CompletableFuture<List<R>> aggregateListAsync(Aggregate<?> aggregate, Class<T> clazz,
+                                                               Class<R> rClazz){
+        return AsyncExecute.supplyAsync(() -> aggregateList(aggregate, clazz, rClazz));
+    }
+
+    /**
+     * 异步查询单个
+     * @param queryChainWrapper 条件
+     * @param clazz 操作的class
+     * @param rClazz 返回的class
+     * @author anwen
+     */
+    default <T,R> CompletableFuture<R> oneAsync(QueryChainWrapper<T,?> queryChainWrapper, Class<T> clazz,
+                                               Class<R> rClazz){
+        return AsyncExecute.supplyAsync(() -> one(queryChainWrapper, clazz, rClazz));
+    }
+
+    /**
+     * 异步统计
+     * @param queryChainWrapper 条件
+     * @param clazz 操作的class
+     * @author anwen
+     */
+    default CompletableFuture<Long> countAsync(QueryChainWrapper<?, ?> queryChainWrapper, Class<?> clazz){
+        return AsyncExecute.supplyAsync(() -> count(queryChainWrapper, clazz));
+    }
+
+    /**
+     * 异步分页查询
+     * @param queryChainWrapper 条件
+     * @param pageNum 当前页
+     * @param pageSize 每页显示行数
+     * @param clazz 操作的class
+     * @param rClazz 返回的class
+     * @author anwen
+     */
+    default <T,R> CompletableFuture<PageResult<R>> pageAsync(QueryChainWrapper<T,?> queryChainWrapper,
+                                                             Integer pageNum, Integer pageSize,
+                                                             Class<T> clazz, Class<R> rClazz){
+        return AsyncExecute.supplyAsync(() -> page(queryChainWrapper, pageNum, pageSize, clazz, rClazz));
+    }
+
+    /**
+     * 异步根据id查询
+     * @param id id
+     * @param clazz 操作的class
+     * @author anwen
+     */
+    default <T> CompletableFuture<T> getByIdAsync(Serializable id, Class<T> clazz){
+        return AsyncExecute.supplyAsync(() -> getById(id, clazz));
+    }
+
 }
@@ -3,21 +3,31 @@ package com.mongoplus.mapper;
 import com.mongodb.client.model.*;
 import com.mongoplus.aggregate.Aggregate;
 import com.mongoplus.conditions.interfaces.condition.CompareCondition;
+import com.mongoplus.conditions.query.PreparedQuery;
 import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.query.QueryWrapper;
 import com.mongoplus.conditions.update.UpdateChainWrapper;
 import com.mongoplus.execute.ExecutorFactory;
+import com.mongoplus.execute.batch.SaveBatchResult;
 import com.mongoplus.manager.MongoPlusClient;
+import com.mongoplus.mapping.MappingCursor;
 import com.mongoplus.mapping.MongoConverter;
 import com.mongoplus.mapping.TypeReference;
+import com.mongoplus.model.CursorPageParam;
+import com.mongoplus.model.CursorPageResult;
 import com.mongoplus.model.MutablePair;
 import com.mongoplus.model.PageResult;
+import com.mongoplus.watch.ChangeEvent;
+import com.mongoplus.watch.ChangeStreamSubscription;
+import com.mongoplus.watch.WatchOptions;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * baseMapper默认实现
@@ -51,6 +61,13 @@ public class DefaultBaseMapperImpl extends AbstractBaseMapper {
         return saveBatch(namespace.left, namespace.right, entityList,options);
     }
 
+    @Override
+    public <T> SaveBatchResult saveBatchWithResult(Collection<T> entityList, InsertManyOptions options) {
+        Class<?> clazz = entityList.iterator().next().getClass();
+        MutablePair<String, String> namespace = getNamespace(clazz);
+        return saveBatchWithResult(namespace.left, namespace.right, entityList, options);
+    }
+
     @Override
     public Integer bulkWrite(List<WriteModel<Document>> writeModelList, Class<?> clazz,BulkWriteOptions options) {
         MutablePair<String, String> namespace = getNamespace(clazz);
@@ -95,6 +112,36 @@ public class DefaultBaseMapperImpl extends AbstractBaseMapper {
         return list(namespace.left, namespace.right, queryChainWrapper, typeReference);
     }
 
+    @Override
+    public <T, R> List<R> list(PreparedQuery<T> preparedQuery, Map<String, ?> parameters, Class<T> clazz,
+                               TypeReference<R> typeReference) {
+        MutablePair<String, String> namespace = getNamespace(clazz);
+        return list(namespace.left, namespace.right, preparedQuery, parameters, typeReference);
+    }
+
+    @Override
+    public <T, R> CursorPageResult<R> cursorPage(QueryChainWrapper<T, ?> queryChainWrapper,
+                                                 CursorPageParam cursorPageParam, Class<T> clazz,
+                                                 TypeReference<R> typeReference) {
+        MutablePair<String, String> namespace = getNamespace(clazz);
+        return cursorPage(namespace.left, namespace.right, queryChainWrapper, cursorPageParam, typeReference);
+    }
+
+    @Override
+    public <T, R> MappingCursor<R> iterator(QueryChainWrapper<T, ?> queryChainWrapper, Integer batchSize,
+                                            Class<T> clazz, TypeReference<R> typeReference) {
+        MutablePair<String, String> namespace = getNamespace(clazz);
+        return iterator(namespace.left, namespace.right, queryChainWrapper, batchSize, typeReference);
+    }
+
+    @Override
+    public <T, R> ChangeStreamSubscription watch(QueryChainWrapper<T, ?> queryChainWrapper, WatchOptions watchOptions,
+                                                Class<T> clazz, TypeReference<R> typeReference,
+                                                Consumer<List<ChangeEvent<R>>> consumer) {
+        MutablePair<String, String> namespace = getNamespace(clazz);
+        return watch(namespace.left, namespace.right, queryChainWrapper, watchOptions, typeReference, consumer);
+    }
+
     @Override
     public <T, R> List<R> aggregateList(Aggregate<?> aggregate, Class<T> clazz, Class<R> rClazz) {
         MutablePair<String, String> namespace = getNamespace(clazz);
@@ -131,6 +178,13 @@ public class DefaultBaseMapperImpl extends AbstractBaseMapper {
         return one(namespace.left, namespace.right, queryChainWrapper, typeReference);
     }
 
+    @Override
+    public <T, R> R one(PreparedQuery<T> preparedQuery, Map<String, ?> parameters, Class<T> clazz,
+                        TypeReference<R> typeReference) {
+        MutablePair<String, String> namespace = getNamespace(clazz);
+        return one(namespace.left, namespace.right, preparedQuery, parameters, typeReference);
+    }
+
     @Override
     public <T, R> PageResult<R> page(Integer pageNum, Integer pageSize, Class<T> clazz, Class<R> rClazz) {
         return page(new QueryWrapper<>(),pageNum,pageSize,clazz,rClazz);
@@ -232,6 +286,12 @@ public class DefaultBaseMapperImpl extends AbstractBaseMapper {
         return count(namespace.left, namespace.right, queryChainWrapper);
     }
 
+    @Override
+    public long count(PreparedQuery<?> preparedQuery, Map<String, ?> parameters, Class<?> clazz) {
+        MutablePair<String, String> namespace = getNamespace(clazz);
+        return count(namespace.left, namespace.right, preparedQuery, parameters);
+    }
+
     /**
      * 分页查询 查询总条数
      *
@@ -5,17 +5,30 @@ import com.mongodb.client.model.DeleteOptions;
 import com.mongodb.client.model.InsertManyOptions;
 import com.mongodb.client.model.UpdateOptions;
 import com.mongoplus.aggregate.Aggregate;
+import com.mongoplus.conditions.query.PreparedQuery;
 import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.update.UpdateChainWrapper;
+import com.mongoplus.execute.AsyncExecute;
+import com.mongoplus.execute.batch.SaveBatchResult;
+import com.mongoplus.mapping.MappingCursor;
 import com.mongoplus.mapping.TypeReference;
+import com.mongoplus.model.CursorPageParam;
+import com.mongoplus.model.CursorPageResult;
 import com.mongoplus.model.PageParam;
 import com.mongoplus.model.PageResult;
 import com.mongoplus.support.SFunction;
+import com.mongoplus.watch.ChangeEvent;
+import com.mongoplus.watch.ChangeStreamSubscription;
+import com.mongoplus.watch.WatchOptions;
 import org.bson.Document;
 
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * mapper层接口，只继承接口即可使用，如果实现类实现了MongoMapperImpl类，则不会自动为接口创建实现类
@@ -77,6 +90,15 @@ public interface MongoMapper<T> {
      */
     Boolean saveBatch(Collection<T> entityList,InsertManyOptions options);
 
+    /**
+     * 添加多个，按分块新增，返回每个分块的结果，部分失败时不抛出异常
+     * @param entityList 对象集合
+     * @param options 新增参数，为null时有序新增
+     * @return {@link SaveBatchResult}
+     * @author anwen
+     */
+    SaveBatchResult saveBatchWithResult(Collection<T> entityList,InsertManyOptions options);
+
     /**
      * 添加或修改
      * @param entity 对象
@@ -115,8 +137,10 @@ public interface MongoMapper<T> {
 
     /**
      * 批量添加或修改
+     * <p>isQueryDatabase为true时有id的实体使用upsert，由数据库判断添加或修改，不会预先查询，
+     * 只在新增时填充的字段通过$setOnInsert写入</p>
      * @param entityList 对象集合
-     * @param isQueryDatabase 是否查询数据库判断添加或修改
+     * @param isQueryDatabase 是否由数据库判断添加或修改，false时有id的实体只修改
      * @return {@link boolean}
      * @author anwen
      */
@@ -460,6 +484,249 @@ public interface MongoMapper<T> {
      */
     <R> List<R> list(QueryChainWrapper<T ,?> queryChainWrapper,TypeReference<R> typeReference);
 
+    /**
+     * 根据预编译查询查询列表，条件模板只构建一次，执行时绑定参数
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @param typeReference 返回值类型
+     * @return {@link java.util.List<R>}
+     * @author anwen
+     */
+    <R> List<R> list(PreparedQuery<T> preparedQuery,Map<String,?> parameters,TypeReference<R> typeReference);
+
+    /**
+     * 根据预编译查询查询列表，条件模板只构建一次，执行时绑定参数
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @param rClazz 返回值类型
+     * @return {@link java.util.List<R>}
+     * @author anwen
+     */
+    default <R> List<R> list(PreparedQuery<T> preparedQuery,Map<String,?> parameters,Class<R> rClazz){
+        return list(preparedQuery,parameters,new TypeReference<R>(rClazz){});
+    }
+
+    /**
+     * 根据预编译查询查询列表，条件模板只构建一次，执行时绑定参数
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @return {@link java.util.List<T>}
+     * @author anwen
+     */
+    default List<T> list(PreparedQuery<T> preparedQuery,Map<String,?> parameters){
+        return list(preparedQuery,parameters,getGenericityClass());
+    }
+
+    /**
+     * 根据预编译查询查询单个
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @param typeReference 返回值类型
+     * @return {@link R}
+     * @author anwen
+     */
+    <R> R one(PreparedQuery<T> preparedQuery,Map<String,?> parameters,TypeReference<R> typeReference);
+
+    /**
+     * 根据预编译查询查询单个
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @param rClazz 返回值类型
+     * @return {@link R}
+     * @author anwen
+     */
+    default <R> R one(PreparedQuery<T> preparedQuery,Map<String,?> parameters,Class<R> rClazz){
+        return one(preparedQuery,parameters,new TypeReference<R>(rClazz){});
+    }
+
+    /**
+     * 根据预编译查询查询单个
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @return {@link T}
+     * @author anwen
+     */
+    default T one(PreparedQuery<T> preparedQuery,Map<String,?> parameters){
+        return one(preparedQuery,parameters,getGenericityClass());
+    }
+
+    /**
+     * 游标(keyset)分页查询，使用排序字段和_id构建范围条件代替skip，任意页的开销与第一页相同
+     * <p>第一页使用{@link CursorPageParam#first(Integer)}，后续页使用上一页返回的{@link CursorPageResult#getNextCursor()}</p>
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param cursorPageParam 分页参数
+     * @return {@link com.mongoplus.model.CursorPageResult<T>}
+     * @author anwen
+     */
+    default CursorPageResult<T> cursorPage(QueryChainWrapper<T ,?> queryChainWrapper,CursorPageParam cursorPageParam){
+        return cursorPage(queryChainWrapper,cursorPageParam,getGenericityClass());
+    }
+
+    /**
+     * 游标(keyset)分页查询，使用排序字段和_id构建范围条件代替skip，任意页的开销与第一页相同
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param cursorPageParam 分页参数
+     * @param rClazz 返回值类型
+     * @return {@link com.mongoplus.model.CursorPageResult<R>}
+     * @author anwen
+     */
+    <R> CursorPageResult<R> cursorPage(QueryChainWrapper<T ,?> queryChainWrapper,CursorPageParam cursorPageParam,
+                                       Class<R> rClazz);
+
+    /**
+     * 游标(keyset)分页查询，使用排序字段和_id构建范围条件代替skip，任意页的开销与第一页相同
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param cursorPageParam 分页参数
+     * @param typeReference 返回值类型
+     * @return {@link com.mongoplus.model.CursorPageResult<R>}
+     * @author anwen
+     */
+    <R> CursorPageResult<R> cursorPage(QueryChainWrapper<T ,?> queryChainWrapper,CursorPageParam cursorPageParam,
+                                       TypeReference<R> typeReference);
+
+    /**
+     * 查询游标，游标前进时才将文档转换为实体，使用完毕后必须关闭
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param batchSize 每批从服务端拉取的文档数量，为null时使用驱动默认值
+     * @param rClazz 返回值类型
+     * @return {@link com.mongoplus.mapping.MappingCursor<R>}
+     * @author anwen
+     */
+    <R> MappingCursor<R> iterator(QueryChainWrapper<T ,?> queryChainWrapper,Integer batchSize,Class<R> rClazz);
+
+    /**
+     * 查询游标，游标前进时才将文档转换为实体，使用完毕后必须关闭
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param batchSize 每批从服务端拉取的文档数量，为null时使用驱动默认值
+     * @param typeReference 返回值类型
+     * @return {@link com.mongoplus.mapping.MappingCursor<R>}
+     * @author anwen
+     */
+    <R> MappingCursor<R> iterator(QueryChainWrapper<T ,?> queryChainWrapper,Integer batchSize,
+                                  TypeReference<R> typeReference);
+
+    /**
+     * 查询游标，游标前进时才将文档转换为实体，使用完毕后必须关闭
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param batchSize 每批从服务端拉取的文档数量，为null时使用驱动默认值
+     * @return {@link com.mongoplus.mapping.MappingCursor<T>}
+     * @author anwen
+     */
+    default MappingCursor<T> iterator(QueryChainWrapper<T ,?> queryChainWrapper,Integer batchSize){
+        return iterator(queryChainWrapper,batchSize,getGenericityClass());
+    }
+
+    /**
+     * 查询游标，游标前进时才将文档转换为实体，使用完毕后必须关闭
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @return {@link com.mongoplus.mapping.MappingCursor<T>}
+     * @author anwen
+     */
+    default MappingCursor<T> iterator(QueryChainWrapper<T ,?> queryChainWrapper){
+        return iterator(queryChainWrapper,null);
+    }
+
+    /**
+     * 查询所有，返回流，关闭流时关闭游标，推荐使用try-with-resources
+     * @return {@link java.util.stream.Stream<T>}
+     * @author anwen
+     */
+    default Stream<T> stream(){
+        return stream(null);
+    }
+
+    /**
+     * 查询流，关闭流时关闭游标，推荐使用try-with-resources
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @return {@link java.util.stream.Stream<T>}
+     * @author anwen
+     */
+    default Stream<T> stream(QueryChainWrapper<T ,?> queryChainWrapper){
+        return stream(queryChainWrapper,null);
+    }
+
+    /**
+     * 查询流，关闭流时关闭游标，推荐使用try-with-resources
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param batchSize 每批从服务端拉取的文档数量，为null时使用驱动默认值
+     * @return {@link java.util.stream.Stream<T>}
+     * @author anwen
+     */
+    default Stream<T> stream(QueryChainWrapper<T ,?> queryChainWrapper,Integer batchSize){
+        return iterator(queryChainWrapper,batchSize).stream();
+    }
+
+    /**
+     * 查询流，关闭流时关闭游标，推荐使用try-with-resources
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param batchSize 每批从服务端拉取的文档数量，为null时使用驱动默认值
+     * @param rClazz 返回值类型
+     * @return {@link java.util.stream.Stream<R>}
+     * @author anwen
+     */
+    default <R> Stream<R> stream(QueryChainWrapper<T ,?> queryChainWrapper,Integer batchSize,Class<R> rClazz){
+        return iterator(queryChainWrapper,batchSize,rClazz).stream();
+    }
+
+    /**
+     * 逐条处理查询结果，处理完成后关闭游标
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param consumer 处理方法
+     * @author anwen
+     */
+    default void forEach(QueryChainWrapper<T ,?> queryChainWrapper,Consumer<? super T> consumer){
+        forEach(queryChainWrapper,null,consumer);
+    }
+
+    /**
+     * 逐条处理查询结果，处理完成后关闭游标
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param batchSize 每批从服务端拉取的文档数量，为null时使用驱动默认值
+     * @param consumer 处理方法
+     * @author anwen
+     */
+    default void forEach(QueryChainWrapper<T ,?> queryChainWrapper,Integer batchSize,Consumer<? super T> consumer){
+        try (MappingCursor<T> cursor = iterator(queryChainWrapper,batchSize)) {
+            cursor.forEachRemaining(consumer);
+        }
+    }
+
+    /**
+     * 订阅集合的变更流，在独立线程中按批将事件交给消费者，使用完毕后必须关闭订阅
+     * @param queryChainWrapper 条件，作用于完整文档，为null时不过滤
+     * @param watchOptions 订阅参数，为null时使用默认参数
+     * @param typeReference 完整文档的类型
+     * @param consumer 消费者
+     * @return {@link ChangeStreamSubscription}
+     * @author anwen
+     */
+    <R> ChangeStreamSubscription watch(QueryChainWrapper<T ,?> queryChainWrapper,WatchOptions watchOptions,
+                                       TypeReference<R> typeReference,Consumer<List<ChangeEvent<R>>> consumer);
+
+    /**
+     * 订阅集合的变更流，在独立线程中按批将事件交给消费者，使用完毕后必须关闭订阅
+     * @param queryChainWrapper 条件，作用于完整文档，为null时不过滤
+     * @param watchOptions 订阅参数，为null时使用默认参数
+     * @param consumer 消费者
+     * @return {@link ChangeStreamSubscription}
+     * @author anwen
+     */
+    default ChangeStreamSubscription watch(QueryChainWrapper<T ,?> queryChainWrapper,WatchOptions watchOptions,
+                                           Consumer<List<ChangeEvent<T>>> consumer){
+        return watch(queryChainWrapper,watchOptions,new TypeReference<T>(getGenericityClass()){},consumer);
+    }
+
+    /**
+     * 订阅集合所有文档的变更流
+     * @param watchOptions 订阅参数，为null时使用默认参数
+     * @param consumer 消费者
+     * @return {@link ChangeStreamSubscription}
+     * @author anwen
+     */
+    default ChangeStreamSubscription watch(WatchOptions watchOptions,Consumer<List<ChangeEvent<T>>> consumer){
+        return watch(null,watchOptions,consumer);
+    }
+
     /**
      * 获取总数
      * @return {@link long}
@@ -475,6 +742,15 @@ public interface MongoMapper<T> {
      */
     long count(QueryChainWrapper<T,?> queryChainWrapper);
 
+    /**
+     * 根据预编译查询获取总数
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @return {@link long}
+     * @author anwen
+     */
+    long count(PreparedQuery<T> preparedQuery,Map<String,?> parameters);
+
     /**
      * 分页查询
      * @param pageParam 分页参数对象
@@ -883,6 +1159,55 @@ public interface MongoMapper<T> {
      */
     <R> List<R> getByIds(Collection<? extends Serializable> ids,TypeReference<R> typeReference);
 
+    /**
+     * 根据id批量加载，开启{@link com.mongoplus.cache.global.PropertyCache#idBatchWindow}后，窗口内其他线程对同一集合的加载合并为一次$in查询，
+     * 相同id只查询一次；未开启时直接查询
+     * @param id id
+     * @return T
+     * @author anwen
+     */
+    T loadById(Serializable id);
+
+    /**
+     * 根据id批量加载
+     * @param id id
+     * @return R
+     * @author anwen
+     */
+    <R> R loadById(Serializable id,Class<R> rClazz);
+
+    /**
+     * 根据id批量加载
+     * @param id id
+     * @return R
+     * @author anwen
+     */
+    <R> R loadById(Serializable id,TypeReference<R> typeReference);
+
+    /**
+     * 根据多个id批量加载，与其他线程的{@link #loadById(Serializable)}合并查询，按id的顺序返回
+     * @param ids id集合
+     * @return {@link List<T>}
+     * @author anwen
+     */
+    List<T> loadByIds(Collection<? extends Serializable> ids);
+
+    /**
+     * 根据多个id批量加载
+     * @param ids id集合
+     * @return {@link List<R>}
+     * @author anwen
+     */
+    <R> List<R> loadByIds(Collection<? extends Serializable> ids,Class<R> rClazz);
+
+    /**
+     * 根据多个id批量加载
+     * @param ids id集合
+     * @return {@link List<R>}
+     * @author anwen
+     */
+    <R> List<R> loadByIds(Collection<? extends Serializable> ids,TypeReference<R> typeReference);
+
     /**
      * 命令查询接口，传入值为json，如{eq:XXX}
      * @param command 命令json
@@ -977,4 +1302,180 @@ public interface MongoMapper<T> {
      */
     Boolean exist(QueryChainWrapper<T,?> queryChainWrapper);
 
+    /**
+     * 异步添加
+     * @param entity 添加的对象
+     * @return {@link CompletableFuture<Boolean>}
+     * @author anwen
+     */
+    default CompletableFuture<Boolean> saveAsync(T entity){
+        return AsyncExecute.supplyAsync(() -> save(entity));
+    }
+
+    /**
+     * 异步添加多个
+     * @param entityList 对象集合
+     * @return {@link CompletableFuture<Boolean>}
+     * @author anwen
+     */
+    default CompletableFuture<Boolean> saveBatchAsync(Collection<T> entityList){
+        return AsyncExecute.supplyAsync(() -> saveBatch(entityList));
+    }
+
+    /**
+     * 异步根据id修改
+     * @param entity 修改的对象，需要包含id
+     * @return {@link CompletableFuture<Boolean>}
+     * @author anwen
+     */
+    default CompletableFuture<Boolean> updateByIdAsync(T entity){
+        return AsyncExecute.supplyAsync(() -> updateById(entity));
+    }
+
+    /**
+     * 异步根据条件修改
+     * @param updateChainWrapper 条件
+     * @return {@link CompletableFuture<Boolean>}
+     * @author anwen
+     */
+    default CompletableFuture<Boolean> updateAsync(UpdateChainWrapper<T,?> updateChainWrapper){
+        return AsyncExecute.supplyAsync(() -> update(updateChainWrapper));
+    }
+
+    /**
+     * 异步根据id删除
+     * @param id 数据id
+     * @return {@link CompletableFuture<Boolean>}
+     * @author anwen
+     */
+    default CompletableFuture<Boolean> removeByIdAsync(Serializable id){
+        return AsyncExecute.supplyAsync(() -> removeById(id));
+    }
+
+    /**
+     * 异步根据条件删除
+     * @param updateChainWrapper 条件
+     * @return {@link CompletableFuture<Boolean>}
+     * @author anwen
+     */
+    default CompletableFuture<Boolean> removeAsync(UpdateChainWrapper<T,?> updateChainWrapper){
+        return AsyncExecute.supplyAsync(() -> remove(updateChainWrapper));
+    }
+
+    /**
+     * 异步查询所有
+     * @return {@link CompletableFuture<List<T>>}
+     * @author anwen
+     */
+    default CompletableFuture<List<T>> listAsync(){
+        return AsyncExecute.supplyAsync(this::list);
+    }
+
+    /**
+     * 异步根据条件查询
+     * @param queryChainWrapper 条件
+     * @return {@link CompletableFuture<List<T>>}
+     * @author anwen
+     */
+    default CompletableFuture<List<T>> listAsync(QueryChainWrapper<T,?> queryChainWrapper){
+        return AsyncExecute.supplyAsync(() -> list(queryChainWrapper));
+    }
+
+    /**
+     * 异步根据条件查询，返回指定类型
+     * @param queryChainWrapper 条件
+     * @param rClazz 返回值类型
+     * @return {@link CompletableFuture<List<R>>}
+     * @author anwen
+     */
+    default <R> CompletableFuture<List<R>> listAsync(QueryChainWrapper<T,?> queryChainWrapper,Class<R> rClazz){
+        return AsyncExecute.supplyAsync(() -> list(queryChainWrapper,rClazz));
+    }
+
+    /**
+     * 异步管道查询
+     * @param aggregate 管道条件
+     * @return {@link CompletableFuture<List<T>>}
+     * @author anwen
+     */
+    default CompletableFuture<List<T>> aggregateListAsync(Aggregate<?> aggregate){
+        return AsyncExecute.supplyAsync(() -> list(aggregate));
+    }
+
+    /**
+     * 异步管道查询，返回指定类型
+     * @param aggregate 管道条件
+     * @param rClazz 返回值类型
+     * @return {@link CompletableFuture<List<R>>}
+     * @author anwen
+     */
+    default <R> CompletableFuture<List<R>> aggregateListAsync(Aggregate<?> aggregate,Class<R> rClazz){
+        return AsyncExecute.supplyAsync(() -> list(aggregate,rClazz));
+    }
+
+    /**
+     * 异步查询单个
+     * @param queryChainWrapper 条件
+     * @return {@link CompletableFuture<T>}
+     * @author anwen
+     */
+    default CompletableFuture<T> oneAsync(QueryChainWrapper<T,?> queryChainWrapper){
+        return AsyncExecute.supplyAsync(() -> one(queryChainWrapper));
+    }
+
+    /**
+     * 异步统计
+     * @param queryChainWrapper 条件
+     * @return {@link CompletableFuture<Long>}
+     * @author anwen
+     */
+    default CompletableFuture<Long> countAsync(QueryChainWrapper<T,?> queryChainWrapper){
+        return AsyncExecute.supplyAsync(() -> count(queryChainWrapper));
+    }
+
+    /**
+     * 异步分页查询
+     * @param queryChainWrapper 条件
+     * @param pageNum 当前页
+     * @param pageSize 每页显示行数
+     * @return {@link CompletableFuture<PageResult<T>>}
+     * @author anwen
+     */
+    default CompletableFuture<PageResult<T>> pageAsync(QueryChainWrapper<T,?> queryChainWrapper,
+                                                       Integer pageNum, Integer pageSize){
+        return AsyncExecute.supplyAsync(() -> page(queryChainWrapper,pageNum,pageSize));
+    }
+
+    /**
+     * 异步分页查询
+     * @param queryChainWrapper 条件
+     * @param pageParam 分页参数
+     * @return {@link CompletableFuture<PageResult<T>>}
+     * @author anwen
+     */
+    default CompletableFuture<PageResult<T>> pageAsync(QueryChainWrapper<T,?> queryChainWrapper,
+                                                       PageParam pageParam){
+        return AsyncExecute.supplyAsync(() -> page(queryChainWrapper,pageParam));
+    }
+
+    /**
+     * 异步根据id查询
+     * @param id id
+     * @return {@link CompletableFuture<T>}
+     * @author anwen
+     */
+    default CompletableFuture<T> getByIdAsync(Serializable id){
+        return AsyncExecute.supplyAsync(() -> getById(id));
+    }
+
+    /**
+     * 异步根据多个id查询
+     * @param ids id集合
+     * @return {@link CompletableFuture<List<T>>}
+     * @author anwen
+     */
+    default CompletableFuture<List<T>> getByIdsAsync(Collection<? extends Serializable> ids){
+        return AsyncExecute.supplyAsync(() -> getByIds(ids));
+    }
+
 }
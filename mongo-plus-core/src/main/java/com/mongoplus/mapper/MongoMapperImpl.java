@@ -1,24 +1,37 @@
 package com.mongoplus.mapper;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.model.*;
 import com.mongoplus.aggregate.Aggregate;
 import com.mongoplus.annotation.ID;
 import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.conditions.query.PreparedQuery;
 import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.query.QueryWrapper;
 import com.mongoplus.conditions.update.UpdateChainWrapper;
 import com.mongoplus.constant.SqlOperationConstant;
 import com.mongoplus.domain.MongoPlusException;
+import com.mongoplus.execute.batch.IdBatchLoader;
+import com.mongoplus.execute.batch.SaveBatchResult;
 import com.mongoplus.handlers.collection.AnnotationOperate;
+import com.mongoplus.handlers.field.DBRefResolver;
+import com.mongoplus.mapping.MappingCursor;
+import com.mongoplus.mapping.MongoConverter;
 import com.mongoplus.mapping.TypeInformation;
 import com.mongoplus.mapping.TypeReference;
+import com.mongoplus.model.CursorPageParam;
+import com.mongoplus.model.CursorPageResult;
 import com.mongoplus.model.MutablePair;
 import com.mongoplus.model.PageParam;
 import com.mongoplus.model.PageResult;
 import com.mongoplus.support.SFunction;
 import com.mongoplus.toolkit.*;
+import com.mongoplus.watch.ChangeEvent;
+import com.mongoplus.watch.ChangeStreamSubscription;
+import com.mongoplus.watch.WatchOptions;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
@@ -27,6 +40,7 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -98,6 +112,11 @@ public class MongoMapperImpl<T> implements MongoMapper<T> {
         return baseMapper.saveBatch(entityList,options);
     }
 
+    @Override
+    public SaveBatchResult saveBatchWithResult(Collection<T> entityList, InsertManyOptions options) {
+        return baseMapper.saveBatchWithResult(entityList, options);
+    }
+
     @Override
     public Boolean saveOrUpdate(T entity) {
         Object idByEntity = ClassTypeUtil.getIdByEntity(entity, true);
@@ -163,58 +182,60 @@ public class MongoMapperImpl<T> implements MongoMapper<T> {
         if (!isQueryDatabase) {
             return saveOrUpdateBatch(entityList);
         }
-        List<Object> idList = entityList.stream()
-                .map(entity -> ClassTypeUtil.getIdByEntity(entity, true))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-        List<WriteModel<Document>> writeModelList = entityList.stream()
-                .filter(entity -> ClassTypeUtil.getIdByEntity(entity, true) == null)
-                .map(entity -> new InsertOneModel<>(
-                        baseMapper.getMongoConverter()
-                                .writeBySave(entity)))
-                .collect(Collectors.toList());
-        Set<Object> existingIdSet;
-        if (CollUtil.isNotEmpty(idList)) {
-            existingIdSet = list(new QueryWrapper<T>().in(SqlOperationConstant._ID, idList))
-                    .stream()
-                    .map(entity -> ClassTypeUtil.getIdByEntity(entity, true))
-                    .collect(Collectors.toSet());
-        } else {
-            existingIdSet = new HashSet<>();
+        return upsertBatch(entityList) == entityList.size();
+    }
+
+    /**
+     * 批量添加或修改，不查询数据库，有id的实体使用upsert由数据库判断添加或修改，
+     * 只在新增时填充的字段放在$setOnInsert中；没有id的实体直接新增并回写_id。
+     * 按{@link PropertyCache#updateBatchSize}分批执行，同一时间只保存一批的文档
+     * @param entityList 对象集合
+     * @return {@link long} 新增和匹配的数量
+     * @author anwen
+     */
+    protected long upsertBatch(Collection<T> entityList) {
+        MongoConverter mongoConverter = baseMapper.getMongoConverter();
+        MongoCollection<Document> collection = getCollection();
+        int batchSize = PropertyCache.updateBatchSize != null && PropertyCache.updateBatchSize > 0
+                ? PropertyCache.updateBatchSize : entityList.size();
+        BulkWriteOptions bulkWriteOptions = new BulkWriteOptions()
+                .ordered(PropertyCache.updateBatchOrdered == null || PropertyCache.updateBatchOrdered);
+        UpdateOptions updateOptions = new UpdateOptions().upsert(true);
+        List<WriteModel<Document>> writeModelList = new ArrayList<>(Math.min(batchSize, entityList.size()));
+        List<MutablePair<T, Document>> insertList = new ArrayList<>();
+        long count = 0;
+        for (T entity : entityList) {
+            if (ClassTypeUtil.getIdByEntity(entity, true) == null) {
+                Document document = mongoConverter.writeBySave(entity);
+                writeModelList.add(new InsertOneModel<>(document));
+                insertList.add(new MutablePair<>(entity, document));
+            } else {
+                MutablePair<BasicDBObject, BasicDBObject> basicDBObjectPair = ConditionUtil.getUpsert(
+                        entity,
+                        mongoConverter
+                );
+                writeModelList.add(new UpdateOneModel<>(basicDBObjectPair.getLeft(), basicDBObjectPair.getRight(),
+                        updateOptions));
+            }
+            if (writeModelList.size() >= batchSize) {
+                count += upsertChunk(writeModelList, insertList, bulkWriteOptions, collection);
+            }
         }
-        writeModelList.addAll(
-                entityList.stream()
-                        .filter(entity -> {
-                            Object id = ClassTypeUtil.getIdByEntity(entity, true);
-                            return id != null && existingIdSet.contains(id);
-                        })
-                        .map(entity -> {
-                            MutablePair<BasicDBObject, BasicDBObject> basicDBObjectPair = ConditionUtil
-                                    .getUpdate(entity, baseMapper.getMongoConverter());
-                            return new UpdateManyModel<Document>(
-                                    basicDBObjectPair.getLeft(),
-                                    basicDBObjectPair.getRight()
-                            );
-                        })
-                        .collect(Collectors.toList())
-        );
-        writeModelList.addAll(
-                entityList.stream()
-                        .filter(entity -> {
-                            Object id = ClassTypeUtil.getIdByEntity(entity, true);
-                            return id != null && !existingIdSet.contains(id);
-                        })
-                        .map(entity -> new InsertOneModel<>(baseMapper.getMongoConverter()
-                                .writeBySave(entity)))
-                        .collect(Collectors.toList())
-        );
-        return baseMapper.bulkWrite(writeModelList,
-                entityList
-                        .stream()
-                        .findFirst()
-                        .orElseThrow(() ->
-                                new MongoPlusException("entityList is null")).getClass()
-        ) == entityList.size();
+        if (!writeModelList.isEmpty()) {
+            count += upsertChunk(writeModelList, insertList, bulkWriteOptions, collection);
+        }
+        return count;
+    }
+
+    private long upsertChunk(List<WriteModel<Document>> writeModelList, List<MutablePair<T, Document>> insertList,
+                             BulkWriteOptions bulkWriteOptions, MongoCollection<Document> collection) {
+        BulkWriteResult bulkWriteResult = baseMapper.getExecute()
+                .executeBulkWrite(writeModelList, bulkWriteOptions, collection);
+        insertList.forEach(pair -> baseMapper.getMongoConverter().reSetIdValue(pair.getLeft(), pair.getRight()));
+        writeModelList.clear();
+        insertList.clear();
+        return (long) bulkWriteResult.getInsertedCount() + bulkWriteResult.getMatchedCount()
+                + bulkWriteResult.getUpserts().size();
     }
 
     @Override
@@ -402,6 +423,48 @@ public class MongoMapperImpl<T> implements MongoMapper<T> {
         return baseMapper.list(queryChainWrapper, clazz, typeReference);
     }
 
+    @Override
+    public <R> List<R> list(PreparedQuery<T> preparedQuery, Map<String, ?> parameters,
+                            TypeReference<R> typeReference) {
+        return baseMapper.list(preparedQuery, parameters, clazz, typeReference);
+    }
+
+    @Override
+    public <R> R one(PreparedQuery<T> preparedQuery, Map<String, ?> parameters, TypeReference<R> typeReference) {
+        return baseMapper.one(preparedQuery, parameters, clazz, typeReference);
+    }
+
+    @Override
+    public <R> CursorPageResult<R> cursorPage(QueryChainWrapper<T, ?> queryChainWrapper,
+                                              CursorPageParam cursorPageParam, Class<R> rClazz) {
+        return baseMapper.cursorPage(queryChainWrapper, cursorPageParam, clazz, rClazz);
+    }
+
+    @Override
+    public <R> CursorPageResult<R> cursorPage(QueryChainWrapper<T, ?> queryChainWrapper,
+                                              CursorPageParam cursorPageParam, TypeReference<R> typeReference) {
+        return baseMapper.cursorPage(queryChainWrapper, cursorPageParam, clazz, typeReference);
+    }
+
+    @Override
+    public <R> MappingCursor<R> iterator(QueryChainWrapper<T, ?> queryChainWrapper, Integer batchSize,
+                                         Class<R> rClazz) {
+        return baseMapper.iterator(queryChainWrapper, batchSize, clazz, rClazz);
+    }
+
+    @Override
+    public <R> MappingCursor<R> iterator(QueryChainWrapper<T, ?> queryChainWrapper, Integer batchSize,
+                                         TypeReference<R> typeReference) {
+        return baseMapper.iterator(queryChainWrapper, batchSize, clazz, typeReference);
+    }
+
+    @Override
+    public <R> ChangeStreamSubscription watch(QueryChainWrapper<T, ?> queryChainWrapper, WatchOptions watchOptions,
+                                              TypeReference<R> typeReference,
+                                              Consumer<List<ChangeEvent<R>>> consumer) {
+        return baseMapper.watch(queryChainWrapper, watchOptions, clazz, typeReference, consumer);
+    }
+
     @Override
     public long count() {
         return baseMapper.count(clazz);
@@ -412,6 +475,11 @@ public class MongoMapperImpl<T> implements MongoMapper<T> {
         return baseMapper.count(queryChainWrapper, clazz);
     }
 
+    @Override
+    public long count(PreparedQuery<T> preparedQuery, Map<String, ?> parameters) {
+        return baseMapper.count(preparedQuery, parameters, clazz);
+    }
+
     @Override
     public PageResult<T> page(QueryChainWrapper<T, ?> queryChainWrapper, Integer pageNum, Integer pageSize) {
         return page(queryChainWrapper, pageNum, pageSize, clazz);
@@ -637,6 +705,45 @@ public class MongoMapperImpl<T> implements MongoMapper<T> {
         return baseMapper.getByIds(ids, clazz, typeReference);
     }
 
+    @Override
+    public T loadById(Serializable id) {
+        return loadById(id, clazz);
+    }
+
+    @Override
+    public <R> R loadById(Serializable id, Class<R> rClazz) {
+        return loadById(id, new TypeReference<R>(rClazz) {
+        });
+    }
+
+    @Override
+    public <R> R loadById(Serializable id, TypeReference<R> typeReference) {
+        Document document = IdBatchLoader.load(getCollection(), id);
+        return document != null ? baseMapper.getMongoConverter().read(document, typeReference) : null;
+    }
+
+    @Override
+    public List<T> loadByIds(Collection<? extends Serializable> ids) {
+        return loadByIds(ids, clazz);
+    }
+
+    @Override
+    public <R> List<R> loadByIds(Collection<? extends Serializable> ids, Class<R> rClazz) {
+        return loadByIds(ids, new TypeReference<R>(rClazz) {
+        });
+    }
+
+    @Override
+    public <R> List<R> loadByIds(Collection<? extends Serializable> ids, TypeReference<R> typeReference) {
+        List<Document> documentList = IdBatchLoader.loadAll(getCollection(), ids);
+        MongoConverter mongoConverter = baseMapper.getMongoConverter();
+        return DBRefResolver.batch(() -> {
+            List<R> resultList = new ArrayList<>(documentList.size());
+            documentList.forEach(document -> resultList.add(mongoConverter.read(document, typeReference)));
+            return resultList;
+        });
+    }
+
     @Override
     public List<T> queryCommand(String command) {
         return queryCommand(command, clazz);
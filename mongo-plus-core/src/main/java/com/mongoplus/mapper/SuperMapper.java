@@ -3,20 +3,31 @@ package com.mongoplus.mapper;
 import com.mongodb.client.model.*;
 import com.mongoplus.aggregate.Aggregate;
 import com.mongoplus.conditions.interfaces.condition.CompareCondition;
+import com.mongoplus.conditions.query.PreparedQuery;
 import com.mongoplus.conditions.query.QueryChainWrapper;
 import com.mongoplus.conditions.update.UpdateChainWrapper;
 import com.mongoplus.execute.Execute;
+import com.mongoplus.execute.batch.SaveBatchResult;
 import com.mongoplus.index.BaseIndex;
 import com.mongoplus.manager.MongoPlusClient;
+import com.mongoplus.mapping.MappingCursor;
 import com.mongoplus.mapping.MongoConverter;
 import com.mongoplus.mapping.TypeReference;
+import com.mongoplus.model.CursorPageParam;
+import com.mongoplus.model.CursorPageResult;
 import com.mongoplus.model.PageResult;
+import com.mongoplus.watch.ChangeEvent;
+import com.mongoplus.watch.ChangeStreamSubscription;
+import com.mongoplus.watch.WatchOptions;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static com.mongoplus.toolkit.StringPool.EMPTY;
 
@@ -69,6 +80,16 @@ public interface SuperMapper extends BaseIndex {
 
     <T> Boolean saveBatch(String database,String collectionName,Collection<T> entityList,InsertManyOptions options);
 
+    /**
+     * 添加多个，按分块新增，返回每个分块的结果，部分失败时不抛出异常
+     * @param entityList 对象集合
+     * @param options 新增参数，为null时有序新增
+     * @return {@link SaveBatchResult}
+     * @author anwen
+     */
+    <T> SaveBatchResult saveBatchWithResult(String database,String collectionName,Collection<T> entityList,
+                                            InsertManyOptions options);
+
     /**
      * 直接通过Bson条件更新，直接使用BaseMapper调用时，最好将构建的Bson，调用一下{@link MongoConverter#writeByUpdate(Object)}
      * @author anwen
@@ -190,6 +211,15 @@ public interface SuperMapper extends BaseIndex {
      */
     long count(String database,String collectionName,QueryChainWrapper<?, ?> queryChainWrapper);
 
+    /**
+     * 根据预编译查询查询总数
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @return {@link long}
+     * @author anwen
+     */
+    long count(String database,String collectionName,PreparedQuery<?> preparedQuery,Map<String,?> parameters);
+
     /**
      * 返回第N页
      * @author anwen
@@ -229,6 +259,136 @@ public interface SuperMapper extends BaseIndex {
      */
     <T,R> List<R> list(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper, TypeReference<R> typeReference);
 
+    /**
+     * 根据预编译查询查询，条件模板只构建一次，执行时绑定参数
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @param typeReference 返回的类型
+     * @return {@link List<R>}
+     * @author anwen
+     */
+    <T,R> List<R> list(String database,String collectionName,PreparedQuery<T> preparedQuery,
+                       Map<String,?> parameters, TypeReference<R> typeReference);
+
+    /**
+     * 根据预编译查询查询，条件模板只构建一次，执行时绑定参数
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @param rClazz 返回的class
+     * @return {@link List<R>}
+     * @author anwen
+     */
+    default <T,R> List<R> list(String database,String collectionName,PreparedQuery<T> preparedQuery,
+                               Map<String,?> parameters, Class<R> rClazz){
+        return list(database,collectionName,preparedQuery,parameters,new TypeReference<R>(rClazz){});
+    }
+
+    /**
+     * 游标(keyset)分页查询，使用排序字段和_id构建范围条件代替skip，任意页的开销与第一页相同
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param cursorPageParam 分页参数
+     * @param typeReference 返回的class
+     * @return {@link CursorPageResult<R>}
+     * @author anwen
+     */
+    <T,R> CursorPageResult<R> cursorPage(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper,
+                                         CursorPageParam cursorPageParam, TypeReference<R> typeReference);
+
+    /**
+     * 游标(keyset)分页查询，使用排序字段和_id构建范围条件代替skip，任意页的开销与第一页相同
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param cursorPageParam 分页参数
+     * @param rClazz 返回的class
+     * @return {@link CursorPageResult<R>}
+     * @author anwen
+     */
+    default <T,R> CursorPageResult<R> cursorPage(String database,String collectionName,
+                                                 QueryChainWrapper<T,?> queryChainWrapper,
+                                                 CursorPageParam cursorPageParam, Class<R> rClazz){
+        return cursorPage(database,collectionName,queryChainWrapper,cursorPageParam,new TypeReference<R>(rClazz){});
+    }
+
+    /**
+     * 根据条件查询，返回游标，游标前进时才将文档转换为实体，使用完毕后必须关闭
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param batchSize 每批从服务端拉取的文档数量，为null时使用驱动默认值
+     * @param typeReference 返回的class
+     * @return {@link MappingCursor<R>}
+     * @author anwen
+     */
+    <T,R> MappingCursor<R> iterator(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper,
+                                    Integer batchSize, TypeReference<R> typeReference);
+
+    /**
+     * 根据条件查询，返回游标，游标前进时才将文档转换为实体，使用完毕后必须关闭
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param batchSize 每批从服务端拉取的文档数量，为null时使用驱动默认值
+     * @param rClazz 返回的class
+     * @return {@link MappingCursor<R>}
+     * @author anwen
+     */
+    default <T,R> MappingCursor<R> iterator(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper,
+                                            Integer batchSize, Class<R> rClazz){
+        return iterator(database,collectionName,queryChainWrapper,batchSize,new TypeReference<R>(rClazz){});
+    }
+
+    /**
+     * 根据条件查询，返回流，关闭流时关闭游标，推荐使用try-with-resources
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param batchSize 每批从服务端拉取的文档数量，为null时使用驱动默认值
+     * @param rClazz 返回的class
+     * @return {@link Stream<R>}
+     * @author anwen
+     */
+    default <T,R> Stream<R> stream(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper,
+                                   Integer batchSize, Class<R> rClazz){
+        return iterator(database,collectionName,queryChainWrapper,batchSize,rClazz).stream();
+    }
+
+    /**
+     * 根据条件查询，逐条处理，处理完成后关闭游标
+     * @param queryChainWrapper 条件，为null时查询所有
+     * @param batchSize 每批从服务端拉取的文档数量，为null时使用驱动默认值
+     * @param rClazz 返回的class
+     * @param consumer 处理方法
+     * @author anwen
+     */
+    default <T,R> void forEach(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper,
+                               Integer batchSize, Class<R> rClazz, Consumer<? super R> consumer){
+        try (MappingCursor<R> cursor = iterator(database,collectionName,queryChainWrapper,batchSize,rClazz)) {
+            cursor.forEachRemaining(consumer);
+        }
+    }
+
+    /**
+     * 订阅集合的变更流，在独立线程中按批将事件交给消费者，使用完毕后必须关闭订阅
+     * <p>使用当前数据源；设置了{@link WatchOptions#getSubscriptionId()}时保存恢复令牌，重新订阅时从上次处理的位置继续</p>
+     * @param queryChainWrapper 条件，作用于完整文档，为null时不过滤
+     * @param watchOptions 订阅参数，为null时使用默认参数
+     * @param typeReference 完整文档的类型
+     * @param consumer 消费者
+     * @return {@link ChangeStreamSubscription}
+     * @author anwen
+     */
+    <T,R> ChangeStreamSubscription watch(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper,
+                                         WatchOptions watchOptions,TypeReference<R> typeReference,
+                                         Consumer<List<ChangeEvent<R>>> consumer);
+
+    /**
+     * 订阅集合的变更流，在独立线程中按批将事件交给消费者，使用完毕后必须关闭订阅
+     * @param queryChainWrapper 条件，作用于完整文档，为null时不过滤
+     * @param watchOptions 订阅参数，为null时使用默认参数
+     * @param rClazz 完整文档的class
+     * @param consumer 消费者
+     * @return {@link ChangeStreamSubscription}
+     * @author anwen
+     */
+    default <T,R> ChangeStreamSubscription watch(String database,String collectionName,
+                                                 QueryChainWrapper<T,?> queryChainWrapper,WatchOptions watchOptions,
+                                                 Class<R> rClazz,Consumer<List<ChangeEvent<R>>> consumer){
+        return watch(database,collectionName,queryChainWrapper,watchOptions,new TypeReference<R>(rClazz){},consumer);
+    }
+
     /**
      * 管道查询
      * @param aggregate 管道构建
@@ -277,6 +437,30 @@ public interface SuperMapper extends BaseIndex {
      */
     <T,R> R one(String database,String collectionName,QueryChainWrapper<T,?> queryChainWrapper,TypeReference<R> typeReference);
 
+    /**
+     * 根据预编译查询查询单个
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @param typeReference 返回的类型
+     * @return {@link R}
+     * @author anwen
+     */
+    <T,R> R one(String database,String collectionName,PreparedQuery<T> preparedQuery,Map<String,?> parameters,
+                TypeReference<R> typeReference);
+
+    /**
+     * 根据预编译查询查询单个
+     * @param preparedQuery 预编译查询
+     * @param parameters 参数名和参数值
+     * @param rClazz 返回的class
+     * @return {@link R}
+     * @author anwen
+     */
+    default <T,R> R one(String database,String collectionName,PreparedQuery<T> preparedQuery,
+                        Map<String,?> parameters,Class<R> rClazz){
+        return one(database,collectionName,preparedQuery,parameters,new TypeReference<R>(rClazz){});
+    }
+
     /**
      * 分页查询，如果queryWrapper有条件，查询会慢，因为需要重新进行count查询
      * @param queryChainWrapper 条件
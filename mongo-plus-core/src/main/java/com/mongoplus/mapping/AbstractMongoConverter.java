@@ -1,16 +1,15 @@
 package com.mongoplus.mapping;
 
 import com.mongoplus.annotation.ID;
-import com.mongoplus.annotation.collection.CollectionField;
+import com.mongoplus.bson.EntityDocument;
 import com.mongoplus.cache.global.ConversionCache;
 import com.mongoplus.cache.global.HandlerCache;
 import com.mongoplus.cache.global.MappingCache;
 import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.cache.global.ReadPlanCache;
 import com.mongoplus.constant.SqlOperationConstant;
 import com.mongoplus.domain.MongoPlusWriteException;
 import com.mongoplus.enums.FieldFill;
-import com.mongoplus.handlers.ReadHandler;
-import com.mongoplus.handlers.TypeHandler;
 import com.mongoplus.handlers.auto.AutoFillHandler;
 import com.mongoplus.handlers.auto.DefaultAutoFillHandler;
 import com.mongoplus.logging.Log;
@@ -25,8 +24,11 @@ import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 抽象地映射处理器
@@ -39,6 +41,11 @@ public abstract class AbstractMongoConverter implements MongoConverter {
 
     private final AutoFillHandler autoFillHandler;
 
+    /**
+     * 类的字段名是否唯一，唯一时才可以直接写入BsonWriter
+     */
+    private final Map<Class<?>, Boolean> uniqueFieldNameCache = new ConcurrentHashMap<>();
+
     public AbstractMongoConverter() {
         this.autoFillHandler = new DefaultAutoFillHandler();
     }
@@ -57,6 +64,46 @@ public abstract class AbstractMongoConverter implements MongoConverter {
         }
         //封装class信息
         TypeInformation typeInformation = TypeInformation.of(sourceObj);
+        writeIdBySave(typeInformation, document);
+        //映射到Document
+        write(sourceObj, document);
+        //添加自动填充字段
+        autoFillHandler.handle(document,typeInformation,FieldFill.INSERT);
+    }
+
+    /**
+     * 开启实体编解码器时返回{@link EntityDocument}，只写入_id，其余字段在读取或编码时才写入
+     */
+    @Override
+    public Document writeBySave(Object sourceObj) {
+        if (!PropertyCache.entityCodec || ClassTypeUtil.isTargetClass(Map.class, sourceObj.getClass())) {
+            Document document = new Document();
+            writeBySave(sourceObj, document);
+            return document;
+        }
+        TypeInformation typeInformation = TypeInformation.of(sourceObj);
+        Document idDocument = new Document();
+        writeIdBySave(typeInformation, idDocument);
+        return new EntityDocument(sourceObj, idDocument,
+                isStreamable(typeInformation) && !hasInsertFill(typeInformation),
+                document -> {
+                    write(sourceObj, document);
+                    autoFillHandler.handle(document, typeInformation, FieldFill.INSERT);
+                });
+    }
+
+    @Override
+    public void writeBySaveBatch(Collection<?> sourceObjCollection, List<Document> documentList) {
+        sourceObjCollection.forEach(sourceObj -> documentList.add(writeBySave(sourceObj)));
+    }
+
+    /**
+     * 写入新增时的_id，没有设置时自动生成
+     * @param typeInformation 类信息
+     * @param document 文档
+     * @author anwen
+     */
+    protected void writeIdBySave(TypeInformation typeInformation, Document document) {
         //拿到类中的@ID字段
         FieldInformation idFieldInformation = typeInformation.getAnnotationField(ID.class);
         if (idFieldInformation != null) {
@@ -91,10 +138,50 @@ public abstract class AbstractMongoConverter implements MongoConverter {
                 document.put(idFieldInformation.getName(), idValue);
             }
         }
-        //映射到Document
-        write(sourceObj, document);
-        //添加自动填充字段
-        autoFillHandler.handle(document,typeInformation,FieldFill.INSERT);
+    }
+
+    /**
+     * 是否可以直接写入BsonWriter，写入的字段名重复时需要通过Document合并，不能直接写入
+     * @param typeInformation 类信息
+     * @return {@link boolean}
+     * @author anwen
+     */
+    protected boolean isStreamable(TypeInformation typeInformation) {
+        return uniqueFieldNameCache.computeIfAbsent(typeInformation.getClazz(), clazz -> {
+            Set<String> fieldNameSet = new HashSet<>();
+            Set<String> saveFieldNameSet = new HashSet<>();
+            saveFieldNameSet.add(SqlOperationConstant._ID);
+            for (FieldInformation fieldInformation : EntityMetadata.of(clazz).getFields()) {
+                if (fieldInformation.isSkipCheckField()) {
+                    continue;
+                }
+                if (!fieldNameSet.add(fieldInformation.getCamelCaseName())) {
+                    return false;
+                }
+                String saveFieldName = fieldInformation.getCamelCaseName();
+                if (fieldInformation.isId()) {
+                    if (!fieldInformation.getId().saveField()) {
+                        continue;
+                    }
+                    saveFieldName = fieldInformation.getName();
+                }
+                if (!saveFieldNameSet.add(saveFieldName)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * 是否包含新增时自动填充的字段，自动填充需要完整的文档，不能直接写入
+     * @author anwen
+     */
+    private boolean hasInsertFill(TypeInformation typeInformation) {
+        if (HandlerCache.metaObjectHandler == null) {
+            return false;
+        }
+        return EntityMetadata.of(typeInformation.getClazz()).hasAutoFill(FieldFill.INSERT);
     }
 
     @Override
@@ -117,6 +204,24 @@ public abstract class AbstractMongoConverter implements MongoConverter {
         autoFillHandler.handle(document,typeInformation,FieldFill.UPDATE);
     }
 
+    /**
+     * 只转换一次实体，新增时的自动填充字段中修改时没有写入的部分作为insertDocument
+     */
+    @Override
+    public void writeByUpsert(Object sourceObj, Document document, Document insertDocument) {
+        writeByUpdate(sourceObj, document);
+        if (ClassTypeUtil.isTargetClass(Map.class, sourceObj.getClass())) {
+            return;
+        }
+        Document insertFillDocument = new Document(document);
+        autoFillHandler.handle(insertFillDocument, TypeInformation.of(sourceObj), FieldFill.INSERT);
+        insertFillDocument.forEach((key, value) -> {
+            if (!document.containsKey(key)) {
+                insertDocument.put(key, value);
+            }
+        });
+    }
+
     @Override
     public void write(Object sourceObj, Bson bson) {
         if (null == sourceObj) {
@@ -132,7 +237,7 @@ public abstract class AbstractMongoConverter implements MongoConverter {
     }
 
     @Override
-    @SuppressWarnings({"unchecked", "rawtypes"})
+    @SuppressWarnings("unchecked")
     public <T> T readInternal(Document document, TypeReference<T> typeReference, boolean useIdAsFieldName) {
         Class<?> clazz = typeReference.getClazz();
         if (document == null) {
@@ -147,43 +252,8 @@ public abstract class AbstractMongoConverter implements MongoConverter {
             return (T) readInternal(document, new TypeReference<Collection<Object>>() {
             });
         }
-        // 拿到class封装类
-        TypeInformation typeInformation = TypeInformation.of(clazz);
-
-        // 循环所有字段
-        typeInformation.getFields().forEach(fieldInformation -> {
-            String fieldName = useIdAsFieldName ? fieldInformation.getIdOrCamelCaseName() : fieldInformation.getCamelCaseName();
-            if (fieldInformation.isSkipCheckField()) {
-                return;
-            }
-            Object obj = document.get(fieldName);
-            if (obj == null) {
-                return;
-            }
-            CollectionField collectionField = fieldInformation.getCollectionField();
-            Object resultObj = null;
-            if (collectionField != null && ClassTypeUtil.isTargetClass(TypeHandler.class, collectionField.typeHandler())) {
-                TypeHandler typeHandler = (TypeHandler) ClassTypeUtil.getInstanceByClass(collectionField.typeHandler());
-                resultObj = typeHandler.getResult(obj);
-            }
-            if (CollUtil.isNotEmpty(HandlerCache.getReadHandler())) {
-                List<ReadHandler> readHandlerList = HandlerCache.getReadHandler();
-                for (ReadHandler readHandler : readHandlerList) {
-                    if (readHandler.activate().apply(fieldInformation)) {
-                        obj = readHandler.read(fieldInformation, obj,this);
-                    }
-                    if (readHandler.discontinue().apply(obj)) {
-                        return;
-                    }
-                }
-            }
-            if (resultObj == null) {
-                resultObj = readInternal(obj, TypeReference.of(fieldInformation.getGenericType()));
-            }
-            fieldInformation.setValue(resultObj);
-        });
-
-        return typeInformation.getInstance();
+        // 按类编译一次的读取计划
+        return (T) ReadPlanCache.get(clazz, useIdAsFieldName, this).read(document, this);
     }
 
     /**
@@ -0,0 +1,264 @@
+package com.mongoplus.mapping;
+
+import com.mongoplus.annotation.ID;
+import com.mongoplus.annotation.collection.CollectionField;
+import com.mongoplus.annotation.collection.CollectionLogic;
+import com.mongoplus.annotation.collection.Version;
+import com.mongoplus.cache.global.EntityMetadataCache;
+import com.mongoplus.enums.FieldFill;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 类的映射元数据，每个类只构建一次，线程安全且与实例无关
+ * <p>字段顺序、字段名（驼峰转下划线后）、ID字段、注解字段、自动填充字段、乐观锁字段和逻辑删除字段都在这里预先计算，
+ * {@link TypeInformation}只负责将这些字段绑定到具体实例</p>
+ * <p>元数据中的{@link FieldInformation}没有绑定实例，只能使用{@link FieldInformation#getValue(Object)}和
+ * {@link FieldInformation#setValue(Object, Object)}</p>
+ *
+ * @author anwen
+ */
+public final class EntityMetadata {
+
+    private static final int[] EMPTY_INDEX = new int[0];
+
+    private final Class<?> clazz;
+
+    /**
+     * 所有字段，包括父类，不包括静态字段和外部类实例字段
+     */
+    private final List<FieldInformation> fields;
+
+    /**
+     * 当前类声明的所有字段，不包括父类
+     */
+    private final List<FieldInformation> thisFields;
+
+    /**
+     * 字段名和字段下标，字段名重复时为第一个
+     */
+    private final Map<String, Integer> fieldIndexMap;
+
+    private final FieldInformation idField;
+
+    private final FieldInformation versionField;
+
+    private final FieldInformation logicDeleteField;
+
+    /**
+     * 自动填充字段，不包括{@link FieldFill#DEFAULT}
+     */
+    private final Map<FieldFill, List<FieldInformation>> autoFillFieldMap;
+
+    /**
+     * 注解和字段下标
+     */
+    private final Map<Class<? extends Annotation>, int[]> annotationIndexMap = new ConcurrentHashMap<>();
+
+    /**
+     * 注解和当前类字段下标
+     */
+    private final Map<Class<? extends Annotation>, int[]> annotationThisIndexMap = new ConcurrentHashMap<>();
+
+    private EntityMetadata(Class<?> clazz) {
+        this.clazz = clazz;
+        List<FieldInformation> fieldList = new ArrayList<>();
+        Class<?> enclosingClass = clazz.getEnclosingClass();
+        for (Field field : clazz.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.getType().equals(enclosingClass)) {
+                continue;
+            }
+            fieldList.add(resolve(field));
+        }
+        // JDK中的父类（如枚举的java.lang.Enum）不映射，JDK 16之后也无法setAccessible
+        for (Class<?> superClass = clazz.getSuperclass(); superClass != null && !superClass.equals(Object.class)
+                && !superClass.getName().startsWith("java."); superClass = superClass.getSuperclass()) {
+            for (Field field : superClass.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    fieldList.add(resolve(field));
+                }
+            }
+        }
+        List<FieldInformation> thisFieldList = new ArrayList<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            thisFieldList.add(resolve(field));
+        }
+        this.fields = Collections.unmodifiableList(fieldList);
+        this.thisFields = Collections.unmodifiableList(thisFieldList);
+        Map<String, Integer> indexMap = new HashMap<>(fieldList.size() * 2);
+        Map<FieldFill, List<FieldInformation>> fillMap = new EnumMap<>(FieldFill.class);
+        for (int i = 0; i < fieldList.size(); i++) {
+            FieldInformation fieldInformation = fieldList.get(i);
+            indexMap.putIfAbsent(fieldInformation.getCamelCaseName(), i);
+            CollectionField collectionField = fieldInformation.getCollectionField();
+            if (collectionField != null && collectionField.fill() != FieldFill.DEFAULT) {
+                fillMap.computeIfAbsent(collectionField.fill(), key -> new ArrayList<>()).add(fieldInformation);
+            }
+        }
+        fillMap.replaceAll((fieldFill, list) -> Collections.unmodifiableList(list));
+        this.fieldIndexMap = indexMap;
+        this.autoFillFieldMap = Collections.unmodifiableMap(fillMap);
+        this.idField = getAnnotationField(ID.class);
+        this.versionField = getAnnotationField(Version.class);
+        this.logicDeleteField = getAnnotationField(CollectionLogic.class);
+    }
+
+    /**
+     * 获取类的映射元数据
+     * @param clazz 类
+     * @return {@link EntityMetadata}
+     * @author anwen
+     */
+    public static EntityMetadata of(Class<?> clazz) {
+        return EntityMetadataCache.get(clazz, EntityMetadata::new);
+    }
+
+    /**
+     * 预先解析与实例无关的字段信息，字段名在此时确定
+     */
+    private static FieldInformation resolve(Field field) {
+        SimpleFieldInformation<Object> fieldInformation = new SimpleFieldInformation<>(null, field);
+        fieldInformation.getName();
+        fieldInformation.getCamelCaseName();
+        fieldInformation.getId();
+        fieldInformation.getCollectionField();
+        fieldInformation.getGenericType();
+        return fieldInformation;
+    }
+
+    public Class<?> getClazz() {
+        return clazz;
+    }
+
+    /**
+     * 获取所有字段，包括父类
+     * @return {@link java.util.List<com.mongoplus.mapping.FieldInformation>}
+     * @author anwen
+     */
+    public List<FieldInformation> getFields() {
+        return fields;
+    }
+
+    /**
+     * 获取当前类声明的所有字段
+     * @return {@link java.util.List<com.mongoplus.mapping.FieldInformation>}
+     * @author anwen
+     */
+    public List<FieldInformation> getThisFields() {
+        return thisFields;
+    }
+
+    /**
+     * 根据字段名获取字段下标，不存在返回-1
+     * @param fieldName 字段名（驼峰转下划线后）
+     * @return {@link int}
+     * @author anwen
+     */
+    public int getFieldIndex(String fieldName) {
+        Integer index = fieldIndexMap.get(fieldName);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * 获取ID字段，不存在返回null
+     * @return {@link com.mongoplus.mapping.FieldInformation}
+     * @author anwen
+     */
+    public FieldInformation getIdField() {
+        return idField;
+    }
+
+    /**
+     * 获取乐观锁字段，不存在返回null
+     * @return {@link com.mongoplus.mapping.FieldInformation}
+     * @author anwen
+     */
+    public FieldInformation getVersionField() {
+        return versionField;
+    }
+
+    /**
+     * 获取逻辑删除字段，不存在返回null
+     * @return {@link com.mongoplus.mapping.FieldInformation}
+     * @author anwen
+     */
+    public FieldInformation getLogicDeleteField() {
+        return logicDeleteField;
+    }
+
+    /**
+     * 获取自动填充字段，按填充方式分组
+     * @return {@link java.util.Map<com.mongoplus.enums.FieldFill,java.util.List<com.mongoplus.mapping.FieldInformation>>}
+     * @author anwen
+     */
+    public Map<FieldFill, List<FieldInformation>> getAutoFillFieldMap() {
+        return autoFillFieldMap;
+    }
+
+    /**
+     * 是否存在对应操作需要自动填充的字段，包括{@link FieldFill#INSERT_UPDATE}
+     * @param fieldFill 新增或修改
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public boolean hasAutoFill(FieldFill fieldFill) {
+        return autoFillFieldMap.containsKey(fieldFill) || autoFillFieldMap.containsKey(FieldFill.INSERT_UPDATE);
+    }
+
+    /**
+     * 获取存在注解的字段下标
+     * @param annotationClass 注解类
+     * @return {@link int[]}
+     * @author anwen
+     */
+    public int[] getAnnotationFieldIndexes(Class<? extends Annotation> annotationClass) {
+        return annotationIndexMap.computeIfAbsent(annotationClass, key -> indexes(fields, key));
+    }
+
+    /**
+     * 获取存在注解的当前类字段下标
+     * @param annotationClass 注解类
+     * @return {@link int[]}
+     * @author anwen
+     */
+    public int[] getAnnotationThisFieldIndexes(Class<? extends Annotation> annotationClass) {
+        return annotationThisIndexMap.computeIfAbsent(annotationClass, key -> indexes(thisFields, key));
+    }
+
+    /**
+     * 获取第一个存在注解的字段，不存在返回null
+     * @param annotationClass 注解类
+     * @return {@link com.mongoplus.mapping.FieldInformation}
+     * @author anwen
+     */
+    public FieldInformation getAnnotationField(Class<? extends Annotation> annotationClass) {
+        int[] indexes = getAnnotationFieldIndexes(annotationClass);
+        return indexes.length == 0 ? null : fields.get(indexes[0]);
+    }
+
+    private static int[] indexes(List<FieldInformation> fieldList, Class<? extends Annotation> annotationClass) {
+        int[] indexes = new int[fieldList.size()];
+        int size = 0;
+        for (int i = 0; i < fieldList.size(); i++) {
+            if (fieldList.get(i).getField().getAnnotation(annotationClass) != null) {
+                indexes[size++] = i;
+            }
+        }
+        if (size == 0) {
+            return EMPTY_INDEX;
+        }
+        int[] result = new int[size];
+        System.arraycopy(indexes, 0, result, 0, size);
+        return result;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.mongoplus.mapping;
+
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 映射游标，游标前进时才将文档转换为实体，内存占用只与batchSize有关
+ * <p>使用完毕后必须关闭，推荐使用try-with-resources</p>
+ *
+ * @author anwen
+ */
+public class MappingCursor<T> implements Iterator<T>, Closeable {
+
+    private final MongoCursor<?> cursor;
+
+    private final Function<Object, T> mapper;
+
+    public MappingCursor(MongoCursor<Document> cursor, Function<Document, T> mapper) {
+        this.cursor = cursor;
+        this.mapper = source -> mapper.apply((Document) source);
+    }
+
+    @SuppressWarnings("unchecked")
+    private MappingCursor(MongoCursor<T> cursor) {
+        this.cursor = cursor;
+        this.mapper = source -> (T) source;
+    }
+
+    /**
+     * 包装已经由编解码器解码为结果类型的游标，不再进行转换
+     * @param cursor 游标
+     * @return {@link com.mongoplus.mapping.MappingCursor}
+     * @author anwen
+     */
+    public static <T> MappingCursor<T> of(MongoCursor<T> cursor) {
+        return new MappingCursor<>(cursor);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return cursor.hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (!cursor.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return mapper.apply(cursor.next());
+    }
+
+    /**
+     * 转换为流，关闭流时关闭游标
+     * @return {@link java.util.stream.Stream}
+     * @author anwen
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false
+        ).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        cursor.close();
+    }
+
+}
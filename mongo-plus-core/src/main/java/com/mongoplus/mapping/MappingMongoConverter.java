@@ -17,7 +17,10 @@ import com.mongoplus.toolkit.BsonUtil;
 import com.mongoplus.toolkit.ClassTypeUtil;
 import com.mongoplus.toolkit.ObjectIdUtil;
 import com.mongoplus.toolkit.StringUtils;
+import org.bson.BsonWriter;
 import org.bson.Document;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.conversions.Bson;
 import org.bson.types.Binary;
 import org.bson.types.ObjectId;
@@ -26,6 +29,7 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 /**
  * 将对象映射为Document
@@ -82,6 +86,28 @@ public class MappingMongoConverter extends AbstractMongoConverter {
         processFields(typeInformation.getFields(), bson, true);
     }
 
+    @Override
+    public void write(Object sourceObj, BsonWriter writer, EncoderContext encoderContext,
+                      CodecRegistry codecRegistry) {
+        if (null == sourceObj) {
+            return;
+        }
+        TypeInformation typeInformation = null;
+        if (!ClassTypeUtil.isTargetClass(Map.class, sourceObj.getClass())) {
+            typeInformation = TypeInformation.of(sourceObj);
+        }
+        if (typeInformation == null || !isStreamable(typeInformation)) {
+            Document document = new Document();
+            write(sourceObj, document);
+            document.forEach((key, value) -> {
+                writer.writeName(key);
+                BsonUtil.writeValue(writer, value, encoderContext, codecRegistry);
+            });
+            return;
+        }
+        writeFields(typeInformation.getFields(), true, writer, encoderContext, codecRegistry);
+    }
+
     /**
      * 写入内部对象
      * @param sourceObj 源对象
@@ -100,49 +126,76 @@ public class MappingMongoConverter extends AbstractMongoConverter {
      * @param filterId 是否过滤掉 ID 字段
      */
     private void processFields(List<FieldInformation> fields, Bson bson, boolean filterId) {
-        fields.stream()
-                .filter(fieldInformation -> !fieldInformation.isSkipCheckField() && (!filterId || !fieldInformation.isId()))
-                .forEach(fieldInformation -> {
-                    CollectionField collectionField = fieldInformation.getCollectionField();
-                    Object obj = null;
-                    String fieldName = fieldInformation.getName();
-                    if ((collectionField == null || StringUtils.isBlank(collectionField.value()))
-                            && PropertyCache.camelToUnderline){
-                        fieldName = StringUtils.camelToUnderline(fieldName);
-                    }
-                    if (ignoreType.contains(fieldInformation.getTypeClass())){
-                        obj = fieldInformation.getValue();
-                    }
-                    if (collectionField != null && collectionField.isObjectId()) {
-                        obj = ObjectIdUtil.getObjectIdValue(fieldInformation.getValue());
-                    }
-                    for (FieldHandler fieldHandler : HandlerCache.fieldHandlers) {
-                        if (fieldHandler.activate().apply(fieldInformation)) {
-                            obj = fieldHandler.handler(fieldInformation);
-                        }
-                    }
-                    //如果类型处理器返回null，则继续走默认处理
-                    if (obj != null) {
-                        BsonUtil.addToMap(bson, fieldName, obj);
-                    } else {
-                        writeProperties(bson, fieldName, fieldInformation.getValue(),collectionField);
-                    }
-                });
+        processFields(
+                fields,
+                filterId,
+                (fieldName, obj) -> BsonUtil.addToMap(bson, fieldName, obj),
+                (fieldName, sourceObj) -> BsonUtil.addToMap(bson, fieldName, writeProperties(sourceObj))
+        );
     }
 
     /**
-     * 属性写入Bson中，并校验`CollectionField`注解的`ignoreNull`属性
-     * @param bson bson
-     * @param key key
-     * @param sourceObj 源对象
-     * @param collectionField 可选的 CollectionField 注解
-     * @author anwen
+     * 处理字段信息并直接写入 BsonWriter
+     * @param fields 字段信息列表
+     * @param filterId 是否过滤掉 ID 字段
      */
-    private void writeProperties(Bson bson, String key, Object sourceObj, CollectionField collectionField) {
-        if (shouldIgnoreNull(sourceObj, collectionField)) {
-            return;
+    private void writeFields(List<FieldInformation> fields, boolean filterId, BsonWriter writer,
+                             EncoderContext encoderContext, CodecRegistry codecRegistry) {
+        processFields(
+                fields,
+                filterId,
+                (fieldName, obj) -> {
+                    writer.writeName(fieldName);
+                    BsonUtil.writeValue(writer, obj, encoderContext, codecRegistry);
+                },
+                (fieldName, sourceObj) -> {
+                    writer.writeName(fieldName);
+                    writeProperties(writer, sourceObj, encoderContext, codecRegistry);
+                }
+        );
+    }
+
+    /**
+     * 处理字段信息
+     * @param fields 字段信息列表
+     * @param filterId 是否过滤掉 ID 字段
+     * @param valueWriter 写入处理器已经处理过的值
+     * @param propertyWriter 写入需要映射的属性值
+     */
+    private void processFields(List<FieldInformation> fields, boolean filterId,
+                               BiConsumer<String, Object> valueWriter, BiConsumer<String, Object> propertyWriter) {
+        for (FieldInformation fieldInformation : fields) {
+            if (fieldInformation.isSkipCheckField() || (filterId && fieldInformation.isId())) {
+                continue;
+            }
+            CollectionField collectionField = fieldInformation.getCollectionField();
+            Object obj = null;
+            String fieldName = fieldInformation.getName();
+            if ((collectionField == null || StringUtils.isBlank(collectionField.value()))
+                    && PropertyCache.camelToUnderline){
+                fieldName = StringUtils.camelToUnderline(fieldName);
+            }
+            if (ignoreType.contains(fieldInformation.getTypeClass())){
+                obj = fieldInformation.getValue();
+            }
+            if (collectionField != null && collectionField.isObjectId()) {
+                obj = ObjectIdUtil.getObjectIdValue(fieldInformation.getValue());
+            }
+            for (FieldHandler fieldHandler : HandlerCache.fieldHandlers) {
+                if (fieldHandler.activate().apply(fieldInformation)) {
+                    obj = fieldHandler.handler(fieldInformation);
+                }
+            }
+            //如果类型处理器返回null，则继续走默认处理
+            if (obj != null) {
+                valueWriter.accept(fieldName, obj);
+            } else {
+                Object sourceObj = fieldInformation.getValue();
+                if (!shouldIgnoreNull(sourceObj, collectionField)) {
+                    propertyWriter.accept(fieldName, sourceObj);
+                }
+            }
         }
-        BsonUtil.addToMap(bson, key, writeProperties(sourceObj));
     }
 
     /**
@@ -185,18 +238,10 @@ public class MappingMongoConverter extends AbstractMongoConverter {
         if (sourceObj != null) {
             mappingStrategy = getMappingStrategy(sourceObj.getClass());
         }
-        if (mappingStrategy != null){
-            try {
-                resultObj = mappingStrategy.mapping(sourceObj);
-            } catch (IllegalAccessException e) {
-                String error = String.format("Exception mapping %s to simple type", sourceObj.getClass().getName());
-                log.error(error,e);
-                throw new MongoPlusWriteException(error);
-            }
-        } else if (sourceObj == null ||
+        if (mappingStrategy != null || sourceObj == null ||
                 simpleTypeHolder.isSimpleType(sourceObj.getClass()) ||
                 simpleTypeHolder.isMongoType(sourceObj.getClass())) {
-            resultObj = getPotentiallyConvertedSimpleWrite(sourceObj);
+            resultObj = writeSimpleProperties(sourceObj, mappingStrategy);
         } else if (ClassTypeUtil.isTargetClass(Collection.class,sourceObj.getClass()) || sourceObj.getClass().isArray()) {
             resultObj = writeCollectionInternal(BsonUtil.asCollection(sourceObj), new ArrayList<>());
         } else if (ClassTypeUtil.isTargetClass(Map.class,sourceObj.getClass())) {
@@ -207,6 +252,65 @@ public class MappingMongoConverter extends AbstractMongoConverter {
         return resultObj;
     }
 
+    /**
+     * 简单类型或有映射策略的属性映射
+     * @param sourceObj 源对象
+     * @param mappingStrategy 映射策略，没有时为null
+     * @return {@link Object}
+     * @author anwen
+     */
+    private Object writeSimpleProperties(Object sourceObj, MappingStrategy<Object> mappingStrategy) {
+        if (mappingStrategy == null) {
+            return getPotentiallyConvertedSimpleWrite(sourceObj);
+        }
+        try {
+            return mappingStrategy.mapping(sourceObj);
+        } catch (IllegalAccessException e) {
+            String error = String.format("Exception mapping %s to simple type", sourceObj.getClass().getName());
+            log.error(error,e);
+            throw new MongoPlusWriteException(error);
+        }
+    }
+
+    /**
+     * 属性映射并直接写入BsonWriter，集合和实体逐个写入，不构建中间的集合和Document
+     * <p>类型只判断一次，简单类型直接映射，不再经过{@link #writeProperties(Object)}重复判断</p>
+     * @param writer writer
+     * @param sourceObj 源对象
+     * @author anwen
+     */
+    private void writeProperties(BsonWriter writer, Object sourceObj, EncoderContext encoderContext,
+                                 CodecRegistry codecRegistry) {
+        MappingStrategy<Object> mappingStrategy = null;
+        if (sourceObj != null) {
+            mappingStrategy = getMappingStrategy(sourceObj.getClass());
+        }
+        if (mappingStrategy != null || sourceObj == null ||
+                simpleTypeHolder.isSimpleType(sourceObj.getClass()) ||
+                simpleTypeHolder.isMongoType(sourceObj.getClass())) {
+            BsonUtil.writeValue(writer, writeSimpleProperties(sourceObj, mappingStrategy), encoderContext,
+                    codecRegistry);
+        } else if (ClassTypeUtil.isTargetClass(Map.class,sourceObj.getClass())) {
+            BsonUtil.writeValue(writer, writeMapInternal((Map<?, ?>) sourceObj, new Document()), encoderContext,
+                    codecRegistry);
+        } else if (ClassTypeUtil.isTargetClass(Collection.class,sourceObj.getClass()) || sourceObj.getClass().isArray()) {
+            writer.writeStartArray();
+            for (Object element : BsonUtil.asCollection(sourceObj)) {
+                writeProperties(writer, element, encoderContext, codecRegistry);
+            }
+            writer.writeEndArray();
+        } else {
+            TypeInformation typeInformation = TypeInformation.of(sourceObj);
+            if (!isStreamable(typeInformation)) {
+                BsonUtil.writeValue(writer, writeProperties(sourceObj), encoderContext, codecRegistry);
+                return;
+            }
+            writer.writeStartDocument();
+            writeFields(typeInformation.getFields(), false, writer, encoderContext, codecRegistry);
+            writer.writeEndDocument();
+        }
+    }
+
     /**
      * map类型的处理
      * @param obj 源对象
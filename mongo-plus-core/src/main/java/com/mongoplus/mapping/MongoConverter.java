@@ -4,9 +4,14 @@ import com.mongodb.client.MongoIterable;
 import com.mongoplus.annotation.ID;
 import com.mongoplus.constant.SqlOperationConstant;
 import com.mongoplus.domain.MongoPlusFieldException;
+import com.mongoplus.handlers.field.DBRefResolver;
 import com.mongoplus.strategy.conversion.ConversionStrategy;
+import com.mongoplus.toolkit.BsonUtil;
 import com.mongoplus.toolkit.ClassTypeUtil;
+import org.bson.BsonWriter;
 import org.bson.Document;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
 
 import java.util.*;
 
@@ -34,6 +39,25 @@ public interface MongoConverter extends MongoWriter,EntityRead {
         return document;
     }
 
+    /**
+     * 将实体的字段直接写入BsonWriter，不构建中间的Document，调用前需要已经开始写入文档，不包含_id
+     * <p>默认先映射为Document再写入</p>
+     * @param sourceObj 源对象
+     * @param writer writer
+     * @param encoderContext 编码上下文
+     * @param codecRegistry 编解码器
+     * @author anwen
+     */
+    default void write(Object sourceObj, BsonWriter writer, EncoderContext encoderContext,
+                       CodecRegistry codecRegistry){
+        Document document = new Document();
+        write(sourceObj,document);
+        document.forEach((key, value) -> {
+            writer.writeName(key);
+            BsonUtil.writeValue(writer, value, encoderContext, codecRegistry);
+        });
+    }
+
     /**
      * map映射到document
      * @author anwen
@@ -97,6 +121,22 @@ public interface MongoConverter extends MongoWriter,EntityRead {
         return document;
     }
 
+    /**
+     * 写入upsert的文档，document为修改和新增时都写入的字段（包含_id），insertDocument为只在新增时写入的字段，两者字段不重复
+     * @param sourceObj 实体
+     * @param document 修改和新增时都写入的字段
+     * @param insertDocument 只在新增时写入的字段，作为$setOnInsert
+     * @author anwen
+     */
+    default void writeByUpsert(Object sourceObj, Document document, Document insertDocument) {
+        writeByUpdate(sourceObj, document);
+        writeBySave(sourceObj).forEach((key, value) -> {
+            if (!document.containsKey(key) && !SqlOperationConstant._ID.equals(key)) {
+                insertDocument.put(key, value);
+            }
+        });
+    }
+
     default void writeByUpdateBatch(Collection<?> sourceObjCollection, List<Document> documentList){
         sourceObjCollection.forEach(sourceObj -> {
             Document document = new Document();
@@ -130,23 +170,35 @@ public interface MongoConverter extends MongoWriter,EntityRead {
     <T> T readInternal(Object sourceObj, TypeReference<T> typeReference);
 
     /**
-     * 写为Class
+     * 写为Class，结果中的DBRef批量查询
      * @author anwen
      */
     default <T> List<T> read(MongoIterable<Document> findIterable, Class<T> clazz) {
-        List<T> resultList = new ArrayList<>();
-        findIterable.forEach(document -> resultList.add(convertDocument(document,clazz)));
-        return resultList;
+        return DBRefResolver.batch(() -> {
+            List<T> resultList = new ArrayList<>();
+            findIterable.forEach(document -> resultList.add(convertDocument(document,clazz)));
+            return resultList;
+        });
     }
 
     /**
-     * 写为class，根据传入的type
+     * 写为class，根据传入的type，结果中的DBRef批量查询
      * @author anwen
      */
     default <T> List<T> read(MongoIterable<Document> findIterable, TypeReference<T> typeReference){
-        List<T> resultList = new ArrayList<>();
-        findIterable.forEach(document -> resultList.add(read(document, typeReference)));
-        return resultList;
+        return DBRefResolver.batch(() -> {
+            List<T> resultList = new ArrayList<>();
+            findIterable.forEach(document -> resultList.add(read(document, typeReference)));
+            return resultList;
+        });
+    }
+
+    /**
+     * 写为class，游标前进时才进行转换
+     * @author anwen
+     */
+    default <T> MappingCursor<T> iterator(MongoIterable<Document> findIterable, TypeReference<T> typeReference){
+        return new MappingCursor<>(findIterable.cursor(), document -> read(document, typeReference));
     }
 
     /**
@@ -0,0 +1,282 @@
+package com.mongoplus.mapping;
+
+import com.mongoplus.annotation.collection.CollectionField;
+import com.mongoplus.cache.global.AccessorCache;
+import com.mongoplus.cache.global.ConversionCache;
+import com.mongoplus.cache.global.HandlerCache;
+import com.mongoplus.handlers.ReadHandler;
+import com.mongoplus.handlers.TypeHandler;
+import com.mongoplus.handlers.field.DBRefPlaceholder;
+import com.mongoplus.mapping.accessor.FieldAccessor;
+import com.mongoplus.mapping.accessor.InstanceCreator;
+import com.mongoplus.strategy.conversion.ConversionStrategy;
+import com.mongoplus.toolkit.ClassTypeUtil;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 类的读取计划，每个类首次读取时编译一次，由{@link com.mongoplus.cache.global.ReadPlanCache}缓存
+ * <p>每个字段预先确定文档中的字段名、{@link TypeHandler}实例、激活的{@link ReadHandler}和转换策略，
+ * 逐条读取文档时不再有反射和缓存查找</p>
+ * <p>{@link ReadHandler#activate()}只在编译时对未绑定实例的字段信息判断一次，
+ * 读取处理器改变或元数据清空后重新编译</p>
+ *
+ * @author anwen
+ */
+public final class ReadPlan {
+
+    private final Class<?> clazz;
+
+    private final EntityMetadata entityMetadata;
+
+    private final List<ReadHandler> readHandlerList;
+
+    private final InstanceCreator instanceCreator;
+
+    private final ReadProperty[] properties;
+
+    /**
+     * 文档字段名对应的字段，实体编解码器使用
+     */
+    private volatile Map<String, ReadProperty[]> propertyMap;
+
+    private ReadPlan(Class<?> clazz, boolean useIdAsFieldName, MongoConverter mongoConverter) {
+        this.clazz = clazz;
+        this.entityMetadata = EntityMetadata.of(clazz);
+        this.readHandlerList = HandlerCache.getReadHandler();
+        this.instanceCreator = AccessorCache.getInstanceCreator(clazz);
+        List<ReadProperty> propertyList = new ArrayList<>();
+        for (FieldInformation fieldInformation : entityMetadata.getFields()) {
+            if (fieldInformation.isSkipCheckField()) {
+                continue;
+            }
+            String name = useIdAsFieldName ? fieldInformation.getIdOrCamelCaseName()
+                    : fieldInformation.getCamelCaseName();
+            propertyList.add(new ReadProperty(name, fieldInformation, readHandlerList, mongoConverter));
+        }
+        this.properties = propertyList.toArray(new ReadProperty[0]);
+    }
+
+    /**
+     * 编译读取计划
+     * @param clazz 类
+     * @param useIdAsFieldName 是否使用_id作为ID字段的字段名
+     * @param mongoConverter 转换器
+     * @return {@link com.mongoplus.mapping.ReadPlan}
+     * @author anwen
+     */
+    public static ReadPlan compile(Class<?> clazz, boolean useIdAsFieldName, MongoConverter mongoConverter) {
+        return new ReadPlan(clazz, useIdAsFieldName, mongoConverter);
+    }
+
+    /**
+     * 读取处理器和元数据是否没有变化
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public boolean isValid() {
+        return readHandlerList == HandlerCache.getReadHandler() && entityMetadata == EntityMetadata.of(clazz);
+    }
+
+    public Class<?> getClazz() {
+        return clazz;
+    }
+
+    public ReadProperty[] getProperties() {
+        return properties;
+    }
+
+    /**
+     * 获取文档字段名对应的字段，同一个字段名可能对应多个字段
+     * @return {@link java.util.Map<java.lang.String,com.mongoplus.mapping.ReadPlan.ReadProperty[]>}
+     * @author anwen
+     */
+    public Map<String, ReadProperty[]> getPropertyMap() {
+        Map<String, ReadProperty[]> map = propertyMap;
+        if (map == null) {
+            Map<String, List<ReadProperty>> propertyListMap = new HashMap<>();
+            for (ReadProperty property : properties) {
+                propertyListMap.computeIfAbsent(property.name, key -> new ArrayList<>()).add(property);
+            }
+            map = new HashMap<>(propertyListMap.size() * 2);
+            for (Map.Entry<String, List<ReadProperty>> entry : propertyListMap.entrySet()) {
+                map.put(entry.getKey(), entry.getValue().toArray(new ReadProperty[0]));
+            }
+            map = Collections.unmodifiableMap(map);
+            propertyMap = map;
+        }
+        return map;
+    }
+
+    /**
+     * 创建实例
+     * @return {@link java.lang.Object}
+     * @author anwen
+     */
+    public Object newInstance() {
+        return instanceCreator.newInstance();
+    }
+
+    /**
+     * 将文档读取为实例
+     * @param document 文档
+     * @param mongoConverter 转换器
+     * @return {@link java.lang.Object}
+     * @author anwen
+     */
+    public Object read(Document document, MongoConverter mongoConverter) {
+        Object instance = newInstance();
+        for (ReadProperty property : properties) {
+            Object value = document.get(property.name);
+            if (value != null) {
+                property.read(instance, value, mongoConverter);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 字段的读取信息
+     */
+    public static final class ReadProperty {
+
+        private final String name;
+
+        /**
+         * 未绑定实例的字段信息
+         */
+        private final FieldInformation fieldInformation;
+
+        private final FieldAccessor fieldAccessor;
+
+        private final TypeHandler<?> typeHandler;
+
+        private final ReadHandler[] readHandlers;
+
+        private final boolean[] activates;
+
+        private final Function<Object, Boolean>[] discontinues;
+
+        private final boolean hasActivate;
+
+        private final TypeReference<?> typeReference;
+
+        private final Class<?> typeClass;
+
+        /**
+         * 非集合、Map类型的转换策略，为null时交给转换器处理
+         */
+        private final ConversionStrategy<?> conversionStrategy;
+
+        @SuppressWarnings("unchecked")
+        private ReadProperty(String name, FieldInformation fieldInformation, List<ReadHandler> readHandlerList,
+                             MongoConverter mongoConverter) {
+            this.name = name;
+            this.fieldInformation = fieldInformation;
+            this.fieldAccessor = AccessorCache.getFieldAccessor(fieldInformation.getField());
+            CollectionField collectionField = fieldInformation.getCollectionField();
+            if (collectionField != null && ClassTypeUtil.isTargetClass(TypeHandler.class,
+                    collectionField.typeHandler())) {
+                this.typeHandler = (TypeHandler<?>) ClassTypeUtil.getInstanceByClass(collectionField.typeHandler());
+            } else {
+                this.typeHandler = null;
+            }
+            this.readHandlers = readHandlerList.toArray(new ReadHandler[0]);
+            this.activates = new boolean[readHandlers.length];
+            this.discontinues = new Function[readHandlers.length];
+            boolean activate = false;
+            for (int i = 0; i < readHandlers.length; i++) {
+                activates[i] = Boolean.TRUE.equals(readHandlers[i].activate().apply(fieldInformation));
+                discontinues[i] = readHandlers[i].discontinue();
+                activate |= activates[i];
+            }
+            this.hasActivate = activate;
+            this.typeReference = TypeReference.of(fieldInformation.getGenericType());
+            this.typeClass = typeReference.getClazz();
+            this.conversionStrategy = resolveConversionStrategy(typeClass, mongoConverter);
+        }
+
+        /**
+         * 与{@link MappingMongoConverter#readInternal(Object, TypeReference)}的转换策略一致，
+         * 自定义的转换器不预先确定
+         */
+        private static ConversionStrategy<?> resolveConversionStrategy(Class<?> typeClass,
+                                                                       MongoConverter mongoConverter) {
+            if (typeClass == null || mongoConverter == null || mongoConverter.getClass() != MappingMongoConverter.class
+                    || ClassTypeUtil.isTargetClass(Collection.class, typeClass)
+                    || ClassTypeUtil.isTargetClass(Map.class, typeClass)) {
+                return null;
+            }
+            ConversionStrategy<?> conversionStrategy = mongoConverter.getConversionStrategy(typeClass);
+            return conversionStrategy != null ? conversionStrategy : ConversionCache.getConversionStrategy(Object.class);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public FieldInformation getFieldInformation() {
+            return fieldInformation;
+        }
+
+        /**
+         * 处理单个字段并写入实例，顺序为TypeHandler、ReadHandler、类型转换
+         * @param instance 实例
+         * @param value 文档中的值，不为null
+         * @param mongoConverter 转换器
+         * @author anwen
+         */
+        public void read(Object instance, Object value, MongoConverter mongoConverter) {
+            Object obj = value;
+            Object resultObj = null;
+            if (typeHandler != null) {
+                resultObj = typeHandler.getResult(obj);
+            }
+            if (readHandlers.length > 0) {
+                FieldInformation boundFieldInformation = hasActivate
+                        ? new SimpleFieldInformation<>(instance, (SimpleFieldInformation<?>) fieldInformation)
+                        : fieldInformation;
+                for (int i = 0; i < readHandlers.length; i++) {
+                    if (activates[i]) {
+                        Object readObj = readHandlers[i].read(boundFieldInformation, obj, mongoConverter);
+                        if (readObj != obj && obj instanceof DBRefPlaceholder) {
+                            ((DBRefPlaceholder) obj).discard();
+                        }
+                        obj = readObj;
+                    }
+                    if (Boolean.TRUE.equals(discontinues[i].apply(obj))) {
+                        return;
+                    }
+                }
+                // DBRef由占位对象在解析后写入字段
+                if (obj instanceof DBRefPlaceholder) {
+                    return;
+                }
+            }
+            if (resultObj == null) {
+                resultObj = convert(obj, mongoConverter);
+            }
+            fieldAccessor.set(instance, resultObj);
+        }
+
+        private Object convert(Object obj, MongoConverter mongoConverter) {
+            if (conversionStrategy == null) {
+                return mongoConverter.readInternal(obj, typeReference);
+            }
+            try {
+                return conversionStrategy.convertValue(obj, typeClass, mongoConverter);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+    }
+
+}
@@ -2,11 +2,13 @@ package com.mongoplus.mapping;
 
 import com.mongoplus.annotation.ID;
 import com.mongoplus.annotation.collection.CollectionField;
+import com.mongoplus.cache.global.AccessorCache;
 import com.mongoplus.cache.global.FieldCache;
 import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.cache.global.SimpleCache;
 import com.mongoplus.constant.SqlOperationConstant;
 import com.mongoplus.domain.MongoPlusFieldException;
+import com.mongoplus.mapping.accessor.FieldAccessor;
 import com.mongoplus.toolkit.ArrayUtils;
 import com.mongoplus.toolkit.ClassTypeUtil;
 import com.mongoplus.toolkit.StringUtils;
@@ -18,16 +20,12 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author JiaChaoYang
  **/
 public class SimpleFieldInformation<T> implements FieldInformation {
 
-
-    private Object value;
-
     private String name;
 
     private Class<?> mapValueType;
@@ -38,8 +36,12 @@ public class SimpleFieldInformation<T> implements FieldInformation {
 
     private ID id;
 
+    private boolean idResolved;
+
     private CollectionField collectionField;
 
+    private boolean collectionFieldResolved;
+
     private Method get;
 
     private Method set;
@@ -48,7 +50,7 @@ public class SimpleFieldInformation<T> implements FieldInformation {
 
     private String camelCaseName;
 
-    Map<Object,Object> instanceValueMap = new ConcurrentHashMap<>();
+    private final FieldAccessor fieldAccessor;
 
     @Override
     public Field getField() {
@@ -84,6 +86,25 @@ public class SimpleFieldInformation<T> implements FieldInformation {
         field.setAccessible(true);
         this.field = field;
         this.typeClass = field.getType();
+        this.fieldAccessor = AccessorCache.getFieldAccessor(field);
+    }
+
+    /**
+     * 将{@link EntityMetadata}中预先解析的字段信息绑定到实例
+     * @param instance 实例
+     * @param fieldInformation 元数据中的字段信息
+     */
+    SimpleFieldInformation(T instance, SimpleFieldInformation<?> fieldInformation) {
+        this.instance = instance;
+        this.field = fieldInformation.field;
+        this.typeClass = fieldInformation.typeClass;
+        this.fieldAccessor = fieldInformation.fieldAccessor;
+        this.name = fieldInformation.name;
+        this.camelCaseName = fieldInformation.camelCaseName;
+        this.id = fieldInformation.id;
+        this.idResolved = fieldInformation.idResolved;
+        this.collectionField = fieldInformation.collectionField;
+        this.collectionFieldResolved = fieldInformation.collectionFieldResolved;
     }
 
     @Override
@@ -94,33 +115,18 @@ public class SimpleFieldInformation<T> implements FieldInformation {
 
     @Override
     public void clear() {
-        this.value = null;
-        this.instanceValueMap.clear();
         this.get = null;
         this.set = null;
     }
 
     @Override
     public Object getValue() {
-        if (this.value == null){
-            try {
-                this.value = field.get(instance);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
-        }
-        return this.value;
+        return fieldAccessor.get(instance);
     }
 
     @Override
     public Object getValue(Object instance) {
-        return instanceValueMap.computeIfAbsent(instance, k -> {
-            try {
-                return field.get(instance);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
-        });
+        return fieldAccessor.get(instance);
     }
 
     @Override
@@ -211,8 +217,9 @@ public class SimpleFieldInformation<T> implements FieldInformation {
 
     @Override
     public ID getId() {
-        if (this.id == null){
+        if (!this.idResolved){
             this.id = field.getAnnotation(ID.class);
+            this.idResolved = true;
         }
         return this.id;
     }
@@ -248,11 +255,7 @@ public class SimpleFieldInformation<T> implements FieldInformation {
 
     @Override
     public void setValue(Object instance, Object value) {
-        try {
-            field.set(instance, value);
-        } catch (IllegalAccessException e) {
-            throw new MongoPlusFieldException("Failed to set the " + field.getName()+" field content",e);
-        }
+        fieldAccessor.set(instance, value);
     }
 
     private String capitalize(String method,String str) {
@@ -261,12 +264,16 @@ public class SimpleFieldInformation<T> implements FieldInformation {
 
     @Override
     public CollectionField getCollectionField() {
-        CollectionField collectionField;
-        if ((collectionField = FieldCache.getCollectionField(field)) == null){
-            collectionField = field.getAnnotation(CollectionField.class);
-            FieldCache.setCollectionFieldMapCache(field,collectionField);
+        if (!this.collectionFieldResolved) {
+            CollectionField collectionField;
+            if ((collectionField = FieldCache.getCollectionField(field)) == null){
+                collectionField = field.getAnnotation(CollectionField.class);
+                FieldCache.setCollectionFieldMapCache(field,collectionField);
+            }
+            this.collectionField = collectionField;
+            this.collectionFieldResolved = true;
         }
-        return collectionField;
+        return this.collectionField;
     }
 
     @Override
@@ -4,13 +4,10 @@ import com.mongoplus.cache.global.SimpleCache;
 import com.mongoplus.domain.MongoPlusFieldException;
 import com.mongoplus.toolkit.ArrayUtils;
 import com.mongoplus.toolkit.ClassTypeUtil;
-import com.mongoplus.toolkit.CollUtil;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Class的一些信息和操作
@@ -33,36 +30,37 @@ public class SimpleTypeInformation<T> implements TypeInformation {
 
     private Type[] types;
 
-    private final Map<String, FieldInformation> fieldMap = new HashMap<>();
+    private Map<String, FieldInformation> fieldMap;
 
     /**
-     * 实例的所有Field
+     * 类的映射元数据，所有实例共享
      *
      */
-    private final List<FieldInformation> fieldList = new ArrayList<>();
+    private EntityMetadata entityMetadata;
 
     /**
-     * 实例的所有Field,不包括父类
+     * 绑定了实例的Field，下标与{@link EntityMetadata#getFields()}一致，使用时才绑定
      *
      */
-    private final List<FieldInformation> thisFieldList = new ArrayList<>();
+    private FieldInformation[] boundFields;
 
     /**
-     * 简单类型
+     * 绑定了实例的Field，不包括父类，下标与{@link EntityMetadata#getThisFields()}一致
+     *
      */
-    private SimpleTypeHolder simpleTypeHolder = SimpleCache.getSimpleTypeHolder();
+    private FieldInformation[] boundThisFields;
 
     /**
-     * 实例的某个注解的Field
+     * 实例的所有Field
      *
      */
-    private final Map<Class<? extends Annotation>, List<FieldInformation>> annotationFieldMap = new HashMap<>();
+    private List<FieldInformation> fieldList;
 
     /**
-     * 实例的某个注解的Field
+     * 实例的所有Field,不包括父类
      *
      */
-    private final Map<Class<? extends Annotation>, List<FieldInformation>> annotationThisFieldMap = new HashMap<>();
+    private List<FieldInformation> thisFieldList;
 
     private SimpleTypeInformation(T instance, Class<?> clazz) {
         this.instance = instance;
@@ -126,51 +124,56 @@ public class SimpleTypeInformation<T> implements TypeInformation {
         this.instance = (T) instance;
     }
 
+    /**
+     * 获取类的映射元数据
+     *
+     * @return {@link EntityMetadata}
+     * @author anwen
+     */
+    public EntityMetadata getEntityMetadata() {
+        if (entityMetadata == null) {
+            entityMetadata = EntityMetadata.of(clazz);
+        }
+        return entityMetadata;
+    }
+
     @Override
     public List<FieldInformation> getFields() {
-        if (CollUtil.isEmpty(fieldList)) {
-            Class<?> enclosingClass = clazz.getEnclosingClass();
-            Arrays.stream(clazz.getDeclaredFields()).forEach(field -> {
-                field.setAccessible(true);
-                if (Modifier.isStatic(field.getModifiers())) {
-                    return;
-                }
-                if (field.getType().equals(enclosingClass)) {
-                    return;
-                }
-                fieldList.add(new SimpleFieldInformation<>(instance, field));
-            });
-            getSupperFields(clazz.getSuperclass());
+        if (fieldList == null) {
+            int size = getEntityMetadata().getFields().size();
+            List<FieldInformation> fields = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                fields.add(bindField(i));
+            }
+            fieldList = fields;
         }
         return this.fieldList;
     }
 
     @Override
     public List<FieldInformation> getThisFields() {
-        if (CollUtil.isEmpty(thisFieldList)) {
-            Arrays.stream(clazz.getDeclaredFields()).forEach(field -> {
-                field.setAccessible(true);
-                thisFieldList.add(new SimpleFieldInformation<>(instance, field));
-            });
+        if (thisFieldList == null) {
+            int size = getEntityMetadata().getThisFields().size();
+            List<FieldInformation> fields = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                fields.add(bindThisField(i));
+            }
+            thisFieldList = fields;
         }
         return this.thisFieldList;
     }
 
     @Override
     public FieldInformation getField(String fieldName) {
-        if (!fieldMap.containsKey(fieldName)) {
-            FieldInformation fieldInformation = getFields().stream()
-                    .filter(field ->
-                            Objects.equals(field.getCamelCaseName(), fieldName))
-                    .findFirst()
-                    .orElse(null);
-            fieldMap.put(fieldName, fieldInformation);
-        }
-        return fieldMap.get(fieldName);
+        int index = getEntityMetadata().getFieldIndex(fieldName);
+        return index < 0 ? null : bindField(index);
     }
 
     @Override
     public FieldInformation getFieldNotException(String fieldName) {
+        if (fieldMap == null) {
+            fieldMap = new HashMap<>();
+        }
         if (!fieldMap.containsKey(fieldName)) {
             try {
                 fieldMap.put(fieldName, new SimpleFieldInformation<>(instance, clazz.getDeclaredField(fieldName)));
@@ -183,55 +186,43 @@ public class SimpleTypeInformation<T> implements TypeInformation {
 
     @Override
     public List<FieldInformation> getAnnotationFields(Class<? extends Annotation> annotationClass) {
-        if (!annotationFieldMap.containsKey(annotationClass)) {
-            annotationFieldMap.put(
-                    annotationClass,
-                    getFields()
-                            .stream()
-                            .filter(field -> field.getField().getAnnotation(annotationClass) != null)
-                            .collect(Collectors.toList()));
+        int[] indexes = getEntityMetadata().getAnnotationFieldIndexes(annotationClass);
+        List<FieldInformation> fields = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            fields.add(bindField(index));
         }
-        return annotationFieldMap.get(annotationClass);
+        return fields;
     }
 
     @Override
     public List<FieldInformation> getAnnotationThisFields(Class<? extends Annotation> annotationClass) {
-        if (!annotationThisFieldMap.containsKey(annotationClass)) {
-            annotationThisFieldMap.put(
-                    annotationClass,
-                    getThisFields()
-                            .stream()
-                            .filter(field -> field.getField().getAnnotation(annotationClass) != null)
-                            .collect(Collectors.toList()));
+        int[] indexes = getEntityMetadata().getAnnotationThisFieldIndexes(annotationClass);
+        List<FieldInformation> fields = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            fields.add(bindThisField(index));
         }
-        return annotationThisFieldMap.get(annotationClass);
+        return fields;
     }
 
     @Override
     public FieldInformation getAnnotationField(Class<? extends Annotation> annotationClass, String nullMessage) {
-        List<FieldInformation> fieldList = getAnnotationFields(annotationClass);
-        if (CollUtil.isEmpty(fieldList)) {
+        FieldInformation fieldInformation = getAnnotationField(annotationClass);
+        if (fieldInformation == null) {
             throw new MongoPlusFieldException(nullMessage);
         }
-        return fieldList.get(0);
+        return fieldInformation;
     }
 
     @Override
     public FieldInformation getAnnotationField(Class<? extends Annotation> annotationClass) {
-        List<FieldInformation> fieldList = getAnnotationFields(annotationClass);
-        if (CollUtil.isEmpty(fieldList)) {
-            return null;
-        }
-        return fieldList.get(0);
+        int[] indexes = getEntityMetadata().getAnnotationFieldIndexes(annotationClass);
+        return indexes.length == 0 ? null : bindField(indexes[0]);
     }
 
     @Override
     public FieldInformation getAnnotationThisField(Class<? extends Annotation> annotationClass) {
-        List<FieldInformation> fieldList = getAnnotationThisFields(annotationClass);
-        if (CollUtil.isEmpty(fieldList)) {
-            return null;
-        }
-        return fieldList.get(0);
+        int[] indexes = getEntityMetadata().getAnnotationThisFieldIndexes(annotationClass);
+        return indexes.length == 0 ? null : bindThisField(indexes[0]);
     }
 
     @Override
@@ -244,17 +235,32 @@ public class SimpleTypeInformation<T> implements TypeInformation {
         return getAnnotationField(annotationClass).getValue();
     }
 
-    private void getSupperFields(Class<?> clazz){
-        if (clazz != null && !clazz.equals(Object.class)){
-            Arrays.asList(clazz.getDeclaredFields()).forEach(field -> {
-                field.setAccessible(true);
-                if (Modifier.isStatic(field.getModifiers())) {
-                    return;
-                }
-                fieldList.add(new SimpleFieldInformation<>(instance, field));
-            });
-            getSupperFields(clazz.getSuperclass());
+    private FieldInformation bindField(int index) {
+        if (boundFields == null) {
+            boundFields = new FieldInformation[getEntityMetadata().getFields().size()];
+        }
+        FieldInformation fieldInformation = boundFields[index];
+        if (fieldInformation == null) {
+            fieldInformation = bind(getEntityMetadata().getFields().get(index));
+            boundFields[index] = fieldInformation;
         }
+        return fieldInformation;
+    }
+
+    private FieldInformation bindThisField(int index) {
+        if (boundThisFields == null) {
+            boundThisFields = new FieldInformation[getEntityMetadata().getThisFields().size()];
+        }
+        FieldInformation fieldInformation = boundThisFields[index];
+        if (fieldInformation == null) {
+            fieldInformation = bind(getEntityMetadata().getThisFields().get(index));
+            boundThisFields[index] = fieldInformation;
+        }
+        return fieldInformation;
+    }
+
+    private FieldInformation bind(FieldInformation fieldInformation) {
+        return new SimpleFieldInformation<>(instance, (SimpleFieldInformation<?>) fieldInformation);
     }
 
 }
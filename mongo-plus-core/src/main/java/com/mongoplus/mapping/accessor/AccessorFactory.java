@@ -0,0 +1,132 @@
+package com.mongoplus.mapping.accessor;
+
+import com.mongoplus.domain.MongoPlusException;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+/**
+ * 生成字段访问器和实例创建器
+ * <p>优先使用{@link LambdaMetafactory}和{@link MethodHandle}，生成失败时使用反射</p>
+ *
+ * @author anwen
+ */
+public class AccessorFactory {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodType CREATOR_TYPE = MethodType.methodType(Object.class);
+
+    /**
+     * 创建字段访问器
+     * @param field 字段
+     * @return {@link FieldAccessor}
+     * @author anwen
+     */
+    public static FieldAccessor createFieldAccessor(Field field) {
+        FieldAccessor reflectionAccessor = new ReflectionFieldAccessor(field);
+        if (Modifier.isStatic(field.getModifiers())) {
+            return reflectionAccessor;
+        }
+        try {
+            field.setAccessible(true);
+            MethodHandle getter = LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+            MethodHandle setter = null;
+            if (!Modifier.isFinal(field.getModifiers())) {
+                setter = LOOKUP.unreflectSetter(field).asType(SETTER_TYPE);
+            }
+            return new MethodHandleFieldAccessor(getter, setter, reflectionAccessor);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return reflectionAccessor;
+        }
+    }
+
+    /**
+     * 创建实例创建器，非静态内部类使用外部类的无参构造器创建外部类实例
+     * @param clazz 类
+     * @return {@link InstanceCreator}
+     * @author anwen
+     */
+    public static InstanceCreator createInstanceCreator(Class<?> clazz) {
+        boolean innerClass = clazz.getEnclosingClass() != null && !Modifier.isStatic(clazz.getModifiers());
+        Constructor<?> constructor;
+        Constructor<?> enclosingConstructor = null;
+        try {
+            if (innerClass) {
+                Class<?> enclosingClass = clazz.getEnclosingClass();
+                enclosingConstructor = enclosingClass.getDeclaredConstructor();
+                constructor = clazz.getDeclaredConstructor(enclosingClass);
+            } else {
+                constructor = clazz.getDeclaredConstructor();
+            }
+        } catch (NoSuchMethodException e) {
+            throw new MongoPlusException("Failed to create " + clazz.getName(), e);
+        }
+        InstanceCreator reflectionCreator = new ReflectionInstanceCreator(clazz, constructor, enclosingConstructor);
+        if (Modifier.isAbstract(clazz.getModifiers())) {
+            return reflectionCreator;
+        }
+        if (!innerClass) {
+            InstanceCreator lambdaCreator = createLambdaCreator(clazz, constructor);
+            if (lambdaCreator != null) {
+                return lambdaCreator;
+            }
+        }
+        try {
+            constructor.setAccessible(true);
+            MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+            if (enclosingConstructor != null) {
+                enclosingConstructor.setAccessible(true);
+                handle = MethodHandles.collectArguments(handle, 0, LOOKUP.unreflectConstructor(enclosingConstructor));
+            }
+            return new MethodHandleInstanceCreator(clazz, handle.asType(CREATOR_TYPE));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return reflectionCreator;
+        }
+    }
+
+    /**
+     * 公共类的公共无参构造器生成构造器引用，类对当前类加载器不可见时不生成
+     * @author anwen
+     */
+    private static InstanceCreator createLambdaCreator(Class<?> clazz, Constructor<?> constructor) {
+        if (!Modifier.isPublic(clazz.getModifiers()) || !Modifier.isPublic(constructor.getModifiers())
+                || !isVisible(clazz)) {
+            return null;
+        }
+        try {
+            MethodHandle handle = LOOKUP.findConstructor(clazz, MethodType.methodType(void.class));
+            CallSite callSite = LambdaMetafactory.metafactory(
+                    LOOKUP,
+                    "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    handle,
+                    MethodType.methodType(clazz)
+            );
+            return new LambdaInstanceCreator(clazz, (Supplier<?>) callSite.getTarget().invoke());
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private static boolean isVisible(Class<?> clazz) {
+        try {
+            return Class.forName(clazz.getName(), false, AccessorFactory.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+}
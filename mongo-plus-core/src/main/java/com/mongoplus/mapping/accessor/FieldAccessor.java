@@ -0,0 +1,27 @@
+package com.mongoplus.mapping.accessor;
+
+/**
+ * 字段访问器，每个字段只生成一次，替代每次读写时的{@link java.lang.reflect.Field#get(Object)}和
+ * {@link java.lang.reflect.Field#set(Object, Object)}
+ *
+ * @author anwen
+ */
+public interface FieldAccessor {
+
+    /**
+     * 获取实例中的字段值
+     * @param instance 实例
+     * @return {@link java.lang.Object}
+     * @author anwen
+     */
+    Object get(Object instance);
+
+    /**
+     * 设置实例中的字段值
+     * @param instance 实例
+     * @param value 值
+     * @author anwen
+     */
+    void set(Object instance, Object value);
+
+}
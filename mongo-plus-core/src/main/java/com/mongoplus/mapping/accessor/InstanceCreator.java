@@ -0,0 +1,18 @@
+package com.mongoplus.mapping.accessor;
+
+/**
+ * 实例创建器，每个类只生成一次，替代每次创建时的{@link java.lang.reflect.Constructor#newInstance(Object...)}
+ *
+ * @author anwen
+ */
+@FunctionalInterface
+public interface InstanceCreator {
+
+    /**
+     * 创建实例
+     * @return {@link java.lang.Object}
+     * @author anwen
+     */
+    Object newInstance();
+
+}
@@ -0,0 +1,32 @@
+package com.mongoplus.mapping.accessor;
+
+import com.mongoplus.domain.MongoPlusException;
+
+import java.util.function.Supplier;
+
+/**
+ * 基于{@link java.lang.invoke.LambdaMetafactory}生成的构造器引用的实例创建器，调用与直接new一致
+ *
+ * @author anwen
+ */
+public class LambdaInstanceCreator implements InstanceCreator {
+
+    private final Class<?> clazz;
+
+    private final Supplier<?> constructor;
+
+    public LambdaInstanceCreator(Class<?> clazz, Supplier<?> constructor) {
+        this.clazz = clazz;
+        this.constructor = constructor;
+    }
+
+    @Override
+    public Object newInstance() {
+        try {
+            return constructor.get();
+        } catch (Exception e) {
+            throw new MongoPlusException("Failed to create " + clazz.getName(), e);
+        }
+    }
+
+}
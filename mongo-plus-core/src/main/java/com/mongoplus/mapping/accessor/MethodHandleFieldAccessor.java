@@ -0,0 +1,59 @@
+package com.mongoplus.mapping.accessor;
+
+import com.mongoplus.toolkit.ExceptionUtil;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * 基于{@link MethodHandle}的字段访问器
+ * <p>类型不匹配或基本类型为null时交给反射处理，保证拓宽转换和异常与{@link java.lang.reflect.Field}一致</p>
+ *
+ * @author anwen
+ */
+public class MethodHandleFieldAccessor implements FieldAccessor {
+
+    /**
+     * (Object)Object
+     */
+    private final MethodHandle getter;
+
+    /**
+     * (Object,Object)void，final字段为null
+     */
+    private final MethodHandle setter;
+
+    private final FieldAccessor reflectionAccessor;
+
+    public MethodHandleFieldAccessor(MethodHandle getter, MethodHandle setter, FieldAccessor reflectionAccessor) {
+        this.getter = getter;
+        this.setter = setter;
+        this.reflectionAccessor = reflectionAccessor;
+    }
+
+    @Override
+    public Object get(Object instance) {
+        try {
+            return (Object) getter.invokeExact(instance);
+        } catch (ClassCastException | NullPointerException e) {
+            return reflectionAccessor.get(instance);
+        } catch (Throwable e) {
+            return ExceptionUtil.rethrow(e);
+        }
+    }
+
+    @Override
+    public void set(Object instance, Object value) {
+        if (setter == null) {
+            reflectionAccessor.set(instance, value);
+            return;
+        }
+        try {
+            setter.invokeExact(instance, value);
+        } catch (ClassCastException | NullPointerException e) {
+            reflectionAccessor.set(instance, value);
+        } catch (Throwable e) {
+            ExceptionUtil.rethrow(e);
+        }
+    }
+
+}
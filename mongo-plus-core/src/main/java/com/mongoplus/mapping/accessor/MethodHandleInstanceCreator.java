@@ -0,0 +1,37 @@
+package com.mongoplus.mapping.accessor;
+
+import com.mongoplus.domain.MongoPlusException;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * 基于{@link MethodHandle}的实例创建器，非静态内部类会先创建外部类实例
+ *
+ * @author anwen
+ */
+public class MethodHandleInstanceCreator implements InstanceCreator {
+
+    private final Class<?> clazz;
+
+    /**
+     * ()Object
+     */
+    private final MethodHandle constructor;
+
+    public MethodHandleInstanceCreator(Class<?> clazz, MethodHandle constructor) {
+        this.clazz = clazz;
+        this.constructor = constructor;
+    }
+
+    @Override
+    public Object newInstance() {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new MongoPlusException("Failed to create " + clazz.getName(), e);
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.mongoplus.mapping.accessor;
+
+import com.mongoplus.domain.MongoPlusFieldException;
+
+import java.lang.reflect.Field;
+
+/**
+ * 基于反射的字段访问器，无法生成{@link java.lang.invoke.MethodHandle}时使用
+ *
+ * @author anwen
+ */
+public class ReflectionFieldAccessor implements FieldAccessor {
+
+    private final Field field;
+
+    public ReflectionFieldAccessor(Field field) {
+        this.field = field;
+    }
+
+    @Override
+    public Object get(Object instance) {
+        try {
+            return field.get(instance);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void set(Object instance, Object value) {
+        try {
+            field.set(instance, value);
+        } catch (IllegalAccessException e) {
+            throw new MongoPlusFieldException("Failed to set the " + field.getName() + " field content", e);
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.mongoplus.mapping.accessor;
+
+import com.mongoplus.domain.MongoPlusException;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * 基于反射的实例创建器，无法生成{@link java.lang.invoke.MethodHandle}时使用
+ *
+ * @author anwen
+ */
+public class ReflectionInstanceCreator implements InstanceCreator {
+
+    private final Class<?> clazz;
+
+    private final Constructor<?> constructor;
+
+    /**
+     * 非静态内部类的外部类构造器，其余为null
+     */
+    private final Constructor<?> enclosingConstructor;
+
+    public ReflectionInstanceCreator(Class<?> clazz, Constructor<?> constructor, Constructor<?> enclosingConstructor) {
+        this.clazz = clazz;
+        this.constructor = constructor;
+        this.enclosingConstructor = enclosingConstructor;
+    }
+
+    @Override
+    public Object newInstance() {
+        try {
+            if (enclosingConstructor != null) {
+                return constructor.newInstance(enclosingConstructor.newInstance());
+            }
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new MongoPlusException("Failed to create " + clazz.getName(), e);
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.mongoplus.model;
+
+/**
+ * 游标(keyset)分页参数，通过上一页返回的续查令牌定位下一页，任意页的开销与第一页相同
+ *
+ * @author anwen
+ */
+public class CursorPageParam {
+
+    /**
+     * 每页显示行数
+     */
+    private Integer pageSize;
+
+    /**
+     * 续查令牌，为null时查询第一页
+     */
+    private String after;
+
+    public CursorPageParam() {
+    }
+
+    public CursorPageParam(Integer pageSize, String after) {
+        this.pageSize = pageSize;
+        this.after = after;
+    }
+
+    /**
+     * 第一页
+     * @param pageSize 每页显示行数
+     * @return {@link CursorPageParam}
+     * @author anwen
+     */
+    public static CursorPageParam first(Integer pageSize) {
+        return new CursorPageParam(pageSize, null);
+    }
+
+    /**
+     * 续查令牌之后的一页
+     * @param after 上一页返回的{@link CursorPageResult#getNextCursor()}
+     * @param pageSize 每页显示行数
+     * @return {@link CursorPageParam}
+     * @author anwen
+     */
+    public static CursorPageParam after(String after, Integer pageSize) {
+        return new CursorPageParam(pageSize, after);
+    }
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public String getAfter() {
+        return after;
+    }
+
+    public void setAfter(String after) {
+        this.after = after;
+    }
+
+    @Override
+    public String toString() {
+        return "CursorPageParam(pageSize=" + pageSize + ", after=" + after + ")";
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.mongoplus.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 游标(keyset)分页结果
+ *
+ * @author anwen
+ */
+public class CursorPageResult<T> implements Serializable {
+
+    private static final long serialVersionUID = 2370513718367410571L;
+
+    /**
+     * 每页显示行数
+     */
+    private long pageSize;
+
+    /**
+     * 数据模型
+     */
+    private List<T> contentData;
+
+    /**
+     * 下一页的续查令牌，没有下一页时为null
+     */
+    private String nextCursor;
+
+    /**
+     * 是否有下一页
+     */
+    private boolean hasNextPage;
+
+    public CursorPageResult() {
+    }
+
+    public CursorPageResult(long pageSize, List<T> contentData, String nextCursor) {
+        this.pageSize = pageSize;
+        this.contentData = contentData;
+        this.nextCursor = nextCursor;
+        this.hasNextPage = nextCursor != null;
+    }
+
+    public long getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(long pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public List<T> getContentData() {
+        return contentData;
+    }
+
+    public void setContentData(List<T> contentData) {
+        this.contentData = contentData;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNextPage() {
+        return hasNextPage;
+    }
+
+    public void setHasNextPage(boolean hasNextPage) {
+        this.hasNextPage = hasNextPage;
+    }
+
+    @Override
+    public String toString() {
+        return "CursorPageResult(pageSize=" + pageSize + ", contentData=" + contentData + ", nextCursor="
+                + nextCursor + ", hasNextPage=" + hasNextPage + ")";
+    }
+
+}
@@ -1,18 +1,19 @@
 package com.mongoplus.proxy;
 
 import com.mongodb.client.MongoCollection;
-import com.mongoplus.cache.global.ExecutorProxyCache;
 import com.mongoplus.enums.ExecuteMethodEnum;
 import com.mongoplus.execute.Execute;
 import com.mongoplus.interceptor.InterceptorChain;
-import com.mongoplus.strategy.executor.MethodExecutorStrategy;
+import com.mongoplus.interceptor.InterceptorDispatcher;
 import com.mongoplus.toolkit.ExceptionUtil;
 import org.bson.Document;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 执行器代理
@@ -21,6 +22,11 @@ import java.util.Objects;
  **/
 public class ExecutorProxy implements InvocationHandler {
 
+    /**
+     * 代理方法对应的执行方法枚举，每个方法只解析一次
+     */
+    private static final Map<Method, Optional<ExecuteMethodEnum>> METHOD_ENUM_CACHE = new ConcurrentHashMap<>();
+
     private final Execute target;
 
     public ExecutorProxy(Execute target) {
@@ -47,15 +53,11 @@ public class ExecutorProxy implements InvocationHandler {
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
 
         // 参数替换拦截器
-        ExecuteMethodEnum executeMethodEnum = ExecuteMethodEnum.getMethod(method.getName());
-        MethodExecutorStrategy executor = ExecutorProxyCache.EXECUTOR_MAP.get(executeMethodEnum);
+        ExecuteMethodEnum executeMethodEnum = METHOD_ENUM_CACHE.computeIfAbsent(method,
+                m -> Optional.ofNullable(ExecuteMethodEnum.getMethod(m.getName()))).orElse(null);
         MongoCollection<Document> collection = (MongoCollection<Document>) args[args.length - 1];
-        if (Objects.nonNull(executor)) {
-            InterceptorChain.getInterceptors().forEach(interceptor -> {
-                interceptor.beforeExecute(executeMethodEnum, args, collection);
-                executor.invoke(interceptor, args);
-            });
-        }
+        InterceptorDispatcher dispatcher = InterceptorChain.getDispatcher().forCollection(collection);
+        dispatcher.before(executeMethodEnum, args, collection);
 
         Object invoke;
         try {
@@ -63,8 +65,7 @@ public class ExecutorProxy implements InvocationHandler {
         } catch (Throwable e) {
             throw ExceptionUtil.unwrapThrowable(e);
         }
-        InterceptorChain.getInterceptors().forEach(interceptor -> interceptor.afterExecute(executeMethodEnum,args,invoke, collection));
-        return invoke;
+        return dispatcher.after(executeMethodEnum, args, invoke, collection);
 
     }
 
@@ -0,0 +1,229 @@
+package com.mongoplus.replication;
+
+import org.bson.RawBsonDocument;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一个目标数据源的溢出日志，目标不可用时按顺序保存待复制的操作，恢复后从头重放
+ * <p>日志文件由连续的BSON文档组成，每条记录保存一次操作；偏移文件保存已重放到的位置，重放完成后清空日志</p>
+ * <p>每次追加和推进都会刷盘，进程异常退出后未完整写入的最后一条记录会被截断；
+ * 重放中断时当前记录会再次写入，所以日志提供的是至少一次的语义</p>
+ * <p>只由对应的复制线程读写，指标只读取volatile字段</p>
+ *
+ * @author anwen
+ */
+final class ReplicationJournal implements Closeable {
+
+    static final String JOURNAL_SUFFIX = ".journal";
+
+    private final FileChannel channel;
+
+    private final FileChannel offsetChannel;
+
+    private volatile long readOffset;
+
+    private volatile long writeOffset;
+
+    private volatile long headCreatedAt;
+
+    private ReplicationOperation head;
+
+    private int headLength;
+
+    ReplicationJournal(Path directory, String dataSource) throws IOException {
+        Files.createDirectories(directory);
+        String name = URLEncoder.encode(dataSource, StandardCharsets.UTF_8.name());
+        this.channel = FileChannel.open(directory.resolve(name + JOURNAL_SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.offsetChannel = FileChannel.open(directory.resolve(name + ".offset"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+    }
+
+    /**
+     * 目录中有未重放数据的日志对应的数据源
+     * @param directory 日志目录
+     * @return {@link java.util.List<java.lang.String>}
+     * @author anwen
+     */
+    static List<String> pendingDataSources(Path directory) throws IOException {
+        List<String> dataSourceList = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return dataSourceList;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + JOURNAL_SUFFIX)) {
+            for (Path path : stream) {
+                if (Files.size(path) > 0) {
+                    String fileName = path.getFileName().toString();
+                    dataSourceList.add(URLDecoder.decode(
+                            fileName.substring(0, fileName.length() - JOURNAL_SUFFIX.length()),
+                            StandardCharsets.UTF_8.name()));
+                }
+            }
+        }
+        return dataSourceList;
+    }
+
+    /**
+     * 追加一次操作并刷盘
+     * @param operation 操作
+     * @author anwen
+     */
+    void append(ReplicationOperation operation) throws IOException {
+        ByteBuffer buffer = operation.toRecord().getByteBuffer().asNIO();
+        int length = buffer.remaining();
+        long position = writeOffset;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        channel.force(false);
+        if (isEmpty()) {
+            headCreatedAt = operation.getCreatedAt();
+        }
+        writeOffset += length;
+    }
+
+    /**
+     * 最早的未重放操作，没有时为null
+     * @return {@link com.mongoplus.replication.ReplicationOperation}
+     * @author anwen
+     */
+    ReplicationOperation peek() throws IOException {
+        if (head == null && !isEmpty()) {
+            RawBsonDocument record = read(readOffset, writeOffset);
+            head = ReplicationOperation.fromRecord(record);
+            headLength = record.getByteBuffer().remaining();
+            headCreatedAt = head.getCreatedAt();
+        }
+        return head;
+    }
+
+    /**
+     * 最早的未重放操作已经写入目标，推进到下一条，全部重放后清空日志
+     * @author anwen
+     */
+    void advance() throws IOException {
+        if (head == null) {
+            return;
+        }
+        long offset = readOffset + headLength;
+        head = null;
+        if (offset >= writeOffset) {
+            channel.truncate(0);
+            channel.force(false);
+            writeOffset = 0;
+            offset = 0;
+            headCreatedAt = 0;
+        }
+        writeReadOffset(offset);
+        readOffset = offset;
+        peek();
+    }
+
+    boolean isEmpty() {
+        return readOffset >= writeOffset;
+    }
+
+    long pendingBytes() {
+        return writeOffset - readOffset;
+    }
+
+    /**
+     * 最早的未重放操作的创建时间，没有时为0
+     */
+    long getHeadCreatedAt() {
+        return isEmpty() ? 0 : headCreatedAt;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            offsetChannel.close();
+        }
+    }
+
+    /**
+     * 读取偏移，并截断最后一条不完整的记录
+     */
+    private void recover() throws IOException {
+        long offset = 0;
+        if (offsetChannel.size() >= Long.BYTES) {
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+            offsetChannel.read(buffer, 0);
+            buffer.flip();
+            offset = buffer.getLong();
+        }
+        long size = channel.size();
+        if (offset < 0 || offset > size) {
+            offset = 0;
+        }
+        long position = offset;
+        while (position < size) {
+            RawBsonDocument record = read(position, size);
+            if (record == null) {
+                break;
+            }
+            position += record.getByteBuffer().remaining();
+        }
+        if (position < size) {
+            channel.truncate(position);
+            channel.force(false);
+        }
+        readOffset = offset;
+        writeOffset = position;
+        peek();
+    }
+
+    /**
+     * 读取position处的记录，记录不完整时返回null
+     */
+    private RawBsonDocument read(long position, long limit) throws IOException {
+        if (limit - position < Integer.BYTES) {
+            return null;
+        }
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(lengthBuffer, position);
+        int length = lengthBuffer.getInt(0);
+        if (length < 5 || position + length > limit) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        readFully(buffer, position);
+        return new RawBsonDocument(buffer.array());
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of replication journal");
+            }
+        }
+    }
+
+    private void writeReadOffset(long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        buffer.putLong(offset).flip();
+        while (buffer.hasRemaining()) {
+            offsetChannel.write(buffer, buffer.position());
+        }
+        offsetChannel.force(false);
+    }
+
+}
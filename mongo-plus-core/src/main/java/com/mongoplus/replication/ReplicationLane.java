@@ -0,0 +1,456 @@
+package com.mongoplus.replication;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+import org.bson.BsonDocument;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 一个目标数据源的复制通道，由有界队列和一个复制线程组成
+ * <p>复制线程把同一集合的连续操作合并为一次有序的bulkWrite，数量达到batchSize或从第一个操作开始等待了flushInterval后写入</p>
+ * <p>连接等异常按指数退避重试，超过重试次数后写入溢出日志；日志中有数据时新的操作也写入日志，保证目标上的执行顺序与源一致。
+ * 没有启用日志时放弃这些操作并记录错误</p>
+ * <p>队列已满且等待offerTimeout后仍放不进时，启用日志的通道把操作交给溢出列表，由复制线程按顺序写入日志，之后的操作也进入溢出列表，
+ * 直到复制线程写完；没有启用日志时放弃该操作</p>
+ * <p>新增重复说明之前已经写入过，视为成功；其他单条写入错误（如校验失败）重试也不会成功，记录后跳过</p>
+ *
+ * @author anwen
+ */
+final class ReplicationLane {
+
+    private static final Log log = LogFactory.getLog(ReplicationLane.class);
+
+    private static final BulkWriteOptions ORDERED = new BulkWriteOptions().ordered(true);
+
+    private final String dataSource;
+
+    private final ReplicationOptions options;
+
+    private final Function<String, MongoCollection<BsonDocument>> collectionResolver;
+
+    private final BlockingQueue<ReplicationOperation> queue;
+
+    /**
+     * 队列已满时交给复制线程写入日志的操作，只在启用日志时使用
+     */
+    private final Deque<ReplicationOperation> overflow = new ArrayDeque<>();
+
+    private volatile boolean overflowing;
+
+    private final ReplicationJournal journal;
+
+    private final Thread thread;
+
+    private final LongAdder enqueuedCount = new LongAdder();
+
+    private final LongAdder replicatedCount = new LongAdder();
+
+    private final LongAdder retryCount = new LongAdder();
+
+    private final LongAdder failedCount = new LongAdder();
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private final LongAdder spilledCount = new LongAdder();
+
+    private volatile Throwable lastFailure;
+
+    private volatile long inflightCreatedAt;
+
+    private volatile boolean running = true;
+
+    /**
+     * 合并时放不进当前批次的操作，作为下一批的第一个
+     */
+    private ReplicationOperation carry;
+
+    /**
+     * 当前批次已经处理到的位置
+     */
+    private int position;
+
+    private long nextReplayAt;
+
+    /**
+     * @param dataSource 目标数据源
+     * @param options 参数
+     * @param collectionResolver 根据命名空间获取目标集合
+     */
+    ReplicationLane(String dataSource, ReplicationOptions options,
+                    Function<String, MongoCollection<BsonDocument>> collectionResolver) throws IOException {
+        this.dataSource = dataSource;
+        this.options = options;
+        this.collectionResolver = collectionResolver;
+        this.queue = new ArrayBlockingQueue<>(options.getQueueCapacity());
+        this.journal = options.getJournalDirectory() == null ? null
+                : new ReplicationJournal(Paths.get(options.getJournalDirectory()), dataSource);
+        this.thread = new Thread(this::run, "mongo-plus-replication-" + dataSource);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * 放入队列，队列已满时最多等待offerTimeout，仍放不进时启用日志的通道交给复制线程写入日志
+     * @param operation 操作
+     * @return {@link boolean} 是否放入队列或溢出列表
+     * @author anwen
+     */
+    boolean offer(ReplicationOperation operation) {
+        boolean offered = false;
+        if (running) {
+            try {
+                offered = !overflowing && queue.offer(operation, options.getOfferTimeout(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!offered && journal != null) {
+                synchronized (overflow) {
+                    overflow.addLast(operation);
+                    overflowing = true;
+                }
+                offered = true;
+            }
+        }
+        if (offered) {
+            enqueuedCount.increment();
+        } else {
+            droppedCount.add(operation.size());
+            log.error("Replication queue of data source " + dataSource + " is full or closed, dropped "
+                    + operation.size() + " write models of " + operation.getNamespace());
+        }
+        return offered;
+    }
+
+    ReplicationMetrics getMetrics() {
+        long now = System.currentTimeMillis();
+        long oldest = 0;
+        if (journal != null) {
+            oldest = journal.getHeadCreatedAt();
+        }
+        long inflight = inflightCreatedAt;
+        if (oldest == 0 || (inflight != 0 && inflight < oldest)) {
+            oldest = inflight;
+        }
+        if (oldest == 0) {
+            ReplicationOperation queued = queue.peek();
+            oldest = queued == null ? 0 : queued.getCreatedAt();
+        }
+        int overflowSize;
+        synchronized (overflow) {
+            overflowSize = overflow.size();
+        }
+        return new ReplicationMetrics(
+                dataSource,
+                queue.size() + overflowSize,
+                enqueuedCount.sum(),
+                replicatedCount.sum(),
+                retryCount.sum(),
+                failedCount.sum(),
+                droppedCount.sum(),
+                spilledCount.sum(),
+                journal == null ? 0 : journal.pendingBytes(),
+                oldest == 0 ? 0 : Math.max(now - oldest, 0),
+                lastFailure
+        );
+    }
+
+    /**
+     * 停止接收新操作，写出队列中剩余的操作，最多等待timeout毫秒，超时后中断复制线程，未写出的操作写入日志或放弃
+     * @param timeout 等待时间（毫秒）
+     * @author anwen
+     */
+    void close(long timeout) {
+        running = false;
+        try {
+            thread.join(timeout);
+            if (thread.isAlive()) {
+                thread.interrupt();
+                thread.join(timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (running || carry != null || !queue.isEmpty()) {
+                try {
+                    if (overflowing) {
+                        spillOverflow();
+                    }
+                    if (journal != null && !journal.isEmpty()) {
+                        replayJournal();
+                    } else {
+                        flushBatch();
+                    }
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        break;
+                    }
+                } catch (RuntimeException e) {
+                    lastFailure = e;
+                    log.error("Replication to data source " + dataSource + " failed", e);
+                }
+            }
+        } finally {
+            drainRemaining();
+            closeJournal();
+        }
+    }
+
+    /**
+     * 合并同一集合的连续操作并写入
+     */
+    private void flushBatch() throws InterruptedException {
+        ReplicationOperation first = carry != null ? carry : queue.poll(options.getFlushInterval(), TimeUnit.MILLISECONDS);
+        carry = null;
+        if (first == null) {
+            return;
+        }
+        List<BsonDocument> batch = new ArrayList<>(first.getModels());
+        long deadline = System.currentTimeMillis() + options.getFlushInterval();
+        while (batch.size() < options.getBatchSize()) {
+            long remaining = deadline - System.currentTimeMillis();
+            ReplicationOperation next;
+            try {
+                next = remaining > 0 ? queue.poll(remaining, TimeUnit.MILLISECONDS) : queue.poll();
+            } catch (InterruptedException e) {
+                // 关闭时被中断，已取出的操作仍然写入
+                break;
+            }
+            if (next == null) {
+                break;
+            }
+            if (!next.getNamespace().equals(first.getNamespace())
+                    || batch.size() + next.size() > options.getBatchSize()) {
+                carry = next;
+                break;
+            }
+            batch.addAll(next.getModels());
+        }
+        write(first.getNamespace(), batch, first.getCreatedAt());
+    }
+
+    /**
+     * 写入一批，连接等异常按指数退避重试，超过重试次数后写入日志
+     */
+    private void write(String namespace, List<BsonDocument> batch, long createdAt) throws InterruptedException {
+        inflightCreatedAt = createdAt;
+        position = 0;
+        try {
+            long backoff = options.getInitialBackoff();
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    apply(namespace, batch);
+                    return;
+                } catch (MongoException e) {
+                    lastFailure = e;
+                    if (attempt >= options.getMaxRetries() || !running) {
+                        log.error("Replication to data source " + dataSource + " failed after " + attempt
+                                + " retries: " + e.getMessage());
+                        spill(namespace, batch.subList(position, batch.size()), createdAt);
+                        return;
+                    }
+                    retryCount.increment();
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(backoff);
+                    } catch (InterruptedException interrupted) {
+                        spill(namespace, batch.subList(position, batch.size()), createdAt);
+                        throw interrupted;
+                    }
+                    backoff = Math.min(backoff * 2, options.getMaxBackoff());
+                } catch (RuntimeException e) {
+                    reject(namespace, batch.size() - position, e);
+                    return;
+                }
+            }
+        } finally {
+            inflightCreatedAt = 0;
+            position = 0;
+        }
+    }
+
+    /**
+     * 目标恢复前每隔maxBackoff尝试重放一次，期间新的操作直接追加到日志后面
+     */
+    private void replayJournal() throws InterruptedException {
+        drainRemaining();
+        long wait = nextReplayAt - System.currentTimeMillis();
+        if (wait > 0) {
+            ReplicationOperation operation = queue.poll(Math.min(wait, options.getFlushInterval()), TimeUnit.MILLISECONDS);
+            if (operation != null) {
+                spill(operation.getNamespace(), operation.getModels(), operation.getCreatedAt());
+            }
+            return;
+        }
+        try {
+            ReplicationOperation head;
+            while (running && (head = journal.peek()) != null) {
+                try {
+                    apply(head.getNamespace(), head.getModels());
+                } catch (MongoException e) {
+                    lastFailure = e;
+                    retryCount.increment();
+                    nextReplayAt = System.currentTimeMillis() + options.getMaxBackoff();
+                    return;
+                } catch (RuntimeException e) {
+                    reject(head.getNamespace(), head.size() - position, e);
+                }
+                journal.advance();
+                position = 0;
+                drainRemaining();
+            }
+            if (journal.isEmpty()) {
+                log.info("Replication journal of data source " + dataSource + " has been replayed");
+            }
+        } catch (IOException e) {
+            lastFailure = e;
+            log.error("Read replication journal of data source " + dataSource + " failed", e);
+            nextReplayAt = System.currentTimeMillis() + options.getMaxBackoff();
+        }
+    }
+
+    /**
+     * 从position开始有序写入，单条写入错误记录后跳过，连接等异常抛出，position为已处理的位置
+     */
+    private void apply(String namespace, List<BsonDocument> models) {
+        MongoCollection<BsonDocument> collection = collectionResolver.apply(namespace);
+        while (position < models.size()) {
+            List<BsonDocument> pending = models.subList(position, models.size());
+            List<WriteModel<BsonDocument>> writeModelList = new ArrayList<>(pending.size());
+            for (BsonDocument model : pending) {
+                writeModelList.add(ReplicationOperation.decode(model));
+            }
+            try {
+                collection.bulkWrite(writeModelList, ORDERED);
+                replicatedCount.add(pending.size());
+                position = models.size();
+            } catch (MongoBulkWriteException e) {
+                if (e.getWriteErrors().isEmpty()) {
+                    log.warn("Replication to data source " + dataSource + " got write concern error: "
+                            + e.getWriteConcernError());
+                    replicatedCount.add(pending.size());
+                    position = models.size();
+                    return;
+                }
+                BulkWriteError error = e.getWriteErrors().get(0);
+                replicatedCount.add(error.getIndex());
+                if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY
+                        && ReplicationOperation.isInsert(pending.get(error.getIndex()))) {
+                    replicatedCount.increment();
+                } else {
+                    failedCount.increment();
+                    lastFailure = e;
+                    log.error("Replication to data source " + dataSource + " rejected a write model of "
+                            + namespace + ": " + error.getMessage());
+                }
+                position += error.getIndex() + 1;
+            }
+        }
+    }
+
+    /**
+     * 目标集合无法获取等不能通过重试解决的异常，放弃这些写入模型
+     */
+    private void reject(String namespace, int count, RuntimeException e) {
+        failedCount.add(count);
+        lastFailure = e;
+        log.error("Replication of " + count + " write models of " + namespace + " to data source "
+                + dataSource + " failed", e);
+    }
+
+    /**
+     * 写入溢出日志，没有启用日志时放弃
+     */
+    private void spill(String namespace, List<BsonDocument> models, long createdAt) {
+        if (models.isEmpty()) {
+            return;
+        }
+        if (journal != null) {
+            try {
+                boolean empty = journal.isEmpty();
+                journal.append(new ReplicationOperation(namespace, createdAt, new ArrayList<>(models)));
+                spilledCount.add(models.size());
+                if (empty) {
+                    nextReplayAt = System.currentTimeMillis() + options.getMaxBackoff();
+                    log.warn("Data source " + dataSource + " is unavailable, replication is spilled to the journal");
+                }
+                return;
+            } catch (IOException e) {
+                lastFailure = e;
+                log.error("Write replication journal of data source " + dataSource + " failed", e);
+            }
+        }
+        droppedCount.add(models.size());
+        log.error("Dropped " + models.size() + " write models of " + namespace
+                + " that could not be replicated to data source " + dataSource);
+    }
+
+    /**
+     * 队列溢出时目标不一定不可用，写入日志后立即开始重放
+     */
+    private void spillOverflow() {
+        boolean empty = journal.isEmpty();
+        drainRemaining();
+        if (empty) {
+            nextReplayAt = 0;
+        }
+    }
+
+    /**
+     * 按顺序把未写出的批次、队列和溢出列表写入日志，溢出列表写完后新的操作重新进入队列
+     */
+    private void drainRemaining() {
+        if (carry != null) {
+            spill(carry.getNamespace(), carry.getModels(), carry.getCreatedAt());
+            carry = null;
+        }
+        List<ReplicationOperation> queued = new ArrayList<>();
+        queue.drainTo(queued);
+        for (ReplicationOperation operation : queued) {
+            spill(operation.getNamespace(), operation.getModels(), operation.getCreatedAt());
+        }
+        while (overflowing) {
+            ReplicationOperation operation;
+            synchronized (overflow) {
+                operation = overflow.pollFirst();
+                if (operation == null) {
+                    overflowing = false;
+                    break;
+                }
+            }
+            spill(operation.getNamespace(), operation.getModels(), operation.getCreatedAt());
+        }
+    }
+
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Close replication journal of data source " + dataSource + " failed: " + e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.mongoplus.replication;
+
+/**
+ * 一个目标数据源的复制指标快照
+ *
+ * @author anwen
+ */
+public final class ReplicationMetrics {
+
+    private final String dataSource;
+
+    private final int queueDepth;
+
+    private final long enqueuedCount;
+
+    private final long replicatedCount;
+
+    private final long retryCount;
+
+    private final long failedCount;
+
+    private final long droppedCount;
+
+    private final long spilledCount;
+
+    private final long journalBytes;
+
+    private final long lagMillis;
+
+    private final Throwable lastFailure;
+
+    public ReplicationMetrics(String dataSource, int queueDepth, long enqueuedCount, long replicatedCount,
+                              long retryCount, long failedCount, long droppedCount, long spilledCount,
+                              long journalBytes, long lagMillis, Throwable lastFailure) {
+        this.dataSource = dataSource;
+        this.queueDepth = queueDepth;
+        this.enqueuedCount = enqueuedCount;
+        this.replicatedCount = replicatedCount;
+        this.retryCount = retryCount;
+        this.failedCount = failedCount;
+        this.droppedCount = droppedCount;
+        this.spilledCount = spilledCount;
+        this.journalBytes = journalBytes;
+        this.lagMillis = lagMillis;
+        this.lastFailure = lastFailure;
+    }
+
+    /**
+     * 目标数据源
+     */
+    public String getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * 队列中等待复制的操作数
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * 进入队列的操作数
+     */
+    public long getEnqueuedCount() {
+        return enqueuedCount;
+    }
+
+    /**
+     * 写入目标的写入模型数
+     */
+    public long getReplicatedCount() {
+        return replicatedCount;
+    }
+
+    /**
+     * 重试次数
+     */
+    public long getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * 目标拒绝（如校验失败）后放弃的写入模型数
+     */
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * 队列已满或目标不可用且没有溢出日志时放弃的写入模型数
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * 写入溢出日志的写入模型数
+     */
+    public long getSpilledCount() {
+        return spilledCount;
+    }
+
+    /**
+     * 溢出日志中等待重放的字节数
+     */
+    public long getJournalBytes() {
+        return journalBytes;
+    }
+
+    /**
+     * 最早的未复制操作已经等待的时间（毫秒），没有时为0
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    /**
+     * 最近一次写入失败的异常
+     */
+    public Throwable getLastFailure() {
+        return lastFailure;
+    }
+
+    @Override
+    public String toString() {
+        return "ReplicationMetrics{" +
+                "dataSource='" + dataSource + '\'' +
+                ", queueDepth=" + queueDepth +
+                ", enqueuedCount=" + enqueuedCount +
+                ", replicatedCount=" + replicatedCount +
+                ", retryCount=" + retryCount +
+                ", failedCount=" + failedCount +
+                ", droppedCount=" + droppedCount +
+                ", spilledCount=" + spilledCount +
+                ", journalBytes=" + journalBytes +
+                ", lagMillis=" + lagMillis +
+                ", lastFailure=" + lastFailure +
+                '}';
+    }
+
+}
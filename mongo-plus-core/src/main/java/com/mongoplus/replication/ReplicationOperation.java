@@ -0,0 +1,303 @@
+package com.mongoplus.replication;
+
+import com.mongodb.client.model.Collation;
+import com.mongodb.client.model.CollationAlternate;
+import com.mongodb.client.model.CollationCaseFirst;
+import com.mongodb.client.model.CollationMaxVariable;
+import com.mongodb.client.model.CollationStrength;
+import com.mongodb.client.model.DeleteManyModel;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.DeleteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongoplus.bson.MongoPlusBasicDBObject;
+import com.mongoplus.domain.MongoPlusException;
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一次需要复制的写操作，写入模型在业务线程中编码为不可变的BSON，之后不受原文档修改的影响，也可以直接写入溢出日志
+ * <p>溢出日志只保存upsert、arrayFilters和排序规则（选项中的或条件上like改写需要的），hint等参数不保存</p>
+ *
+ * @author anwen
+ */
+final class ReplicationOperation {
+
+    private static final String OP = "op";
+
+    private static final String FILTER = "filter";
+
+    private static final String DOCUMENT = "document";
+
+    private static final String UPDATE = "update";
+
+    private static final String UPSERT = "upsert";
+
+    private static final String ARRAY_FILTERS = "arrayFilters";
+
+    private static final String COLLATION = "collation";
+
+    private static final String NAMESPACE = "ns";
+
+    private static final String CREATED_AT = "t";
+
+    private static final String MODELS = "m";
+
+    private static final BsonDocumentCodec BSON_DOCUMENT_CODEC = new BsonDocumentCodec();
+
+    private final String namespace;
+
+    private final long createdAt;
+
+    private final List<BsonDocument> models;
+
+    ReplicationOperation(String namespace, long createdAt, List<BsonDocument> models) {
+        this.namespace = namespace;
+        this.createdAt = createdAt;
+        this.models = models;
+    }
+
+    /**
+     * 编码写入模型
+     * @param namespace 命名空间
+     * @param writeModelList 写入模型
+     * @param codecRegistry 编码使用的注册表
+     * @return {@link com.mongoplus.replication.ReplicationOperation}
+     * @author anwen
+     */
+    static ReplicationOperation of(String namespace, List<? extends WriteModel<? extends Document>> writeModelList,
+                                   CodecRegistry codecRegistry) {
+        List<BsonDocument> models = new ArrayList<>(writeModelList.size());
+        for (WriteModel<? extends Document> writeModel : writeModelList) {
+            models.add(encode(writeModel, codecRegistry));
+        }
+        return new ReplicationOperation(namespace, System.currentTimeMillis(), models);
+    }
+
+    String getNamespace() {
+        return namespace;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    List<BsonDocument> getModels() {
+        return models;
+    }
+
+    int size() {
+        return models.size();
+    }
+
+    /**
+     * 日志记录
+     */
+    RawBsonDocument toRecord() {
+        return new RawBsonDocument(new BsonDocument(NAMESPACE, new BsonString(namespace))
+                .append(CREATED_AT, new BsonInt64(createdAt))
+                .append(MODELS, new BsonArray(models)), BSON_DOCUMENT_CODEC);
+    }
+
+    static ReplicationOperation fromRecord(BsonDocument record) {
+        List<BsonDocument> models = new ArrayList<>();
+        for (BsonValue model : record.getArray(MODELS)) {
+            models.add(model.asDocument());
+        }
+        return new ReplicationOperation(record.getString(NAMESPACE).getValue(),
+                record.getInt64(CREATED_AT).getValue(), models);
+    }
+
+    /**
+     * 是否为新增，新增重复时说明已经写入过
+     */
+    static boolean isInsert(BsonDocument model) {
+        return "insertOne".equals(model.getString(OP).getValue());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static BsonDocument encode(WriteModel<? extends Document> writeModel, CodecRegistry codecRegistry) {
+        if (writeModel instanceof InsertOneModel) {
+            Document document = ((InsertOneModel<? extends Document>) writeModel).getDocument();
+            return new BsonDocument(OP, new BsonString("insertOne"))
+                    .append(DOCUMENT, new RawBsonDocument(document, (Codec) codecRegistry.get(document.getClass())));
+        }
+        if (writeModel instanceof UpdateOneModel) {
+            UpdateOneModel<?> model = (UpdateOneModel<?>) writeModel;
+            return encodeUpdate("updateOne", model.getFilter(), model.getUpdate(), model.getUpdatePipeline(),
+                    model.getOptions(), codecRegistry);
+        }
+        if (writeModel instanceof UpdateManyModel) {
+            UpdateManyModel<?> model = (UpdateManyModel<?>) writeModel;
+            return encodeUpdate("updateMany", model.getFilter(), model.getUpdate(), model.getUpdatePipeline(),
+                    model.getOptions(), codecRegistry);
+        }
+        if (writeModel instanceof ReplaceOneModel) {
+            ReplaceOneModel<? extends Document> model = (ReplaceOneModel<? extends Document>) writeModel;
+            Document replacement = model.getReplacement();
+            return withCollation(new BsonDocument(OP, new BsonString("replaceOne"))
+                    .append(FILTER, snapshot(model.getFilter(), codecRegistry))
+                    .append(DOCUMENT, new RawBsonDocument(replacement, (Codec) codecRegistry.get(replacement.getClass())))
+                    .append(UPSERT, BsonBoolean.valueOf(model.getReplaceOptions().isUpsert())),
+                    model.getFilter(), model.getReplaceOptions().getCollation());
+        }
+        if (writeModel instanceof DeleteOneModel) {
+            DeleteOneModel<?> model = (DeleteOneModel<?>) writeModel;
+            return withCollation(new BsonDocument(OP, new BsonString("deleteOne"))
+                    .append(FILTER, snapshot(model.getFilter(), codecRegistry)),
+                    model.getFilter(), model.getOptions().getCollation());
+        }
+        if (writeModel instanceof DeleteManyModel) {
+            DeleteManyModel<?> model = (DeleteManyModel<?>) writeModel;
+            return withCollation(new BsonDocument(OP, new BsonString("deleteMany"))
+                    .append(FILTER, snapshot(model.getFilter(), codecRegistry)),
+                    model.getFilter(), model.getOptions().getCollation());
+        }
+        throw new MongoPlusException("Unsupported write model for replication: " + writeModel.getClass().getName());
+    }
+
+    private static BsonDocument encodeUpdate(String op, Bson filter, Bson update, List<? extends Bson> updatePipeline,
+                                             UpdateOptions options, CodecRegistry codecRegistry) {
+        BsonDocument model = new BsonDocument(OP, new BsonString(op))
+                .append(FILTER, snapshot(filter, codecRegistry));
+        if (update != null) {
+            model.append(UPDATE, snapshot(update, codecRegistry));
+        } else {
+            model.append(UPDATE, snapshot(updatePipeline, codecRegistry));
+        }
+        model.append(UPSERT, BsonBoolean.valueOf(options.isUpsert()));
+        if (options.getArrayFilters() != null) {
+            model.append(ARRAY_FILTERS, snapshot(options.getArrayFilters(), codecRegistry));
+        }
+        return withCollation(model, filter, options.getCollation());
+    }
+
+    /**
+     * 保存选项中的排序规则，没有时保存条件上like改写需要的排序规则
+     */
+    private static BsonDocument withCollation(BsonDocument model, Bson filter, Collation collation) {
+        Collation value = collation != null ? collation : MongoPlusBasicDBObject.getCollation(filter);
+        if (value != null) {
+            model.append(COLLATION, value.asDocument());
+        }
+        return model;
+    }
+
+    private static Collation toCollation(BsonDocument model) {
+        BsonDocument document = model.getDocument(COLLATION, null);
+        if (document == null) {
+            return null;
+        }
+        Collation.Builder builder = Collation.builder();
+        if (document.containsKey("locale")) {
+            builder.locale(document.getString("locale").getValue());
+        }
+        if (document.containsKey("caseLevel")) {
+            builder.caseLevel(document.getBoolean("caseLevel").getValue());
+        }
+        if (document.containsKey("caseFirst")) {
+            builder.collationCaseFirst(CollationCaseFirst.fromString(document.getString("caseFirst").getValue()));
+        }
+        if (document.containsKey("strength")) {
+            builder.collationStrength(CollationStrength.fromInt(document.getInt32("strength").getValue()));
+        }
+        if (document.containsKey("numericOrdering")) {
+            builder.numericOrdering(document.getBoolean("numericOrdering").getValue());
+        }
+        if (document.containsKey("alternate")) {
+            builder.collationAlternate(CollationAlternate.fromString(document.getString("alternate").getValue()));
+        }
+        if (document.containsKey("maxVariable")) {
+            builder.collationMaxVariable(CollationMaxVariable.fromString(document.getString("maxVariable").getValue()));
+        }
+        if (document.containsKey("normalization")) {
+            builder.normalization(document.getBoolean("normalization").getValue());
+        }
+        if (document.containsKey("backwards")) {
+            builder.backwards(document.getBoolean("backwards").getValue());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 解码为目标集合的写入模型
+     * @param model 编码的写入模型
+     * @return {@link com.mongodb.client.model.WriteModel}
+     * @author anwen
+     */
+    static WriteModel<BsonDocument> decode(BsonDocument model) {
+        String op = model.getString(OP).getValue();
+        switch (op) {
+            case "insertOne":
+                return new InsertOneModel<>(model.getDocument(DOCUMENT));
+            case "updateOne":
+            case "updateMany":
+                return decodeUpdate(op, model);
+            case "replaceOne":
+                return new ReplaceOneModel<>(model.getDocument(FILTER), model.getDocument(DOCUMENT),
+                        new ReplaceOptions().upsert(model.getBoolean(UPSERT).getValue()).collation(toCollation(model)));
+            case "deleteOne":
+                return new DeleteOneModel<>(model.getDocument(FILTER), new DeleteOptions().collation(toCollation(model)));
+            case "deleteMany":
+                return new DeleteManyModel<>(model.getDocument(FILTER), new DeleteOptions().collation(toCollation(model)));
+            default:
+                throw new MongoPlusException("Unsupported write model for replication: " + op);
+        }
+    }
+
+    private static WriteModel<BsonDocument> decodeUpdate(String op, BsonDocument model) {
+        UpdateOptions options = new UpdateOptions().upsert(model.getBoolean(UPSERT).getValue())
+                .collation(toCollation(model));
+        if (model.containsKey(ARRAY_FILTERS)) {
+            options.arrayFilters(toDocumentList(model.getArray(ARRAY_FILTERS)));
+        }
+        BsonDocument filter = model.getDocument(FILTER);
+        BsonValue update = model.get(UPDATE);
+        boolean one = "updateOne".equals(op);
+        if (update.isArray()) {
+            List<BsonDocument> pipeline = toDocumentList(update.asArray());
+            return one ? new UpdateOneModel<>(filter, pipeline, options) : new UpdateManyModel<>(filter, pipeline, options);
+        }
+        return one ? new UpdateOneModel<>(filter, update.asDocument(), options)
+                : new UpdateManyModel<>(filter, update.asDocument(), options);
+    }
+
+    private static BsonDocument snapshot(Bson bson, CodecRegistry codecRegistry) {
+        return new RawBsonDocument(bson.toBsonDocument(BsonDocument.class, codecRegistry), BSON_DOCUMENT_CODEC);
+    }
+
+    private static BsonArray snapshot(List<? extends Bson> bsonList, CodecRegistry codecRegistry) {
+        BsonArray array = new BsonArray();
+        for (Bson bson : bsonList) {
+            array.add(snapshot(bson, codecRegistry));
+        }
+        return array;
+    }
+
+    private static List<BsonDocument> toDocumentList(BsonArray array) {
+        List<BsonDocument> documentList = new ArrayList<>(array.size());
+        for (BsonValue value : array) {
+            documentList.add(value.asDocument());
+        }
+        return documentList;
+    }
+
+}
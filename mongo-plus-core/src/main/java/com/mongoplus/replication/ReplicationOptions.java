@@ -0,0 +1,129 @@
+package com.mongoplus.replication;
+
+/**
+ * 复制管道参数，每个目标数据源使用同样的参数
+ *
+ * @author anwen
+ */
+public class ReplicationOptions {
+
+    /**
+     * 每个目标数据源的队列容量（操作数）
+     */
+    private Integer queueCapacity = 10000;
+
+    /**
+     * 队列已满时业务线程的最长等待时间（毫秒），超时后该操作不再复制并计入丢弃数量
+     */
+    private Long offerTimeout = 1000L;
+
+    /**
+     * 每批bulkWrite的最大写入模型数量
+     */
+    private Integer batchSize = 500;
+
+    /**
+     * 一批从第一个操作开始的最长等待时间（毫秒），到达后即使数量不足也写入
+     */
+    private Long flushInterval = 100L;
+
+    /**
+     * 写入失败的最大重试次数
+     */
+    private Integer maxRetries = 5;
+
+    /**
+     * 第一次重试的等待时间（毫秒），之后每次翻倍
+     */
+    private Long initialBackoff = 100L;
+
+    /**
+     * 重试的最长等待时间（毫秒），也是目标不可用时重放日志的间隔
+     */
+    private Long maxBackoff = 10000L;
+
+    /**
+     * 溢出日志目录，为null时不启用；启用后目标不可用时操作写入本地日志，目标恢复后按顺序重放
+     */
+    private String journalDirectory;
+
+    public ReplicationOptions() {
+    }
+
+    /**
+     * 启用溢出日志的参数
+     * @param journalDirectory 日志目录
+     * @return {@link com.mongoplus.replication.ReplicationOptions}
+     * @author anwen
+     */
+    public static ReplicationOptions journal(String journalDirectory) {
+        ReplicationOptions options = new ReplicationOptions();
+        options.setJournalDirectory(journalDirectory);
+        return options;
+    }
+
+    public Integer getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(Integer queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Long getOfferTimeout() {
+        return offerTimeout;
+    }
+
+    public void setOfferTimeout(Long offerTimeout) {
+        this.offerTimeout = offerTimeout;
+    }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Long getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Integer getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(Integer maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public Long getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Long initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Long getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Long maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public String getJournalDirectory() {
+        return journalDirectory;
+    }
+
+    public void setJournalDirectory(String journalDirectory) {
+        this.journalDirectory = journalDirectory;
+    }
+
+}
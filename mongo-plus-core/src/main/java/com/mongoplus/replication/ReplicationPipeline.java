@@ -0,0 +1,152 @@
+package com.mongoplus.replication;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.WriteModel;
+import com.mongoplus.domain.MongoPlusException;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 把源数据源上已经成功的写操作异步复制到其他数据源
+ * <p>每个目标数据源一个有界队列和一个复制线程，业务线程只负责把写入模型编码后放入队列，不会执行目标上的写入；
+ * 合并、重试、溢出日志见{@link ReplicationLane}</p>
+ * <p>复制是最终一致的，同一目标上的执行顺序与提交顺序一致，不同目标之间互不影响</p>
+ * <p>启用溢出日志时，创建时会为日志目录中有未重放数据的目标打开复制通道并开始重放</p>
+ *
+ * @author anwen
+ */
+public class ReplicationPipeline implements AutoCloseable {
+
+    private final ReplicationOptions options;
+
+    private final BiFunction<String, MongoNamespace, MongoCollection<Document>> collectionResolver;
+
+    private final Map<String, ReplicationLane> laneMap = new ConcurrentHashMap<>();
+
+    private volatile boolean closed;
+
+    /**
+     * @param options 参数
+     * @param collectionResolver 根据目标数据源和命名空间获取目标集合
+     */
+    public ReplicationPipeline(ReplicationOptions options,
+                               BiFunction<String, MongoNamespace, MongoCollection<Document>> collectionResolver) {
+        this.options = options;
+        this.collectionResolver = collectionResolver;
+        openPendingJournals();
+    }
+
+    /**
+     * 提交一次写操作，写入模型在当前线程编码，之后修改原文档不影响复制
+     * @param dataSources 目标数据源
+     * @param namespace 命名空间
+     * @param writeModelList 写入模型
+     * @param codecRegistry 编码写入模型使用的注册表
+     * @return {@link boolean} 是否所有目标都已放入队列
+     * @author anwen
+     */
+    public boolean submit(Collection<String> dataSources, MongoNamespace namespace,
+                          List<? extends WriteModel<? extends Document>> writeModelList, CodecRegistry codecRegistry) {
+        return prepare(dataSources, namespace, writeModelList, codecRegistry).getAsBoolean();
+    }
+
+    /**
+     * 在当前线程编码写入模型，返回的提交操作可以稍后执行，如事务提交后
+     * @param dataSources 目标数据源
+     * @param namespace 命名空间
+     * @param writeModelList 写入模型
+     * @param codecRegistry 编码写入模型使用的注册表
+     * @return {@link java.util.function.BooleanSupplier} 提交操作，返回是否所有目标都已放入队列
+     * @author anwen
+     */
+    public BooleanSupplier prepare(Collection<String> dataSources, MongoNamespace namespace,
+                                   List<? extends WriteModel<? extends Document>> writeModelList,
+                                   CodecRegistry codecRegistry) {
+        if (dataSources.isEmpty() || writeModelList.isEmpty()) {
+            return () -> true;
+        }
+        ReplicationOperation operation = ReplicationOperation.of(namespace.getFullName(), writeModelList, codecRegistry);
+        List<String> dataSourceList = new ArrayList<>(dataSources);
+        return () -> {
+            if (closed) {
+                throw new MongoPlusException("Replication pipeline has been closed");
+            }
+            boolean offered = true;
+            for (String dataSource : dataSourceList) {
+                offered &= getLane(dataSource).offer(operation);
+            }
+            return offered;
+        };
+    }
+
+    /**
+     * 所有目标数据源的复制指标
+     * @return {@link java.util.List<com.mongoplus.replication.ReplicationMetrics>}
+     * @author anwen
+     */
+    public List<ReplicationMetrics> getMetrics() {
+        List<ReplicationMetrics> metricsList = new ArrayList<>(laneMap.size());
+        laneMap.values().forEach(lane -> metricsList.add(lane.getMetrics()));
+        return metricsList;
+    }
+
+    /**
+     * 一个目标数据源的复制指标，还没有复制过时为null
+     * @param dataSource 目标数据源
+     * @return {@link com.mongoplus.replication.ReplicationMetrics}
+     * @author anwen
+     */
+    public ReplicationMetrics getMetrics(String dataSource) {
+        ReplicationLane lane = laneMap.get(dataSource);
+        return lane == null ? null : lane.getMetrics();
+    }
+
+    /**
+     * 停止接收新操作，写出队列中剩余的操作，每个目标最多等待maxBackoff，未写出的操作写入日志或放弃
+     * @author anwen
+     */
+    @Override
+    public void close() {
+        closed = true;
+        laneMap.values().forEach(lane -> lane.close(options.getMaxBackoff()));
+    }
+
+    /**
+     * 启动时为有未重放日志的目标创建复制通道，不需要等到有新的写操作
+     */
+    private void openPendingJournals() {
+        if (options.getJournalDirectory() == null) {
+            return;
+        }
+        try {
+            ReplicationJournal.pendingDataSources(Paths.get(options.getJournalDirectory())).forEach(this::getLane);
+        } catch (IOException e) {
+            throw new MongoPlusException("Open replication journals in " + options.getJournalDirectory() + " failed", e);
+        }
+    }
+
+    private ReplicationLane getLane(String dataSource) {
+        return laneMap.computeIfAbsent(dataSource, ds -> {
+            try {
+                return new ReplicationLane(ds, options, namespace -> collectionResolver
+                        .apply(ds, new MongoNamespace(namespace))
+                        .withDocumentClass(BsonDocument.class));
+            } catch (IOException e) {
+                throw new MongoPlusException("Open replication journal of data source " + ds + " failed", e);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,207 @@
+package com.mongoplus.support;
+
+import com.mongoplus.annotation.ID;
+import com.mongoplus.annotation.collection.CollectionField;
+import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.constant.SqlOperationConstant;
+import com.mongoplus.toolkit.StringUtils;
+
+import java.lang.invoke.SerializedLambda;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * lambda引用的字段信息，根据实现类和方法名解析一次，由{@link com.mongoplus.cache.global.LambdaColumnCache}缓存
+ * <p>解析结果与{@link SFunction}原有的逐次反射解析一致</p>
+ *
+ * @author anwen
+ */
+public class LambdaColumn {
+
+    private final Class<?> implClass;
+
+    private final String implMethodName;
+
+    /**
+     * 去掉get前缀并首字母小写的属性名
+     */
+    private final String propertyName;
+
+    /**
+     * 去掉方法名前三位的字段名，方法名不足三位时为null
+     */
+    private final String fieldName;
+
+    private final Field field;
+
+    /**
+     * 字段不存在时的异常，使用字段时抛出
+     */
+    private final RuntimeException fieldException;
+
+    private final CollectionField collectionField;
+
+    private final ID id;
+
+    private volatile Class<?> returnType;
+
+    /**
+     * 默认的字段名，和生成时的驼峰转下划线配置
+     */
+    private volatile String columnName;
+
+    private volatile boolean columnCamelToUnderline;
+
+    private LambdaColumn(Class<?> implClass, String implMethodName) {
+        this.implClass = implClass;
+        this.implMethodName = implMethodName;
+        String methodName = implMethodName.startsWith("get") ? implMethodName.substring(3) : implMethodName;
+        this.propertyName = StringUtils.firstCharToLowerCase(methodName);
+        String name = null;
+        Field declaredField = null;
+        RuntimeException exception = null;
+        try {
+            name = implMethodName.substring("get".length());
+            if (!name.equals(name.toUpperCase())) {
+                name = name.replaceFirst(name.charAt(0) + "", (name.charAt(0) + "").toLowerCase());
+            }
+            declaredField = implClass.getDeclaredField(name);
+        } catch (NoSuchFieldException e) {
+            exception = new RuntimeException(e);
+        } catch (RuntimeException e) {
+            exception = e;
+        }
+        this.fieldName = name;
+        this.field = declaredField;
+        this.fieldException = exception;
+        this.collectionField = declaredField == null ? null : declaredField.getAnnotation(CollectionField.class);
+        this.id = declaredField == null ? null : declaredField.getAnnotation(ID.class);
+    }
+
+    /**
+     * 根据序列化的lambda解析字段信息
+     * @param serializedLambda 序列化的lambda
+     * @return {@link LambdaColumn}
+     * @author anwen
+     */
+    public static LambdaColumn of(SerializedLambda serializedLambda) {
+        try {
+            return new LambdaColumn(Class.forName(serializedLambda.getImplClass().replace("/", ".")),
+                    serializedLambda.getImplMethodName());
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 根据实现类和方法名解析字段信息
+     * @param implClass 实现类
+     * @param implMethodName 实现方法名
+     * @return {@link LambdaColumn}
+     * @author anwen
+     */
+    public static LambdaColumn of(Class<?> implClass, String implMethodName) {
+        return new LambdaColumn(implClass, implMethodName);
+    }
+
+    public Class<?> getImplClass() {
+        return implClass;
+    }
+
+    public String getImplMethodName() {
+        return implMethodName;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    public String getFieldName() {
+        if (fieldName == null) {
+            throw fieldException;
+        }
+        return fieldName;
+    }
+
+    public Field getField() {
+        if (field == null) {
+            throw fieldException;
+        }
+        return field;
+    }
+
+    public CollectionField getCollectionField() {
+        return collectionField;
+    }
+
+    public ID getId() {
+        return id;
+    }
+
+    /**
+     * 获取方法的返回值类型
+     * @return {@link java.lang.Class}
+     * @author anwen
+     */
+    public Class<?> getReturnType() {
+        Class<?> type = returnType;
+        if (type == null) {
+            Method method;
+            try {
+                method = implClass.getMethod(implMethodName);
+            } catch (NoSuchMethodException e) {
+                throw new RuntimeException(e);
+            }
+            type = method.getReturnType();
+            returnType = type;
+        }
+        return type;
+    }
+
+    /**
+     * 获取数据库中的字段名，驼峰转下划线配置修改后重新生成
+     * @return {@link java.lang.String}
+     * @author anwen
+     */
+    public String getColumnName() {
+        String name = columnName;
+        boolean camelToUnderline = PropertyCache.camelToUnderline;
+        if (name == null || columnCamelToUnderline != camelToUnderline) {
+            name = getColumnName(SFunction.defaultSplit, SFunction.defaultToType);
+            columnCamelToUnderline = camelToUnderline;
+            columnName = name;
+        }
+        return name;
+    }
+
+    /**
+     * 获取数据库中的字段名
+     *
+     * @param split  分隔符，多个字母自定义分隔符
+     * @param toType 转换方式，多个字母以大小写方式返回 0.不做转换 1.大写 2.小写
+     * @return {@link java.lang.String}
+     * @author anwen
+     */
+    public String getColumnName(String split, Integer toType) {
+        getField();
+        String name = fieldName;
+        if (PropertyCache.camelToUnderline) {
+            name = StringUtils.camelToUnderline(name);
+        }
+        if (collectionField != null && StringUtils.isNotBlank(collectionField.value())) {
+            return collectionField.value();
+        } else if (id != null) {
+            return SqlOperationConstant._ID;
+        }
+        //0.不做转换 1.大写 2.小写
+        switch (toType) {
+            case 1:
+                return name.replaceAll("[A-Z]", split + "$0").toUpperCase();
+            case 2:
+                return name.replaceAll("[A-Z]", split + "$0").toLowerCase();
+            default:
+                return name.replaceAll("[A-Z]", split + "$0");
+        }
+    }
+
+}
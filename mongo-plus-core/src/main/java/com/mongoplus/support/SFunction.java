@@ -1,10 +1,6 @@
 package com.mongoplus.support;
 
-import com.mongoplus.annotation.ID;
-import com.mongoplus.annotation.collection.CollectionField;
-import com.mongoplus.cache.global.PropertyCache;
-import com.mongoplus.constant.SqlOperationConstant;
-import com.mongoplus.toolkit.StringUtils;
+import com.mongoplus.cache.global.LambdaColumnCache;
 
 import java.io.Serializable;
 import java.lang.invoke.SerializedLambda;
@@ -25,12 +21,17 @@ public interface SFunction<T,R> extends Function<T,R>, Serializable {
     String defaultSplit = "";
     Integer defaultToType = 0;
 
+    /**
+     * 获取解析后的字段信息，每个lambda只解析一次
+     * @return {@link LambdaColumn}
+     * @author anwen
+     */
+    default LambdaColumn getLambdaColumn() {
+        return LambdaColumnCache.get(this);
+    }
+
     default String getFieldName() {
-        String methodName = getMethodName();
-        if (methodName.startsWith("get")) {
-            methodName = methodName.substring(3);
-        }
-        return StringUtils.firstCharToLowerCase(methodName);
+        return getLambdaColumn().getPropertyName();
     }
 
     default String getFieldNameLineOption(){
@@ -41,7 +42,7 @@ public interface SFunction<T,R> extends Function<T,R>, Serializable {
      * 获取实体类的字段名称(实体声明的字段名称)
      */
     default String getFieldNameLine() {
-        return getFieldName(this, defaultSplit);
+        return getLambdaColumn().getColumnName();
     }
 
     /**
@@ -60,30 +61,7 @@ public interface SFunction<T,R> extends Function<T,R>, Serializable {
      * @param toType 转换方式，多个字母以大小写方式返回 0.不做转换 1.大写 2.小写
      */
     default String getFieldName(SFunction<T, ?> fn, String split, Integer toType) {
-        Field field = getField(fn);
-        String fieldName = getFieldName(fn);
-        if (PropertyCache.camelToUnderline){
-            fieldName = StringUtils.camelToUnderline(fieldName);
-        }
-        // 从field取出字段名
-        CollectionField collectionField = field.getAnnotation(CollectionField.class);
-        ID id = field.getAnnotation(ID.class);
-        if (collectionField != null && StringUtils.isNotBlank(collectionField.value())) {
-            return collectionField.value();
-        }else if (id != null){
-            return SqlOperationConstant._ID;
-        }else {
-            //0.不做转换 1.大写 2.小写
-            switch (toType) {
-                case 1:
-                    return fieldName.replaceAll("[A-Z]", split + "$0").toUpperCase();
-                case 2:
-                    return fieldName.replaceAll("[A-Z]", split + "$0").toLowerCase();
-                default:
-                    return fieldName.replaceAll("[A-Z]", split + "$0");
-            }
-
-        }
+        return fn.getLambdaColumn().getColumnName(split, toType);
     }
 
     /**
@@ -91,16 +69,11 @@ public interface SFunction<T,R> extends Function<T,R>, Serializable {
      * @author anwen
      */
     default Class<?> getImplClass() {
-        SerializedLambda serializedLambda = getSerializedLambda();
-        try {
-            return Class.forName(serializedLambda.getImplClass().replace("/", "."));
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException(e);
-        }
+        return getLambdaColumn().getImplClass();
     }
 
     default String getMethodName() {
-        return getSerializedLambda().getImplMethodName();
+        return getLambdaColumn().getImplMethodName();
     }
 
     default Class<?> getFieldClass() {
@@ -145,20 +118,7 @@ public interface SFunction<T,R> extends Function<T,R>, Serializable {
     }
 
     default Class<?> getReturnType() {
-        SerializedLambda lambda = getSerializedLambda();
-        Class<?> className;
-        try {
-            className = Class.forName(lambda.getImplClass().replace("/", "."));
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException(e);
-        }
-        Method method;
-        try {
-            method = className.getMethod(getMethodName());
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException(e);
-        }
-        return method.getReturnType();
+        return getLambdaColumn().getReturnType();
     }
 
     default Field getField() {
@@ -166,24 +126,11 @@ public interface SFunction<T,R> extends Function<T,R>, Serializable {
     }
 
     default Field getField(SFunction<T,?> fn) {
-        SerializedLambda serializedLambda = getSerializedLambdaOne(this);
-
-        try {
-            return Class.forName(serializedLambda.getImplClass().replace("/", ".")).getDeclaredField(getFieldName(fn));
-        } catch (ClassNotFoundException | NoSuchFieldException e) {
-            throw new RuntimeException(e);
-        }
+        return fn.getLambdaColumn().getField();
     }
 
     default String getFieldName(SFunction<T,?> fn){
-        SerializedLambda serializedLambda = getSerializedLambdaOne(fn);
-
-        // 从lambda信息取出method、field、class等
-        String fieldName = serializedLambda.getImplMethodName().substring("get".length());
-        if (!fieldName.equals(fieldName.toUpperCase())){
-            fieldName = fieldName.replaceFirst(fieldName.charAt(0) + "", (fieldName.charAt(0) + "").toLowerCase());
-        }
-        return fieldName;
+        return fn.getLambdaColumn().getFieldName();
     }
 
 }
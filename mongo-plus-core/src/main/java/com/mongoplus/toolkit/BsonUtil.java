@@ -8,6 +8,8 @@ import com.mongoplus.bson.EmptyDocument;
 import com.mongoplus.cache.codec.MapCodecCache;
 import com.mongoplus.constant.SqlOperationConstant;
 import org.bson.*;
+import org.bson.codecs.Codec;
+import org.bson.codecs.EncoderContext;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.conversions.Bson;
 import org.bson.types.Binary;
@@ -562,6 +564,38 @@ public class BsonUtil {
         return documentJson.substring(documentJson.indexOf(':') + 1, documentJson.length() - 1).trim();
     }
 
+    /**
+     * 将值写入BsonWriter，与{@link org.bson.codecs.DocumentCodec}写入值的方式一致
+     * @param writer writer
+     * @param value 值
+     * @param encoderContext 编码上下文
+     * @param codecRegistry 编解码器
+     * @author anwen
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static void writeValue(BsonWriter writer, Object value, EncoderContext encoderContext,
+                                  CodecRegistry codecRegistry) {
+        if (value == null) {
+            writer.writeNull();
+        } else if (value instanceof Iterable) {
+            writer.writeStartArray();
+            for (Object element : (Iterable<?>) value) {
+                writeValue(writer, element, encoderContext, codecRegistry);
+            }
+            writer.writeEndArray();
+        } else if (value instanceof Map) {
+            writer.writeStartDocument();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                writer.writeName(entry.getKey().toString());
+                writeValue(writer, entry.getValue(), encoderContext, codecRegistry);
+            }
+            writer.writeEndDocument();
+        } else {
+            Codec codec = codecRegistry.get(value.getClass());
+            encoderContext.encodeWithChildContext(codec, writer, value);
+        }
+    }
+
     public static Bson getIdsCondition(Collection<? extends Serializable> idList){
         List<Object> convertedIds = idList.stream()
                 .map(ObjectIdUtil::getObjectIdValue)
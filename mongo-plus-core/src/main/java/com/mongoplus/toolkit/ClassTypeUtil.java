@@ -1,6 +1,7 @@
 package com.mongoplus.toolkit;
 
 import com.mongoplus.annotation.ID;
+import com.mongoplus.cache.global.AccessorCache;
 import com.mongoplus.domain.MongoPlusException;
 import com.mongoplus.domain.MongoPlusFieldException;
 import com.mongoplus.logging.Log;
@@ -33,8 +34,6 @@ public class ClassTypeUtil {
 
     private static final Map<Class<?> , Boolean> isAnonymousClassMap = new ConcurrentHashMap<>();
 
-    private static final Map<Class<?>, Boolean> isInnerClass = new ConcurrentHashMap<>();
-
     static {
         isTargetClassMap.put(Map.class, new HashMap<>());
         isTargetClassMap.put(Collection.class, new HashMap<>());
@@ -231,26 +230,10 @@ public class ClassTypeUtil {
 
     public static <T> Object getInstanceByClass(Class<T> clazz) {
         try {
-            Boolean innerClass = isInnerClass.computeIfAbsent(clazz, k ->
-                    (k.getEnclosingClass()) != null &&
-                    !Modifier.isStatic(k.getModifiers()));
-            // 判断是否是内部类
-            if (innerClass) {
-                Class<?> enclosingClass = clazz.getEnclosingClass();
-                // 处理非静态内部类
-                // 获取外部类的实例
-                Constructor<?> enclosingConstructor = enclosingClass.getDeclaredConstructor();
-                Object enclosingInstance = enclosingConstructor.newInstance();
-
-                // 获取内部类的构造器，构造器需要外部类实例作为参数
-                Constructor<?> innerConstructor = clazz.getDeclaredConstructor(enclosingClass);
-                return innerConstructor.newInstance(enclosingInstance);
-            } else {
-                // 处理静态类或普通类
-                return clazz.getDeclaredConstructor().newInstance();
-            }
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-            log.error("Failed to create " + clazz.getName() + ", message: {}", e.getMessage(), e);
+            return AccessorCache.getInstanceCreator(clazz).newInstance();
+        } catch (MongoPlusException e) {
+            Throwable cause = e.getCause() != null ? ExceptionUtil.unwrapThrowable(e.getCause()) : e;
+            log.error("Failed to create " + clazz.getName() + ", message: {}", cause.getMessage(), cause);
             throw new MongoPlusException("Failed to create " + clazz.getName());
         }
     }
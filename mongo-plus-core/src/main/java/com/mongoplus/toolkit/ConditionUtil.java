@@ -14,6 +14,8 @@ import static com.mongoplus.handlers.condition.BuildCondition.condition;
 
 public class ConditionUtil {
 
+    private static final String SET_ON_INSERT = "$setOnInsert";
+
     /**
      * 将条件转为MongoDB可用条件
      * @author anwen
@@ -41,4 +43,23 @@ public class ConditionUtil {
         return new MutablePair<>(filter,update);
     }
 
+    /**
+     * 将实体构建为Id条件和upsert的更新内容，只在新增时写入的字段放在$setOnInsert中
+     * @param sourceObj 实体
+     * @param mongoConverter 转换器
+     * @return {@link MutablePair}
+     * @author anwen
+     */
+    public static MutablePair<BasicDBObject,BasicDBObject> getUpsert(Object sourceObj,MongoConverter mongoConverter) {
+        Document document = new Document();
+        Document insertDocument = new Document();
+        mongoConverter.writeByUpsert(sourceObj, document, insertDocument);
+        BasicDBObject filter = ExecuteUtil.getFilter(document);
+        BasicDBObject update = new BasicDBObject(SpecialConditionEnum.SET.getCondition(), document);
+        if (!insertDocument.isEmpty()) {
+            update.append(SET_ON_INSERT, insertDocument);
+        }
+        return new MutablePair<>(filter,update);
+    }
+
 }
@@ -0,0 +1,199 @@
+package com.mongoplus.toolkit;
+
+import com.mongodb.BasicDBObject;
+import com.mongoplus.bson.MongoPlusBasicDBObject;
+import com.mongoplus.cache.codec.MapCodecCache;
+import com.mongoplus.domain.MongoPlusException;
+import org.bson.ByteBuf;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.mongoplus.constant.SqlOperationConstant._ID;
+
+/**
+ * 游标(keyset)分页工具
+ * <p>根据排序字段和_id构建范围条件代替skip，续查令牌中保存上一页最后一条数据的排序字段值</p>
+ *
+ * @author anwen
+ */
+public class CursorPageUtil {
+
+    private static final String SORT_KEY = "s";
+
+    private static final String VALUE_KEY = "v";
+
+    private CursorPageUtil() {
+    }
+
+    /**
+     * 构建排序，追加_id作为唯一的决胜字段
+     * @param sort 排序
+     * @return {@link com.mongodb.BasicDBObject}
+     * @author anwen
+     */
+    public static BasicDBObject buildSort(BasicDBObject sort) {
+        BasicDBObject keysetSort = new BasicDBObject();
+        if (sort != null) {
+            sort.forEach((key, value) -> {
+                if (!(value instanceof Number)) {
+                    throw new MongoPlusException("Cursor page only supports ascending or descending sort, field: "
+                            + key);
+                }
+                keysetSort.put(key, ((Number) value).intValue() < 0 ? -1 : 1);
+            });
+        }
+        if (!keysetSort.containsKey(_ID)) {
+            keysetSort.put(_ID, 1);
+        }
+        return keysetSort;
+    }
+
+    /**
+     * 构建投影，保证排序字段一定会返回，用于生成续查令牌
+     * @param projection 投影
+     * @param sort 排序，{@link #buildSort(BasicDBObject)}的结果
+     * @return {@link com.mongodb.BasicDBObject}
+     * @author anwen
+     */
+    public static BasicDBObject buildProjection(BasicDBObject projection, BasicDBObject sort) {
+        if (projection == null || projection.isEmpty()) {
+            return projection;
+        }
+        BasicDBObject keysetProjection = new BasicDBObject(projection);
+        boolean inclusion = projection.entrySet().stream()
+                .anyMatch(entry -> !Objects.equals(entry.getKey(), _ID) && isInclusion(entry.getValue()));
+        sort.keySet().forEach(key -> {
+            if (inclusion) {
+                keysetProjection.put(key, 1);
+            } else {
+                keysetProjection.remove(key);
+            }
+        });
+        return keysetProjection;
+    }
+
+    /**
+     * 构建查询条件，将续查令牌转换为范围条件后与原条件合并
+     * <p>排序为(f1,f2,...,fn)时，条件为 f1>v1 or (f1=v1 and f2>v2) or ...，降序字段使用$lt</p>
+     * <p>null和不存在的字段排在最前，$gt/$lt不会匹配null，所以单独处理：升序时null之后是所有非null的值（$ne: null），
+     * 降序时非null值之后还有null的数据，null之后没有数据</p>
+     * @param condition 原条件
+     * @param sort 排序，{@link #buildSort(BasicDBObject)}的结果
+     * @param after 续查令牌
+     * @return {@link com.mongodb.BasicDBObject}
+     * @author anwen
+     */
+    public static BasicDBObject buildCondition(BasicDBObject condition, BasicDBObject sort, String after) {
+        if (StringUtils.isBlank(after)) {
+            return condition;
+        }
+        List<Object> values = decode(after, sort);
+        List<String> keys = new ArrayList<>(sort.keySet());
+        List<BasicDBObject> orList = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            BasicDBObject branch = new BasicDBObject();
+            for (int j = 0; j < i; j++) {
+                branch.put(keys.get(j), new BasicDBObject("$eq", values.get(j)));
+            }
+            String key = keys.get(i);
+            Object value = values.get(i);
+            boolean descending = sort.getInt(key) < 0;
+            if (value == null) {
+                if (descending) {
+                    continue;
+                }
+                branch.put(key, new BasicDBObject("$ne", null));
+            } else if (descending) {
+                List<BasicDBObject> afterList = new ArrayList<>(2);
+                afterList.add(new BasicDBObject(key, new BasicDBObject("$lt", value)));
+                afterList.add(new BasicDBObject(key, new BasicDBObject("$eq", null)));
+                branch.put("$or", afterList);
+            } else {
+                branch.put(key, new BasicDBObject("$gt", value));
+            }
+            orList.add(branch);
+        }
+        BasicDBObject keysetCondition = new BasicDBObject("$or", orList);
+        if (condition == null || condition.isEmpty()) {
+            return keysetCondition;
+        }
+        List<BasicDBObject> andList = new ArrayList<>(2);
+        andList.add(condition);
+        andList.add(keysetCondition);
+        // 保留条件上like改写需要的排序规则
+        MongoPlusBasicDBObject andCondition = new MongoPlusBasicDBObject();
+        andCondition.put("$and", andList);
+        andCondition.setCollation(MongoPlusBasicDBObject.getCollation(condition));
+        return andCondition;
+    }
+
+    /**
+     * 根据最后一条数据生成续查令牌
+     * @param sort 排序，{@link #buildSort(BasicDBObject)}的结果
+     * @param document 最后一条数据
+     * @return {@link java.lang.String}
+     * @author anwen
+     */
+    public static String encode(BasicDBObject sort, Document document) {
+        List<Object> values = new ArrayList<>(sort.size());
+        sort.keySet().forEach(key -> values.add(getValue(document, key)));
+        Document token = new Document(SORT_KEY, new Document(sort)).append(VALUE_KEY, values);
+        ByteBuf byteBuf = new RawBsonDocument(token, MapCodecCache.getDefaultCodec()).getByteBuffer();
+        byte[] bytes = new byte[byteBuf.remaining()];
+        byteBuf.get(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * 解析续查令牌，令牌的排序必须与当前排序一致
+     * @param after 续查令牌
+     * @param sort 排序
+     * @return {@link java.util.List<java.lang.Object>}
+     * @author anwen
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Object> decode(String after, BasicDBObject sort) {
+        Document token;
+        try {
+            token = new RawBsonDocument(Base64.getUrlDecoder().decode(after)).decode(MapCodecCache.getDefaultCodec());
+        } catch (RuntimeException e) {
+            throw new MongoPlusException("Invalid cursor page token: " + after, e);
+        }
+        Document tokenSort = token.get(SORT_KEY, Document.class);
+        List<Object> values = token.get(VALUE_KEY, List.class);
+        if (tokenSort == null || values == null || !Objects.equals(new ArrayList<>(tokenSort.keySet()),
+                new ArrayList<>(sort.keySet())) || values.size() != sort.size()) {
+            throw new MongoPlusException("Cursor page token does not match the current sort: " + after);
+        }
+        return values;
+    }
+
+    /**
+     * 获取字段值，支持a.b形式的嵌套字段
+     * @author anwen
+     */
+    private static Object getValue(Document document, String key) {
+        Object value = document;
+        for (String path : key.split("\\.")) {
+            if (!(value instanceof Map)) {
+                return null;
+            }
+            value = ((Map<?, ?>) value).get(path);
+        }
+        return value;
+    }
+
+    private static boolean isInclusion(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return value instanceof Number && ((Number) value).intValue() != 0;
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.mongoplus.toolkit;
 
 import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.conditions.query.QueryParameter;
 import com.mongoplus.logging.Log;
 import com.mongoplus.logging.LogFactory;
 import org.bson.types.ObjectId;
@@ -50,6 +51,10 @@ public class ObjectIdUtil {
         if (value instanceof ObjectId){
             return value;
         }
+        if (value instanceof QueryParameter) {
+            // 预编译查询的占位符，绑定参数时再转换
+            return ((QueryParameter) value).toObjectId();
+        }
         String convertValue = String.valueOf(value);
         if (ObjectId.isValid(convertValue) && PropertyCache.autoConvertObjectId) {
             return new ObjectId(convertValue);
@@ -0,0 +1,94 @@
+package com.mongoplus.watch;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+
+/**
+ * 变更事件，完整文档已经转换为实体
+ *
+ * @author anwen
+ */
+public class ChangeEvent<T> {
+
+    private final OperationType operationType;
+
+    private final MongoNamespace namespace;
+
+    private final BsonDocument documentKey;
+
+    private final T fullDocument;
+
+    private final UpdateDescription updateDescription;
+
+    private final BsonDocument resumeToken;
+
+    private final BsonTimestamp clusterTime;
+
+    public ChangeEvent(OperationType operationType, MongoNamespace namespace, BsonDocument documentKey,
+                       T fullDocument, UpdateDescription updateDescription, BsonDocument resumeToken,
+                       BsonTimestamp clusterTime) {
+        this.operationType = operationType;
+        this.namespace = namespace;
+        this.documentKey = documentKey;
+        this.fullDocument = fullDocument;
+        this.updateDescription = updateDescription;
+        this.resumeToken = resumeToken;
+        this.clusterTime = clusterTime;
+    }
+
+    /**
+     * 事件类型
+     */
+    public OperationType getOperationType() {
+        return operationType;
+    }
+
+    public MongoNamespace getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * 文档的_id，删除事件也存在
+     */
+    public BsonDocument getDocumentKey() {
+        return documentKey;
+    }
+
+    /**
+     * 完整文档，删除事件或文档已经被删除时为null
+     */
+    public T getFullDocument() {
+        return fullDocument;
+    }
+
+    /**
+     * 更新事件修改、删除的字段
+     */
+    public UpdateDescription getUpdateDescription() {
+        return updateDescription;
+    }
+
+    /**
+     * 事件的恢复令牌
+     */
+    public BsonDocument getResumeToken() {
+        return resumeToken;
+    }
+
+    public BsonTimestamp getClusterTime() {
+        return clusterTime;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent{" +
+                "operationType=" + operationType +
+                ", namespace=" + namespace +
+                ", documentKey=" + documentKey +
+                ", fullDocument=" + fullDocument +
+                '}';
+    }
+}
@@ -0,0 +1,351 @@
+package com.mongoplus.watch;
+
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Collation;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongoplus.bson.MongoPlusBasicDBObject;
+import com.mongoplus.context.ContextSnapshot;
+import com.mongoplus.context.MongoPlusContext;
+import com.mongoplus.domain.MongoPlusException;
+import com.mongoplus.logging.Log;
+import com.mongoplus.logging.LogFactory;
+import com.mongoplus.mapping.MongoConverter;
+import com.mongoplus.mapping.TypeReference;
+import com.mongoplus.toolkit.CollUtil;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 变更流订阅，在独立的守护线程中读取变更流，按批交给消费者
+ * <p>消费者在订阅线程中同步执行，处理完一批后才继续读取，消费者处理慢时事件保留在服务端的oplog中，不会在内存中堆积</p>
+ * <p>设置了订阅id时，每批处理成功后保存最后一个事件的恢复令牌，重新订阅时从该位置继续，事件至少交付一次；
+ * 没有匹配的事件时每隔{@link WatchOptions#getIdleSaveInterval()}保存服务端返回的恢复令牌，保存的位置不会因为长时间没有事件而滑出oplog</p>
+ * <p>消费者或变更流抛出异常时订阅停止，可以通过{@link #getFailure()}获取异常</p>
+ *
+ * @author anwen
+ */
+public final class ChangeStreamSubscription implements AutoCloseable {
+
+    private static final Log log = LogFactory.getLog(ChangeStreamSubscription.class);
+
+    private static final String FULL_DOCUMENT = "fullDocument.";
+
+    private static final String OPERATION_TYPE = "operationType";
+
+    private static final String EXPR = "$expr";
+
+    private static final String LITERAL = "$literal";
+
+    private static final List<String> DOCUMENT_VARIABLES = Arrays.asList("$$ROOT", "$$CURRENT");
+
+    private static final List<String> UNSUPPORTED_OPERATORS = Arrays.asList("$text", "$where", "$jsonSchema");
+
+    private static final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    private final MongoCollection<Document> collection;
+
+    private final List<Bson> pipeline;
+
+    /**
+     * 条件中like改写需要的排序规则
+     */
+    private final Collation collation;
+
+    private final WatchOptions options;
+
+    private final ResumeTokenStore resumeTokenStore;
+
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    private volatile BsonDocument resumeToken;
+
+    private volatile Throwable failure;
+
+    private BsonDocument savedToken;
+
+    private long lastSavedAt;
+
+    private <T> ChangeStreamSubscription(MongoCollection<Document> collection, MongoCollection<Document> tokenCollection,
+                                         Bson condition, WatchOptions options, MongoConverter mongoConverter,
+                                         TypeReference<T> typeReference, Consumer<List<ChangeEvent<T>>> consumer) {
+        this.collection = collection;
+        this.options = options;
+        this.pipeline = buildPipeline(condition, options, collection);
+        this.collation = MongoPlusBasicDBObject.getCollation(condition);
+        this.resumeTokenStore = options.getSubscriptionId() != null && tokenCollection != null
+                ? new ResumeTokenStore(tokenCollection, options.getSubscriptionId()) : null;
+        ContextSnapshot snapshot = MongoPlusContext.capture();
+        this.thread = new Thread(
+                snapshot.wrap(() -> run(mongoConverter, typeReference, consumer)),
+                "mongo-plus-watch-" + threadNumber.getAndIncrement()
+        );
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * 开始订阅
+     * @param collection 订阅的集合
+     * @param tokenCollection 保存恢复令牌的集合，为null时不保存
+     * @param condition 条件，字段会加上fullDocument.前缀作为$match，为null时不过滤
+     * @param options 订阅参数
+     * @param mongoConverter 转换器
+     * @param typeReference 完整文档的类型
+     * @param consumer 消费者
+     * @return {@link com.mongoplus.watch.ChangeStreamSubscription}
+     * @author anwen
+     */
+    public static <T> ChangeStreamSubscription start(MongoCollection<Document> collection,
+                                                     MongoCollection<Document> tokenCollection, Bson condition,
+                                                     WatchOptions options, MongoConverter mongoConverter,
+                                                     TypeReference<T> typeReference,
+                                                     Consumer<List<ChangeEvent<T>>> consumer) {
+        ChangeStreamSubscription subscription = new ChangeStreamSubscription(collection, tokenCollection, condition,
+                options != null ? options : new WatchOptions(), mongoConverter, typeReference, consumer);
+        subscription.thread.start();
+        return subscription;
+    }
+
+    /**
+     * 订阅是否正在运行
+     * @return {@link boolean}
+     * @author anwen
+     */
+    public boolean isRunning() {
+        return running && thread.isAlive();
+    }
+
+    /**
+     * 最后处理到的位置的恢复令牌，没有事件时为服务端返回的令牌
+     * @return {@link org.bson.BsonDocument}
+     * @author anwen
+     */
+    public BsonDocument getResumeToken() {
+        return resumeToken;
+    }
+
+    /**
+     * 导致订阅停止的异常，正常运行或关闭时为null
+     * @return {@link java.lang.Throwable}
+     * @author anwen
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * 等待订阅线程结束
+     * @param timeout 最长等待时间（毫秒）
+     * @return {@link boolean} 是否已经结束
+     * @author anwen
+     */
+    public boolean awaitTermination(long timeout) throws InterruptedException {
+        thread.join(timeout);
+        return !thread.isAlive();
+    }
+
+    /**
+     * 停止订阅，正在处理的一批完成后结束，最多延迟{@link WatchOptions#getMaxAwaitTime()}
+     * @author anwen
+     */
+    @Override
+    public void close() {
+        running = false;
+    }
+
+    private <T> void run(MongoConverter mongoConverter, TypeReference<T> typeReference,
+                         Consumer<List<ChangeEvent<T>>> consumer) {
+        int batchSize = options.getBatchSize() != null && options.getBatchSize() > 0 ? options.getBatchSize() : 100;
+        try {
+            BsonDocument startToken = options.getResumeToken();
+            if (startToken == null && resumeTokenStore != null) {
+                startToken = resumeTokenStore.load();
+            }
+            resumeToken = startToken;
+            savedToken = startToken;
+            ChangeStreamIterable<Document> iterable = collection.watch(pipeline, Document.class)
+                    .fullDocument(options.getFullDocument())
+                    .batchSize(batchSize);
+            if (options.getMaxAwaitTime() != null) {
+                iterable.maxAwaitTime(options.getMaxAwaitTime(), TimeUnit.MILLISECONDS);
+            }
+            if (startToken != null) {
+                iterable.resumeAfter(startToken);
+            }
+            if (collation != null) {
+                iterable.collation(collation);
+            }
+            List<ChangeEvent<T>> events = new ArrayList<>(batchSize);
+            lastSavedAt = System.currentTimeMillis();
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = iterable.cursor()) {
+                while (running) {
+                    ChangeStreamDocument<Document> changeStreamDocument = cursor.tryNext();
+                    if (changeStreamDocument != null) {
+                        events.add(toEvent(changeStreamDocument, mongoConverter, typeReference));
+                    }
+                    if (!events.isEmpty() && (changeStreamDocument == null || events.size() >= batchSize)) {
+                        deliver(events, consumer);
+                        events = new ArrayList<>(batchSize);
+                    } else if (changeStreamDocument == null) {
+                        saveIdle(cursor.getResumeToken());
+                    }
+                }
+            }
+        } catch (Throwable e) {
+            if (running) {
+                failure = e;
+                log.error("Change stream subscription on " + collection.getNamespace() + " stopped", e);
+            }
+        } finally {
+            running = false;
+        }
+    }
+
+    private <T> void deliver(List<ChangeEvent<T>> events, Consumer<List<ChangeEvent<T>>> consumer) {
+        consumer.accept(Collections.unmodifiableList(events));
+        BsonDocument lastToken = events.get(events.size() - 1).getResumeToken();
+        if (resumeTokenStore != null) {
+            resumeTokenStore.save(lastToken);
+            savedToken = lastToken;
+            lastSavedAt = System.currentTimeMillis();
+        }
+        resumeToken = lastToken;
+    }
+
+    /**
+     * 没有事件时保存服务端返回的恢复令牌，之前的事件都已处理，从该位置继续不会遗漏事件
+     */
+    private void saveIdle(BsonDocument cursorToken) {
+        if (cursorToken == null) {
+            return;
+        }
+        resumeToken = cursorToken;
+        Long interval = options.getIdleSaveInterval();
+        if (resumeTokenStore == null || interval == null || interval <= 0 || cursorToken.equals(savedToken)
+                || System.currentTimeMillis() - lastSavedAt < interval) {
+            return;
+        }
+        resumeTokenStore.save(cursorToken);
+        savedToken = cursorToken;
+        lastSavedAt = System.currentTimeMillis();
+    }
+
+    private static <T> ChangeEvent<T> toEvent(ChangeStreamDocument<Document> changeStreamDocument,
+                                              MongoConverter mongoConverter, TypeReference<T> typeReference) {
+        Document fullDocument = changeStreamDocument.getFullDocument();
+        return new ChangeEvent<>(
+                changeStreamDocument.getOperationType(),
+                changeStreamDocument.getNamespace(),
+                changeStreamDocument.getDocumentKey(),
+                fullDocument != null ? mongoConverter.read(fullDocument, typeReference) : null,
+                changeStreamDocument.getUpdateDescription(),
+                changeStreamDocument.getResumeToken(),
+                changeStreamDocument.getClusterTime()
+        );
+    }
+
+    /**
+     * 构建$match，条件中的字段和$expr中的字段路径加上fullDocument.前缀，删除事件没有完整文档，设置条件后不会匹配
+     * <p>$text、$where、$jsonSchema不能作用于事件中的完整文档，不支持</p>
+     */
+    private static List<Bson> buildPipeline(Bson condition, WatchOptions options,
+                                            MongoCollection<Document> collection) {
+        List<BsonDocument> matchList = new ArrayList<>(2);
+        if (CollUtil.isNotEmpty(options.getOperationTypes())) {
+            BsonArray operationTypes = new BsonArray();
+            for (OperationType operationType : options.getOperationTypes()) {
+                operationTypes.add(new BsonString(operationType.getValue()));
+            }
+            matchList.add(new BsonDocument(OPERATION_TYPE, new BsonDocument("$in", operationTypes)));
+        }
+        if (condition != null) {
+            BsonDocument filter = condition.toBsonDocument(BsonDocument.class, collection.getCodecRegistry());
+            if (!filter.isEmpty()) {
+                matchList.add(prefix(filter));
+            }
+        }
+        if (matchList.isEmpty()) {
+            return Collections.emptyList();
+        }
+        BsonDocument match = matchList.size() == 1 ? matchList.get(0)
+                : new BsonDocument("$and", new BsonArray(matchList));
+        return Collections.singletonList(new BsonDocument("$match", match));
+    }
+
+    private static BsonDocument prefix(BsonDocument filter) {
+        BsonDocument result = new BsonDocument();
+        for (Map.Entry<String, BsonValue> entry : filter.entrySet()) {
+            String key = entry.getKey();
+            BsonValue value = entry.getValue();
+            if (!key.startsWith("$")) {
+                result.append(FULL_DOCUMENT + key, value);
+            } else if (UNSUPPORTED_OPERATORS.contains(key)) {
+                throw new MongoPlusException("Change stream condition does not support " + key);
+            } else if (EXPR.equals(key)) {
+                result.append(key, prefixExpression(value));
+            } else if (value.isArray()) {
+                // $and、$or、$nor
+                BsonArray array = new BsonArray();
+                for (BsonValue element : value.asArray()) {
+                    array.add(element.isDocument() ? prefix(element.asDocument()) : element);
+                }
+                result.append(key, array);
+            } else {
+                result.append(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 聚合表达式中的字段路径加上fullDocument.前缀，$$ROOT和$$CURRENT指向完整文档，其他变量和$literal不变
+     */
+    private static BsonValue prefixExpression(BsonValue expression) {
+        if (expression.isString()) {
+            String path = expression.asString().getValue();
+            if (path.startsWith("$$")) {
+                for (String variable : DOCUMENT_VARIABLES) {
+                    if (path.equals(variable) || path.startsWith(variable + ".")) {
+                        return new BsonString("$fullDocument" + path.substring(variable.length()));
+                    }
+                }
+                return expression;
+            }
+            return path.startsWith("$") ? new BsonString("$" + FULL_DOCUMENT + path.substring(1)) : expression;
+        }
+        if (expression.isArray()) {
+            BsonArray array = new BsonArray();
+            for (BsonValue element : expression.asArray()) {
+                array.add(prefixExpression(element));
+            }
+            return array;
+        }
+        if (expression.isDocument()) {
+            BsonDocument result = new BsonDocument();
+            for (Map.Entry<String, BsonValue> entry : expression.asDocument().entrySet()) {
+                result.append(entry.getKey(), LITERAL.equals(entry.getKey())
+                        ? entry.getValue() : prefixExpression(entry.getValue()));
+            }
+            return result;
+        }
+        return expression;
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.mongoplus.watch;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongoplus.constant.SqlOperationConstant;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+
+/**
+ * 恢复令牌的保存，每个订阅一个文档：{_id: 订阅id, resumeToken: 令牌, updateTime: 时间}
+ * <p>直接使用驱动读写，不经过拦截器，避免多租户等拦截器修改内部数据</p>
+ *
+ * @author anwen
+ */
+final class ResumeTokenStore {
+
+    private static final String RESUME_TOKEN = "resumeToken";
+
+    private static final String UPDATE_TIME = "updateTime";
+
+    private static final ReplaceOptions UPSERT = new ReplaceOptions().upsert(true);
+
+    private final MongoCollection<BsonDocument> collection;
+
+    private final BsonDocument filter;
+
+    ResumeTokenStore(MongoCollection<Document> collection, String subscriptionId) {
+        this.collection = collection.withDocumentClass(BsonDocument.class);
+        this.filter = new BsonDocument(SqlOperationConstant._ID, new BsonString(subscriptionId));
+    }
+
+    /**
+     * 读取保存的令牌，没有时返回null
+     */
+    BsonDocument load() {
+        BsonDocument document = collection.find(filter).first();
+        if (document == null) {
+            return null;
+        }
+        BsonValue resumeToken = document.get(RESUME_TOKEN);
+        return resumeToken != null && resumeToken.isDocument() ? resumeToken.asDocument() : null;
+    }
+
+    void save(BsonDocument resumeToken) {
+        BsonDocument document = new BsonDocument(SqlOperationConstant._ID, filter.get(SqlOperationConstant._ID))
+                .append(RESUME_TOKEN, resumeToken)
+                .append(UPDATE_TIME, new BsonDateTime(System.currentTimeMillis()));
+        collection.replaceOne(filter, document, UPSERT);
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.mongoplus.watch;
+
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.BsonDocument;
+
+import java.util.List;
+
+/**
+ * 变更流订阅参数
+ *
+ * @author anwen
+ */
+public class WatchOptions {
+
+    /**
+     * 订阅id，不为null时恢复令牌保存到{@link com.mongoplus.cache.global.PropertyCache#resumeTokenCollection}，
+     * 重新订阅时从上次处理的位置继续
+     */
+    private String subscriptionId;
+
+    /**
+     * 每次交给消费者的最大事件数量
+     */
+    private Integer batchSize = 100;
+
+    /**
+     * 服务端等待新事件的最长时间（毫秒），也是关闭订阅的最大延迟
+     */
+    private Long maxAwaitTime = 1000L;
+
+    /**
+     * 更新事件的完整文档，默认查询当前文档
+     */
+    private FullDocument fullDocument = FullDocument.UPDATE_LOOKUP;
+
+    /**
+     * 只订阅的事件类型，为空时订阅所有类型
+     */
+    private List<OperationType> operationTypes;
+
+    /**
+     * 指定的恢复令牌，优先于保存的令牌
+     */
+    private BsonDocument resumeToken;
+
+    /**
+     * 没有匹配的事件时保存服务端恢复令牌的间隔（毫秒），避免条件很少匹配时保存的令牌滑出oplog，小于等于0时不保存
+     */
+    private Long idleSaveInterval = 60000L;
+
+    public WatchOptions() {
+    }
+
+    public WatchOptions(String subscriptionId) {
+        this.subscriptionId = subscriptionId;
+    }
+
+    /**
+     * 保存恢复令牌的订阅
+     * @param subscriptionId 订阅id
+     * @return {@link WatchOptions}
+     * @author anwen
+     */
+    public static WatchOptions subscription(String subscriptionId) {
+        return new WatchOptions(subscriptionId);
+    }
+
+    public String getSubscriptionId() {
+        return subscriptionId;
+    }
+
+    public void setSubscriptionId(String subscriptionId) {
+        this.subscriptionId = subscriptionId;
+    }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Long getMaxAwaitTime() {
+        return maxAwaitTime;
+    }
+
+    public void setMaxAwaitTime(Long maxAwaitTime) {
+        this.maxAwaitTime = maxAwaitTime;
+    }
+
+    public FullDocument getFullDocument() {
+        return fullDocument;
+    }
+
+    public void setFullDocument(FullDocument fullDocument) {
+        this.fullDocument = fullDocument;
+    }
+
+    public List<OperationType> getOperationTypes() {
+        return operationTypes;
+    }
+
+    public void setOperationTypes(List<OperationType> operationTypes) {
+        this.operationTypes = operationTypes;
+    }
+
+    public BsonDocument getResumeToken() {
+        return resumeToken;
+    }
+
+    public void setResumeToken(BsonDocument resumeToken) {
+        this.resumeToken = resumeToken;
+    }
+
+    public Long getIdleSaveInterval() {
+        return idleSaveInterval;
+    }
+
+    public void setIdleSaveInterval(Long idleSaveInterval) {
+        this.idleSaveInterval = idleSaveInterval;
+    }
+
+    @Override
+    public String toString() {
+        return "WatchOptions(subscriptionId=" + subscriptionId + ", batchSize=" + batchSize + ", maxAwaitTime="
+                + maxAwaitTime + ", fullDocument=" + fullDocument + ", operationTypes=" + operationTypes
+                + ", idleSaveInterval=" + idleSaveInterval + ")";
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.mongoplus.context;
 
+import com.mongoplus.context.ContextKey;
 import com.mongoplus.manager.MongoTransactionalManager;
 
 import java.util.Collection;
@@ -12,7 +13,7 @@ public class ShardingTransactionContext {
     /**
      * 当前线程所持有的所有事务
      */
-    private static final ThreadLocal<Map<String, MongoTransactionStatus>> resources = new ThreadLocal<>();
+    private static final ContextKey<Map<String, MongoTransactionStatus>> resources = ContextKey.local("shardingTransactionResources");
 
     /**
      * 获取当前线程持有的所有事务
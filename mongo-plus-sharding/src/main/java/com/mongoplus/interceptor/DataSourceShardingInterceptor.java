@@ -5,6 +5,7 @@ import com.mongodb.client.ClientSession;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongoplus.cache.global.DataSourceNameCache;
+import com.mongoplus.context.ContextKey;
 import com.mongoplus.context.MongoTransactionContext;
 import com.mongoplus.context.MongoTransactionStatus;
 import com.mongoplus.context.ShardingTransactionContext;
@@ -55,7 +56,10 @@ public class DataSourceShardingInterceptor implements Interceptor, AdvancedInter
         this.dataSourceShardingHandler = dataSourceShardingHandler;
     }
 
-    boolean sessionIsNotNull = false;
+    /**
+     * 命中的数据源不是副本集但当前存在事务，拦截器实例是共享的，需要按执行单元记录
+     */
+    private static final ContextKey<Boolean> sessionIsNotNull = ContextKey.local("shardingSessionIsNotNull");
 
     /**
      * {@inheritDoc}
@@ -129,7 +133,7 @@ public class DataSourceShardingInterceptor implements Interceptor, AdvancedInter
                         currentClientSession, mongoClient);
                 MongoTransactionalManager.startTransaction(clientSession,clientSession.getTransactionOptions());
             } else if (currentClientSession != null) {
-                sessionIsNotNull = true;
+                sessionIsNotNull.set(true);
             }
             // 拿到新数据源的Collection
             MongoCollection<Document> newCollection = mongoPlusClient.getCollection(
@@ -145,8 +149,8 @@ public class DataSourceShardingInterceptor implements Interceptor, AdvancedInter
     public Object intercept(Invocation invocation) throws Throwable {
         Method method = invocation.getMethod();
         Object[] args = invocation.getArgs();
-        if (sessionIsNotNull){
-            sessionIsNotNull = false;
+        if (sessionIsNotNull.get() != null){
+            sessionIsNotNull.remove();
             DefaultExecute execute = new DefaultExecute();
             return method.invoke(execute,args);
         }
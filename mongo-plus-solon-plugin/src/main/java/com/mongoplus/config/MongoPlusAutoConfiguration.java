@@ -6,6 +6,7 @@ import com.mongoplus.cache.global.ConversionCache;
 import com.mongoplus.cache.global.HandlerCache;
 import com.mongoplus.cache.global.ListenerCache;
 import com.mongoplus.cache.global.MappingCache;
+import com.mongoplus.cache.global.PropertyCache;
 import com.mongoplus.domain.MongoPlusConvertException;
 import com.mongoplus.handlers.CollectionNameHandler;
 import com.mongoplus.handlers.IdGenerateHandler;
@@ -15,6 +16,7 @@ import com.mongoplus.handlers.collection.AnnotationOperate;
 import com.mongoplus.incrementer.IdentifierGenerator;
 import com.mongoplus.incrementer.id.AbstractIdGenerateHandler;
 import com.mongoplus.incrementer.id.IdWorker;
+import com.mongoplus.incrementer.id.WorkerIdLease;
 import com.mongoplus.interceptor.AdvancedInterceptor;
 import com.mongoplus.interceptor.AdvancedInterceptorChain;
 import com.mongoplus.interceptor.Interceptor;
@@ -38,6 +40,7 @@ import com.mongoplus.strategy.conversion.ConversionStrategy;
 import com.mongoplus.strategy.mapping.MappingStrategy;
 import com.mongoplus.toolkit.AutoUtil;
 import com.mongoplus.toolkit.CollUtil;
+import com.mongoplus.toolkit.StringUtils;
 import org.noear.solon.Solon;
 import org.noear.solon.core.AppContext;
 
@@ -246,7 +249,11 @@ public class MongoPlusAutoConfiguration {
     private void setIdGenerator(AppContext context) {
         try {
             IdWorker.setIdentifierGenerator(context.getBean(IdentifierGenerator.class));
+            return;
         } catch (Exception ignored){}
+        if (StringUtils.isNotBlank(PropertyCache.workerIdLeaseCollection)) {
+            WorkerIdLease.acquire(mongoPlusClient.getCollection((String) null, PropertyCache.workerIdLeaseCollection));
+        }
     }
 
     /**
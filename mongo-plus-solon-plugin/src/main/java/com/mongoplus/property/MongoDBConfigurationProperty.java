@@ -1,6 +1,7 @@
 package com.mongoplus.property;
 
 import com.mongoplus.cache.global.PropertyCache;
+import com.mongoplus.enums.LikeStrategy;
 
 /**
  * configuration属性配置
@@ -32,6 +33,81 @@ public class MongoDBConfigurationProperty {
      */
     private Boolean autoConvertObjectId = true;
 
+    /**
+     * 多个更新条件合并为bulkWrite时，每次bulkWrite的最大条件数量，小于等于0时不拆分
+     */
+    private Integer updateBatchSize = 1000;
+
+    /**
+     * 多个更新条件合并为bulkWrite时是否有序执行
+     */
+    private Boolean updateBatchOrdered = true;
+
+    /**
+     * 分页查询时总数和数据是否并发查询，总数在异步线程中查询，调用方的ThreadLocal（如租户处理器读取的当前用户）不会传递
+     */
+    private Boolean pageConcurrentCount = false;
+
+    /**
+     * 查询实体时是否使用实体编解码器直接解码
+     */
+    private Boolean entityCodec = false;
+
+    /**
+     * like条件的全局构建策略
+     */
+    private LikeStrategy likeStrategy = LikeStrategy.CASE_INSENSITIVE;
+
+    /**
+     * like条件使用排序规则时的排序规则语言，如en、zh
+     */
+    private String likeCollationLocale;
+
+    /**
+     * 查询结果缓存的最大条数
+     */
+    private Integer queryCacheMaximumSize = 10000;
+
+    /**
+     * 根据id批量加载的等待时间（毫秒），默认0不合并
+     */
+    private Integer idBatchWindow = 0;
+
+    /**
+     * 根据id批量加载的最大批量
+     */
+    private Integer idBatchMaximumSize = 1000;
+
+    /**
+     * 保存变更流恢复令牌的集合
+     */
+    private String resumeTokenCollection = "mongo_plus_resume_token";
+
+    /**
+     * 批量新增每个分块的最大条数
+     */
+    private Integer saveBatchSize = 1000;
+
+    /**
+     * 批量新增每个分块编码后的最大字节数
+     */
+    private Integer saveBatchMaxBytes = 0;
+
+    /**
+     * 批量新增的并行度
+     */
+    private Integer saveBatchParallelism = 1;
+
+    /**
+     * 自增id的号段大小
+     */
+    private Integer autoIdBlockSize = 1;
+
+    /**
+     * 保存雪花算法机器标识租约的集合
+     */
+    private String workerIdLeaseCollection;
+
     /**
      * 自动创建索引
      */
@@ -50,6 +126,141 @@ public class MongoDBConfigurationProperty {
         this.autoCreateTimeSeries = autoCreateTimeSeries;
     }
 
+    public Integer getUpdateBatchSize() {
+        return updateBatchSize;
+    }
+
+    public void setUpdateBatchSize(Integer updateBatchSize) {
+        PropertyCache.updateBatchSize = updateBatchSize;
+        this.updateBatchSize = updateBatchSize;
+    }
+
+    public Boolean getUpdateBatchOrdered() {
+        return updateBatchOrdered;
+    }
+
+    public void setUpdateBatchOrdered(Boolean updateBatchOrdered) {
+        PropertyCache.updateBatchOrdered = updateBatchOrdered;
+        this.updateBatchOrdered = updateBatchOrdered;
+    }
+
+    public Boolean getPageConcurrentCount() {
+        return pageConcurrentCount;
+    }
+
+    public void setPageConcurrentCount(Boolean pageConcurrentCount) {
+        PropertyCache.pageConcurrentCount = pageConcurrentCount;
+        this.pageConcurrentCount = pageConcurrentCount;
+    }
+
+    public Boolean getEntityCodec() {
+        return entityCodec;
+    }
+
+    public void setEntityCodec(Boolean entityCodec) {
+        PropertyCache.entityCodec = entityCodec;
+        this.entityCodec = entityCodec;
+    }
+
+    public LikeStrategy getLikeStrategy() {
+        return likeStrategy;
+    }
+
+    public void setLikeStrategy(LikeStrategy likeStrategy) {
+        PropertyCache.likeStrategy = likeStrategy;
+        this.likeStrategy = likeStrategy;
+    }
+
+    public String getLikeCollationLocale() {
+        return likeCollationLocale;
+    }
+
+    public void setLikeCollationLocale(String likeCollationLocale) {
+        PropertyCache.likeCollationLocale = likeCollationLocale;
+        this.likeCollationLocale = likeCollationLocale;
+    }
+
+    public Integer getQueryCacheMaximumSize() {
+        return queryCacheMaximumSize;
+    }
+
+    public void setQueryCacheMaximumSize(Integer queryCacheMaximumSize) {
+        PropertyCache.queryCacheMaximumSize = queryCacheMaximumSize;
+        this.queryCacheMaximumSize = queryCacheMaximumSize;
+    }
+
+    public Integer getIdBatchWindow() {
+        return idBatchWindow;
+    }
+
+    public void setIdBatchWindow(Integer idBatchWindow) {
+        PropertyCache.idBatchWindow = idBatchWindow;
+        this.idBatchWindow = idBatchWindow;
+    }
+
+    public Integer getIdBatchMaximumSize() {
+        return idBatchMaximumSize;
+    }
+
+    public void setIdBatchMaximumSize(Integer idBatchMaximumSize) {
+        PropertyCache.idBatchMaximumSize = idBatchMaximumSize;
+        this.idBatchMaximumSize = idBatchMaximumSize;
+    }
+
+    public String getResumeTokenCollection() {
+        return resumeTokenCollection;
+    }
+
+    public void setResumeTokenCollection(String resumeTokenCollection) {
+        PropertyCache.resumeTokenCollection = resumeTokenCollection;
+        this.resumeTokenCollection = resumeTokenCollection;
+    }
+
+    public Integer getSaveBatchSize() {
+        return saveBatchSize;
+    }
+
+    public void setSaveBatchSize(Integer saveBatchSize) {
+        PropertyCache.saveBatchSize = saveBatchSize;
+        this.saveBatchSize = saveBatchSize;
+    }
+
+    public Integer getSaveBatchMaxBytes() {
+        return saveBatchMaxBytes;
+    }
+
+    public void setSaveBatchMaxBytes(Integer saveBatchMaxBytes) {
+        PropertyCache.saveBatchMaxBytes = saveBatchMaxBytes;
+        this.saveBatchMaxBytes = saveBatchMaxBytes;
+    }
+
+    public Integer getSaveBatchParallelism() {
+        return saveBatchParallelism;
+    }
+
+    public void setSaveBatchParallelism(Integer saveBatchParallelism) {
+        PropertyCache.saveBatchParallelism = saveBatchParallelism;
+        this.saveBatchParallelism = saveBatchParallelism;
+    }
+
+    public Integer getAutoIdBlockSize() {
+        return autoIdBlockSize;
+    }
+
+    public void setAutoIdBlockSize(Integer autoIdBlockSize) {
+        PropertyCache.autoIdBlockSize = autoIdBlockSize;
+        this.autoIdBlockSize = autoIdBlockSize;
+    }
+
+    public String getWorkerIdLeaseCollection() {
+        return workerIdLeaseCollection;
+    }
+
+    public void setWorkerIdLeaseCollection(String workerIdLeaseCollection) {
+        PropertyCache.workerIdLeaseCollection = workerIdLeaseCollection;
+        this.workerIdLeaseCollection = workerIdLeaseCollection;
+    }
+
     public Boolean getAutoCreateIndex() {
         return autoCreateIndex;
     }